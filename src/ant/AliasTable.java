@@ -0,0 +1,121 @@
+/*
+ * Created on 2026-10-19 by Pavani.
+ */
+package ant;
+
+import java.util.Arrays;
+
+/**
+ * Alias table of the candidates of a next hop selector (Vose's method), which samples
+ * the distribution of the weights in constant time with a single random number.
+ * It is worth building only for the distributions that are sampled several times before
+ * they change, e.g., the pheromone levels of a destination between two updates by the
+ * ants, so it is kept with the version of the levels used to build it.
+ *
+ * @author Gustavo Sousa Pavani
+ * @version 1.0
+ */
+public class AliasTable {
+	/** The ids of the candidates. */
+	protected String[] keys;
+	/** The probability of keeping each column instead of taking its alias. */
+	protected double[] probability;
+	/** The alias of each column. */
+	protected int[] alias;
+	/** The columns with probability below the average, during the construction. */
+	protected int[] small;
+	/** The columns with probability above the average, during the construction. */
+	protected int[] large;
+	/** The number of candidates. */
+	protected int size;
+	/** The version of the weights used to build the table. -1, if not built. */
+	protected long version;
+
+	/**
+	 * Creates a new empty AliasTable object.
+	 */
+	public AliasTable() {
+		keys = new String[0];
+		probability = new double[0];
+		alias = new int[0];
+		small = new int[0];
+		large = new int[0];
+		version = -1L;
+	}
+
+	/**
+	 * Builds the table from the weights of the candidates of the specified selector.
+	 * @param selector The selector with the candidates.
+	 * @param aVersion The version of the weights.
+	 */
+	public void build(NextHopSelector selector, long aVersion) {
+		size = selector.size();
+		version = aVersion;
+		if (keys.length < size) {
+			keys = new String[size];
+			probability = new double[size];
+			alias = new int[size];
+			small = new int[size];
+			large = new int[size];
+		}
+		System.arraycopy(selector.keys,0,keys,0,size);
+		Arrays.fill(keys,size,keys.length,null);
+		double total = selector.getTotal();
+		int smalls = 0;
+		int larges = 0;
+		//Scale the probabilities, so the average is one
+		for (int i=0; i < size; i++) {
+			probability[i] = (total > 0.0) ? (selector.getWeight(i) * size) / total : 1.0;
+			alias[i] = i;
+			if (probability[i] < 1.0)
+				small[smalls++] = i;
+			else
+				large[larges++] = i;
+		}
+		//Fill each small column with an alias to a large one
+		while ((smalls > 0) && (larges > 0)) {
+			int less = small[--smalls];
+			int more = large[--larges];
+			alias[less] = more;
+			probability[more] = (probability[more] + probability[less]) - 1.0;
+			if (probability[more] < 1.0)
+				small[smalls++] = more;
+			else
+				large[larges++] = more;
+		}
+		//The remaining columns are full, apart from rounding
+		while (larges > 0)
+			probability[large[--larges]] = 1.0;
+		while (smalls > 0)
+			probability[small[--smalls]] = 1.0;
+	}
+
+	/**
+	 * Returns the id of a candidate sampled from the distribution of the weights.
+	 * @param sample The random sample, between 0 and 1.
+	 * @return The id of the sampled candidate. Null, if there are no candidates.
+	 */
+	public String sample(double sample) {
+		if (size == 0)
+			return null;
+		double x = sample * size;
+		int column = Math.min((int) x,size - 1);
+		return ((x - column) < probability[column]) ? keys[column] : keys[alias[column]];
+	}
+
+	/**
+	 * Returns the version of the weights used to build the table.
+	 * @return The version of the weights used to build the table. -1, if not built.
+	 */
+	public long getVersion() {
+		return version;
+	}
+
+	/**
+	 * Returns the number of candidates.
+	 * @return The number of candidates.
+	 */
+	public int size() {
+		return size;
+	}
+}
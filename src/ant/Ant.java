@@ -10,6 +10,7 @@ import java.util.List;
 
 import fon.FlexiLink;
 import graph.Path;
+import net.Interner;
 import net.Message;
 
 /**
@@ -26,6 +27,8 @@ public class Ant extends Message {
 	/** True, if the ant has entered a loop. False, otherwise. */
 	protected boolean loopFlag = false;
 	private int bytesPerHop;
+	/** The nodes visited by this ant, in the same order of its path. */
+	protected TabuList tabu;
 
 	
 	/**
@@ -65,6 +68,10 @@ public class Ant extends Message {
 		this.path = aPath;
 		//Disable the record route flag
 		this.setRecordRoute(false);
+		//Rebuild the visited nodes from the path
+		this.tabu = new TabuList();
+		for (int i=0; i < aPath.size(); i++)
+			tabu.add(Interner.node(aPath.getNode(i)));
 	}
 	
 	/**
@@ -82,8 +89,13 @@ public class Ant extends Message {
 		//Call super class
 		super.setNode(procId);
 		//Add the length of the identifier
-		if (recordRoute)
+		if (recordRoute) {
 			this.setLength(this.getLength() + Message.ID_HEADER_LENGTH);
+			//Invoked by the super class constructor before the initialization of the fields
+			if (tabu == null)
+				tabu = new TabuList();
+			tabu.add(Interner.node(procId));
+		}
 	}
 	
 	/**
@@ -103,12 +115,32 @@ public class Ant extends Message {
 	 * False, otherwise.
 	 */
 	public boolean isTabu(String nodeId) {
-		//For all nodes in the path
-		for (String node : path.nodes()) {
-			if (node.equals(nodeId))
-				return true;
+		return tabu.contains(Interner.getNode(nodeId));
+	}
+	
+	/**
+	 * Returns the position of the specified node in the path of the ant.
+	 * @param nodeId The specified node.
+	 * @return The position of the node in the path. -1, if it is not in the path.
+	 */
+	protected int getPosition(String nodeId) {
+		return tabu.position(Interner.getNode(nodeId));
+	}
+	
+	/**
+	 * Returns the position of the processing node in the path of the ant, 
+	 * trying first the positions around the cursor of the hops.
+	 * @return The position of the processing node. -1, if it is not in the path.
+	 */
+	public int getHop() {
+		for (int i = hop - 1; i <= hop + 1; i++) {
+			if ((i >= 0) && (i < tabu.size()) && (tabu.get(i) == procIndex)) {
+				hop = i;
+				return hop;
+			}
 		}
-		return false; //Not found in the tabu list (nodes already visited).
+		hop = tabu.position(procIndex);
+		return hop;
 	}
 	
 	/**
@@ -120,8 +152,8 @@ public class Ant extends Message {
 	 * from a first node.
 	 */
 	public int getSubPathLength(String first, String second) {
-		int index1 = path.getNodePosition(first);
-		int index2 = path.getNodePosition(second);
+		int index1 = this.getPosition(first);
+		int index2 = this.getPosition(second);
 		if (index2 - index1 > 0)
 			return (index2 - index1);
 		else 
@@ -137,7 +169,7 @@ public class Ant extends Message {
 	 * (exclusive) and the last node (inclusive). 
 	 */
 	public List<String> getSubPath(String nodeId) {
-		int index = path.getNodePosition(nodeId);
+		int index = this.getPosition(nodeId);
 		//Accordingly to the ant type do
 		if (type.equals(Message.Type.ANT_FORWARD)) {
 			//Assumes the source node is the last one
@@ -155,7 +187,7 @@ public class Ant extends Message {
 	 * @return
 	 */
 	public List<String> getSubPath() {
-		int index = path.getNodePosition(this.procNode);
+		int index = this.getHop();
 		return path.nodes().subList(index+1,path.size());
 	}
 
@@ -166,8 +198,8 @@ public class Ant extends Message {
 	 * @return 
 	 */
 	public List<String> getInclusiveSubPath(String first, String second) {
-		int index1 = path.getNodePosition(first);
-		int index2 = path.getNodePosition(second);
+		int index1 = this.getPosition(first);
+		int index2 = this.getPosition(second);
 		if (index2>index1)
 			return path.nodes().subList(index1,index2+1);
 		else
@@ -180,14 +212,12 @@ public class Ant extends Message {
 	 * is the source node.
 	 */
 	public String getBackwardNode() {
-		int counter = 0;
-		for (String node : path.nodes()) {
-			if (node.equals(procNode) && !procNode.equals(source)) {
-				return path.getNode(counter - 1);
-			}
-			counter ++; //Increment the counter
-		}
-		return null; // In case of an error!
+		if (procNode.equals(source))
+			return null;
+		int position = this.getHop();
+		if (position == -1)
+			return null; // In case of an error!
+		return Interner.label(tabu.get(position - 1));
 	}
 
 	/**
@@ -196,14 +226,12 @@ public class Ant extends Message {
 	 * is the target node.
 	 */
 	public String getForwardNode() {
-		int counter = 0;
-		for (String node : path.nodes()) {
-			if (node.equals(procNode) && !procNode.equals(source)) {
-				return path.getNode(counter + 1);
-			}
-			counter ++; //Increment the counter
-		}
-		return null; // In case of an error!
+		if (procNode.equals(source))
+			return null;
+		int position = this.getHop();
+		if ((position == -1) || (position + 1 >= tabu.size()))
+			return null; // In case of an error!
+		return Interner.label(tabu.get(position + 1));
 	}
 	
 	/**
@@ -212,8 +240,8 @@ public class Ant extends Message {
 	 * is the source node.
 	 */
 	public String getLastVisitedNode() {
-		if (path.size() > 1)
-			return path.getNode(path.size() - 2);
+		if (tabu.size() > 1)
+			return Interner.label(tabu.get(tabu.size() - 2));
 		return null;
 	}
 	
@@ -239,11 +267,12 @@ public class Ant extends Message {
 	 */
 	public int destroyLoop(String id) {
 		int size = path.size();
-		int index = path.getNodePosition(id);
+		int index = this.getPosition(id);
 		if (index != -1) { //Loop detected
 			for (int i=1; i <= (size-index); i++) { //starts from the last till the specified node
 				path.removeNodeAt(size - i);
 			}
+			tabu.truncate(index);
 		}
 		return (size - index);
 	}	
@@ -319,7 +348,9 @@ public class Ant extends Message {
 		if (content != null) {
 			clone.content = new ArrayList<Double>((ArrayList<Double>)content);
 		}
-		clone.path = (Path) path.clone();		
+		clone.path = (Path) path.clone();
+		clone.tabu = new TabuList(tabu);
+		clone.hop = hop;
 		return clone;
 	}
 	
@@ -12,6 +12,10 @@ public class NeighborAttr implements Serializable, Comparable<NeighborAttr>{
 	private Object id;
 	/** The pheromone level of the link between the node and the neighbor. */ 
 	private double pheromone;
+	/** The pheromone matrix that holds the level, if bound to one. */
+	private PheromoneMatrix matrix;
+	/** The cell of the level in the pheromone matrix. */
+	private int cell;
 	/** Default value for pheromone. */
 	private final static double DEFAULT_LEVEL = 0;  
 	
@@ -38,6 +42,8 @@ public class NeighborAttr implements Serializable, Comparable<NeighborAttr>{
 	 * @return The pheromone level of the link between the node and the neighbor.
 	 */
 	public double getPheromoneLevel() {
+		if (matrix != null)
+			return matrix.levels[cell];
 		return pheromone;
 	}
 
@@ -46,7 +52,21 @@ public class NeighborAttr implements Serializable, Comparable<NeighborAttr>{
 	 * @param level The new level of pheromone.
 	 */
 	public void setPheromoneLevel(double level) {
-		pheromone = level;
+		if (matrix != null)
+			matrix.levels[cell] = level;
+		else
+			pheromone = level;
+	}
+	
+	/**
+	 * Binds the pheromone level to the specified cell of a pheromone matrix,
+	 * which must already hold the actual level.
+	 * @param aMatrix The pheromone matrix.
+	 * @param aCell The cell of the level.
+	 */
+	void bind(PheromoneMatrix aMatrix, int aCell) {
+		matrix = aMatrix;
+		cell = aCell;
 	}
 		
 	/**
@@ -58,7 +78,7 @@ public class NeighborAttr implements Serializable, Comparable<NeighborAttr>{
 		buffer.append("Id: ");
 		buffer.append(id);
 		buffer.append(" ,level: ");
-		buffer.append(pheromone);
+		buffer.append(this.getPheromoneLevel());
 		return buffer.toString();
 	}
 
@@ -68,9 +88,10 @@ public class NeighborAttr implements Serializable, Comparable<NeighborAttr>{
 	 */
 	@Override
 	public int compareTo(NeighborAttr attr) {
-		if (this.pheromone < attr.getPheromoneLevel()) 
+		double level = this.getPheromoneLevel();
+		if (level < attr.getPheromoneLevel()) 
 			return -1;
-		else if (this.pheromone > attr.getPheromoneLevel())
+		else if (level > attr.getPheromoneLevel())
 			return 1;
 		else //equal
 			return 0;
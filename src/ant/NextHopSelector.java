@@ -0,0 +1,303 @@
+/*
+ * Created on 2026-10-19 by Pavani.
+ */
+package ant;
+
+import java.util.Arrays;
+
+/**
+ * Selector of the next hop among the candidate neighbors of a node, shared by the
+ * forwarding of the ants and by the routing of the RSVP messages. The candidates are
+ * added with their weights, e.g., the pheromone levels, and optionally a heuristic value,
+ * e.g., the free slots of the link, into scratch buffers that are reused by all the
+ * decisions of the node, so a decision allocates nothing after the buffers have grown
+ * to the degree of the node.
+ * <p>
+ * The stochastic selection spins the wheel over the prefix sums of the weights, and the
+ * deterministic one finds the candidate with the highest weight in a single pass instead
+ * of sorting all the candidates. Only when the highest weight is tied, the top is selected
+ * by the same partitioning as the sort, so the same neighbor is chosen.
+ *
+ * @author Gustavo Sousa Pavani
+ * @version 1.0
+ */
+public class NextHopSelector {
+	/** The initial capacity of the scratch buffers. */
+	public static final int CAPACITY = 8;
+	/** Returned by best(), if the highest weight is tied. */
+	public static final int TIE = -2;
+	/** The ids of the candidates. */
+	protected String[] keys;
+	/** The weights of the candidates. */
+	protected double[] weights;
+	/** The heuristic values of the candidates. */
+	protected double[] heuristics;
+	/** The prefix sums of the weights. */
+	protected double[] prefix;
+	/** The order of the candidates during the selection of a tied top. */
+	protected int[] order;
+	/** The number of candidates. */
+	protected int size;
+	/** The sum of the weights, in the order of the candidates. */
+	protected double total;
+	/** The sum of the heuristic values, in the order of the candidates. */
+	protected double heuristicTotal;
+
+	/**
+	 * Creates a new NextHopSelector object.
+	 */
+	public NextHopSelector() {
+		keys = new String[CAPACITY];
+		weights = new double[CAPACITY];
+		heuristics = new double[CAPACITY];
+		prefix = new double[CAPACITY];
+		order = new int[CAPACITY];
+	}
+
+	/**
+	 * Removes all the candidates, keeping the buffers.
+	 */
+	public void clear() {
+		Arrays.fill(keys,0,size,null);
+		size = 0;
+		total = 0.0;
+		heuristicTotal = 0.0;
+	}
+
+	/**
+	 * Adds a candidate.
+	 * @param key The id of the neighbor.
+	 * @param weight The weight of the neighbor.
+	 */
+	public void add(String key, double weight) {
+		this.add(key,weight,0.0);
+	}
+
+	/**
+	 * Adds a candidate with a heuristic value.
+	 * @param key The id of the neighbor.
+	 * @param weight The weight of the neighbor.
+	 * @param heuristic The heuristic value of the neighbor.
+	 */
+	public void add(String key, double weight, double heuristic) {
+		if (size == keys.length) {
+			keys = Arrays.copyOf(keys,2 * size);
+			weights = Arrays.copyOf(weights,2 * size);
+			heuristics = Arrays.copyOf(heuristics,2 * size);
+			prefix = new double[2 * size];
+			order = new int[2 * size];
+		}
+		keys[size] = key;
+		weights[size] = weight;
+		heuristics[size] = heuristic;
+		total = total + weight;
+		heuristicTotal = heuristicTotal + heuristic;
+		size++;
+	}
+
+	/**
+	 * Returns the number of candidates.
+	 * @return The number of candidates.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the id of the specified candidate.
+	 * @param index The index of the candidate.
+	 * @return The id of the candidate.
+	 */
+	public String getKey(int index) {
+		return keys[index];
+	}
+
+	/**
+	 * Returns the weight of the specified candidate.
+	 * @param index The index of the candidate.
+	 * @return The weight of the candidate.
+	 */
+	public double getWeight(int index) {
+		return weights[index];
+	}
+
+	/**
+	 * Sets the weight of the specified candidate, e.g., its probability calculated from the totals.
+	 * The sum of the weights is not updated.
+	 * @param index The index of the candidate.
+	 * @param weight The new weight of the candidate.
+	 */
+	public void setWeight(int index, double weight) {
+		weights[index] = weight;
+	}
+
+	/**
+	 * Returns the heuristic value of the specified candidate.
+	 * @param index The index of the candidate.
+	 * @return The heuristic value of the candidate.
+	 */
+	public double getHeuristic(int index) {
+		return heuristics[index];
+	}
+
+	/**
+	 * Returns the sum of the weights added.
+	 * @return The sum of the weights added.
+	 */
+	public double getTotal() {
+		return total;
+	}
+
+	/**
+	 * Returns the sum of the heuristic values added.
+	 * @return The sum of the heuristic values added.
+	 */
+	public double getHeuristicTotal() {
+		return heuristicTotal;
+	}
+
+	/**
+	 * Divides the weights by their sum, so they become a probability distribution.
+	 */
+	public void normalize() {
+		for (int i=0; i < size; i++)
+			weights[i] = weights[i] / total;
+	}
+
+	/**
+	 * Spins the wheel, i.e., returns the first candidate whose prefix sum of the weights
+	 * reaches the sample. The weights must be a probability distribution.
+	 * @param sample The random sample, between 0 and 1.
+	 * @return The index of the chosen candidate. -1, if there are no candidates.
+	 */
+	public int roulette(double sample) {
+		if (size == 0)
+			return -1;
+		double sum = weights[0];
+		prefix[0] = sum;
+		for (int i=1; i < size; i++) {
+			sum = sum + weights[i];
+			prefix[i] = sum;
+		}
+		for (int i=0; i < size; i++) {
+			//Not below the sample, which also stops at an undefined weight
+			if (!(prefix[i] < sample))
+				return i;
+		}
+		//Rounding of the sum below the sample
+		return size - 1;
+	}
+
+	/**
+	 * Returns the first candidate that takes the running maximum of the weights above the sample,
+	 * or the candidate with the highest weight, if none does.
+	 * @param sample The random sample, between 0 and 1.
+	 * @return The index of the chosen candidate. -1, if there are no candidates.
+	 */
+	public int greedy(double sample) {
+		if (size == 0)
+			return -1;
+		double maxValue = 0.0;
+		int n = 0;
+		for (int i=0; i < size; i++) {
+			if (weights[i] > maxValue) {
+				maxValue = weights[i];
+				n = i;
+			}
+			if (maxValue > sample)
+				break;
+		}
+		return n;
+	}
+
+	/**
+	 * Returns the candidate with the highest weight, i.e., the top of the sorted candidates.
+	 * @return The index of the candidate with the highest weight. TIE, if it is tied with another one
+	 * or the weights are not comparable. -1, if there are no candidates.
+	 */
+	public int best() {
+		if (size == 0)
+			return -1;
+		int n = 0;
+		boolean tied = false;
+		for (int i=0; i < size; i++) {
+			if (Double.isNaN(weights[i]))
+				return TIE;
+			if (i == 0)
+				continue;
+			if (weights[i] > weights[n]) {
+				n = i;
+				tied = false;
+			} else if (weights[i] == weights[n]) {
+				tied = true;
+			}
+		}
+		return tied ? TIE : n;
+	}
+
+	/**
+	 * Returns the id of the candidate with the highest weight, e.g., the pheromone level.
+	 * Tied weights are resolved as by sorting the candidates in a decreasing order of weight.
+	 * @return The id of the candidate with the highest weight. Null, if there are no candidates.
+	 */
+	public String first() {
+		int n = this.best();
+		if (n == -1)
+			return null;
+		if (n == TIE)
+			n = this.top();
+		return keys[n];
+	}
+
+	/**
+	 * Returns the first of the candidates sorted in a decreasing order of weight by util.QuickSort,
+	 * without sorting them. The 3-way partitioning (Bentley-McIlroy) of the sort is applied to
+	 * the order of the candidates, but only the partition of the top is partitioned again.
+	 * @return The index of the first of the sorted candidates.
+	 */
+	protected int top() {
+		for (int k=0; k < size; k++)
+			order[k] = k;
+		int l = 0;
+		int r = size - 1;
+		while (r > l) {
+			double v = weights[order[r]];
+			int i = l-1, j = r, p = l-1, q = r, k;
+			for (;;) {
+				while (weights[order[++i]] > v) ;
+				while (v > weights[order[--j]]) if (j == l) break;
+				if (i >= j) break;
+				this.exch(i,j);
+				if (equal(weights[order[i]],v)) { p++; this.exch(p,i); }
+				if (equal(v,weights[order[j]])) { q--; this.exch(q,j); }
+			}
+			this.exch(i,r); j = i-1; i = i+1;
+			for (k = l  ; k <= p; k++,j--) this.exch(k,j);
+			for (k = r-1; k >= q; k--,i++) this.exch(k,i);
+			//The top is in the partition of the higher weights, if not empty
+			r = j;
+		}
+		return order[l];
+	}
+
+	/**
+	 * Swaps two positions of the order of the candidates.
+	 * @param i The first position.
+	 * @param j The second position.
+	 */
+	private void exch(int i, int j) {
+		int swap = order[i];
+		order[i] = order[j];
+		order[j] = swap;
+	}
+
+	/**
+	 * Verifies if two weights are equal, as compared by NeighborAttr, i.e., an undefined weight is equal to any other.
+	 * @param weight1 The first weight.
+	 * @param weight2 The second weight.
+	 * @return True, if neither weight is less than the other one. False, otherwise.
+	 */
+	private static boolean equal(double weight1, double weight2) {
+		return !(weight1 < weight2) && !(weight1 > weight2);
+	}
+}
@@ -0,0 +1,231 @@
+/*
+ * Created on 2026-10-19 by Pavani.
+ */
+package ant;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+
+import net.Interner;
+import net.RoutingTableEntry;
+
+/**
+ * Dense matrix of the pheromone levels of a node, with one row per destination and one
+ * column per position of the neighbors in the routing table entries, stored in a single
+ * array of primitives. The rows are the indexes of the destinations in the routing table
+ * and the columns are the positions of the neighbors in each entry, which are kept when a
+ * neighbor is removed, so the matrix is rebuilt only when the topology changes.
+ * <p>
+ * The NeighborAttr objects of the routing table are bound to the cells of the matrix,
+ * so they read and write the same levels as the array loops of the updates.
+ * A copy of the levels can be taken and restored, e.g., for checkpointing the routing table.
+ *
+ * @author Gustavo Sousa Pavani
+ * @version 1.0
+ */
+public class PheromoneMatrix implements Serializable {
+	/** Serial version UID. */
+	private static final long serialVersionUID = 1L;
+	/** The pheromone levels, indexed by row * width + column. */
+	protected double[] levels;
+	/** The number of columns of each row. */
+	protected int width;
+	/** The columns of the actual neighbors of each row, in the order of the routing table entry. */
+	protected int[][] columns;
+	/** The interned neighbor of each cell. Interner.NONE, if not used. */
+	protected int[] neighbors;
+	/** The row of each interned destination. -1, if it is not a destination. */
+	protected int[] rows;
+	/** The version of the levels of each row, incremented after each update of the row. */
+	protected long[] versions;
+
+	/**
+	 * Creates a new PheromoneMatrix object with the levels of the specified routing table
+	 * and binds its NeighborAttr objects to the matrix.
+	 * @param destinationMap The mapping between the destinations and the indexes of the routing table.
+	 * @param destination The routing table entries of the destinations.
+	 */
+	public PheromoneMatrix(LinkedHashMap<String,Integer> destinationMap, RoutingTableEntry[] destination) {
+		width = 0;
+		for (RoutingTableEntry entry : destination)
+			width = Math.max(width,entry.capacity());
+		levels = new double[destination.length * width];
+		neighbors = new int[levels.length];
+		Arrays.fill(neighbors,Interner.NONE);
+		columns = new int[destination.length][];
+		versions = new long[destination.length];
+		//Intern the destinations before sizing their rows
+		for (String destId : destinationMap.keySet())
+			Interner.node(destId);
+		rows = new int[Interner.nodes()];
+		Arrays.fill(rows,-1);
+		for (String destId : destinationMap.keySet()) {
+			int row = destinationMap.get(destId);
+			rows[Interner.node(destId)] = row;
+			RoutingTableEntry entry = destination[row];
+			columns[row] = new int[entry.size()];
+			int counter = 0;
+			for (String neighId : entry.neighborhood()) {
+				int column = entry.position(neighId);
+				int cell = (row * width) + column;
+				columns[row][counter++] = column;
+				neighbors[cell] = Interner.node(neighId);
+				NeighborAttr attr = (NeighborAttr) entry.getEntry(neighId);
+				levels[cell] = attr.getPheromoneLevel();
+				attr.bind(this,cell);
+			}
+		}
+	}
+
+	/**
+	 * Returns the row of the specified destination.
+	 * @param node The interned destination.
+	 * @return The row of the destination. -1, if it is not a destination.
+	 */
+	public int row(int node) {
+		if ((node < 0) || (node >= rows.length))
+			return -1;
+		return rows[node];
+	}
+
+	/**
+	 * Returns the column of the specified neighbor in the specified row.
+	 * @param row The row.
+	 * @param node The interned neighbor.
+	 * @return The column of the neighbor. -1, if it is not a neighbor.
+	 */
+	public int column(int row, int node) {
+		int offset = row * width;
+		for (int column : columns[row]) {
+			if (neighbors[offset + column] == node)
+				return column;
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns the number of rows, i.e., of destinations.
+	 * @return The number of rows.
+	 */
+	public int size() {
+		return columns.length;
+	}
+
+	/**
+	 * Returns the number of columns of each row.
+	 * @return The number of columns of each row.
+	 */
+	public int width() {
+		return width;
+	}
+
+	/**
+	 * Marks the levels of the specified row as updated.
+	 * @param row The row.
+	 */
+	public void touch(int row) {
+		versions[row]++;
+	}
+
+	/**
+	 * Returns the version of the levels of the specified row, which changes after each update of the row.
+	 * @param row The row.
+	 * @return The version of the levels of the row.
+	 */
+	public long version(int row) {
+		return versions[row];
+	}
+
+	/**
+	 * Returns the columns of the actual neighbors of the specified row.
+	 * @param row The row.
+	 * @return The columns of the actual neighbors of the row. It must not be modified.
+	 */
+	public int[] columns(int row) {
+		return columns[row];
+	}
+
+	/**
+	 * Returns the first cell of the specified row.
+	 * @param row The row.
+	 * @return The first cell of the row.
+	 */
+	public int offset(int row) {
+		return row * width;
+	}
+
+	/**
+	 * Returns the interned neighbor of the specified cell.
+	 * @param cell The cell.
+	 * @return The interned neighbor of the cell. Interner.NONE, if not used.
+	 */
+	public int neighbor(int cell) {
+		return neighbors[cell];
+	}
+
+	/**
+	 * Returns the pheromone levels, indexed by row * width + column, for the array loops of the updates.
+	 * @return The pheromone levels.
+	 */
+	public double[] getLevels() {
+		return levels;
+	}
+
+	/**
+	 * Returns the pheromone level of the specified cell.
+	 * @param cell The cell.
+	 * @return The pheromone level of the cell.
+	 */
+	public double get(int cell) {
+		return levels[cell];
+	}
+
+	/**
+	 * Sets the pheromone level of the specified cell.
+	 * @param cell The cell.
+	 * @param level The new pheromone level.
+	 */
+	public void set(int cell, double level) {
+		levels[cell] = level;
+	}
+
+	/**
+	 * Returns a copy of the pheromone levels.
+	 * @return A copy of the pheromone levels.
+	 */
+	public double[] snapshot() {
+		return levels.clone();
+	}
+
+	/**
+	 * Restores the pheromone levels from a copy taken by snapshot(), with the same topology.
+	 * @param snapshot The copy of the pheromone levels.
+	 */
+	public void restore(double[] snapshot) {
+		System.arraycopy(snapshot,0,levels,0,levels.length);
+		for (int row=0; row < versions.length; row++)
+			versions[row]++;
+	}
+
+	/**
+	 * Returns a String representation of this object.
+	 */
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		for (int row=0; row < columns.length; row++) {
+			builder.append("Row ");
+			builder.append(row);
+			builder.append(":");
+			for (int column : columns[row]) {
+				int cell = (row * width) + column;
+				builder.append(" ");
+				builder.append(Interner.label(neighbors[cell]));
+				builder.append("=");
+				builder.append(levels[cell]);
+			}
+			builder.append("\n");
+		}
+		return builder.toString();
+	}
+}
@@ -40,6 +40,10 @@ public class PheromoneRoutingTable extends LocalRoutingTable {
 	/** It weights the relative importance of the heuristic correction 
 	 * with respect to the pheromone values stored in the routing table.*/
 	protected double alpha;
+	/** The dense pheromone levels of the routing table. */
+	protected PheromoneMatrix pheromones;
+	/** The next hop selector reused by the decisions of this node. */
+	protected transient NextHopSelector selector;
 	
 	/**
 	 * Creates a new PheromoneRoutingTable object.
@@ -152,6 +156,16 @@ public class PheromoneRoutingTable extends LocalRoutingTable {
 				}				
 			}
 		}		
+		//Move the levels to a new dense matrix
+		pheromones = new PheromoneMatrix(destinationMap,destination);
+	}
+	
+	/**
+	 * Returns the dense pheromone levels of the routing table, e.g., for taking a snapshot.
+	 * @return The dense pheromone levels of the routing table.
+	 */
+	public PheromoneMatrix getPheromones() {
+		return pheromones;
 	}
 
 	/**
@@ -170,7 +184,9 @@ public class PheromoneRoutingTable extends LocalRoutingTable {
 //		System.out.println("Packet: "+packet);
 //		System.out.println("Neighborhood: "+neighborhood);
 //		try {
-		return AntFON.select(neighborhood,msg);
+		if (selector == null)
+			selector = new NextHopSelector();
+		return AntFON.select(neighborhood,msg,selector);
 //		} catch(Exception e){System.out.println("*** "+packet.toString() +" \n"+neighborhood.toString());return null;}
 	}	
 
@@ -4,10 +4,12 @@
 package ant;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Set;
 
 import graph.Graph;
+import net.Interner;
 
 /**
  * It is a table that maintains estimates to other nodes in the network.
@@ -32,6 +34,8 @@ public class StatisticalParametricModel {
 	protected Graph graph;
 	/** Statistical parametric model values. */
 	protected LocalParametricView[] parametricModel;
+	/** The local parametric views of the table, indexed by the interned destinations. */
+	protected LocalParametricView[] views = new LocalParametricView[0];
 	/**
 	 * Creates a new StatisticalParametricModel object.
 	 * @param aNodeId The node identification.
@@ -83,6 +87,10 @@ public class StatisticalParametricModel {
 		LocalParametricView view = new LocalParametricView(exponentialFactor, reductionFactor);
 		//Add it to the table
 		model.put(dest, view);
+		int node = Interner.node(dest);
+		if (node >= views.length)
+			views = Arrays.copyOf(views,Math.max(node + 1,Interner.nodes()));
+		views[node] = view;
 	}
 	
 	/**
@@ -91,6 +99,9 @@ public class StatisticalParametricModel {
 	 */
 	public void removeDestination(String dest) {
 		model.remove(dest);
+		int node = Interner.getNode(dest);
+		if ((node >= 0) && (node < views.length))
+			views[node] = null;
 	}
 	
 	/**
@@ -117,6 +128,28 @@ public class StatisticalParametricModel {
 		return view;
 	}
 	
+	/**
+	 * Returns the local parametric view associated to the specified destination,
+	 * without looking up its identification.
+	 * @param node The interned destination.
+	 * @return The local parametric view associated to the specified destination.
+	 */
+	public LocalParametricView get(int node) {
+		if ((node < views.length) && (views[node] != null))
+			return views[node];
+		//Initialize it, if necessary
+		return this.get(Interner.label(node));
+	}
+	
+	/** Update the local model associated with the specified node.
+	 * @param metric The value of the metric.
+	 * @param node The interned destination.
+	 */
+	public void update(double metric, int node) {
+		//Get the entry and update it
+		this.get(node).update(metric);
+	}
+	
 	/** Update the local model associated with the specified node.
 	 * @param metric The value of the metric.
 	 * @param dest The specified node destination.
@@ -0,0 +1,115 @@
+/*
+ * Created on 2026-10-19 by Pavani.
+ */
+package ant;
+
+import java.util.Arrays;
+
+import net.Interner;
+
+/**
+ * The nodes visited by an ant, kept as a bitset indexed by the interned nodes,
+ * for verifying in constant time if a node is tabu, and as an array of the
+ * interned nodes in the order of the visits, for walking the path by position.
+ * Both are plain arrays, so copying the list for a clone of the ant is cheap.
+ *
+ * @author Gustavo Sousa Pavani
+ * @version 1.0
+ */
+public class TabuList {
+	/** The visited nodes, one bit per interned node. */
+	protected long[] visited;
+	/** The interned nodes in the order of the visits. */
+	protected int[] hops;
+	/** The number of visits. */
+	protected int size;
+
+	/**
+	 * Creates a new empty TabuList object.
+	 */
+	public TabuList() {
+		this.visited = new long[(Interner.nodes() + 63) >>> 6];
+		this.hops = new int[8];
+		this.size = 0;
+	}
+
+	/**
+	 * Creates a new TabuList object with a copy of the specified list.
+	 * @param list The list to be copied.
+	 */
+	public TabuList(TabuList list) {
+		this.visited = list.visited.clone();
+		this.hops = Arrays.copyOf(list.hops,Math.max(list.size,1) + 4);
+		this.size = list.size;
+	}
+
+	/**
+	 * Adds a visit to the specified node.
+	 * @param node The interned node.
+	 */
+	public void add(int node) {
+		if (size == hops.length)
+			hops = Arrays.copyOf(hops,2 * size);
+		hops[size++] = node;
+		if ((node >>> 6) >= visited.length)
+			visited = Arrays.copyOf(visited,Math.max((node >>> 6) + 1,(Interner.nodes() + 63) >>> 6));
+		visited[node >>> 6] |= (1L << node);
+	}
+
+	/**
+	 * Returns True, if the specified node has been visited. False, otherwise.
+	 * @param node The interned node.
+	 * @return True, if the specified node has been visited. False, otherwise.
+	 */
+	public boolean contains(int node) {
+		if ((node < 0) || ((node >>> 6) >= visited.length))
+			return false;
+		return (visited[node >>> 6] & (1L << node)) != 0L;
+	}
+
+	/**
+	 * Returns the position of the first visit to the specified node.
+	 * A node that was not visited is rejected by the bitset without scanning.
+	 * @param node The interned node.
+	 * @return The position of the node. -1, if it was not visited.
+	 */
+	public int position(int node) {
+		if (!this.contains(node))
+			return -1;
+		for (int i=0; i < size; i++) {
+			if (hops[i] == node)
+				return i;
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns the interned node at the specified position.
+	 * @param position The position.
+	 * @return The interned node at the specified position.
+	 */
+	public int get(int position) {
+		return hops[position];
+	}
+
+	/**
+	 * Removes the visits from the specified position (inclusive) to the last one.
+	 * @param position The first position removed.
+	 */
+	public void truncate(int position) {
+		for (int i = position; i < size; i++)
+			visited[hops[i] >>> 6] &= ~(1L << hops[i]);
+		size = position;
+		//A node visited before the position may have been cleared, if visited again after it
+		for (int i=0; i < size; i++)
+			visited[hops[i] >>> 6] |= (1L << hops[i]);
+	}
+
+	/**
+	 * Returns the number of visits.
+	 * @return The number of visits.
+	 */
+	public int size() {
+		return size;
+	}
+}
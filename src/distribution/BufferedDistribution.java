@@ -0,0 +1,25 @@
+/*
+ * Created on 2026-10-19 by Pavani.
+ */
+package distribution;
+
+/**
+ * Defines a distribution that can generate its random variates in blocks.
+ * In the buffered mode, a whole block of uniform numbers is drawn at once and
+ * transformed in a tight loop over a primitive array, so that each call of
+ * getServiceTime or getInterarrivalTime is usually just an array read.
+ * The sequence of variates is the same as in the unbuffered mode.
+ *
+ * @author Gustavo Sousa Pavani
+ * @version 1.0
+ */
+public interface BufferedDistribution extends QueueDistribution {
+
+	/**
+	 * Sets the number of variates generated at once. It must be called before the
+	 * first variate is drawn, so that the sequence is not altered.
+	 * @param size The size of the block. Zero, for the unbuffered mode.
+	 */
+	public void setBufferSize(int size);
+
+}
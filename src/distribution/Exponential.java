@@ -10,11 +10,15 @@ import random.MersenneTwister;
  * 
  * @author Pavani
  */
-public class Exponential implements QueueDistribution {
+public class Exponential implements BufferedDistribution {
 	/** Random number generator. */
 	MersenneTwister random;
 	/** The rate parameter. */
 	double rate;
+	/** The block of pre-generated variates. Null, in the unbuffered mode. */
+	double[] buffer;
+	/** The index of the next variate in the block. */
+	int index;
 	
 	/**
 	 * Creates a new Negative Exponential distribution. 
@@ -32,7 +36,11 @@ public class Exponential implements QueueDistribution {
 	 */
 	@Override
 	public double getInterarrivalTime() {
-		return -(Math.log(1.0-random.nextDouble())/rate);
+		if (buffer == null)
+			return -(Math.log(1.0-random.nextDouble())/rate);
+		if (index == buffer.length)
+			this.fill();
+		return buffer[index++];
 	}
 	
 	/**
@@ -43,4 +51,24 @@ public class Exponential implements QueueDistribution {
 	public double getServiceTime() {
 		return this.getInterarrivalTime();
 	}
+
+	/**
+	 * Sets the number of variates generated at once.
+	 * @param size The size of the block. Zero, for the unbuffered mode.
+	 */
+	@Override
+	public void setBufferSize(int size) {
+		buffer = (size > 0) ? new double[size] : null;
+		index = size;
+	}
+
+	/**
+	 * Fills the block with new variates by the inverse transform of a block of uniform numbers.
+	 */
+	protected void fill() {
+		random.nextDoubles(buffer,0,buffer.length);
+		for (int i=0; i < buffer.length; i++)
+			buffer[i] = -(Math.log(1.0-buffer[i])/rate);
+		index = 0;
+	}
 }
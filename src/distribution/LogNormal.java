@@ -11,7 +11,7 @@ import random.MersenneTwister;
  * @author Pavani
  * @version 1.0
  */
-public class LogNormal implements QueueDistribution {
+public class LogNormal implements BufferedDistribution {
 	/** Random number generator. */
 	MersenneTwister random;
 	/** The mean of the distribution. */
@@ -22,6 +22,10 @@ public class LogNormal implements QueueDistribution {
 	boolean lastUsed;
 	/** Last normal random generated. */
 	double lastNormal;
+	/** The block of pre-generated variates. Null, in the unbuffered mode. */
+	double[] buffer;
+	/** The index of the next variate in the block. */
+	int index;
 	
 	/**
 	 * Creates a new LogNormal object.
@@ -42,6 +46,11 @@ public class LogNormal implements QueueDistribution {
 	 */
 	@Override
 	public double getInterarrivalTime() {
+		if (buffer != null) {
+			if (index == buffer.length)
+				this.fill();
+			return buffer[index++];
+		}
 		//random variable drawn from the normal distribution with 0 mean and 1 standard deviation
 		double normal = this.getBoxMullerTransformation();
 		//use the relation between log-normal and normal distributions to generate the log-normal random number
@@ -57,6 +66,31 @@ public class LogNormal implements QueueDistribution {
 		return this.getInterarrivalTime();
 	}
 	
+	/**
+	 * Sets the number of variates generated at once. The size is rounded up to an even
+	 * number, since the normal numbers are generated in pairs.
+	 * @param size The size of the block. Zero, for the unbuffered mode.
+	 */
+	@Override
+	public void setBufferSize(int size) {
+		size = size + (size % 2);
+		buffer = (size > 0) ? new double[size] : null;
+		index = size;
+	}
+	
+	/**
+	 * Fills the block with pairs of normal numbers and then transforms them to log-normal.
+	 */
+	protected void fill() {
+		for (int i=0; i < buffer.length; i = i + 2) {
+			buffer[i] = this.getBoxMullerTransformation(); //draws a new pair
+			buffer[i+1] = this.getBoxMullerTransformation(); //uses the second one
+		}
+		for (int i=0; i < buffer.length; i++)
+			buffer[i] = Math.exp(mean + std_dev*buffer[i]);
+		index = 0;
+	}
+	
 	/**
 	 * Returns a normal distributed random number using the polar form of the Box-Muller transformation, with 0 mean and 1 standard deviation.
 	 * @return A normal distributed random number using the polar form of the Box-Muller transformation, with 0 mean and 1 standard deviation.
@@ -13,13 +13,17 @@ import random.*;
  * @author Gustavo Sousa Pavani
  * @version 1.0 
  */
-public class Poissonian implements QueueDistribution {
+public class Poissonian implements BufferedDistribution {
 	/** Average service rate. */
 	public double mu;
 	/** Average interarrival rate. */	 
 	public double lambda;
 	/** Random number generator. */
 	public MersenneTwister random;
+	/** The block of pre-generated logarithms of uniform numbers. Null, in the unbuffered mode. */
+	protected double[] buffer;
+	/** The index of the next logarithm in the block. */
+	protected int index;
 	
 	/**
 	 * Gets a new Poissonian traffic source with default random seed.
@@ -49,7 +53,11 @@ public class Poissonian implements QueueDistribution {
 	 * @return The service (duration) time of the next request.
 	 */
 	public double getServiceTime() {
-		return -(Math.log(1.0-random.nextDouble())/mu);
+		if (buffer == null)
+			return -(Math.log(1.0-random.nextDouble())/mu);
+		if (index == buffer.length)
+			this.fill();
+		return -(buffer[index++]/mu);
 	}
 	
 	/**
@@ -57,7 +65,33 @@ public class Poissonian implements QueueDistribution {
 	 * @return The interarrival time between this and the next request.
 	 */
 	public double getInterarrivalTime() {
-		return -(Math.log(1.0-random.nextDouble())/lambda);	
+		if (buffer == null)
+			return -(Math.log(1.0-random.nextDouble())/lambda);	
+		if (index == buffer.length)
+			this.fill();
+		return -(buffer[index++]/lambda);
+	}
+	
+	/**
+	 * Sets the number of variates generated at once.
+	 * @param size The size of the block. Zero, for the unbuffered mode.
+	 */
+	@Override
+	public void setBufferSize(int size) {
+		buffer = (size > 0) ? new double[size] : null;
+		index = size;
+	}
+	
+	/**
+	 * Fills the block with the logarithms of a block of uniform numbers.
+	 * Both the service and the interarrival times share the same stream, so
+	 * only the rate-independent part of the inverse transform is pre-computed.
+	 */
+	protected void fill() {
+		random.nextDoubles(buffer,0,buffer.length);
+		for (int i=0; i < buffer.length; i++)
+			buffer[i] = Math.log(1.0-buffer[i]);
+		index = 0;
 	}
 	
 	public double getMeanServiceTime() {
@@ -12,7 +12,7 @@ import random.MersenneTwister;
  * @author Pavani
  * @version 1.0
  */
-public class PowerLaw implements QueueDistribution {
+public class PowerLaw implements BufferedDistribution {
 	/** Random number generator. */
 	MersenneTwister random;
 	/** The distribution power. */
@@ -21,6 +21,10 @@ public class PowerLaw implements QueueDistribution {
 	double x0;
 	/** The maximum value of x. */
 	double x1;
+	/** The block of pre-generated variates. Null, in the unbuffered mode. */
+	double[] buffer;
+	/** The index of the next variate in the block. */
+	int index;
 
 	/**
 	 * Creates a new power-law distribution from an uniform distribution, where P(x) = x^n for x in [x0, x1].
@@ -42,6 +46,11 @@ public class PowerLaw implements QueueDistribution {
 	 */
 	@Override
 	public double getInterarrivalTime() {
+		if (buffer != null) {
+			if (index == buffer.length)
+				this.fill();
+			return buffer[index++];
+		}
 		//return [(x1^(n+1) - x0^(n+1))*y + x0^(n+1)]^(1/(n+1))
 		double y = random.nextDouble();
 		return Math.pow((Math.pow(x1,(power+1))-Math.pow(x0,(power+1)))*y + Math.pow(x0,(power+1)), (1/(power+1)));
@@ -55,4 +64,28 @@ public class PowerLaw implements QueueDistribution {
 	public double getServiceTime() {
 		return this.getInterarrivalTime();
 	}
+
+	/**
+	 * Sets the number of variates generated at once.
+	 * @param size The size of the block. Zero, for the unbuffered mode.
+	 */
+	@Override
+	public void setBufferSize(int size) {
+		buffer = (size > 0) ? new double[size] : null;
+		index = size;
+	}
+
+	/**
+	 * Fills the block with new variates by the inverse transform of a block of uniform numbers.
+	 */
+	protected void fill() {
+		random.nextDoubles(buffer,0,buffer.length);
+		//The terms that do not depend on y
+		double a = Math.pow(x1,(power+1))-Math.pow(x0,(power+1));
+		double b = Math.pow(x0,(power+1));
+		double e = 1/(power+1);
+		for (int i=0; i < buffer.length; i++)
+			buffer[i] = Math.pow(a*buffer[i] + b, e);
+		index = 0;
+	}
 }
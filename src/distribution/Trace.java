@@ -0,0 +1,147 @@
+/*
+ * Created on 2026-10-19 by Pavani.
+ */
+package distribution;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Replays a pre-generated traffic trace, which is read through a memory-mapped buffer.
+ * The trace is created by {@link TraceWriter}, e.g., with the main.TraceGenerator tool.
+ * <p>
+ * The first request arrives at the start time of the associated event generator and
+ * the following ones keep the spacing of the arrival times in the trace. Each call of
+ * {@link #getInterarrivalTime()} advances the trace to the next record, so the source,
+ * destination, holding time and bandwidth are always those of the request being created.
+ * When the trace is exhausted, the interarrival time is infinite and the generator stops.
+ *
+ * @author Gustavo Sousa Pavani
+ * @version 1.0
+ */
+public class Trace implements QueueDistribution {
+	/** The magic number of the trace files ("FTRC"). */
+	public static final int MAGIC = 0x46545243;
+	/** The version of the trace format. */
+	public static final int VERSION = 2;
+	/** The size in bytes of each record: arrival, holding, source, destination and bandwidth. */
+	public static final int RECORD_SIZE = 8 + 8 + 4 + 4 + 8;
+	/** The memory-mapped content of the trace. */
+	protected MappedByteBuffer buffer;
+	/** The position of the first record in the buffer. */
+	protected int offset;
+	/** The number of records of the trace. */
+	protected int records;
+	/** The identifiers of the nodes, indexed as in the trace. */
+	protected String[] nodes;
+	/** The index of the current record. */
+	protected int current;
+
+	/**
+	 * Creates a new Trace distribution from the specified file.
+	 * @param fileName The name of the trace file.
+	 * @throws IOException If the file cannot be mapped, it is not a valid trace or it has no records.
+	 */
+	public Trace(String fileName) throws IOException {
+		RandomAccessFile file = new RandomAccessFile(fileName,"r");
+		try {
+			FileChannel channel = file.getChannel();
+			if (channel.size() > Integer.MAX_VALUE)
+				throw new IOException("Trace file too big to be mapped: "+fileName);
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY,0,channel.size());
+		} finally {
+			file.close(); //the mapping remains valid after closing the channel
+		}
+		//Read the header
+		if ((buffer.getInt() != MAGIC) || (buffer.getInt() != VERSION))
+			throw new IOException("Invalid trace file: "+fileName);
+		long size = buffer.getLong();
+		nodes = new String[buffer.getInt()];
+		for (int i=0; i < nodes.length; i++) {
+			byte[] id = new byte[buffer.getInt()];
+			buffer.get(id);
+			nodes[i] = new String(id,StandardCharsets.UTF_8);
+		}
+		this.offset = buffer.position();
+		if ((offset + size * RECORD_SIZE) > buffer.capacity())
+			throw new IOException("Truncated trace file: "+fileName);
+		if (size <= 0)
+			throw new IOException("Empty trace file, without any request: "+fileName);
+		this.records = (int) size;
+		this.current = 0;
+	}
+
+	/**
+	 * Returns the holding time of the current request.
+	 * @return The holding time of the current request.
+	 */
+	@Override
+	public double getServiceTime() {
+		return buffer.getDouble(position(current) + 8);
+	}
+
+	/**
+	 * Advances the trace and returns the interarrival time between the current and the next request.
+	 * @return The interarrival time between the current and the next request.
+	 * Infinite, if the trace is exhausted.
+	 */
+	@Override
+	public double getInterarrivalTime() {
+		current++;
+		if (current >= records)
+			return Double.POSITIVE_INFINITY;
+		return buffer.getDouble(position(current)) - buffer.getDouble(position(current - 1));
+	}
+
+	/**
+	 * Returns the source node of the current request.
+	 * @return The source node of the current request.
+	 */
+	public String getSource() {
+		return nodes[buffer.getInt(position(current) + 16)];
+	}
+
+	/**
+	 * Returns the destination node of the current request.
+	 * @return The destination node of the current request.
+	 */
+	public String getDestination() {
+		return nodes[buffer.getInt(position(current) + 20)];
+	}
+
+	/**
+	 * Returns the bandwidth of the current request.
+	 * @return The bandwidth of the current request.
+	 */
+	public double getBandwidth() {
+		return buffer.getDouble(position(current) + 24);
+	}
+
+	/**
+	 * Returns the arrival time of the current request, as stored in the trace.
+	 * @return The arrival time of the current request, as stored in the trace.
+	 */
+	public double getArrivalTime() {
+		return buffer.getDouble(position(current));
+	}
+
+	/**
+	 * Returns the number of records of this trace.
+	 * @return The number of records of this trace.
+	 */
+	public int size() {
+		return this.records;
+	}
+
+	/**
+	 * Returns the position of the specified record in the buffer.
+	 * @param index The index of the record.
+	 * @return The position of the specified record in the buffer.
+	 */
+	protected int position(int index) {
+		return offset + index * RECORD_SIZE;
+	}
+}
@@ -0,0 +1,38 @@
+/*
+ * Created on 2026-10-19 by Pavani.
+ */
+package distribution;
+
+/**
+ * Defines the fields of a request that are stored in a binary traffic trace.
+ *
+ * @author Gustavo Sousa Pavani
+ * @version 1.0
+ */
+public interface TraceRecord {
+
+	/**
+	 * Returns the source node of the request.
+	 * @return The source node of the request.
+	 */
+	public String getSource();
+
+	/**
+	 * Returns the destination node of the request.
+	 * @return The destination node of the request.
+	 */
+	public String getDestination();
+
+	/**
+	 * Returns the holding time (duration) of the request.
+	 * @return The holding time (duration) of the request.
+	 */
+	public double getDuration();
+
+	/**
+	 * Returns the requested bandwidth.
+	 * @return The requested bandwidth.
+	 */
+	public double getBandwidth();
+
+}
@@ -0,0 +1,124 @@
+/*
+ * Created on 2026-10-19 by Pavani.
+ */
+package distribution;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * Writes a sequence of requests into a compact binary traffic trace, which can
+ * be replayed later by the {@link Trace} distribution.
+ * <p>
+ * The file starts with a header (magic number, version, number of records,
+ * number of nodes and the node identifiers, each one as the length and the
+ * bytes of its UTF-8 encoding) followed by fixed-size records
+ * of {@link Trace#RECORD_SIZE} bytes: arrival time, holding time, source index,
+ * destination index and bandwidth.
+ *
+ * @author Gustavo Sousa Pavani
+ * @version 1.0
+ */
+public class TraceWriter {
+	/** The name of the trace file. */
+	protected String fileName;
+	/** The output stream of the records. */
+	protected DataOutputStream output;
+	/** The mapping between node identifiers and their indexes in the trace. */
+	protected LinkedHashMap<String,Integer> nodeMap;
+	/** The number of records written so far. */
+	protected long counter;
+	/** The arrival time of the last record written. */
+	protected double lastArrival;
+
+	/**
+	 * Creates a new TraceWriter object and writes the header of the trace.
+	 * @param aFileName The name of the trace file.
+	 * @param nodes The identifiers of the nodes of the network.
+	 * @throws IOException If the file cannot be created.
+	 */
+	public TraceWriter(String aFileName, List<String> nodes) throws IOException {
+		this.fileName = aFileName;
+		this.output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(aFileName),1 << 16));
+		this.nodeMap = new LinkedHashMap<String,Integer>();
+		this.counter = 0L;
+		this.lastArrival = Double.NEGATIVE_INFINITY;
+		//Write the header, the number of records is fixed when the trace is closed
+		output.writeInt(Trace.MAGIC);
+		output.writeInt(Trace.VERSION);
+		output.writeLong(0L);
+		output.writeInt(nodes.size());
+		for (String node : nodes) {
+			nodeMap.put(node,nodeMap.size());
+			byte[] id = node.getBytes(StandardCharsets.UTF_8);
+			output.writeInt(id.length);
+			output.write(id);
+		}
+	}
+
+	/**
+	 * Appends a new request to the trace.
+	 * @param arrival The arrival time of the request.
+	 * @param record The request to be stored.
+	 * @throws IOException If the record cannot be written or the arrival times are not in order.
+	 */
+	public void write(double arrival, TraceRecord record) throws IOException {
+		this.write(arrival,record.getDuration(),record.getSource(),record.getDestination(),record.getBandwidth());
+	}
+
+	/**
+	 * Appends a new request to the trace.
+	 * @param arrival The arrival time of the request.
+	 * @param holding The holding time of the request.
+	 * @param source The source node of the request.
+	 * @param destination The destination node of the request.
+	 * @param bandwidth The requested bandwidth.
+	 * @throws IOException If the record cannot be written or the arrival times are not in order.
+	 */
+	public void write(double arrival, double holding, String source, String destination, double bandwidth) throws IOException {
+		if (arrival < lastArrival)
+			throw new IOException("Arrival times of the trace must be non-decreasing: "+arrival+" < "+lastArrival);
+		Integer src = nodeMap.get(source);
+		Integer dst = nodeMap.get(destination);
+		if ((src == null) || (dst == null))
+			throw new IOException("Unknown node in the trace: "+source+"-"+destination);
+		output.writeDouble(arrival);
+		output.writeDouble(holding);
+		output.writeInt(src);
+		output.writeInt(dst);
+		output.writeDouble(bandwidth);
+		//Update the counters
+		lastArrival = arrival;
+		counter++;
+	}
+
+	/**
+	 * Returns the number of records written so far.
+	 * @return The number of records written so far.
+	 */
+	public long size() {
+		return this.counter;
+	}
+
+	/**
+	 * Flushes the records and updates the header with the number of records.
+	 * @throws IOException If the file cannot be updated.
+	 */
+	public void close() throws IOException {
+		output.close();
+		//Patch the number of records in the header
+		RandomAccessFile file = new RandomAccessFile(fileName,"rw");
+		try {
+			file.seek(8);
+			file.writeLong(counter);
+		} finally {
+			file.close();
+		}
+	}
+}
@@ -11,7 +11,7 @@ import random.MersenneTwister;
  * @author Gustavo Sousa Pavani
  * @version 1.0
  */
-public class Uniform implements QueueDistribution {
+public class Uniform implements BufferedDistribution {
 	/** Random number generator. */
 	MersenneTwister random;
 	/** The minimum value of x. */
@@ -22,6 +22,10 @@ public class Uniform implements QueueDistribution {
 	double y0;
 	/** The maximum value of y. */
 	double y1;
+	/** The block of pre-generated uniform numbers. Null, in the unbuffered mode. */
+	double[] buffer;
+	/** The index of the next uniform number in the block. */
+	int index;
 
 	
 	/**
@@ -45,7 +49,7 @@ public class Uniform implements QueueDistribution {
 	 */
 	@Override
 	public double getServiceTime() {		
-		return (random.nextDouble()*(x1-x0)) + x0;
+		return (this.nextUniform()*(x1-x0)) + x0;
 	}
 	
 	/**
@@ -53,7 +57,32 @@ public class Uniform implements QueueDistribution {
 	 */
 	@Override
 	public double getInterarrivalTime() {
-		return (random.nextDouble()*(y1-y0)) + y0;
+		return (this.nextUniform()*(y1-y0)) + y0;
+	}
+	
+	/**
+	 * Sets the number of variates generated at once.
+	 * @param size The size of the block. Zero, for the unbuffered mode.
+	 */
+	@Override
+	public void setBufferSize(int size) {
+		buffer = (size > 0) ? new double[size] : null;
+		index = size;
+	}
+
+	/**
+	 * Returns the next uniform number in the range [0,1), drawn from the block in the buffered mode.
+	 * Both ranges share the same stream, so the scaling is done when the number is read.
+	 * @return The next uniform number in the range [0,1).
+	 */
+	protected double nextUniform() {
+		if (buffer == null)
+			return random.nextDouble();
+		if (index == buffer.length) {
+			random.nextDoubles(buffer,0,buffer.length);
+			index = 0;
+		}
+		return buffer[index++];
 	}
 
 }
@@ -29,8 +29,8 @@ public class Event implements Comparable<Event>{
 		/** Ant did all its round-trip, being delivered at the source node. */ ANT_DELIVERED,
 		/** Node failure. */ FAILURE_NODE,
 		/** Link failure. */ FAILURE_LINK,
-		/** Node added to the topology. */ TOPOLOGY_NODE,
-		/** Link added to the topology. */ TOPOLOGY_LINK,	
+		/** Node added to the topology, e.g., after its repair. */ TOPOLOGY_NODE,
+		/** Link added to the topology, e.g., after its repair. */ TOPOLOGY_LINK,	
 		/** Update the LSDB. */ OSPF_UPDATE;
 	}	
 	/** The time when the event takes place. */
@@ -63,6 +63,14 @@ public class Connection {
 		return this.fs;
 	}
 
+	/**
+	 * Sets the frequency slots used in this connection, e.g., after its defragmentation.
+	 * @param aFs The new frequency slots.
+	 */
+	public void setFS(FrequencySlot aFs) {
+		this.fs = aFs;
+	}
+
 	/**
 	 * Returns the identification of this connection.
 	 * @return The identification of this connection.
@@ -71,6 +79,14 @@ public class Connection {
 		return this.request.getId();
 	}
 	
+	/**
+	 * Returns the interned key of the identification of this connection.
+	 * @return The interned key of the identification of this connection.
+	 */
+	public long getKey() {
+		return this.request.getKey();
+	}
+	
 	/**
 	 * Returns the source node of this connection.
 	 * @return The source node of this connection.
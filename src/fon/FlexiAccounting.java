@@ -4,6 +4,11 @@
 package fon;
 
 import java.io.FileWriter;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -55,6 +60,10 @@ public class FlexiAccounting extends Accounting {
 	protected long restoredSuccessful;
 	/** Number of NOT restored connections after a failure. */
 	protected long restoredFailed;
+	/** Number of connections disrupted by a failure. */
+	protected long disruptedConn;
+	/** The peak of the heap retained after the garbage collections, in bytes, sampled periodically. */
+	protected long peakHeap;
 	/** Restoration time of successful connections after a failure counter. */
 	protected Counter restorationTime;
     /** The maximum length of a successful routed message. */
@@ -81,6 +90,22 @@ public class FlexiAccounting extends Accounting {
     protected double alertSetup;
     /** Restoration Setup */
     protected double alertRestoration;    
+    /** The memory of the node state tables per active connection, in bytes, sampled periodically. */
+    protected Counter connectionMemory;
+	/** The file writer for the time series of the spectrum fragmentation. */
+    transient protected FileWriter writerFragmentation = null;
+    /** The mean external fragmentation of the spectrum, sampled at each time slice. */
+    protected Counter fragmentation;
+    /** The number of runs of the spectrum defragmentation. */
+    protected long defragmentationRuns;
+    /** The number of connections moved by push-pull retuning. */
+    protected long movedPushPull;
+    /** The number of connections moved by make-before-break. */
+    protected long movedMakeBeforeBreak;
+    /** The total disruption time of the moved connections. */
+    protected double defragmentationDisruption;
+    /** The number of blocked requests established after a run of the spectrum defragmentation. */
+    protected long recoveredConn;
 	
 	/**
 	 * Creates a new FlexiAccounting object. 
@@ -131,6 +156,11 @@ public class FlexiAccounting extends Accounting {
 		//reset avg hops
 		this.avgHops = new Counter();
 		this.avgEffHops = new Counter();
+		//Maintain the fragmentation of the links, if applicable
+		if (print.contains(Values.FRAGMENTATION))
+			SpectrumFragmentation.setEnabled(true);
+		this.fragmentation = new Counter();
+		this.connectionMemory = new Counter();
 		
         //Initialize the other counters
         this.initializeCounters();
@@ -150,6 +180,10 @@ public class FlexiAccounting extends Accounting {
 			case FAILED:
 				addFailedEvent(event);
 				break;
+			case DISRUPTED:
+				//Increment the disrupted counter
+				this.disruptedConn++;
+				break;
 		}
 	}
 	
@@ -377,6 +411,22 @@ public class FlexiAccounting extends Accounting {
 					//Add a separator between values
 					mainBuffer.append("\t");					
 					break;	
+				case DISRUPTED: /* Connections disrupted by failures. */
+					mainBuffer.append(disruptedConn);
+					//Add a separator between values
+					mainBuffer.append("\t");
+					break;
+				case HEAP: /* Peak of the heap retained after the garbage collections. */
+					this.sampleHeap();
+					mainBuffer.append(peakHeap);
+					//Add a separator between values
+					mainBuffer.append("\t");
+					break;
+				case MEMORY: /* Memory per active connection. */
+					mainBuffer.append(this.connectionMemory.getAverage());
+					//Add a separator between values
+					mainBuffer.append("\t");					
+					break;	
 				case AVG_HOP:
 					double avg_hop = avgHops.getAverage();
 					System.out.println("media de saltos    " + avg_hop);
@@ -417,6 +467,26 @@ public class FlexiAccounting extends Accounting {
 					bufferUtilization.append("\n");
 					this.writeOutput(writerUtilization,bufferUtilization.toString());
 					break;	
+				case FRAGMENTATION: /* Mean of the sampled external fragmentation. */
+					mainBuffer.append(this.fragmentation.getAverage());
+					//Add a separator between values
+					mainBuffer.append("\t");
+					System.out.println("Free block histogram: "+SpectrumFragmentation.histogramToString());
+					break;
+				case DEFRAGMENTATION: /* Moves, disruption and recovered requests of the defragmentation. */
+					mainBuffer.append(movedPushPull);
+					mainBuffer.append("\t");
+					mainBuffer.append(movedMakeBeforeBreak);
+					mainBuffer.append("\t");
+					mainBuffer.append(defragmentationDisruption);
+					mainBuffer.append("\t");
+					mainBuffer.append(recoveredConn);
+					//Add a separator between values
+					mainBuffer.append("\t");
+					//The ratio of the requests that would be blocked without the defragmentation
+					double recovered = (double) recoveredConn / (double)(recoveredConn + failedConn);
+					System.out.println("defragmentationRuns: "+defragmentationRuns+" - recovered ratio: "+recovered);
+					break;
 			}
 		}
 		//Write to the main output file if the append flag is false.
@@ -481,6 +551,13 @@ public class FlexiAccounting extends Accounting {
 					//Write the heading line to the file
 					this.writeOutput(writerUtilization,buffer.toString());
 					break;	
+				case FRAGMENTATION: /* For the time series of the fragmentation. */
+					buffer.append("variable\ttime\tutilization\texternal\tentropy\tblocks\tlargest\n");
+					//Create appropriate output file
+					writerFragmentation = this.createOutput("_fragmentation.txt");
+					//Write the heading line to the file
+					this.writeOutput(writerFragmentation,buffer.toString());
+					break;
 			}
 		}
 	}
@@ -508,6 +585,28 @@ public class FlexiAccounting extends Accounting {
 		this.msgRate = (double)msgCounter / totalTime;
 	}
 
+	/**
+	 * Accounts a sample of the memory of the node state tables per active connection.
+	 * @param memory The memory per active connection, in bytes.
+	 */
+	@Override
+	public void addConnectionMemory(double memory) {
+		this.connectionMemory.increment(memory);
+	}
+
+	@Override
+	public void addDefragmentation(int pushPull, int makeBeforeBreak, double disruption) {
+		this.defragmentationRuns++;
+		this.movedPushPull = this.movedPushPull + pushPull;
+		this.movedMakeBeforeBreak = this.movedMakeBeforeBreak + makeBeforeBreak;
+		this.defragmentationDisruption = this.defragmentationDisruption + disruption;
+	}
+
+	@Override
+	public void addRecovered() {
+		this.recoveredConn++;
+	}
+
 
 	/* 
 	 * Reset the values of the metrics.
@@ -528,6 +627,11 @@ public class FlexiAccounting extends Accounting {
 		//Reset the counter of number of restored or not failed connections
 		this.restoredFailed = 0L;
 		this.restoredSuccessful = 0L;
+		this.disruptedConn = 0L;
+		//Reset the peak of the heap
+		this.peakHeap = 0L;
+		//Reset the samples of the memory per active connection
+		this.connectionMemory = new Counter();
 		//reset avg hops
 		this.avgHops = new Counter();
 		this.avgEffHops = new Counter();
@@ -536,6 +640,15 @@ public class FlexiAccounting extends Accounting {
 			Arrays.fill(this.successClass,0);
 			Arrays.fill(this.failedClass,0);
 		}
+		//The fragmentation of the next network
+		this.fragmentation = new Counter();
+		SpectrumFragmentation.reset();
+		//The defragmentation counters
+		this.defragmentationRuns = 0L;
+		this.movedPushPull = 0L;
+		this.movedMakeBeforeBreak = 0L;
+		this.defragmentationDisruption = 0.0;
+		this.recoveredConn = 0L;
 	}
 
 	/* Close output files.
@@ -549,8 +662,53 @@ public class FlexiAccounting extends Accounting {
 
 	@Override
 	public void periodical(double time) {
-		System.out.print(".");
-		
+		//Sample the used heap
+		if (print.contains(Values.HEAP))
+			this.sampleHeap();
+		//Sample the fragmentation of the network
+		if (print.contains(Values.FRAGMENTATION)) {
+			double external = SpectrumFragmentation.getNetworkExternal();
+			this.fragmentation.increment(external);
+			StringBuilder buffer = new StringBuilder();
+			buffer.append(Simulator.variableValue[0]);
+			buffer.append("\t");
+			buffer.append(time);
+			buffer.append("\t");
+			buffer.append(SpectrumFragmentation.getNetworkUtilization());
+			buffer.append("\t");
+			buffer.append(external);
+			buffer.append("\t");
+			buffer.append(SpectrumFragmentation.getNetworkEntropy());
+			buffer.append("\t");
+			buffer.append(SpectrumFragmentation.getNetworkBlocks());
+			buffer.append("\t");
+			buffer.append(SpectrumFragmentation.getNetworkLargest());
+			buffer.append("\n");
+			this.writeOutput(writerFragmentation,buffer.toString());
+		}
+	}
+	
+	/**
+	 * Samples the heap retained after the last garbage collection of each heap pool, so the
+	 * garbage is not accounted, and updates its peak value. Before the first collection,
+	 * the used heap is sampled instead.
+	 */
+	protected void sampleHeap() {
+		long collections = 0L;
+		for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans())
+			collections = collections + Math.max(collector.getCollectionCount(),0L);
+		long used = 0L;
+		if (collections > 0L) {
+			for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+				MemoryUsage usage = pool.getCollectionUsage();
+				if (pool.getType().equals(MemoryType.HEAP) && (usage != null))
+					used = used + usage.getUsed();
+			}
+		} else {
+			used = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+		}
+		if (used > peakHeap)
+			peakHeap = used;
 	}
 
 }
@@ -5,9 +5,9 @@ package fon;
 
 import java.io.Serializable;
 import java.util.Arrays;
-import java.util.LinkedHashMap;
 
 import fon.topological.FlexiNode;
+import net.Interner;
 import net.Link;
 
 /**
@@ -36,10 +36,20 @@ public class FlexiLink implements Serializable {
 	protected int numberSlots;
 	/** The status of the frequency slots in this link. True means available slot. */
 	protected boolean[] slots;
-	/** The connections that uses this link. */
-	protected LinkedHashMap<String,FrequencySlot> connections;
+	/** The connections that uses this link, indexed by their keys and by their positions in the slots array. */
+	protected SlotOwnerTable connections;
 	/** The number of bytes offered to this link. */
 	protected long byteCounter;
+	/** The interned integer of this link. */
+	protected int index;
+	/** The global occupancy matrix written through by this link. Null, if not used. */
+	protected transient SpectrumMatrix matrix;
+	/** The fragmentation of the spectrum of this link. Null, if not maintained. */
+	protected transient SpectrumFragmentation fragmentation;
+	/** The number of modifications of the slots of this link. */
+	protected long version;
+	/** The cache of the heuristics of this link for the ants. Created on demand. */
+	protected transient LinkHeuristicCache heuristics;
 	
 	
 	/**
@@ -55,8 +65,11 @@ public class FlexiLink implements Serializable {
 		this.numberSlots = aSlots;
 		this.slots = new boolean[2*numberSlots]; //double to assume the logic -slots <-> +slots
 		Arrays.fill(slots, true); //True means available
-		connections = new LinkedHashMap<String,FrequencySlot>();
+		connections = new SlotOwnerTable(2*numberSlots);
 		this.byteCounter = 0;
+		this.index = Interner.link(aLink.getEdge().getSource(),aLink.getEdge().getDestination());
+		if (SpectrumFragmentation.isEnabled())
+			this.fragmentation = new SpectrumFragmentation(slots);
 
 	}	
 	
@@ -68,6 +81,32 @@ public class FlexiLink implements Serializable {
 		return this.link;
 	}
 	
+	/**
+	 * Returns the interned integer of this link.
+	 * @return The interned integer of this link.
+	 */
+	public int getIndex() {
+		return this.index;
+	}
+	
+	/**
+	 * Attaches this link to the global occupancy matrix, which is written through
+	 * by each change of the frequency slots of this link.
+	 * @param aMatrix The global occupancy matrix.
+	 */
+	public void setMatrix(SpectrumMatrix aMatrix) {
+		this.matrix = aMatrix;
+		matrix.attach(index,slots);
+	}
+	
+	/**
+	 * Returns the fragmentation of the spectrum of this link.
+	 * @return The fragmentation of the spectrum of this link. Null, if not maintained.
+	 */
+	public SpectrumFragmentation getFragmentation() {
+		return this.fragmentation;
+	}
+	
 	/**
 	 * Returns the anchor frequency, in THz.
 	 * @return The anchor frequency, in THz.
@@ -146,42 +185,123 @@ public class FlexiLink implements Serializable {
 	 * @param fs The frequency slot to be added.
 	 */
 	public void addFrequencySlot(String id, FrequencySlot fs) {
-		//Add the connection to the list
-		this.connections.put(id,fs);
 		//Get the n (central slot) and the m (number slots) parameters
 		int n = fs.getCentralSlot();
 		int m = fs.getNumberSlots();
 		//Get the first position of the frequency slot in the slots array
 		int firstSlotPosition = (n + this.numberSlots - m);
+		//Add the connection to the table
+		this.connections.put(Interner.connection(id),n,m,firstSlotPosition,m * 2);
+		if (fragmentation != null)
+			fragmentation.detach(firstSlotPosition,m * 2);
 		//Insert the frequency slot at the flexi link slots 
 		for (int i = firstSlotPosition; i < (firstSlotPosition + m * 2); i++) {
 			this.slots[i] = false;
 		}
+		if (fragmentation != null)
+			fragmentation.attach(firstSlotPosition,m * 2);
+		if (matrix != null)
+			matrix.occupy(index,firstSlotPosition,m * 2);
+		version++;
 	} 
 	
 	/**
 	 * Removes the indicated frequency slot.
 	 * @param id The connection identifier.
-	 * @param True, if there was a frequency slot specified by id to be removed. False, otherwise.
+	 * @return True, if there was a frequency slot specified by id to be removed. False, otherwise.
 	 */
 	public boolean removeFrequencySlot(String id) {
 		//Remove the connection from the frequency slot table
-		FrequencySlot fs = this.connections.remove(id);
-		if (fs != null) {
+		long key = Interner.connection(id);
+		long value = this.connections.remove(key);
+		if (value != SlotOwnerTable.EMPTY) {
 			//Get the n (central slot) and the m (number slots) parameters
-			int n = fs.getCentralSlot();
-			int m = fs.getNumberSlots();
+			int n = SlotOwnerTable.centralSlot(value);
+			int m = SlotOwnerTable.numberSlots(value);
 			//Get the first position of the frequency slot in the slots array
 			int firstSlotPosition = (n + this.numberSlots - m);
+			if (fragmentation != null)
+				fragmentation.detach(firstSlotPosition,m * 2);
 			//Invoke the method isAvailable to verify the availability
 			//Insert the frequency slot at the slots.
 			for (int i = firstSlotPosition; i < (firstSlotPosition + m * 2); i++) {
 				this.slots[i] = true;
 			}	
+			if (fragmentation != null)
+				fragmentation.attach(firstSlotPosition,m * 2);
+			this.connections.release(key,firstSlotPosition,m * 2);
+			if (matrix != null)
+				matrix.release(index,firstSlotPosition,m * 2);
+			version++;
+			return true;
 		} //Already removed connection
 		return false;
 	}
 	
+	/**
+	 * Returns the key of the connection that occupies the specified position of the slots array.
+	 * @param position The position of the slots array.
+	 * @return The interned key of the connection. SlotOwnerTable.EMPTY, if the position is available.
+	 */
+	public long getOwner(int position) {
+		return this.connections.getOwner(position);
+	}
+	
+	/**
+	 * Returns the frequency slot of the specified connection at this link.
+	 * @param key The interned key of the connection.
+	 * @return The frequency slot of the connection. Null, if it does not use this link.
+	 */
+	public FrequencySlot getFrequencySlot(long key) {
+		long value = this.connections.get(key);
+		if (value == SlotOwnerTable.EMPTY)
+			return null;
+		return new FrequencySlot(SlotOwnerTable.centralSlot(value),SlotOwnerTable.numberSlots(value));
+	}
+	
+	/**
+	 * Returns the keys of the connections that use this link.
+	 * @return The interned keys of the connections that use this link.
+	 */
+	public long[] getConnections() {
+		return this.connections.keys();
+	}
+	
+	/**
+	 * Removes all the frequency slots, e.g., when the link is repaired after a failure,
+	 * since the connections that traversed it were already disrupted.
+	 */
+	public void clear() {
+		this.connections.clear();
+		if (fragmentation != null)
+			fragmentation.detach(0,slots.length);
+		Arrays.fill(slots, true); //True means available
+		if (fragmentation != null)
+			fragmentation.attach(0,slots.length);
+		if (matrix != null)
+			matrix.clear(index);
+		version++;
+	}
+	
+	/**
+	 * Returns the version of this link, i.e., the number of modifications of its slots.
+	 * The values calculated from the slots remain valid while the version does not change.
+	 * @return The version of this link.
+	 */
+	public long getVersion() {
+		return this.version;
+	}
+	
+	/**
+	 * Returns the cache of the heuristics of this link for the ants.
+	 * @return The cache of the heuristics of this link.
+	 */
+	public LinkHeuristicCache getHeuristics() {
+		if (heuristics == null)
+			heuristics = new LinkHeuristicCache(this);
+		return heuristics;
+	}
+	
 	/**
 	 * Gets the frequency slot mask associated to this link.
 	 * @return The frequency slot mask associated to this link.
@@ -262,10 +382,10 @@ public class FlexiLink implements Serializable {
 		builder.append("{");
 		builder.append((LabelSet.slotsToString(slots)).toString());
 		builder.append("} \n");
-		for (String id: connections.keySet()) {
-			builder.append(id);
+		for (long key: connections.keys()) {
+			builder.append(Interner.connectionLabel(key));
 			builder.append(" - ");
-			builder.append(connections.get(id));
+			builder.append(this.getFrequencySlot(key));
 			builder.append("\n");
 		}
 		return builder.toString();
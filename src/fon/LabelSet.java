@@ -10,6 +10,10 @@ import java.util.Arrays;
  * IMPORTANT: It differs from RFC 7698, where the label set specifies the available nominal
    central frequencies that meet the slot width requirements of the LSP.
  * 
+ * The storage of the slots is copied on write: the clones of a label set, and the new label sets
+ * with all the slots available, share it until one of them is updated. So the array returned
+ * by getSlots() must not be modified.
+ * 
  * @author Gustavo Pavani
  *
  */
@@ -18,7 +22,16 @@ public class LabelSet {
 	protected int numberSlots;
 	/** The status of the frequency slots in this label set. True means available slot. */
 	protected boolean[] slots;
+	/** Indicates if the storage of the slots is shared with another label set. */
+	protected boolean shared;
+	/** The storages with all the slots available, shared by the new label sets, indexed by their number of slots. */
+	protected static boolean[][] available = new boolean[0][];
 
+	/**
+	 * Creates a new LabelSet object, without storage.
+	 */
+	protected LabelSet() {
+	}
 		
 	/**
 	 * Creates a new LabelSet object.
@@ -27,8 +40,15 @@ public class LabelSet {
 	public LabelSet(int aSlots) {
 		//Create the label set
 		this.numberSlots = aSlots;
-		this.slots = new boolean[2*numberSlots]; //double to assume the logic -slots <-> +slots
-		Arrays.fill(slots, true); //True means available
+		//Share the storage with all slots available until the first update
+		if (aSlots >= available.length)
+			available = Arrays.copyOf(available,aSlots + 1);
+		if (available[aSlots] == null) {
+			available[aSlots] = new boolean[2*numberSlots]; //double to assume the logic -slots <-> +slots
+			Arrays.fill(available[aSlots], true); //True means available
+		}
+		this.slots = available[aSlots];
+		this.shared = true;
 	}
 	
 	/**
@@ -60,12 +80,38 @@ public class LabelSet {
 	public LabelSet(boolean[] aSlots) {
 		//Get the length
 		this.numberSlots = aSlots.length / 2;
-		//Create a new array
-		this.slots = new boolean[2*numberSlots];
 		//Copy the array
 		this.slots = Arrays.copyOf(aSlots,aSlots.length);		
 	}
 	
+	/**
+	 * Creates a new LabelSet object that shares the specified frequency slots, instead of copying them.
+	 * The array must not be modified afterwards, since it is copied only when the label set is updated.
+	 * @param aSlots The frequency slots.
+	 * @return The new label set.
+	 */
+	public static LabelSet wrap(boolean[] aSlots) {
+		LabelSet set = new LabelSet();
+		set.numberSlots = aSlots.length / 2;
+		set.slots = aSlots;
+		set.shared = true;
+		return set;
+	}
+	
+	/**
+	 * Sets the label set with the slots occupancy used in ACO Based, reusing its storage if possible.
+	 * @param aSlots The slots occupancy, where 0 means occupied slot.
+	 */
+	public void set(int[] aSlots) {
+		this.numberSlots = aSlots.length;
+		if (shared || (slots == null) || (slots.length != aSlots.length)) {
+			slots = new boolean[aSlots.length];
+			shared = false;
+		}
+		for (int i=0; i<numberSlots; i++)
+			slots[i] = (aSlots[i] != 0);
+	}
+	
 	/**
 	 * Update the label set with the specified mask. It assumes that the mask has the same size as the slot.
 	 * @param mask The mask.
@@ -74,24 +120,36 @@ public class LabelSet {
 		//System.out.println("Slots: \n"+slotsToString(slots));		
 		//System.out.println("Mask: \n"+slotsToString(mask));
 		//System.out.println("masklenght: "+mask.length);
+		boolean[] target = slots;
+		if (shared) { //Copy on write, in the same pass
+			target = (mask.length < slots.length) ? Arrays.copyOf(slots,slots.length) : new boolean[slots.length];
+			shared = false;
+		}
 		for(int i=0; i < mask.length; i++) {
-			slots[i] = mask[i] && slots[i]; //Set false if mask or slots has a false (i.e. busy) slot.
+			target[i] = mask[i] && slots[i]; //Set false if mask or slots has a false (i.e. busy) slot.
 		}
+		slots = target;
 	}
 		
 	/**
 	 * Clone a LabelSet object.
 	 * This is needed by the history table of the crankback mechanism.
+	 * The clone shares the storage of this label set until one of them is updated.
 	 */
 	public Object clone() {
-		//Create a new LabelSet from the slots		
-		LabelSet clone = new LabelSet(this.slots);
+		//Create a new LabelSet sharing the slots		
+		LabelSet clone = new LabelSet();
+		clone.numberSlots = this.numberSlots;
+		clone.slots = this.slots;
+		clone.shared = true;
+		this.shared = true;
 		//Return the cloned object
 		return clone;
 	}
 	
 	/**
 	 * Return the status of the frequency slots in this label set. True means available slot.
+	 * The array is shared and must not be modified.
 	 */
 	public boolean[] getSlots() {
 		return this.slots;
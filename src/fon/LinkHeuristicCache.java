@@ -0,0 +1,100 @@
+/**
+ * Created on 19/10/2026.
+ */
+package fon;
+
+/**
+ * Cache of the spectrum heuristics of a link used for selecting the next hop of the ants,
+ * i.e., its number of free slots and its biggest number of contiguous free slots.
+ * Each value is kept with the version of the link when it was calculated, so it is
+ * recalculated only after the link was modified. Since most ants traverse links that
+ * did not change since the previous ant, most queries are answered without scanning
+ * the mask. The hits and misses of all the links are counted for the run statistics.
+ *
+ * @author Gustavo Sousa Pavani
+ * @version 1.0
+ *
+ */
+public class LinkHeuristicCache {
+	/** The number of queries answered from the cache. */
+	protected static long hits;
+	/** The number of queries that recalculated the value. */
+	protected static long misses;
+	/** The link of this cache. */
+	protected FlexiLink link;
+	/** The version of the link of the cached number of free slots. -1, if not calculated. */
+	protected long freeVersion;
+	/** The cached number of free slots. */
+	protected int free;
+	/** The version of the link of the cached biggest number of contiguous free slots. -1, if not calculated. */
+	protected long biggestVersion;
+	/** The cached biggest number of contiguous free slots. */
+	protected int biggest;
+
+	/**
+	 * Creates a new LinkHeuristicCache object.
+	 * @param aLink The link of this cache.
+	 */
+	public LinkHeuristicCache(FlexiLink aLink) {
+		this.link = aLink;
+		this.freeVersion = -1L;
+		this.biggestVersion = -1L;
+	}
+
+	/**
+	 * Returns the number of free slots of the link.
+	 * @return The number of free slots of the link.
+	 */
+	public int freeSlots() {
+		long version = link.getVersion();
+		if (freeVersion == version) {
+			hits++;
+			return free;
+		}
+		misses++;
+		free = link.freeSlots();
+		freeVersion = version;
+		return free;
+	}
+
+	/**
+	 * Returns the biggest number of contiguous free slots of the link.
+	 * @return The biggest number of contiguous free slots of the link.
+	 */
+	public int biggestContiguousSlots() {
+		long version = link.getVersion();
+		if (biggestVersion == version) {
+			hits++;
+			return biggest;
+		}
+		misses++;
+		biggest = link.biggestContiguousSlots();
+		biggestVersion = version;
+		return biggest;
+	}
+
+	/**
+	 * Resets the statistics of the caches, e.g., before creating the network of the next point of the sweep.
+	 */
+	public static void reset() {
+		hits = 0L;
+		misses = 0L;
+	}
+
+	/**
+	 * Returns the ratio of the queries answered from the caches.
+	 * @return The ratio of the queries answered from the caches.
+	 */
+	public static double getHitRate() {
+		long total = hits + misses;
+		return (total == 0L) ? 0.0 : (double) hits / total;
+	}
+
+	/**
+	 * Returns a String representation of the statistics of the caches.
+	 * @return A String representation of the statistics of the caches.
+	 */
+	public static String statistics() {
+		return "Heuristic cache: hits: "+hits+", misses: "+misses+", hit rate: "+getHitRate();
+	}
+}
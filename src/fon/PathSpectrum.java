@@ -0,0 +1,287 @@
+/**
+ * Created on 19/10/2026.
+ */
+package fon;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+import graph.CompactPath;
+import graph.Edge;
+import graph.Path;
+import net.Interner;
+
+/**
+ * Spectrum availability of a set of candidate paths, maintained incrementally from
+ * the states of the links. An inverted index relates each link to the paths that
+ * traverse it, so a change in the state of a link updates only the counters of these
+ * paths, instead of ANDing the masks of all the links of a path each time its
+ * availability is queried.
+ * <p>
+ * For each path and each position of the mask, it is kept the number of links of the
+ * path where the position is occupied. A position is free in the path when this
+ * number is zero, so the number of free positions is updated in constant time per
+ * changed position. The biggest contiguous block is recalculated only when queried
+ * after a change of the path.
+ * <p>
+ * The paths that traverse a failed link are unregistered, so the paths replaced after
+ * a change of the topology are not kept, and their identifications are reused.
+ *
+ * @author Gustavo Sousa Pavani
+ * @version 1.0
+ *
+ */
+public class PathSpectrum {
+	/** The number of positions of the masks. */
+	protected int size;
+	/** The state of each link, indexed by its interned integer. Null, if unknown. */
+	protected boolean[][] links;
+	/** The paths that traverse each link, indexed by the interned integer of the link. */
+	protected int[][] index;
+	/** The number of paths that traverse each link. */
+	protected int[] indexCounter;
+	/** The identification of each registered path. */
+	protected HashMap<CompactPath,Integer> ids;
+	/** The registered path of each identification. Null, if not used. */
+	protected CompactPath[] paths;
+	/** The identifications released by unregistered paths, to be reused. */
+	protected int[] released;
+	/** The number of released identifications. */
+	protected int releasedCounter;
+	/** The number of occupied links of each position of each path. */
+	protected int[][] busy;
+	/** The number of free positions of each path. */
+	protected int[] free;
+	/** The number of links of each path with unknown state. */
+	protected int[] unknown;
+	/** The biggest number of contiguous free positions of each path. */
+	protected int[] biggest;
+	/** Indicates if the biggest block of each path must be recalculated. */
+	protected boolean[] dirty;
+	/** The number of registered paths. */
+	protected int counter;
+
+	/**
+	 * Creates a new PathSpectrum object.
+	 * @param aSize The number of positions of the masks.
+	 */
+	public PathSpectrum(int aSize) {
+		this.size = aSize;
+		this.links = new boolean[Interner.links()][];
+		this.index = new int[Interner.links()][];
+		this.indexCounter = new int[Interner.links()];
+		this.ids = new HashMap<CompactPath,Integer>();
+		this.paths = new CompactPath[16];
+		this.released = new int[16];
+		this.busy = new int[16][];
+		this.free = new int[16];
+		this.unknown = new int[16];
+		this.biggest = new int[16];
+		this.dirty = new boolean[16];
+		this.counter = 0;
+	}
+
+	/**
+	 * Returns the identification of the specified path, registering it if necessary.
+	 * The counters of a new path are calculated from the actual states of its links.
+	 * @param path The path.
+	 * @return The identification of the path.
+	 */
+	public int register(Path path) {
+		CompactPath compact = path.compact();
+		Integer id = ids.get(compact);
+		if (id != null)
+			return id;
+		id = (releasedCounter > 0) ? released[--releasedCounter] : counter++;
+		ids.put(compact,id);
+		if (id >= free.length) {
+			int length = 2 * free.length;
+			paths = Arrays.copyOf(paths,length);
+			released = Arrays.copyOf(released,length);
+			busy = Arrays.copyOf(busy,length);
+			free = Arrays.copyOf(free,length);
+			unknown = Arrays.copyOf(unknown,length);
+			biggest = Arrays.copyOf(biggest,length);
+			dirty = Arrays.copyOf(dirty,length);
+		}
+		paths[id] = compact;
+		busy[id] = new int[size];
+		free[id] = size;
+		unknown[id] = 0;
+		dirty[id] = true;
+		for (Edge edge : path.edges()) {
+			int link = Interner.link(edge.getSource(),edge.getDestination());
+			this.ensure(link);
+			//Add the path to the inverted index
+			if (index[link] == null)
+				index[link] = new int[4];
+			else if (indexCounter[link] == index[link].length)
+				index[link] = Arrays.copyOf(index[link],2 * index[link].length);
+			index[link][indexCounter[link]++] = id;
+			//Account the actual state of the link
+			if (links[link] == null) {
+				unknown[id]++;
+			} else {
+				for (int i=0; i < size; i++) {
+					if (!links[link][i])
+						this.occupy(id,i);
+				}
+			}
+		}
+		return id;
+	}
+
+	/**
+	 * Unregisters the paths that traverse the specified link, e.g., after its failure.
+	 * They are registered again, with the actual states of their links, if requested later.
+	 * @param link The interned integer of the link.
+	 * @return The number of unregistered paths.
+	 */
+	public int unregister(int link) {
+		if ((link < 0) || (link >= index.length) || (index[link] == null))
+			return 0;
+		int count = indexCounter[link];
+		//Each removal takes the path from this list too
+		while (indexCounter[link] > 0)
+			this.remove(index[link][0]);
+		return count;
+	}
+
+	/**
+	 * Removes the specified path from the inverted index and releases its identification.
+	 * @param id The identification of the path.
+	 */
+	protected void remove(int id) {
+		CompactPath compact = paths[id];
+		ids.remove(compact);
+		for (int hop=0; hop < compact.size() - 1; hop++) {
+			int link = compact.getLink(hop);
+			int[] list = index[link];
+			for (int p=0; p < indexCounter[link]; p++) {
+				if (list[p] == id) {
+					//Keep the order of the other paths
+					System.arraycopy(list,p + 1,list,p,indexCounter[link] - p - 1);
+					indexCounter[link]--;
+					break;
+				}
+			}
+		}
+		paths[id] = null;
+		busy[id] = null;
+		released[releasedCounter++] = id;
+	}
+
+	/**
+	 * Sets the state of the specified link, updating the paths that traverse it.
+	 * The mask must not be modified afterwards, since it is kept to compare with the next state.
+	 * @param link The interned integer of the link.
+	 * @param slots The status of the frequency slots of the link. Null, if unknown.
+	 */
+	public void setLinkState(int link, boolean[] slots) {
+		this.ensure(link);
+		boolean[] previous = links[link];
+		links[link] = slots;
+		if ((previous == slots) || (index[link] == null))
+			return;
+		if ((previous != null) && (slots != null) && Arrays.equals(previous,slots))
+			return;
+		int[] traversing = index[link];
+		for (int p=0; p < indexCounter[link]; p++) {
+			int id = traversing[p];
+			if (previous == null)
+				unknown[id]--;
+			if (slots == null)
+				unknown[id]++;
+			for (int i=0; i < size; i++) {
+				boolean wasFree = (previous == null) || previous[i];
+				boolean isFree = (slots == null) || slots[i];
+				if (wasFree && !isFree)
+					this.occupy(id,i);
+				else if (!wasFree && isFree)
+					this.release(id,i);
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of free positions of the specified path, i.e., the ones available in all its links.
+	 * @param id The identification of the path.
+	 * @return The number of free positions of the path. -1, if the state of any of its links is unknown.
+	 */
+	public int freeSlots(int id) {
+		if (unknown[id] > 0)
+			return -1;
+		return free[id];
+	}
+
+	/**
+	 * Returns the biggest number of contiguous free positions of the specified path.
+	 * @param id The identification of the path.
+	 * @return The biggest number of contiguous free positions of the path. -1, if the state of any of its links is unknown.
+	 */
+	public int biggestContiguousSlots(int id) {
+		if (unknown[id] > 0)
+			return -1;
+		if (dirty[id]) {
+			int count = 0;
+			int value = 0;
+			for (int i=0; i < size; i++) {
+				if (busy[id][i] == 0) {
+					count++;
+					if (count > value)
+						value = count;
+				} else {
+					count = 0;
+				}
+			}
+			biggest[id] = value;
+			dirty[id] = false;
+		}
+		return biggest[id];
+	}
+
+	/**
+	 * Returns the number of registered paths.
+	 * @return The number of registered paths.
+	 */
+	public int size() {
+		return ids.size();
+	}
+
+	/**
+	 * Marks the specified position of the path as occupied in one more link.
+	 * @param id The identification of the path.
+	 * @param position The position of the mask.
+	 */
+	protected void occupy(int id, int position) {
+		if (busy[id][position]++ == 0) {
+			free[id]--;
+			dirty[id] = true;
+		}
+	}
+
+	/**
+	 * Marks the specified position of the path as occupied in one less link.
+	 * @param id The identification of the path.
+	 * @param position The position of the mask.
+	 */
+	protected void release(int id, int position) {
+		if (--busy[id][position] == 0) {
+			free[id]++;
+			dirty[id] = true;
+		}
+	}
+
+	/**
+	 * Grows the tables of the links, if the specified link was interned after their creation.
+	 * @param link The interned integer of the link.
+	 */
+	protected void ensure(int link) {
+		if (link >= links.length) {
+			int length = Math.max(link + 1,Interner.links());
+			links = Arrays.copyOf(links,length);
+			index = Arrays.copyOf(index,length);
+			indexCounter = Arrays.copyOf(indexCounter,length);
+		}
+	}
+}
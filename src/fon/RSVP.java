@@ -3,6 +3,8 @@
  */
 package fon;
 
+import graph.CompactPath;
+import net.Interner;
 import net.Message;
 import net.Error;
 import fon.Connection;
@@ -25,6 +27,8 @@ public class RSVP extends Message {
 	protected boolean reRouting = false;
 	/** Indicates the number of effective hops in establishing a connection. */
 	protected int effectiveHops = 0;
+	/** The cursor on the path of the connection carried by this message. */
+	protected CompactPath.Cursor route;
 	
 	
 	/**
@@ -57,6 +61,7 @@ public class RSVP extends Message {
 	
 	public void setId(String newId) {
 		this.id = newId;
+		this.keyed = false;
 	}
 	
 	/**
@@ -107,10 +112,38 @@ public class RSVP extends Message {
 	 */
 	public String getBackwardNode() {
 		try {
-			return path.getPreviousNode(procNode);
+			return path.getNode(this.getHop() - 1);
 		} catch (Exception e) {return null; /* In case of an error!*/}
 	}
 	
+	/**
+	 * Gets the interned backward node of the rsvp message. To be used only for the reservation message.
+	 * @return The interned backward node of the rsvp message. Interner.NONE, if the processing node
+	 * is the source node.
+	 */
+	public int getBackwardIndex() {
+		int position = this.getHop();
+		if (position <= 0)
+			return Interner.NONE;
+		else if (cursor != null)
+			return cursor.getPreviousNodeIndex();
+		else
+			return Interner.getNode(path.getNode(position - 1));
+	}
+	
+	/**
+	 * Locates the processing node on the specified path, e.g., the path of the connection
+	 * carried by this message. The cursor is kept with this message, so it is only moved
+	 * to the next hop while the message is forwarded along the same path.
+	 * @param aPath The compact representation of the path.
+	 * @return The cursor at the processing node. Null, if the processing node is not in the path.
+	 */
+	public CompactPath.Cursor locate(CompactPath aPath) {
+		if ((route == null) || (route.getPath() != aPath))
+			route = aPath.cursor(0);
+		return route.moveTo(procIndex) ? route : null;
+	}
+	
 	/**
 	 * Set a new value for the source and destination of
 	 * this message.
@@ -129,10 +162,25 @@ public class RSVP extends Message {
 	 */
 	public String getForwardNode() {
 		try {
-			return path.getNextNode(procNode);
+			return path.getNode(this.getHop() + 1);
 		} catch (Exception e) {return null; /* In case of an error!*/}		
 	}
 	
+	/**
+	 * Gets the interned forward node of the rsvp message. To be used only for the backward message.
+	 * @return The interned forward node of the rsvp message. Interner.NONE, if the processing node
+	 * is the destination node or it is not in the path.
+	 */
+	public int getForwardIndex() {
+		int position = this.getHop();
+		if ((position < 0) || (position >= path.size() - 1))
+			return Interner.NONE;
+		else if (cursor != null)
+			return cursor.getNextNodeIndex();
+		else
+			return Interner.getNode(path.getNode(position + 1));
+	}
+	
 	/**
 	 * Remove from the route the last visited node.
 	 * @return The id of the last visited node. Null, if there is no node left.
@@ -3,6 +3,8 @@
  */
 package fon;
 
+import distribution.TraceRecord;
+import net.Interner;
 
 /**
  * A request in a flexi-grid network.
@@ -11,9 +13,13 @@ package fon;
  * @version 1.0
  *
  */
-public class Request {
+public class Request implements TraceRecord {
 	/** The id of this request. */
 	protected String id;
+	/** The interned key of the id, valid only if keyed is true. */
+	protected long key;
+	/** Indicates if the key of the id was already calculated. */
+	protected boolean keyed;
 	/** The source of this request. */
 	protected String source;
 	/** The destination of this request. */
@@ -56,6 +62,18 @@ public class Request {
 		return this.id;
 	}
 	
+	/**
+	 * Returns the interned key of the id of this request.
+	 * @return The interned key of the id of this request.
+	 */
+	public long getKey() {
+		if (!keyed) {
+			key = Interner.connection(id);
+			keyed = true;
+		}
+		return key;
+	}
+	
 	public String getSource() {
 		return this.source;
 	}
@@ -0,0 +1,224 @@
+/**
+ * Created on 19/10/2026.
+ */
+package fon;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+import net.LongHashMap;
+
+/**
+ * Compact table of the connections that use a link, indexed in both directions by
+ * primitives: each position of the mask refers to the key of the connection that
+ * occupies it, and the key of each connection refers to its frequency slot, i.e.,
+ * its central slot and number of slots, in a LongHashMap whose values are kept in
+ * an array of primitives parallel to its slots.
+ * <p>
+ * The connections are identified by their interned keys (see net.Interner), so adding
+ * and removing a connection allocate nothing, except when the map grows. The value
+ * Long.MIN_VALUE, which is never an interned key, marks the free positions.
+ *
+ * @author Gustavo Sousa Pavani
+ * @version 1.0
+ *
+ */
+public class SlotOwnerTable implements Serializable {
+	/** Serial version UID. */
+	private static final long serialVersionUID = 1L;
+	/** The value of a free position or of an absent connection. */
+	public static final long EMPTY = Long.MIN_VALUE;
+	/** The key of the connection that occupies each position. EMPTY, if available. */
+	protected long[] owner;
+	/** The central slot (high int) and number of slots (low int) of each connection. */
+	protected SlotMap connections;
+
+	/**
+	 * Creates a new SlotOwnerTable object.
+	 * @param positions The number of positions of the mask.
+	 */
+	public SlotOwnerTable(int positions) {
+		this.owner = new long[positions];
+		Arrays.fill(owner,EMPTY);
+		this.connections = new SlotMap();
+	}
+
+	/**
+	 * Adds a connection, occupying the specified positions.
+	 * @param key The key of the connection.
+	 * @param n The central slot of the frequency slot.
+	 * @param m The number of slots of the frequency slot.
+	 * @param first The first position occupied.
+	 * @param count The number of positions occupied.
+	 */
+	public void put(long key, int n, int m, int first, int count) {
+		connections.putSlot(key,((long) n << 32) | (m & 0xFFFFFFFFL));
+		Arrays.fill(owner,first,first + count,key);
+	}
+
+	/**
+	 * Removes a connection. The positions of its frequency slot are not released,
+	 * since the table does not know the layout of the mask. See release().
+	 * @param key The key of the connection.
+	 * @return The central slot (high int) and number of slots (low int) of the removed connection. EMPTY, if it was not present.
+	 */
+	public long remove(long key) {
+		return connections.removeSlot(key);
+	}
+
+	/**
+	 * Releases the specified positions of the mask, if they are occupied by the connection.
+	 * @param key The key of the connection.
+	 * @param first The first position.
+	 * @param count The number of positions.
+	 */
+	public void release(long key, int first, int count) {
+		for (int i = first; i < (first + count); i++) {
+			if (owner[i] == key)
+				owner[i] = EMPTY;
+		}
+	}
+
+	/**
+	 * Returns the key of the connection that occupies the specified position.
+	 * @param position The position of the mask.
+	 * @return The key of the connection. EMPTY, if the position is available.
+	 */
+	public long getOwner(int position) {
+		return owner[position];
+	}
+
+	/**
+	 * Returns the central slot and number of slots of the specified connection.
+	 * @param key The key of the connection.
+	 * @return The central slot (high int) and number of slots (low int) of the connection. EMPTY, if it is not present.
+	 */
+	public long get(long key) {
+		return connections.getSlot(key);
+	}
+
+	/**
+	 * Verifies if the specified connection is present.
+	 * @param key The key of the connection.
+	 * @return True, if the connection is present. False, otherwise.
+	 */
+	public boolean containsKey(long key) {
+		return connections.containsKey(key);
+	}
+
+	/**
+	 * Returns the number of connections.
+	 * @return The number of connections.
+	 */
+	public int size() {
+		return connections.size();
+	}
+
+	/**
+	 * Returns a snapshot of the keys of the connections.
+	 * @return A snapshot of the keys of the connections.
+	 */
+	public long[] keys() {
+		return connections.keys();
+	}
+
+	/**
+	 * Removes all the connections.
+	 */
+	public void clear() {
+		Arrays.fill(owner,EMPTY);
+		connections.clear();
+	}
+
+	/**
+	 * Returns the central slot of a value of this table.
+	 * @param value The central slot (high int) and number of slots (low int).
+	 * @return The central slot.
+	 */
+	public static int centralSlot(long value) {
+		return (int) (value >> 32);
+	}
+
+	/**
+	 * Returns the number of slots of a value of this table.
+	 * @param value The central slot (high int) and number of slots (low int).
+	 * @return The number of slots.
+	 */
+	public static int numberSlots(long value) {
+		return (int) value;
+	}
+
+	/**
+	 * Map of the frequency slots of the connections, which are stored in an array parallel
+	 * to the slots of the LongHashMap instead of its values, so they are not boxed.
+	 */
+	protected static class SlotMap extends LongHashMap<Object> {
+		/** Serial version UID. */
+		private static final long serialVersionUID = 1L;
+		/** The frequency slots of the entries, parallel to the slots of the map. */
+		protected long[] frequencySlots;
+		/** The frequency slot of the key 0. */
+		protected long zeroSlot;
+
+		/**
+		 * Returns the frequency slot of the specified key.
+		 * @param key The key.
+		 * @return The frequency slot of the key. EMPTY, if it is not present.
+		 */
+		public long getSlot(long key) {
+			if (key == 0L)
+				return hasZero ? zeroSlot : EMPTY;
+			int slot = this.find(key);
+			return (slot < 0) ? EMPTY : frequencySlots[slot];
+		}
+
+		/**
+		 * Associates the specified frequency slot to the specified key.
+		 * @param key The key.
+		 * @param value The frequency slot.
+		 */
+		public void putSlot(long key, long value) {
+			this.put(key,null);
+			if (key == 0L)
+				zeroSlot = value;
+			else
+				frequencySlots[this.find(key)] = value;
+		}
+
+		/**
+		 * Removes the specified key.
+		 * @param key The key.
+		 * @return The frequency slot of the removed key. EMPTY, if it was not present.
+		 */
+		public long removeSlot(long key) {
+			if (!this.containsKey(key))
+				return EMPTY;
+			long previous = this.getSlot(key);
+			this.remove(key);
+			return previous;
+		}
+
+		@Override
+		protected void move(int from, int to) {
+			super.move(from,to);
+			frequencySlots[to] = frequencySlots[from];
+		}
+
+		@Override
+		protected void allocate(int capacity) {
+			super.allocate(capacity);
+			frequencySlots = new long[capacity];
+		}
+
+		@Override
+		protected void rehash(int capacity) {
+			long[] oldKeys = keys;
+			long[] oldSlots = frequencySlots;
+			super.rehash(capacity);
+			for (int i=0; i < oldKeys.length; i++) {
+				if (oldKeys[i] != 0L)
+					frequencySlots[this.find(oldKeys[i])] = oldSlots[i];
+			}
+		}
+	}
+}
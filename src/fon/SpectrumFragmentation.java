@@ -0,0 +1,272 @@
+/**
+ * Created on 19/10/2026.
+ */
+package fon;
+
+import java.util.Arrays;
+
+/**
+ * Fragmentation of the spectrum of a link, maintained incrementally from its free
+ * blocks, i.e., the maximal runs of available positions of its mask. Each change of
+ * the mask removes the free blocks around the changed positions before the change and
+ * adds them again after it, so only these blocks are scanned, instead of the whole mask.
+ * The sums of the metrics of all the links are kept in static fields, so the network-wide
+ * aggregate can be sampled at any time without scanning the links.
+ * <p>
+ * The metrics of a link with N positions, F free positions and free blocks of sizes b are:
+ * the external fragmentation, 1 - max(b) / F; and the entropy of the free blocks,
+ * -sum((b / N) ln(b / N)). Both are zero for a link without free positions.
+ *
+ * @author Gustavo Sousa Pavani
+ * @version 1.0
+ *
+ */
+public class SpectrumFragmentation {
+	/** Indicates if the links of the new networks maintain their fragmentation. */
+	protected static boolean enabled = false;
+	/** The number of links of the network. */
+	protected static int networkLinks;
+	/** The total number of positions of the network. */
+	protected static long networkPositions;
+	/** The total number of free positions of the network. */
+	protected static long networkFree;
+	/** The total number of free blocks of the network. */
+	protected static long networkBlocks;
+	/** The sum of the largest free blocks of the links. */
+	protected static long networkLargest;
+	/** The sum of the external fragmentation of the links. */
+	protected static double networkExternal;
+	/** The sum of the entropy of the links. */
+	protected static double networkEntropy;
+	/** The number of free blocks of the network, indexed by their sizes. */
+	protected static long[] networkHistogram = new long[0];
+	/** The mask of the link, shared with it. True means available position. */
+	protected boolean[] slots;
+	/** The number of free positions. */
+	protected int free;
+	/** The number of free blocks. */
+	protected int blocks;
+	/** The size of the largest free block. */
+	protected int largest;
+	/** The sum of b ln(b) over the free blocks. */
+	protected double sumBlockLog;
+	/** The number of free blocks, indexed by their sizes. */
+	protected int[] histogram;
+
+	/**
+	 * Creates a new SpectrumFragmentation object and adds it to the network aggregate.
+	 * @param aSlots The mask of the link. It is read after each change.
+	 */
+	public SpectrumFragmentation(boolean[] aSlots) {
+		this.slots = aSlots;
+		this.histogram = new int[aSlots.length + 1];
+		if (networkHistogram.length < histogram.length)
+			networkHistogram = Arrays.copyOf(networkHistogram,histogram.length);
+		networkLinks++;
+		networkPositions = networkPositions + aSlots.length;
+		this.attach(0,aSlots.length);
+	}
+
+	/**
+	 * Removes the free blocks around the specified positions, before they change.
+	 * @param first The first position that changes.
+	 * @param count The number of positions that change.
+	 */
+	public void detach(int first, int count) {
+		this.aggregate(-1);
+		this.account(first,count,-1);
+	}
+
+	/**
+	 * Adds the free blocks around the specified positions, after they changed.
+	 * @param first The first position that changed.
+	 * @param count The number of positions that changed.
+	 */
+	public void attach(int first, int count) {
+		this.account(first,count,1);
+		this.aggregate(1);
+	}
+
+	/**
+	 * Returns the external fragmentation of the link.
+	 * @return The external fragmentation of the link, between 0 and 1.
+	 */
+	public double getExternal() {
+		return (free == 0) ? 0.0 : 1.0 - ((double) largest / free);
+	}
+
+	/**
+	 * Returns the entropy of the free blocks of the link.
+	 * @return The entropy of the free blocks of the link.
+	 */
+	public double getEntropy() {
+		if (free == 0)
+			return 0.0;
+		int size = slots.length;
+		return ((free * Math.log(size)) - sumBlockLog) / size;
+	}
+
+	/**
+	 * Returns the size of the largest free block of the link.
+	 * @return The size of the largest free block of the link.
+	 */
+	public int getLargest() {
+		return largest;
+	}
+
+	/**
+	 * Returns the number of free blocks of the link.
+	 * @return The number of free blocks of the link.
+	 */
+	public int getBlocks() {
+		return blocks;
+	}
+
+	/**
+	 * Adds or removes the free blocks that intersect the specified positions or are adjacent to them.
+	 * @param first The first position.
+	 * @param count The number of positions.
+	 * @param sign 1 for adding the blocks, -1 for removing them.
+	 */
+	protected void account(int first, int count, int sign) {
+		int size = slots.length;
+		if (size == 0)
+			return;
+		int i = Math.max(first - 1,0);
+		int last = Math.min(first + count,size - 1);
+		//Go back to the start of the block
+		if (slots[i]) {
+			while ((i > 0) && slots[i - 1])
+				i--;
+		}
+		while (i <= last) {
+			if (!slots[i]) {
+				i++;
+				continue;
+			}
+			int start = i;
+			while ((i < size) && slots[i])
+				i++;
+			this.block(i - start,sign);
+		}
+	}
+
+	/**
+	 * Adds or removes a free block.
+	 * @param length The size of the block.
+	 * @param sign 1 for adding the block, -1 for removing it.
+	 */
+	protected void block(int length, int sign) {
+		free = free + (sign * length);
+		blocks = blocks + sign;
+		histogram[length] = histogram[length] + sign;
+		networkHistogram[length] = networkHistogram[length] + sign;
+		sumBlockLog = sumBlockLog + (sign * length * Math.log(length));
+		if ((sign > 0) && (length > largest)) {
+			largest = length;
+		} else if ((sign < 0) && (length == largest)) {
+			while ((largest > 0) && (histogram[largest] == 0))
+				largest--;
+		}
+	}
+
+	/**
+	 * Adds or removes the metrics of the link to the network aggregate.
+	 * @param sign 1 for adding the metrics, -1 for removing them.
+	 */
+	protected void aggregate(int sign) {
+		networkFree = networkFree + (sign * free);
+		networkBlocks = networkBlocks + (sign * blocks);
+		networkLargest = networkLargest + (sign * largest);
+		networkExternal = networkExternal + (sign * this.getExternal());
+		networkEntropy = networkEntropy + (sign * this.getEntropy());
+	}
+
+	/**
+	 * Enables or disables the fragmentation of the links of the new networks.
+	 * @param value True, for enabling it. False, otherwise.
+	 */
+	public static void setEnabled(boolean value) {
+		enabled = value;
+	}
+
+	/**
+	 * Returns True, if the links of the new networks maintain their fragmentation. False, otherwise.
+	 * @return True, if the links of the new networks maintain their fragmentation. False, otherwise.
+	 */
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Resets the network aggregate, e.g., before creating the network of the next point of the sweep.
+	 */
+	public static void reset() {
+		networkLinks = 0;
+		networkPositions = 0L;
+		networkFree = 0L;
+		networkBlocks = 0L;
+		networkLargest = 0L;
+		networkExternal = 0.0;
+		networkEntropy = 0.0;
+		Arrays.fill(networkHistogram,0L);
+	}
+
+	/**
+	 * Returns the spectrum utilization of the network, i.e., the ratio of occupied positions.
+	 * @return The spectrum utilization of the network.
+	 */
+	public static double getNetworkUtilization() {
+		return (networkPositions == 0L) ? 0.0 : 1.0 - ((double) networkFree / networkPositions);
+	}
+
+	/**
+	 * Returns the mean external fragmentation of the links of the network.
+	 * @return The mean external fragmentation of the links of the network.
+	 */
+	public static double getNetworkExternal() {
+		return (networkLinks == 0) ? 0.0 : networkExternal / networkLinks;
+	}
+
+	/**
+	 * Returns the mean entropy of the links of the network.
+	 * @return The mean entropy of the links of the network.
+	 */
+	public static double getNetworkEntropy() {
+		return (networkLinks == 0) ? 0.0 : networkEntropy / networkLinks;
+	}
+
+	/**
+	 * Returns the mean number of free blocks of the links of the network.
+	 * @return The mean number of free blocks of the links of the network.
+	 */
+	public static double getNetworkBlocks() {
+		return (networkLinks == 0) ? 0.0 : (double) networkBlocks / networkLinks;
+	}
+
+	/**
+	 * Returns the mean size of the largest free block of the links of the network.
+	 * @return The mean size of the largest free block of the links of the network.
+	 */
+	public static double getNetworkLargest() {
+		return (networkLinks == 0) ? 0.0 : (double) networkLargest / networkLinks;
+	}
+
+	/**
+	 * Returns a String representation of the histogram of the free blocks of the network,
+	 * as pairs size:count of the sizes with at least one block.
+	 * @return A String representation of the histogram of the free blocks of the network.
+	 */
+	public static String histogramToString() {
+		StringBuilder builder = new StringBuilder();
+		for (int length=1; length < networkHistogram.length; length++) {
+			if (networkHistogram[length] != 0) {
+				builder.append(length);
+				builder.append(":");
+				builder.append(networkHistogram[length]);
+				builder.append(" ");
+			}
+		}
+		return builder.toString();
+	}
+}
@@ -0,0 +1,226 @@
+/**
+ * Created on 19/10/2026.
+ */
+package fon;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Global occupancy of the spectrum of all the links, stored off-heap as a contiguous
+ * matrix of bits with one row per link and one column per position of the mask.
+ * The flexi links attached to it write through each change of their slots, so the
+ * whole network can be analyzed by bulk operations over the rows, instead of walking
+ * the masks of the individual links.
+ * <p>
+ * The rows are indexed by the interned integers of the links and each row is padded
+ * to a whole number of longs. A set bit means an occupied position, so a new matrix
+ * has all the positions available. The layout of the dumps is a header with the number
+ * of rows and of positions per row (two ints), followed by the rows, in native byte order.
+ *
+ * @author Gustavo Sousa Pavani
+ * @version 1.0
+ *
+ */
+public class SpectrumMatrix {
+	/** The number of rows, i.e., links. */
+	protected int rows;
+	/** The number of positions of each row. */
+	protected int positions;
+	/** The number of longs of each row. */
+	protected int words;
+	/** The off-heap storage of the matrix. */
+	protected ByteBuffer buffer;
+	/** The view of the storage as longs. */
+	protected LongBuffer matrix;
+	/** Indicates the rows attached to a link. */
+	protected boolean[] attached;
+	/** The number of rows attached to a link. */
+	protected int counter;
+
+	/**
+	 * Creates a new SpectrumMatrix object.
+	 * @param aRows The number of rows, i.e., links.
+	 * @param aPositions The number of positions of each row.
+	 */
+	public SpectrumMatrix(int aRows, int aPositions) {
+		this.rows = aRows;
+		this.positions = aPositions;
+		this.words = (aPositions + 63) / 64;
+		this.buffer = ByteBuffer.allocateDirect(rows * words * 8).order(ByteOrder.nativeOrder());
+		this.matrix = buffer.asLongBuffer();
+		this.attached = new boolean[aRows];
+		this.counter = 0;
+	}
+
+	/**
+	 * Attaches the specified row to a link, copying its actual state.
+	 * @param row The row, i.e., the interned integer of the link.
+	 * @param slots The status of the positions of the link. True means available position.
+	 */
+	public void attach(int row, boolean[] slots) {
+		if (!attached[row]) {
+			attached[row] = true;
+			counter++;
+		}
+		this.clear(row);
+		for (int i=0; i < positions; i++) {
+			if (!slots[i])
+				this.occupy(row,i,1);
+		}
+	}
+
+	/**
+	 * Marks the specified positions of the row as occupied.
+	 * @param row The row, i.e., the interned integer of the link.
+	 * @param first The first position.
+	 * @param count The number of positions.
+	 */
+	public void occupy(int row, int first, int count) {
+		for (int i = first; i < (first + count); i++) {
+			int word = (row * words) + (i >>> 6);
+			matrix.put(word,matrix.get(word) | (1L << i));
+		}
+	}
+
+	/**
+	 * Marks the specified positions of the row as available.
+	 * @param row The row, i.e., the interned integer of the link.
+	 * @param first The first position.
+	 * @param count The number of positions.
+	 */
+	public void release(int row, int first, int count) {
+		for (int i = first; i < (first + count); i++) {
+			int word = (row * words) + (i >>> 6);
+			matrix.put(word,matrix.get(word) & ~(1L << i));
+		}
+	}
+
+	/**
+	 * Marks all the positions of the row as available.
+	 * @param row The row, i.e., the interned integer of the link.
+	 */
+	public void clear(int row) {
+		for (int w=0; w < words; w++)
+			matrix.put((row * words) + w,0L);
+	}
+
+	/**
+	 * Returns True, if the specified position of the row is available. False, otherwise.
+	 * @param row The row, i.e., the interned integer of the link.
+	 * @param position The position.
+	 * @return True, if the specified position of the row is available. False, otherwise.
+	 */
+	public boolean isAvailable(int row, int position) {
+		return (matrix.get((row * words) + (position >>> 6)) & (1L << position)) == 0L;
+	}
+
+	/**
+	 * Returns the number of occupied positions of the row.
+	 * @param row The row, i.e., the interned integer of the link.
+	 * @return The number of occupied positions of the row.
+	 */
+	public int occupied(int row) {
+		int count = 0;
+		for (int w=0; w < words; w++)
+			count = count + Long.bitCount(matrix.get((row * words) + w));
+		return count;
+	}
+
+	/**
+	 * Returns the number of occupied positions of the whole network.
+	 * @return The number of occupied positions of the whole network.
+	 */
+	public long occupied() {
+		long count = 0;
+		int length = rows * words;
+		for (int w=0; w < length; w++)
+			count = count + Long.bitCount(matrix.get(w));
+		return count;
+	}
+
+	/**
+	 * Returns the spectrum utilization of the whole network, i.e., the ratio of
+	 * occupied positions of the rows attached to a link.
+	 * @return The spectrum utilization of the whole network, between 0 and 1.
+	 */
+	public double utilization() {
+		if (counter == 0)
+			return 0.0;
+		return (double) this.occupied() / ((double) counter * positions);
+	}
+
+	/**
+	 * Returns a read-only view of the matrix, without copying it.
+	 * It reflects the later changes of the links.
+	 * @return A read-only view of the matrix.
+	 */
+	public LongBuffer view() {
+		return matrix.asReadOnlyBuffer();
+	}
+
+	/**
+	 * Returns a snapshot of the matrix, copied in bulk to another off-heap storage.
+	 * @return A snapshot of the matrix.
+	 */
+	public SpectrumMatrix snapshot() {
+		SpectrumMatrix copy = new SpectrumMatrix(rows,positions);
+		ByteBuffer source = buffer.duplicate();
+		source.clear();
+		copy.buffer.put(source);
+		copy.buffer.clear();
+		System.arraycopy(attached,0,copy.attached,0,rows);
+		copy.counter = counter;
+		return copy;
+	}
+
+	/**
+	 * Writes the matrix to the specified file through a memory mapping, for offline analysis.
+	 * @param file The name of the file.
+	 * @throws IOException When the file cannot be written.
+	 */
+	public void dump(String file) throws IOException {
+		FileChannel channel = FileChannel.open(Paths.get(file),StandardOpenOption.CREATE,StandardOpenOption.READ,StandardOpenOption.WRITE,StandardOpenOption.TRUNCATE_EXISTING);
+		try {
+			MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE,0,8 + buffer.capacity());
+			mapped.order(ByteOrder.nativeOrder());
+			mapped.putInt(rows);
+			mapped.putInt(positions);
+			ByteBuffer source = buffer.duplicate();
+			source.clear();
+			mapped.put(source);
+			mapped.force();
+		} finally {
+			channel.close();
+		}
+	}
+
+	/**
+	 * Returns the number of rows, i.e., links.
+	 * @return The number of rows.
+	 */
+	public int getRows() {
+		return rows;
+	}
+
+	/**
+	 * Returns the number of positions of each row.
+	 * @return The number of positions of each row.
+	 */
+	public int getPositions() {
+		return positions;
+	}
+
+	/**
+	 * Returns a String representation of this object.
+	 */
+	public String toString() {
+		return "Spectrum matrix: "+counter+" links x "+positions+" positions, utilization: "+this.utilization();
+	}
+}
@@ -0,0 +1,55 @@
+/**
+ * Created on 19/10/2026.
+ */
+package fon;
+
+import java.util.logging.Logger;
+
+import distribution.QueueDistribution;
+import distribution.Trace;
+
+/**
+ * Generates the requests by replaying a pre-generated traffic trace.
+ * The source, destination, duration and bandwidth are read from the
+ * records of the associated {@link Trace} distribution.
+ *
+ * @author Gustavo Sousa Pavani
+ * @version 1.0
+ *
+ */
+public class TraceRequestTraffic extends FixedRequestTraffic {
+	/** Serial version uid. */
+	private static final long serialVersionUID = 1L;
+	/** The logging generator. */
+	private static Logger logger = Logger.getLogger(TraceRequestTraffic.class.getName());
+	/** The trace being replayed. */
+	transient Trace trace;
+
+	/**
+	 * Creates a new TraceRequestTraffic object.
+	 * @param aMaxTries The maximum number of retries for establishing a connection.
+	 */
+	public TraceRequestTraffic(int aMaxTries) {
+		super(aMaxTries);
+	}
+
+	@Override
+	public Object getContent() {
+		//Generate the request from the current record of the trace
+		Request req = new Request(Long.valueOf(counter).toString(), trace.getSource(), trace.getDestination(), trace.getServiceTime(), trace.getBandwidth(), retries);
+		//Increment counter
+		counter++;
+		//Return request
+		return req;
+	}
+
+	@Override
+	public void setDistribution(QueueDistribution distrib) {
+		super.setDistribution(distrib);
+		if (distrib instanceof Trace)
+			this.trace = (Trace) distrib;
+		else
+			logger.severe("The traffic type must be Trace for "+this.getClass().getName());
+	}
+
+}
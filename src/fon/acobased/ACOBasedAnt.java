@@ -7,8 +7,10 @@ import java.util.ArrayList;
 import java.util.Arrays;
 
 
+import ant.TabuList;
 import fon.FlexiLink;
 import graph.Path;
+import net.Interner;
 import net.Message;
 
 /**
@@ -25,6 +27,8 @@ public class ACOBasedAnt extends Message {
 	/** The spectrum fragmentation of the last link visited. 
 	 * The bit value 1 means a free slot while the bit value 0 corresponds to an occupied slot.*/
 	protected int[] spectrumFragmentation;
+	/** The nodes visited by this ant, in the same order of its path. */
+	protected TabuList tabu;
 	/**
 	 * Creates a new Ant object. Used when ants and data are separated messages.
 	 * @param aId The ant identification.
@@ -100,8 +104,39 @@ public class ACOBasedAnt extends Message {
 		//Call super class
 		super.setNode(procId);
 		//Add the length of the identifier
-		if (recordRoute)
+		if (recordRoute) {
 			this.setLength(this.getLength() + Message.ID_HEADER_LENGTH);
+			//Invoked by the super class constructor before the initialization of the fields
+			if (tabu == null)
+				tabu = new TabuList();
+			tabu.add(Interner.node(procId));
+		}
+	}
+
+	/**
+	 * Returns true, if the specified node has already been visited.
+	 * @param nodeId The specified node.
+	 * @return True, if the specified node has already been visited.
+	 * False, otherwise.
+	 */
+	public boolean isTabu(String nodeId) {
+		return tabu.contains(Interner.getNode(nodeId));
+	}
+
+	/**
+	 * Returns the position of the processing node in the path of the ant, 
+	 * trying first the positions around the cursor of the hops.
+	 * @return The position of the processing node. -1, if it is not in the path.
+	 */
+	public int getHop() {
+		for (int i = hop - 1; i <= hop + 1; i++) {
+			if ((i >= 0) && (i < tabu.size()) && (tabu.get(i) == procIndex)) {
+				hop = i;
+				return hop;
+			}
+		}
+		hop = tabu.position(procIndex);
+		return hop;
 	}
 
 	/**
@@ -110,14 +145,12 @@ public class ACOBasedAnt extends Message {
 	 * is the source node.
 	 */
 	public String getBackwardNode() {
-		int counter = 0;
-		for (String node : path.nodes()) {
-			if (node.equals(procNode) && !procNode.equals(source)) {
-				return path.getNode(counter - 1);
-			}
-			counter ++; //Increment the counter
-		}
-		return null; // In case of an error!
+		if (procNode.equals(source))
+			return null;
+		int position = this.getHop();
+		if (position == -1)
+			return null; // In case of an error!
+		return Interner.label(tabu.get(position - 1));
 	}
 
 	
@@ -172,7 +205,9 @@ public class ACOBasedAnt extends Message {
 		if (content != null) {
 			clone.content = new ArrayList<Double>((ArrayList<Double>)content);
 		}
-		clone.path = (Path) path.clone();		
+		clone.path = (Path) path.clone();
+		clone.tabu = new TabuList(tabu);
+		clone.hop = hop;
 		return clone;
 	}
 	
@@ -10,24 +10,29 @@ import java.util.*;
 
 import net.Message;
 import ant.NeighborAttr;
+import ant.NextHopSelector;
 import random.MersenneTwister;
 import fon.Connection;
 import fon.FixedRequestTraffic;
 import net.Error;
 import fon.Request;
 import fon.FlexiLink;
+import fon.LinkHeuristicCache;
 import fon.NonUniformRequestTraffic;
 import fon.RSVP;
+import fon.topological.FON;
 import fon.topological.FlexiNode;
 import fon.topological.FlexiNode.ReRouting;
 import fon.SpectrumAssignment;
 import fon.SpectrumAssignment.Strategy;
+import fon.TraceRequestTraffic;
 import fon.antnet.AntHeuristic;
-import util.QuickSort;
 import event.Event;
 import event.EventSubscriber;
 import graph.Graph;
 import main.Config;
+import net.Interner;
+import net.ExpiringTable;
 import net.Network;
 import net.Node;
 import net.Link;
@@ -72,10 +77,12 @@ public class ACOBasedFON extends Network {
 	/** The length in bytes for the identification of a link or a node. */
 	protected int identificationLength;
 	/** The collection of Connection successfully re-routed after a failure. */
-	protected Hashtable<String,Connection> reroutedConnection;
+	protected ExpiringTable<Connection> reroutedConnection;
 	/** The collection of Connection disrupted by a failure, which
 	 * are eligible for full re-routing. */
-	protected Hashtable<String,Request> disruptedConnection;
+	protected ExpiringTable<Request> disruptedConnection;
+	/** The time for retaining the disrupted and re-routed connections after the end of their holding time. */
+	protected double retention;
 	/** Random number generator for ants. */
 	public static MersenneTwister rngAnt;
 	/** Counters */
@@ -104,9 +111,14 @@ public class ACOBasedFON extends Network {
 		nodes = new LinkedHashMap<String,ACOBasedFlexiNode>();
 		//Create the links of this network
 		links = new LinkedHashMap<String,FlexiLink>();
+		//The statistics of the heuristic caches of the new links
+		LinkHeuristicCache.reset();
 		//Create the storage of disrupted connections by failure
-		reroutedConnection = new Hashtable<String,Connection>();
-		disruptedConnection = new Hashtable<String,Request>();			
+		reroutedConnection = new ExpiringTable<Connection>();
+		disruptedConnection = new ExpiringTable<Request>();			
+		//Get the retention time of the disrupted and re-routed connections, if specified
+		ArrayList<String> retentionTime = parameters.get("/Failure/Timing/@retention");
+		retention = (retentionTime != null) ? Double.parseDouble(retentionTime.get(0)) : FON.RETENTION;
 		//Get the links of the network graph
 		LinkedHashMap<String,Link> graphLinks = config.getLinks();
 		//Number of slots per link
@@ -175,6 +187,9 @@ public class ACOBasedFON extends Network {
 	 */
 	@Override
 	public Event process(Event event) {
+		//Retire the expired entries of the disrupted and re-routed connections
+		disruptedConnection.purge(event.getTimeStamp());
+		reroutedConnection.purge(event.getTimeStamp());
 		//The id of the processing node
 		String id;
 		//Event response object
@@ -215,7 +230,8 @@ public class ACOBasedFON extends Network {
 				accounting.addEvent(Accounting.Type.SUCCESS, event);				
 				//See if it is a successful re-routing of a failed LSP
 				if (rsvpConfirm.isReRouting()) {
-					reroutedConnection.put(rsvpConfirm.getId(),connectionEst);
+					disruptedConnection.remove(rsvpConfirm.getKey());
+					reroutedConnection.put(rsvpConfirm.getKey(),connectionEst,event.getTimeStamp() + duration + retention);
 				}
 				//System.out.println(event.toString());
 				//Return a new event for tearing down the lightpath when appropriate
@@ -236,7 +252,7 @@ public class ACOBasedFON extends Network {
 					connectionRequest = (Request) ((Connection)rsvpErr.getContent()).getRequest();
 					rsvpRetry = new RSVP(connectionRequest,ttl,slots);
 					//System.out.println("Contention: "+lRequest.toString());
-					if (disruptedConnection.containsKey(rsvpErr.getId())) {
+					if (disruptedConnection.containsKey(rsvpErr.getKey())) {
 						rsvpRetry.setReRouting(); //set the flag of re-routing
 						rsvpRetry.setId(rsvpErr.getId()); //fix the id since it should contain the "r" suffix
 						//System.out.println(event.toString());
@@ -261,7 +277,8 @@ public class ACOBasedFON extends Network {
 					//To avoid race conditions if the path_tear takes a different route and arrives after the restoring path message
 					rsvpRetry.setId(connectionRequest.getId()+"r");
 					//Adds the connection to the list of disrupted LSP 
-					disruptedConnection.put(connectionRequest.getId()+"r",connectionRequest);
+					disruptedConnection.put(Interner.connection(connectionRequest.getId()+"r"),connectionRequest,event.getTimeStamp() + Math.max(residualDuration,0.0) + retention);
+					accounting.addEvent(Accounting.Type.DISRUPTED, event);
 					//System.out.println("Adding LSP failure: "+rsvpErr.getFlowLabel()+" ,"+disrupted.toString());
 				//Wavelength continuity constraint violated or no link available, use alternate path	
 				} else if((errorCode.equals(Error.Code.RP_LABEL_SET)) || (errorCode.equals(Error.Code.RP_NO_ROUTE_AVAILABLE))) {
@@ -274,9 +291,9 @@ public class ACOBasedFON extends Network {
 					connectionRequest = (Request) rsvpErr.getContent();
 					connectionRequest.addTry(); //add a try to the counter of tries		
 					//Resend the request using holdoff-timer - Photonics Network Communications 2008 (Restoration)
-					if (connectionRequest.tryAgain() && disruptedConnection.containsKey(rsvpErr.getId()) && this.rerouting.equals(ReRouting.END_TO_END)) { //resend the request
+					if (connectionRequest.tryAgain() && disruptedConnection.containsKey(rsvpErr.getKey()) && this.rerouting.equals(ReRouting.END_TO_END)) { //resend the request
 						rsvpRetry = new RSVP(connectionRequest,ttl,slots);
-						if (disruptedConnection.containsKey(rsvpErr.getId())) {
+						if (disruptedConnection.containsKey(rsvpErr.getKey())) {
 							rsvpRetry.setReRouting(); //set the flag of re-routing
 							rsvpRetry.setId(rsvpErr.getId()); //fix the id since it should contain the "r" suffix
 							//System.out.println(event.toString());
@@ -298,7 +315,9 @@ public class ACOBasedFON extends Network {
 						}
 					} else { 
 						//Accounts the failed connection request
-						accounting.addEvent(Accounting.Type.FAILED, event);					
+						accounting.addEvent(Accounting.Type.FAILED, event);
+						//The restoration, if any, has definitively failed
+						disruptedConnection.remove(rsvpErr.getKey());
 						//if (disruptedLSP.containsKey(rsvpErr.getFlowLabel())) 
 							//System.out.println("Failed:"+event.toString());
 					}					
@@ -306,7 +325,9 @@ public class ACOBasedFON extends Network {
 					counterReroutingLimitExceeded ++;
 					//Accounts the failed lightpath request
 					//try {
-					accounting.addEvent(Accounting.Type.FAILED, event);					
+					accounting.addEvent(Accounting.Type.FAILED, event);
+					//The restoration, if any, has definitively failed
+					disruptedConnection.remove(rsvpErr.getKey());
 					//} catch(Exception e){System.err.println(event.toString());}
 				}
 				//Now, return the result.
@@ -318,7 +339,7 @@ public class ACOBasedFON extends Network {
 			case CONNECTION_TEARDOWN: //Remove connectio
 				counterConnectionTeardown ++;
 				Connection connectionTear = (Connection) event.getContent();
-				String connectionID = connectionTear.getId();
+				long connectionID = connectionTear.getKey();
 				if ((disruptedConnection.get(connectionID) == null) || ((reroutedConnection.get(connectionID) != null) && (reroutedConnection.get(connectionID).getPath().equals(connectionTear.getPath()) ) )) {
 					//Send RSVP PathTear message
 					RSVP rsvpTear = new RSVP(connectionTear,Message.Type.RSVP_PATH_TEAR,connectionTear.getSource(),connectionTear.getDestination());
@@ -364,16 +385,26 @@ public class ACOBasedFON extends Network {
 		return response;
 	}
 
+	@Override
+	public double getMemoryPerConnection() {
+		return FlexiNode.getMemoryPerConnection(nodes.values());
+	}
+
 	/**
 	 * Prints the last simulation time.
 	 */
 	public void updateValues() {
+		//Memory of the connection state tables of the nodes at the end of the run
+		double memory = this.getMemoryPerConnection();
+		accounting.addConnectionMemory(memory);
+		System.out.println("Memory per active connection (bytes): "+memory);
+		System.out.println(LinkHeuristicCache.statistics());
 		accounting.setUtilization(links,lastTime,1); //bps.
 		//accounting.setUtilization(links,lastTime,8); // 1 byte / sec
 		System.out.println("LastTime: "+lastTime);
-		System.out.println("Disrupted: "+this.disruptedConnection.keySet().toString());
+		System.out.println("Disrupted: "+this.disruptedConnection.keysToString());
 		System.out.println("Total disrupted: "+disruptedConnection.size());
-		System.out.println("Rerouted: "+reroutedConnection.keySet().toString());
+		System.out.println("Rerouted: "+reroutedConnection.keysToString());
 		System.out.println("Total rerouted: "+reroutedConnection.size());
 		//System.out.print("Not routed: ");
 		//for (String conn : disruptedConnection.keySet()) {
@@ -413,6 +444,9 @@ public class ACOBasedFON extends Network {
 			int tries = Integer.parseInt(parameters.get("/RSA/Routing/@maxAttempts").get(0));
 			double bandwidth = Double.parseDouble(parameters.get("/Generators/Traffic/@bandwidth").get(index));
 			subscriber = new FixedRequestTraffic(tries,bandwidth);				
+		} else if(nameClass.equals("fon.TraceRequestTraffic")) {
+			int tries = Integer.parseInt(parameters.get("/RSA/Routing/@maxAttempts").get(0));
+			subscriber = new TraceRequestTraffic(tries);
 		} else if (nameClass.equals("fon.antnet.AntTraffic")) {
 			int ttl = Integer.parseInt(parameters.get("/RSA/Routing/@ttl").get(0));
 			long seed_ant = Long.parseLong(parameters.get("/Ant/Seed/@value").get(0));
@@ -437,23 +471,19 @@ public class ACOBasedFON extends Network {
 	 * @param neighborhood The routing table of a given destination.
 	 * @param rsvp The RSVP message.
 	 * @param visited The ids of the already visited nodes.
+	 * @param selector The next hop selector of the node.
 	 * @return The next hop with a decreasing order of pheromone level.
 	 */
-	public static String select(RoutingTableEntry neighborhood, RSVP rsvp, ArrayList<String> visited) {
+	public static String select(RoutingTableEntry neighborhood, RSVP rsvp, ArrayList<String> visited, NextHopSelector selector) {
+		selector.clear();
 		//For each neighbor do
-		ArrayList<NeighborAttr> neighs = new ArrayList<NeighborAttr>(); 
 		for (String neighId: neighborhood.neighborhood()) {
 			//Avoids the RSVP message to come back or visit another time.
 			if (!rsvp.getPath().containNode(neighId) && !visited.contains(neighId))  
-				neighs.add((NeighborAttr)neighborhood.getEntry(neighId));
-		}
-		//Sort the values of pheromone level
-		if (neighs.size() > 0) {
-			QuickSort.sort(neighs, false);
-			return (String) neighs.get(0).getId();
-		} else { //No neighbors available or not visited
-			return null;
+				selector.add(neighId,((NeighborAttr)neighborhood.getEntry(neighId)).getPheromoneLevel());
 		}
+		//The highest pheromone level. Null, if no neighbors available or not visited
+		return selector.first();
 	}
 	
 	
@@ -462,26 +492,23 @@ public class ACOBasedFON extends Network {
 	 * @param neighborhood The routing table of a given destination.
 	 * @param ant The Ant message.
 	 * @param links The flexilinks of the node
+	 * @param selector The next hop selector of the node.
 	 * @return The next hop with a decreasing order of pheromone level.
 	 */
-	public static String selectAntNextHop(RoutingTableEntry neighborhood, ACOBasedAnt ant, LinkedHashMap<String,FlexiLink> links) {
-		double totalFreeSlots = 0.0;
+	public static String selectAntNextHop(RoutingTableEntry neighborhood, ACOBasedAnt ant, LinkedHashMap<String,FlexiLink> links, NextHopSelector selector) {
+		selector.clear();
 		//For each neighbor do
-		ArrayList<NeighborAttr> neighs = new ArrayList<NeighborAttr>(); 
 		for (String neighId: neighborhood.neighborhood()) {
-			double freeSlots = AntHeuristic.freeSlots(links.get(neighId));			
 			//If the neighboring node is not on the ant's path, select the node and calculate the total number of free slots in the neighbors
-			if (!ant.getPath().containNode(neighId)) {
-				neighs.add((NeighborAttr)neighborhood.getEntry(neighId));
-				totalFreeSlots = totalFreeSlots + freeSlots;
+			if (!ant.isTabu(neighId)) {
+				double freeSlots = AntHeuristic.freeSlots(links.get(neighId));			
+				selector.add(neighId,((NeighborAttr)neighborhood.getEntry(neighId)).getPheromoneLevel(),freeSlots);
 			}
 		}				
 		//If there are valid neighbors and available slots, the neighbor with the highest pheromone value is returned to the next node
-		if (neighs.size() > 0 && totalFreeSlots > 0)  {
-			//Sort the values of pheromone level
-			QuickSort.sort(neighs, false);
+		if (selector.size() > 0 && selector.getHeuristicTotal() > 0)  {
 			//Returns the node with the highest pheromone value
-			return (String) neighs.get(0).getId();
+			return selector.first();
 		} else { //No neighbors available or not visited
 			return null;
 		}
@@ -495,66 +522,32 @@ public class ACOBasedFON extends Network {
 	 * @param links The flexilinks of the node
 	 * @param aCorrectionPheromone The correction (alpha) parameter for routing forward ants for pheromone 
 	 * @param aCorrectionFreeSlots The correction (alpha) parameter for routing forward ants for free slots
+	 * @param selector The next hop selector of the node.
 	 * @return The next hop
 	 */
-	public static String selectAntNextHop2(RoutingTableEntry neighborhood, ACOBasedAnt ant, LinkedHashMap<String,FlexiLink> links, double correctionPheromone, double correctionFreeSlots) {
-		double totalFreeSlots = 0.0;
-		double totalPheromone = 0.0;
+	public static String selectAntNextHop2(RoutingTableEntry neighborhood, ACOBasedAnt ant, LinkedHashMap<String,FlexiLink> links, double correctionPheromone, double correctionFreeSlots, NextHopSelector selector) {
+		selector.clear();
 		//For each neighbor do
-		ArrayList<NeighborAttr> neighs = new ArrayList<NeighborAttr>(); 
 		for (String neighId: neighborhood.neighborhood()) {
-			//Get the number os free slots of the neighboring node
-			double freeSlots = AntHeuristic.biggestFreeContiguousSlots(links.get(neighId));			
 			//If the neighboring node is not on the ant's path, select the node and calculate the total number of free slots in the neighbors
-			if (!ant.getPath().containNode(neighId)) {
-				neighs.add((NeighborAttr)neighborhood.getEntry(neighId));
-				totalFreeSlots = totalFreeSlots + freeSlots;
-				totalPheromone = totalPheromone + ((NeighborAttr)neighborhood.getEntry(neighId)).getPheromoneLevel();
+			if (!ant.isTabu(neighId)) {
+				//Get the number os free slots of the neighboring node
+				double freeSlots = AntHeuristic.biggestFreeContiguousSlots(links.get(neighId));			
+				selector.add(neighId,((NeighborAttr)neighborhood.getEntry(neighId)).getPheromoneLevel(),freeSlots);
 			}
 		}		
-		//System.out.println("neighs: "+ neighs + " - totalfreeslots: "+totalFreeSlots);
-		int size = neighs.size(); //Number of neighbors
-		double[] probabilityDistribution = new double[size]; //Probability distribution
-		String[] keys = new String[size]; //For storing the ids of the nodes.
-		int count=0; //Counter for the number of neighbors	 
+		double totalFreeSlots = selector.getHeuristicTotal();
+		double totalPheromone = selector.getTotal();
 		//For each neighbor do
-		//System.out.println(neighs);
-		for (NeighborAttr neigh: neighs) {
-			//Get the appropriate neighbor and the associated link state
-			keys[count] = (String) neigh.getId();
-			//Get the pheromone of the neighboring node
-			double pheromoneLevel = neigh.getPheromoneLevel();
-			//Get the number os free slots of the neighboring node
-			double freeSlots  = AntHeuristic.biggestFreeContiguousSlots(links.get(neigh.getId()));	
-			//Calculates the heuristic value
-			double valueNeigh = (correctionPheromone*(pheromoneLevel/totalPheromone)+correctionFreeSlots*(freeSlots/totalFreeSlots))/ (correctionPheromone + correctionFreeSlots); 
-			//Stores the heuristic value		
-			probabilityDistribution[count] = valueNeigh;
-			//System.out.println("id: "+ keys[count] + " pheromoneLevel: "+ pheromoneLevel + " - freeSlots: "+freeSlots +" freeSlotsAverage: "+freeSlots/totalFreeSlots+ " - value: "+valueNeigh);
-			count++;
+		for (int i=0; i < selector.size(); i++) {
+			//Calculates and stores the heuristic value
+			double valueNeigh = (correctionPheromone*(selector.getWeight(i)/totalPheromone)+correctionFreeSlots*(selector.getHeuristic(i)/totalFreeSlots))/ (correctionPheromone + correctionFreeSlots); 
+			selector.setWeight(i,valueNeigh);
 		}	 		
-		//System.out.println(Arrays.toString(probabilityDistribution));
 		//If there are valid neighbors and available slots, the neighbor with the highest heuristic value is returned to the next node
-		if (probabilityDistribution.length > 0 && totalFreeSlots > 0) {
-			//Random sample number
-			double sample = rngAnt.nextDouble();
-			//Starts variable that stores the highest value
-			double maxValue = 0.0;
-			int n = 0;
-			//For all candidate neighbors
-				for (int i = 0; i < probabilityDistribution.length; i++) {
-					if (probabilityDistribution[i] > maxValue) {
-						maxValue = probabilityDistribution[i];
-						n = i;
-					}
-					//If the current maximum value is greater than the sample, it returns
-					if (maxValue > sample) {
-						break;
-					}
-				}
-				//System.out.println("keys[n]: "+ keys[n]);
-				//Returns node of the highest value
-				return keys[n];	
+		if (selector.size() > 0 && totalFreeSlots > 0) {
+			//Returns node of the first value above a random sample, or of the highest value
+			return selector.getKey(selector.greedy(rngAnt.nextDouble()));	
 		} else { //Returns null if there are no neighbors or free slots			
 			return null;
 		}
@@ -110,7 +110,7 @@ public class ACOBasedFlexiNode extends fon.topological.FlexiNode {
 								((ACOBasedRoutingTable)routingTable).update(ant);
 							}
 							//Add the wavelength mask to the spectrum usage in ant data 
-							FlexiLink mask = flexiLinks.get(nextHop);
+							FlexiLink mask = this.getFlexiLink(nextHop);
 							//ant.addMask(mask);
 							ant.addSpectrumUsage(mask);
 							//Decrement the TTL
@@ -164,10 +164,10 @@ public class ACOBasedFlexiNode extends fon.topological.FlexiNode {
 			    		//Set the object to the message
 			    		path.setContent(conn);
 			    		//Add the connection to the table of active connections. 
-			    		activeConnections.put(path.getId(),conn);
+			    		this.addActiveConnection(path.getKey(),conn);
 			    		//System.out.println(activeConnections.toString());
 		    			//* Set the reverse (bidirectional) connection
-						FlexiLink linkMask = flexiLinks.get(path.getBackwardNode());
+						FlexiLink linkMask = this.getFlexiLink(path.getBackwardIndex());
 						linkMask.addFrequencySlot(conn.getId(), conn.getFS());
 						//System.err.println(linkMask.toString());
 					} else {	//There is no free frequency slot to allocate	
@@ -222,13 +222,14 @@ public class ACOBasedFlexiNode extends fon.topological.FlexiNode {
 			    			break;
 			    		}
 		    	    } else {
+		    			FlexiLink nextLink = this.getFlexiLink(nextHop);
 		    			//Store the label set, if applicable		    				
 		    			//Updates the mask
 		    			if (labelSet == null) {
-	    					labelSet = new LabelSet(this.flexiLinks.get(nextHop).getNumberSlots());
+	    					labelSet = new LabelSet(nextLink.getNumberSlots());
 		    				path.setLabelSet(labelSet);
 		    			}		    		
-		    			path.updateMask(flexiLinks.get(nextHop).getMask());
+		    			path.updateMask(nextLink.getMask());
 		    			//Decrement the number of hops
 		    			path.decrementHopLimit();
 		    			path.addEffectiveHop();
@@ -238,12 +239,12 @@ public class ACOBasedFlexiNode extends fon.topological.FlexiNode {
 				//Set the next hop in the packet
 				path.setNode(nextHop);		
 				//Add the delay
-				if (flexiLinks.get(nextHop)==null) { //Do nothing if there is no route in the return path, since the PATH_ERR message could not return to the original source node
+				if (this.getFlexiLink(path.getProcIndex())==null) { //Do nothing if there is no route in the return path, since the PATH_ERR message could not return to the original source node
 					event.setType(Event.Type.IGNORE);
 					//System.out.println("path_tear: "+event.toString());
 				} else { //There is a route to return
 					//Set the new time of the event due to transmission time
-					double delay = flexiLinks.get(nextHop).getLink().getDelay();
+					double delay = this.getFlexiLink(path.getProcIndex()).getLink().getDelay();
 					event.setTimeStamp(event.getTimeStamp()+delay);
 				}
 				
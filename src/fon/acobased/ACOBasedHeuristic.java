@@ -23,7 +23,7 @@ public class ACOBasedHeuristic {
 	 * @return The numbers of slots.
 	 */
 	public static double freeSlots(FlexiLink flexiLink) {
-		return flexiLink.freeSlots();
+		return flexiLink.getHeuristics().freeSlots();
 	}
 	
 	/**
@@ -32,7 +32,7 @@ public class ACOBasedHeuristic {
 	 * @return The number of slots.
 	 */
 	public static double biggestFreeContiguousSlots(FlexiLink flexiLink) {
-		return flexiLink.biggestContiguousSlots();
+		return flexiLink.getHeuristics().biggestContiguousSlots();
 	}
 		
 	}
@@ -7,9 +7,12 @@ import java.util.ArrayList;
 import java.util.LinkedHashMap;
 
 import net.RoutingTableEntry;
+import net.Interner;
 import net.LocalRoutingTable;
 import net.Message;
 import ant.NeighborAttr;
+import ant.NextHopSelector;
+import ant.PheromoneMatrix;
 import fon.FlexiLink;
 import fon.LabelSet;
 import fon.RSVP;
@@ -34,6 +37,12 @@ public class ACOBasedRoutingTable extends LocalRoutingTable {
 	/** The corrections (alphas) parameter for routing forward ants (for pheromone and free slots). */
 	protected double correctionPheromone;
 	protected double correctionFreeSlots;
+	/** The label set reused for calculating the fragmentation of the spectrum collected by each ant. */
+	protected transient LabelSet labelSet;
+	/** The dense pheromone levels of the routing table. */
+	protected PheromoneMatrix pheromones;
+	/** The next hop selector reused by the decisions of this node. */
+	protected transient NextHopSelector selector;
 
 	
 	/**
@@ -73,7 +82,7 @@ public class ACOBasedRoutingTable extends LocalRoutingTable {
 		}
 		RoutingTableEntry neighborhood = destination[index];
 		//Gives the appropriate processing to the RSVP packet
-			return ACOBasedFON.select(neighborhood,(RSVP)msg,history);
+			return ACOBasedFON.select(neighborhood,(RSVP)msg,history,this.getSelector());
 	}
 	
 	/**
@@ -92,9 +101,9 @@ public class ACOBasedRoutingTable extends LocalRoutingTable {
 		RoutingTableEntry neighborhood = destination[index];
 		//According to the selection of the heuristic defines the next hop
 		if (heuristicAnt == 1) { //Original heuristic of the article
-			return ACOBasedFON.selectAntNextHop(neighborhood,ant,flexiLinks);
+			return ACOBasedFON.selectAntNextHop(neighborhood,ant,flexiLinks,this.getSelector());
 		}else if (heuristicAnt ==2){ //Proposed heuristic 
-			return ACOBasedFON.selectAntNextHop2(neighborhood,ant,flexiLinks,correctionPheromone,correctionFreeSlots);
+			return ACOBasedFON.selectAntNextHop2(neighborhood,ant,flexiLinks,correctionPheromone,correctionFreeSlots,this.getSelector());
 		}else {
 			System.err.println("Ant Heuristic not selected");
 			return null;
@@ -114,13 +123,15 @@ public class ACOBasedRoutingTable extends LocalRoutingTable {
 
 		String source = ant.getSource();
 //		
-		//Gets the appropriate routing table 
-		Integer index = destinationMap.get(source);
-//		System.out.println("index: "+ index);
-		RoutingTableEntry rTable = destination[index];
+		//Gets the appropriate row of the pheromone matrix 
+		int row = pheromones.row(Interner.getNode(source));
+//		System.out.println("row: "+ row);
 				
 		//Calculate the fn value (the number of free frequence slots)
-		LabelSet labelSet = new LabelSet(ant.spectrumFragmentation);
+		if (labelSet == null)
+			labelSet = new LabelSet(ant.spectrumFragmentation);
+		else
+			labelSet.set(ant.spectrumFragmentation);
 		//System.out.println(labelSet);
 		double fn = labelSet.getFN();
 		//System.out.println("FN (free slots): "+ fn);
@@ -161,18 +172,19 @@ public class ACOBasedRoutingTable extends LocalRoutingTable {
 		//System.out.println("sigma_s: "+sigma_s);
 		//System.out.println("Reinforcement: "+reinforcement);
 				
-		String backwardId = ant.getBackwardNode();
-		//System.out.println("backwardID: "+backwardId);
+		int backward = pheromones.column(row,Interner.getNode(ant.getBackwardNode()));
+		//System.out.println("backward: "+backward);
 		
+		double[] levels = pheromones.getLevels();
+		int offset = pheromones.offset(row);
 		//For each neighbor do		
-		for (String neighId : rTable.neighborhood()) {			
+		for (int column : pheromones.columns(row)) {			
 			//Gets the old pheromone level
-			NeighborAttr attr = (NeighborAttr)rTable.getEntry(neighId);
-			double oldLevel = attr.getPheromoneLevel();
+			double oldLevel = levels[offset + column];
 			//System.out.println("oldLevel: "+oldLevel);
 			double newLevel; //New pheromone level
 			//System.out.println("Vizinho: "+ neighId + " - ltimo n visitado: "+backwardId);
-			if (neighId.equals(backwardId)) { //Positive reinforcement
+			if (column == backward) { //Positive reinforcement
 				newLevel = (oldLevel + reinforcement) / (1.0 + reinforcement); 
 
 			} else { //Negative reinforcement
@@ -181,10 +193,10 @@ public class ACOBasedRoutingTable extends LocalRoutingTable {
 			}
 			//if (Double.isNaN(newLevel)) 
 				//System.out.println("NaN");			
-			//Set the new level and update the pheromone routing table
-			attr.setPheromoneLevel(newLevel);
-			rTable.putEntry(neighId,attr);
+			//Set the new level in the pheromone matrix
+			levels[offset + column] = newLevel;
 		}	
+		pheromones.touch(row);
 	}
 	
 	/**
@@ -269,6 +281,26 @@ public class ACOBasedRoutingTable extends LocalRoutingTable {
 				}				
 			}
 		}		
+		//Move the levels to a new dense matrix
+		pheromones = new PheromoneMatrix(destinationMap,destination);
+	}
+	
+	/**
+	 * Returns the dense pheromone levels of the routing table, e.g., for taking a snapshot.
+	 * @return The dense pheromone levels of the routing table.
+	 */
+	public PheromoneMatrix getPheromones() {
+		return pheromones;
+	}
+	
+	/**
+	 * Returns the next hop selector of this node, creating it if necessary.
+	 * @return The next hop selector of this node.
+	 */
+	protected NextHopSelector getSelector() {
+		if (selector == null)
+			selector = new NextHopSelector();
+		return selector;
 	}
 
 	
@@ -11,25 +11,30 @@ import ant.StatisticalParametricModel;
 import net.Message;
 import ant.Ant;
 import ant.NeighborAttr;
+import ant.NextHopSelector;
 import random.MersenneTwister;
 import fon.Connection;
 import fon.FixedRequestTraffic;
 import net.Error;
 import fon.Request;
 import fon.FlexiLink;
+import fon.LinkHeuristicCache;
 import fon.NonUniformRequestTraffic;
 import fon.RSVP;
+import fon.topological.FON;
 import fon.topological.FlexiNode;
 import fon.topological.FlexiNode.ReRouting;
 import fon.SpectrumAssignment;
 import fon.SpectrumAssignment.Strategy;
+import fon.TraceRequestTraffic;
 import fon.antnet.AntHeuristic.Heuristic;
-import util.QuickSort;
 import event.Event;
 import event.EventSubscriber;
 import graph.Edge;
 import graph.Graph;
 import main.Config;
+import net.Interner;
+import net.ExpiringTable;
 import net.Network;
 import net.Node;
 import net.Failure;
@@ -83,10 +88,12 @@ public class AntFON extends Network {
 	/** The length in bytes for the identification of a link or a node. */
 	protected int identificationLength;
 	/** The collection of Connection successfully re-routed after a failure. */
-	protected Hashtable<String,Connection> reroutedConnection;
+	protected ExpiringTable<Connection> reroutedConnection;
 	/** The collection of Connection disrupted by a failure, which
 	 * are eligible for full re-routing. */
-	protected Hashtable<String,Request> disruptedConnection;
+	protected ExpiringTable<Request> disruptedConnection;
+	/** The time for retaining the disrupted and re-routed connections after the end of their holding time. */
+	protected double retention;
 	/** Random number generator for ants. */
 	public static MersenneTwister rngAnt;
 	/** Counters */
@@ -115,9 +122,14 @@ public class AntFON extends Network {
 		nodes = new LinkedHashMap<String,AntFlexiNode>();
 		//Create the links of this network
 		links = new LinkedHashMap<String,FlexiLink>();
+		//The statistics of the heuristic caches of the new links
+		LinkHeuristicCache.reset();
 		//Create the storage of disrupted connections by failure
-		reroutedConnection = new Hashtable<String,Connection>();
-		disruptedConnection = new Hashtable<String,Request>();			
+		reroutedConnection = new ExpiringTable<Connection>();
+		disruptedConnection = new ExpiringTable<Request>();			
+		//Get the retention time of the disrupted and re-routed connections, if specified
+		ArrayList<String> retentionTime = parameters.get("/Failure/Timing/@retention");
+		retention = (retentionTime != null) ? Double.parseDouble(retentionTime.get(0)) : FON.RETENTION;
 		//Get the links of the network graph
 		LinkedHashMap<String,Link> graphLinks = config.getLinks();
 		//Number of slots per link
@@ -155,6 +167,9 @@ public class AntFON extends Network {
 		identificationLength = Integer.parseInt(parameters.get("/RSA/Overhead/@label").get(0));
 		//Get details about the RSA algorithm used
 		boolean deterministic = Boolean.parseBoolean(parameters.get("/RSA/Routing/@deterministic").get(0));
+		//Alias tables for the stochastic routing, if specified
+		ArrayList<String> aliasParameter = parameters.get("/RSA/Routing/@alias");
+		boolean alias = (aliasParameter != null) && Boolean.parseBoolean(aliasParameter.get(0));
 		rerouting = ReRouting.valueOf(parameters.get("/RSA/Routing/@rerouting").get(0));
 		reroutingAttempts = Integer.parseInt(parameters.get("/RSA/Routing/@attempts").get(0));
 		maxReroutingAttempts = Integer.parseInt(parameters.get("/RSA/Routing/@maxAttempts").get(0));
@@ -175,6 +190,7 @@ public class AntFON extends Network {
 			//Create the pheromone routing table for this node
 			AntRoutingTable art = new AntRoutingTable(id,confidenceLevel,firstWeight,secondWeight,amplifier,correction, powerFactor, deterministic, heuristic);
 			art.updateFromTopology(graph);	
+			art.setAliasSampling(alias);
 			//Create the local parametric view for all destinations of this 			
 			StatisticalParametricModel model = new StatisticalParametricModel(id,graph,exponentialFactor,reductor);
 			//Create the links adjacent to this node.
@@ -201,6 +217,9 @@ public class AntFON extends Network {
 	@SuppressWarnings("unchecked")
 	@Override
 	public Event process(Event event) {
+		//Retire the expired entries of the disrupted and re-routed connections
+		disruptedConnection.purge(event.getTimeStamp());
+		reroutedConnection.purge(event.getTimeStamp());
 		//The id of the processing node
 		String id;
 		//Event response object
@@ -243,7 +262,8 @@ public class AntFON extends Network {
 				accounting.addEvent(Accounting.Type.SUCCESS, event);				
 				//See if it is a successful re-routing of a failed LSP
 				if (rsvpConfirm.isReRouting()) {
-					reroutedConnection.put(rsvpConfirm.getId(),connectionEst);
+					disruptedConnection.remove(rsvpConfirm.getKey());
+					reroutedConnection.put(rsvpConfirm.getKey(),connectionEst,event.getTimeStamp() + duration + retention);
 				}
 				//System.out.println(event.toString());
 				//Return a new event for tearing down the lightpath when appropriate
@@ -264,7 +284,7 @@ public class AntFON extends Network {
 					connectionRequest = (Request) ((Connection)rsvpErr.getContent()).getRequest();
 					rsvpRetry = new RSVP(connectionRequest,hopLimit,slots);
 					//System.out.println("Contention: "+lRequest.toString());
-					if (disruptedConnection.containsKey(rsvpErr.getId())) {
+					if (disruptedConnection.containsKey(rsvpErr.getKey())) {
 						rsvpRetry.setReRouting(); //set the flag of re-routing
 						rsvpRetry.setId(rsvpErr.getId()); //fix the id since it should contain the "r" suffix
 						//System.out.println(event.toString());
@@ -288,7 +308,8 @@ public class AntFON extends Network {
 					//To avoid race conditions if the path_tear takes a different route and arrives after the restoring path message
 					rsvpRetry.setId(connectionRequest.getId()+"r");
 					//Adds the connection to the list of disrupted LSP 
-					disruptedConnection.put(connectionRequest.getId()+"r",connectionRequest);
+					disruptedConnection.put(Interner.connection(connectionRequest.getId()+"r"),connectionRequest,event.getTimeStamp() + Math.max(residualDuration,0.0) + retention);
+					accounting.addEvent(Accounting.Type.DISRUPTED, event);
 					//System.out.println("Adding LSP failure: "+rsvpErr.getFlowLabel()+" ,"+disrupted.toString());
 				//Wavelength continuity constraint violated or no link available, use alternate path	
 				} else if((errorCode.equals(Error.Code.RP_LABEL_SET)) || (errorCode.equals(Error.Code.RP_NO_ROUTE_AVAILABLE))) {
@@ -301,9 +322,9 @@ public class AntFON extends Network {
 					connectionRequest = (Request) rsvpErr.getContent();
 					connectionRequest.addTry(); //add a try to the counter of tries		
 					//Resend the request using holdoff-timer - Photonics Network Communications 2008 (Restoration)
-					if (connectionRequest.tryAgain() && disruptedConnection.containsKey(rsvpErr.getId()) && this.rerouting.equals(ReRouting.END_TO_END)) { //resend the request
+					if (connectionRequest.tryAgain() && disruptedConnection.containsKey(rsvpErr.getKey()) && this.rerouting.equals(ReRouting.END_TO_END)) { //resend the request
 						rsvpRetry = new RSVP(connectionRequest,hopLimit,slots);
-						if (disruptedConnection.containsKey(rsvpErr.getId())) {
+						if (disruptedConnection.containsKey(rsvpErr.getKey())) {
 							rsvpRetry.setReRouting(); //set the flag of re-routing
 							rsvpRetry.setId(rsvpErr.getId()); //fix the id since it should contain the "r" suffix
 							//System.out.println(event.toString());
@@ -325,7 +346,9 @@ public class AntFON extends Network {
 						}
 					} else { 
 						//Accounts the failed connection request
-						accounting.addEvent(Accounting.Type.FAILED, event);					
+						accounting.addEvent(Accounting.Type.FAILED, event);
+						//The restoration, if any, has definitively failed
+						disruptedConnection.remove(rsvpErr.getKey());
 						//if (disruptedLSP.containsKey(rsvpErr.getFlowLabel())) 
 							//System.out.println("Failed:"+event.toString());
 					}					
@@ -333,7 +356,9 @@ public class AntFON extends Network {
 					counterReroutingLimitExceeded ++;
 					//Accounts the failed lightpath request
 					//try {
-					accounting.addEvent(Accounting.Type.FAILED, event);					
+					accounting.addEvent(Accounting.Type.FAILED, event);
+					//The restoration, if any, has definitively failed
+					disruptedConnection.remove(rsvpErr.getKey());
 					//} catch(Exception e){System.err.println(event.toString());}
 				}
 				//Now, return the result.
@@ -345,7 +370,7 @@ public class AntFON extends Network {
 			case CONNECTION_TEARDOWN: //Remove connectio
 				counterConnectionTeardown ++;
 				Connection connectionTear = (Connection) event.getContent();
-				String connectionID = connectionTear.getId();
+				long connectionID = connectionTear.getKey();
 				if ((disruptedConnection.get(connectionID) == null) || ((reroutedConnection.get(connectionID) != null) && (reroutedConnection.get(connectionID).getPath().equals(connectionTear.getPath()) ) )) {
 					//Send RSVP PathTear message
 					RSVP rsvpTear = new RSVP(connectionTear,Message.Type.RSVP_PATH_TEAR,connectionTear.getSource(),connectionTear.getDestination());
@@ -474,16 +499,26 @@ public class AntFON extends Network {
 		return response;
 	}
 
+	@Override
+	public double getMemoryPerConnection() {
+		return FlexiNode.getMemoryPerConnection(nodes.values());
+	}
+
 	/**
 	 * Prints the last simulation time.
 	 */
 	public void updateValues() {
+		//Memory of the connection state tables of the nodes at the end of the run
+		double memory = this.getMemoryPerConnection();
+		accounting.addConnectionMemory(memory);
+		System.out.println("Memory per active connection (bytes): "+memory);
+		System.out.println(LinkHeuristicCache.statistics());
 		accounting.setUtilization(links,lastTime,1); //bps.
 		//accounting.setUtilization(links,lastTime,8); // 1 byte / sec
 		System.out.println("LastTime: "+lastTime);
-		System.out.println("Disrupted: "+this.disruptedConnection.keySet().toString());
+		System.out.println("Disrupted: "+this.disruptedConnection.keysToString());
 		System.out.println("Total disrupted: "+disruptedConnection.size());
-		System.out.println("Rerouted: "+reroutedConnection.keySet().toString());
+		System.out.println("Rerouted: "+reroutedConnection.keysToString());
 		System.out.println("Total rerouted: "+reroutedConnection.size());
 		//System.out.print("Not routed: ");
 		//for (String conn : disruptedConnection.keySet()) {
@@ -523,6 +558,9 @@ public class AntFON extends Network {
 			int tries = Integer.parseInt(parameters.get("/RSA/Routing/@maxAttempts").get(0));
 			double bandwidth = Double.parseDouble(parameters.get("/Generators/Traffic/@bandwidth").get(index));
 			subscriber = new FixedRequestTraffic(tries,bandwidth);				
+		} else if(nameClass.equals("fon.TraceRequestTraffic")) {
+			int tries = Integer.parseInt(parameters.get("/RSA/Routing/@maxAttempts").get(0));
+			subscriber = new TraceRequestTraffic(tries);
 		} else if (nameClass.equals("fon.antnet.AntTraffic")) {
 			int hopLimit = Integer.parseInt(parameters.get("/RSA/Routing/@hopLimit").get(0));
 			long seed_ant = Long.parseLong(parameters.get("/Ant/Seed/@value").get(0));
@@ -543,23 +581,19 @@ public class AntFON extends Network {
 	 * @param neighborhood The routing table of a given destination.
 	 * @param rsvp The RSVP message.
 	 * @param visited The ids of the already visited nodes.
+	 * @param selector The next hop selector of the node.
 	 * @return The next hop with a decreasing order of pheromone level.
 	 */
-	public static String select(RoutingTableEntry neighborhood, RSVP rsvp, ArrayList<String> visited) {
+	public static String select(RoutingTableEntry neighborhood, RSVP rsvp, ArrayList<String> visited, NextHopSelector selector) {
+		selector.clear();
 		//For each neighbor do
-		ArrayList<NeighborAttr> neighs = new ArrayList<NeighborAttr>(); 
 		for (String neighId: neighborhood.neighborhood()) {
 			//Avoids the RSVP message to come back or visit another time.
 			if (!rsvp.getPath().containNode(neighId) && !visited.contains(neighId))  
-				neighs.add((NeighborAttr)neighborhood.getEntry(neighId));
-		}
-		//Sort the values of pheromone level
-		if (neighs.size() > 0) {
-			QuickSort.sort(neighs, false);
-			return (String) neighs.get(0).getId();
-		} else { //No neighbors available or not visited
-			return null;
+				selector.add(neighId,((NeighborAttr)neighborhood.getEntry(neighId)).getPheromoneLevel());
 		}
+		//The highest pheromone level. Null, if no neighbors available or not visited
+		return selector.first();
 	}
 	
 	/**
@@ -570,37 +604,29 @@ public class AntFON extends Network {
 	 * @param ant The packet ant.
 	 * @param alpha Trade-off between shortest-path and heuristic correction (congestion).
 	 * @param powerFactor to enhance the difference in the heuristics correction
+	 * @param selector The next hop selector of the node.
 	 * @return The id of the next hop.
 	 */
-	public static String select(RoutingTableEntry neighborhood, LinkedHashMap<String,FlexiLink> links, Ant ant, double alpha, double powerFactor, Heuristic heuristic){
-		//Gets the total number of free points between the neighbors.
-		double totalFreeWavelengths = 0.0;  //Total number of free wavelengths
-		double totalPheromoneLevel = 0.0;
-		//Gets the neighbors that are not in the tabu list.
-		ArrayList<String> availableNeighbors = new ArrayList<String>();
+	public static String select(RoutingTableEntry neighborhood, LinkedHashMap<String,FlexiLink> links, Ant ant, double alpha, double powerFactor, Heuristic heuristic, NextHopSelector selector){
+		selector.clear();
+		//Gets the neighbors that are not in the tabu list, with their pheromone levels and free points.
  		for (String neighId: neighborhood.neighborhood()) { 
  			if (!ant.isTabu(neighId)) { //not in tabu list
- 				availableNeighbors.add(neighId);
- 				//Get the total number of free wavelengths
- 				//double free = (double) links.get(neighId).freeSlots();
- 				//double free = (double) links.get(neighId).biggestContiguousSlots(); 				
  				//Determine the value according to the adopted heuristic
 				double free = 0.0;
 				if (heuristic.equals(Heuristic.FREE_SLOTS))
 	 				free  = AntHeuristic.freeSlots(links.get(neighId));
 				else if (heuristic.equals(Heuristic.BIGGEST_FREE_CONTIGUOUS_SLOTS))
 					free = AntHeuristic.biggestFreeContiguousSlots(links.get(neighId)); 				
- 				totalFreeWavelengths = totalFreeWavelengths + Math.pow(free, powerFactor);
- 				//And the total pheromone level
- 				totalPheromoneLevel = totalPheromoneLevel + ((NeighborAttr)neighborhood.getEntry(neighId)).getPheromoneLevel(); 
+ 				selector.add(neighId,((NeighborAttr)neighborhood.getEntry(neighId)).getPheromoneLevel(),Math.pow(free, powerFactor));
  			}
  		}
  		//Verify the routing decision policy
- 		if ((availableNeighbors.size() == 0)) { //all neighbors already visited - doing loop!
+ 		if ((selector.size() == 0)) { //all neighbors already visited - doing loop!
  			//Proceed like a data packet
  			String nextHop = null;
  			if (neighborhood.size() > 1) {
- 				nextHop = select(neighborhood,ant);
+ 				nextHop = select(neighborhood,ant,selector);
  			} else {
  				//nextHop = ant.getLastVisited();
  				return null;
@@ -616,40 +642,15 @@ public class AntFON extends Network {
  			return nextHop;
  		} else { //There are other nodes not already visited.
  			/* Now, use the pheromone values with the local heuristic to calculate the next hop. */
- 			int size = availableNeighbors.size(); //Number of neighbors
- 			double[] probabilityDistribution = new double[size]; //Probability distribution
- 			String[] keys = new String[size]; //For storing the ids of the nodes.
- 			int count=0; //Counter for the number of neighbors	 
+ 			double totalPheromoneLevel = selector.getTotal();
+ 			double totalFreeWavelengths = selector.getHeuristicTotal();
  			//For each neighbor do
- 			for (String neighId: availableNeighbors) {
- 				//Get the appropriate neighbor and the associated link state
- 				keys[count] = neighId;
- 				NeighborAttr neigh = (NeighborAttr) neighborhood.getEntry(neighId);
+ 			for (int i=0; i < selector.size(); i++) {
 				//Now calculate the probability 			 				
- 				//double freeLambdas = links.get(neighId).freeSlots();
- 				//double freeLambdas = 0.0;
- 				//double freeLambdas = links.get(neighId).biggestContiguousSlots();
-				double freeLambdas = 0.0;
-				if (heuristic.equals(Heuristic.FREE_SLOTS))
-	 				freeLambdas  = AntHeuristic.freeSlots(links.get(neighId));
-				else if (heuristic.equals(Heuristic.BIGGEST_FREE_CONTIGUOUS_SLOTS))
-					freeLambdas = AntHeuristic.biggestFreeContiguousSlots(links.get(neighId)); 		
- 				//System.out.println("freeLambdas: "+freeLambdas);
- 				probabilityDistribution[count] = ((neigh.getPheromoneLevel() / totalPheromoneLevel) + alpha*(Math.pow(freeLambdas,powerFactor)/totalFreeWavelengths)) / (1.0 + alpha);
- 				//Increment the index
- 				count++;
+ 				selector.setWeight(i,((selector.getWeight(i) / totalPheromoneLevel) + alpha*(selector.getHeuristic(i)/totalFreeWavelengths)) / (1.0 + alpha));
  			}	 			
- 			//System.out.println("probabilityDistribution: "+ Arrays.toString(probabilityDistribution));
  			//Spins the wheel
- 			double sample = rngAnt.nextDouble();
- 			//Set sum to the first probability
- 			double sum = probabilityDistribution[0];
- 			int n = 0;
- 			while (sum < sample) {
- 				n = n + 1;
- 				sum = sum + probabilityDistribution[n];
- 			}		
- 			return keys[n];							
+ 			return selector.getKey(selector.roulette(rngAnt.nextDouble()));							
  		}
 	}
 
@@ -657,50 +658,29 @@ public class AntFON extends Network {
 	 * Selects the next hop based ONLY on the probabilities of the routing table.
 	 * It is not allowed to come back! 
 	 * @param neighborhood The routing table of a given destination.
+	 * @param selector The next hop selector of the node.
 	 * @return The id of the next hop.
 	 */
-	public static String select(RoutingTableEntry neighborhood,Message msg){
-		int count=0; //Counter for the number of neighbors	 
-		int size; //Number of neighbors
+	public static String select(RoutingTableEntry neighborhood,Message msg, NextHopSelector selector){
 		//Get the last edge visited.
 		String lastVisited = null;
 		if (msg.getPathLength() > 0) { // not first hop
 			lastVisited = msg.getPath().getLastEdge().getSource();
-			size = neighborhood.size() - 1;
-		} else { //First hop
-			size = neighborhood.size();
-		}
-		if (size == 0) {
-			return null;
 		}
-		double[] probabilityDistribution = new double[size]; //Probability distribution
-		String[] keys = new String[size]; //For storing the ids of the nodes.
-		double totalLevel = 0.0; //Sum of probabilities
+		selector.clear();
 		//For each neighbor do
 		for (String neighId: neighborhood.neighborhood()) {
 			if (!neighId.equals(lastVisited)) {
-				double level = ((NeighborAttr)neighborhood.getEntry(neighId)).getPheromoneLevel();
-				probabilityDistribution[count] = level;
-				totalLevel = totalLevel + level;
-				keys[count] = neighId;
-				count++;
+				selector.add(neighId,((NeighborAttr)neighborhood.getEntry(neighId)).getPheromoneLevel());
 			}
 		}
-		//Normalize the values
-		for (int i=0; i<size;i++) {
-			probabilityDistribution[i] = probabilityDistribution[i]/totalLevel;
+		if (selector.size() == 0) {
+			return null;
 		}
+		//Normalize the values
+		selector.normalize();
 		//Spins the wheel
-		double sample = rngAnt.nextDouble();
-		//Set sum to the first probability
-		double sum = probabilityDistribution[0];
-		//System.out.println("sum: "+sum + " - sample: "+sample);
-		int n = 0;
-		while (sum < sample) {
-			n = n + 1;
-			sum = sum + probabilityDistribution[n];
-		}		
-		return keys[n];		
+		return selector.getKey(selector.roulette(rngAnt.nextDouble()));		
 	}
 
 	/**
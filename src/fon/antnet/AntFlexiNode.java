@@ -114,12 +114,12 @@ public class AntFlexiNode extends fon.topological.FlexiNode {
 		    			//Decrement the number of hops
 		    			ant.decrementHopLimit();
 		    			//Add the wavelength mask to the ant payload
-		    			FlexiLink mask = flexiLinks.get(nextHop);
+		    			FlexiLink mask = this.getFlexiLink(nextHop);
 		    			ant.addMask(mask);
 		    		}
 		    	}
 		    	//Set the utilization of the control channel
-		    	link = flexiLinks.get(nextHop).getLink();
+		    	link = this.getFlexiLink(nextHop).getLink();
 				link.setCounter(Message.HEADER_LENGTH + ant.getPayloadLength());
 		    	//Set the next hop in the packet
 		    	ant.setNode(nextHop);
@@ -148,7 +148,7 @@ public class AntFlexiNode extends fon.topological.FlexiNode {
 		    			break;
 		    		}
 			    	//Set the utilization of the control channel
-			    	link = flexiLinks.get(nextHop).getLink();
+			    	link = this.getFlexiLink(nextHop).getLink();
 					link.setCounter(Message.HEADER_LENGTH + ant.getPayloadLength());
 		    		//Set the next node in the path
 		    		ant.setNode(nextHop);
@@ -202,10 +202,10 @@ public class AntFlexiNode extends fon.topological.FlexiNode {
 			    		//Set the object to the message
 			    		path.setContent(conn);
 			    		//Add the connection to the table of active connections. 
-			    		activeConnections.put(path.getId(),conn);
+			    		this.addActiveConnection(path.getKey(),conn);
 			    		//System.out.println(activeConnections.toString());
 		    			//* Set the reverse (bidirectional) connection
-						FlexiLink linkMask = flexiLinks.get(path.getBackwardNode());
+						FlexiLink linkMask = this.getFlexiLink(path.getBackwardIndex());
 						linkMask.addFrequencySlot(conn.getId(), conn.getFS());
 						//System.err.println(linkMask.toString());
 					} else {	//There is no free frequency slot to allocate	
@@ -244,7 +244,7 @@ public class AntFlexiNode extends fon.topological.FlexiNode {
 		    		//Get the next hop
 					if (this.rerouting.equals(ReRouting.SEGMENT)) { //Intermediate node re-routing
 						//no routingTry
-						nextHop = ((AntRoutingTable)routingTable).nextHop(path,this.getHistoryTable(path.getId()));
+						nextHop = ((AntRoutingTable)routingTable).nextHop(path,this.getHistoryTable(path.getKey()));
 					} else { //None or end-to-end routing
 						nextHop = ((AntRoutingTable)routingTable).nextHop(path,new ArrayList<String>());
 					}
@@ -267,19 +267,20 @@ public class AntFlexiNode extends fon.topological.FlexiNode {
 			    			break;
 			    		}
 		    	    } else {
+		    			FlexiLink nextLink = this.getFlexiLink(nextHop);
 		    			//Store the label set, if applicable
 		    			if ((this.rerouting.equals(ReRouting.SEGMENT)) && (labelSet != null) )
-		    				labelSetTable.put(path.getId(), (LabelSet)labelSet.clone());		    				
+		    				labelSetTable.put(path.getKey(), (LabelSet)labelSet.clone());		    				
 		    			//Updates the mask
 		    			if (labelSet == null) {
 		    				if (sa.equals(Strategy.FIRST_FIT))
-		    					labelSet = new LabelSet(this.flexiLinks.get(nextHop).getNumberSlots());
+		    					labelSet = new LabelSet(nextLink.getNumberSlots());
 		    				else if (sa.equals(Strategy.BEST_FIT))
-								labelSet = new LabelSet(this.flexiLinks.get(nextHop).getNumberSlots());
+								labelSet = new LabelSet(nextLink.getNumberSlots());
 		    				else if (sa.equals(Strategy.SEGMENTED_FIRST_FIT))						
-								labelSet = new LabelSet(this.flexiLinks.get(nextHop).getNumberSlots());
+								labelSet = new LabelSet(nextLink.getNumberSlots());
 							else if (sa.equals(Strategy.SEGMENTED_BEST_FIT))						
-								labelSet = new LabelSet(this.flexiLinks.get(nextHop).getNumberSlots());
+								labelSet = new LabelSet(nextLink.getNumberSlots());
 //		    				else if (sa.equals(Strategy.MOST_USED)) 
 //								labelSet = new LabelSet(getMostUsed(this.links.get(nextHop).getNumberWavelengths()));
 //		    				else if (wa.equals(WavelengthAssignment.LEAST_USED)) 
@@ -287,7 +288,7 @@ public class AntFlexiNode extends fon.topological.FlexiNode {
 		    				path.setLabelSet(labelSet);
 		    			}		    		
 		    			//System.out.println(flexiLinks.get(nextHop).getMask());
-		    			path.updateMask(flexiLinks.get(nextHop).getMask());
+		    			path.updateMask(nextLink.getMask());
 		    			//Decrement the number of hops
 		    			path.decrementHopLimit();
 		    			path.addEffectiveHop();
@@ -307,12 +308,12 @@ public class AntFlexiNode extends fon.topological.FlexiNode {
 				//Set the next hop in the packet
 				path.setNode(nextHop);		
 				//Add the delay
-				if (flexiLinks.get(nextHop)==null) { //Do nothing if there is no route in the return path, since the PATH_ERR message could not return to the original source node
+				if (this.getFlexiLink(path.getProcIndex())==null) { //Do nothing if there is no route in the return path, since the PATH_ERR message could not return to the original source node
 					event.setType(Event.Type.IGNORE);
 					//System.out.println("path_tear: "+event.toString());
 				} else { //There is a route to return
 					//Set the new time of the event due to transmission time
-					double delay = flexiLinks.get(nextHop).getLink().getDelay();
+					double delay = this.getFlexiLink(path.getProcIndex()).getLink().getDelay();
 					event.setTimeStamp(event.getTimeStamp()+delay);
 				}
 				
@@ -356,7 +357,7 @@ public class AntFlexiNode extends fon.topological.FlexiNode {
 		    				clonedFrom.retransmit(id,neighId);
 		    				clonedFrom.setNode(neighId);
 		    				//Set new time stamp
-		    				double transmissionTime = this.flexiLinks.get(neighId).getDelay();
+		    				double transmissionTime = this.getFlexiLink(clonedFrom.getProcIndex()).getDelay();
 		    				double newTimeStamp = event.getTimeStamp() + transmissionTime;
 		    				//Add to the list of broadcast
 		    				broadcast.add(new Event(newTimeStamp,event.getInitialTimeStamp(),Event.Type.MESSAGE_ARRIVAL,clonedFrom));
@@ -366,17 +367,18 @@ public class AntFlexiNode extends fon.topological.FlexiNode {
 		    		failureID.add(failure.getID());
 		    		/* Remove the link states affected by the failure. */
 		    		if (((Edge)failure.getInformation()).getSource().equals(id)) {
-		    			flexiLinks.remove(((Edge)failure.getInformation()).getDestination());
+		    			this.removeFlexiLink(((Edge)failure.getInformation()).getDestination());
 		    		}
 		    		/* Treatment the failure by the neighbor nodes */
 		    		//Now, if it is the closest node upstream to the failure
 		    		if(id.equals(((Edge)failure.getInformation()).getSource())) {
 		    			//Adds the notification of broken LSP to the event
-		    			for(String activeID:activeConnections.keySet()) {
-		    				//Gets the connection
-		    				Connection active = activeConnections.get(activeID);
+		    			for(long activeKey:connectionIndex.getKeys(id,((Edge)failure.getInformation()).getDestination())) {
+		    				//Gets the connection and the position of this node in its path
+		    				Connection active = activeConnections.get(activeKey);
+		    				int position = connectionIndex.getPosition(activeKey);
 		    				//Locate the failure
-		    				Location location = failure.locate(id,active.getPath());
+		    				Location location = failure.locate(position,active.getPath());
 		    				if(!location.equals(Failure.Location.NOT_APPLICABLE)) {
 		    					//Create the PathErr packet
 		    					RSVP pathErr = new RSVP(active,Message.Type.RSVP_PATH_ERR,id,active.getSource());
@@ -387,10 +389,10 @@ public class AntFlexiNode extends fon.topological.FlexiNode {
 		    					double transmissionTime=0;
 		    					//Not the source node to treat the failure
 		    					if(!id.equals(active.getPath().firstNode())) {
-		    						nextHop = active.getPath().getPreviousNode(id);
+		    						nextHop = active.getPath().getNode(position - 1);
 		    						pathErr.setNode(nextHop);
 		    						//Set new time stamp
-		    						transmissionTime = this.flexiLinks.get(nextHop).getDelay();	
+		    						transmissionTime = this.getFlexiLink(pathErr.getProcIndex()).getDelay();	
 		    					}
 		    					double newTimeStamp = event.getTimeStamp() + transmissionTime + DELTA_TIME;
 		    					broadcast.add(new Event(newTimeStamp,event.getInitialTimeStamp(),Event.Type.MESSAGE_ARRIVAL,pathErr));
@@ -399,11 +401,12 @@ public class AntFlexiNode extends fon.topological.FlexiNode {
 		    			//Now, if it is the closest node downstream to the failure
 		    		} else if(id.equals(((Edge)failure.getInformation()).getDestination())) {
 		    			//Adds the notification of broken LSP to the event
-		    			for(String activeID:activeConnections.keySet()) {
-		    				//Gets the connection
-		    				Connection active = activeConnections.get(activeID);
+		    			for(long activeKey:connectionIndex.getKeys(((Edge)failure.getInformation()).getSource(),id)) {
+		    				//Gets the connection and the position of this node in its path
+		    				Connection active = activeConnections.get(activeKey);
+		    				int position = connectionIndex.getPosition(activeKey);
 		    				//Locate the failure
-		    				Location location = failure.locate(id,active.getPath());
+		    				Location location = failure.locate(position,active.getPath());
 		    				if(!location.equals(Failure.Location.NOT_APPLICABLE)) {
 		    					//Create the PathErr packet
 		    					RSVP pathTear = new RSVP(active,Message.Type.RSVP_PATH_TEAR,id,active.getDestination());
@@ -415,9 +418,9 @@ public class AntFlexiNode extends fon.topological.FlexiNode {
 		    					double transmissionTime = 0;
 		    					//Not the last node to tackle the failure
 		    					if(!id.equals(active.getPath().lastNode())) {
-		    						nextHop = active.getPath().getNextNode(id);
+		    						nextHop = active.getPath().getNode(position + 1);
 		    						pathTear.setNode(nextHop);
-		    						transmissionTime = this.flexiLinks.get(nextHop).getDelay();	
+		    						transmissionTime = this.getFlexiLink(pathTear.getProcIndex()).getDelay();	
 		    					}
 	    						//Set new time stamp
 		    					double newTimeStamp = event.getTimeStamp() + transmissionTime + DELTA_TIME;
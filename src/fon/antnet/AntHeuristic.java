@@ -19,7 +19,7 @@ public class AntHeuristic {
 	 * @return The numbers of slots.
 	 */
 	public static double freeSlots(FlexiLink flexiLink) {
-		return flexiLink.freeSlots();
+		return flexiLink.getHeuristics().freeSlots();
 	}
 	
 	/**
@@ -28,7 +28,7 @@ public class AntHeuristic {
 	 * @return The number of slots.
 	 */
 	public static double biggestFreeContiguousSlots(FlexiLink flexiLink) {
-		return flexiLink.biggestContiguousSlots();
+		return flexiLink.getHeuristics().biggestContiguousSlots();
 	}
 		
 	}
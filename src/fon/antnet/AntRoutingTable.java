@@ -11,9 +11,13 @@ import net.RoutingTableEntry;
 import ant.Ant;
 import ant.LocalParametricView;
 import ant.StatisticalParametricModel;
+import net.Interner;
 import net.LocalRoutingTable;
 import net.Message;
 import ant.NeighborAttr;
+import ant.AliasTable;
+import ant.NextHopSelector;
+import ant.PheromoneMatrix;
 import fon.FlexiLink;
 import fon.RSVP;
 import fon.antnet.AntHeuristic.Heuristic;
@@ -50,6 +54,14 @@ public class AntRoutingTable extends LocalRoutingTable {
 	protected double alpha;	
 	/**The heuristic adopted */
 	protected Heuristic heuristic;
+	/** The dense pheromone levels of the routing table. */
+	protected PheromoneMatrix pheromones;
+	/** The next hop selector reused by the decisions of this node. */
+	protected transient NextHopSelector selector;
+	/** Indicates if the stochastic routing of the RSVP messages samples alias tables of the pheromone levels. */
+	protected boolean aliasSampling;
+	/** The alias tables of the stochastic routing, indexed by the row and by the column of the excluded neighbor. */
+	protected transient AliasTable[] aliases;
 	
 	/**
 	 * Creates a new AntNetCrankRoutingTable object.
@@ -91,7 +103,7 @@ public class AntRoutingTable extends LocalRoutingTable {
 		if (index == null) //removed node from the topology
 			return null;
 		RoutingTableEntry neighborhood = destination[index];
-		return AntFON.select(neighborhood,flexiLinks,(Ant)ant,alpha,powerFactor, heuristic);
+		return AntFON.select(neighborhood,flexiLinks,(Ant)ant,alpha,powerFactor, heuristic,this.getSelector());
 	}
 
 	/**
@@ -110,9 +122,67 @@ public class AntRoutingTable extends LocalRoutingTable {
 		RoutingTableEntry neighborhood = destination[index];
 		//Gives the appropriate processing to the RSVP packet
 		if (deterministic)
-			return AntFON.select(neighborhood,(RSVP)msg,history);
+			return AntFON.select(neighborhood,(RSVP)msg,history,this.getSelector());
+		else if (aliasSampling)
+			return this.sample(msg,index);
 		else 
-			return AntFON.select(neighborhood,msg);
+			return AntFON.select(neighborhood,msg,this.getSelector());
+	}
+
+	/**
+	 * Selects the next hop based ONLY on the probabilities of the routing table, using the alias table
+	 * of the destination, which is rebuilt only after the pheromone levels of the destination are updated.
+	 * It is not allowed to come back!
+	 * @param msg The specified message.
+	 * @param row The row of the destination in the pheromone matrix.
+	 * @return The id of the next hop.
+	 */
+	protected String sample(Message msg, int row) {
+		//Get the column of the last edge visited.
+		int excluded = -1;
+		if (msg.getPathLength() > 0) // not first hop
+			excluded = pheromones.column(row,Interner.getNode(msg.getPath().getLastEdge().getSource()));
+		int slots = pheromones.width() + 1;
+		if (aliases == null)
+			aliases = new AliasTable[pheromones.size() * slots];
+		AliasTable table = aliases[(row * slots) + excluded + 1];
+		if (table == null) {
+			table = new AliasTable();
+			aliases[(row * slots) + excluded + 1] = table;
+		}
+		//Rebuild the table after the update of the pheromone levels
+		if (table.getVersion() != pheromones.version(row)) {
+			NextHopSelector candidates = this.getSelector();
+			candidates.clear();
+			double[] levels = pheromones.getLevels();
+			int offset = pheromones.offset(row);
+			for (int column : pheromones.columns(row)) {
+				if (column != excluded)
+					candidates.add(Interner.label(pheromones.neighbor(offset + column)),levels[offset + column]);
+			}
+			table.build(candidates,pheromones.version(row));
+		}
+		//Samples the table
+		return table.sample(AntFON.rngAnt.nextDouble());
+	}
+	
+	/**
+	 * Sets if the stochastic routing of the RSVP messages samples alias tables of the pheromone levels,
+	 * instead of spinning the wheel over all the neighbors at each decision.
+	 * @param value True, for sampling alias tables. False, otherwise.
+	 */
+	public void setAliasSampling(boolean value) {
+		this.aliasSampling = value;
+	}
+	
+	/**
+	 * Returns the next hop selector of this node, creating it if necessary.
+	 * @return The next hop selector of this node.
+	 */
+	protected NextHopSelector getSelector() {
+		if (selector == null)
+			selector = new NextHopSelector();
+		return selector;
 	}
 
 	/**
@@ -128,10 +198,14 @@ public class AntRoutingTable extends LocalRoutingTable {
 		String procId = ant.getProcNode();
 		//Get the list of possible destination nodes to sub-path updating
 		List<String> subPath = ant.getSubPath();
+		//Gets the node who is the one chosen as forward node
+		int forwardNode = Interner.getNode(ant.getForwardNode());
+		double[] levels = pheromones.getLevels();
 		//For each node in the subpath
 		for (String nodeId:subPath) {
+			int node = Interner.getNode(nodeId);
 			//Get the appropriate view
-			LocalParametricView view = model.get(nodeId);
+			LocalParametricView view = model.get(node);
 			//Verify if it is good to update the sub-path
 			double upperCondidenceInterval = view.getAverage() + zFactor * (view.getDeviation() / Math.sqrt((double)view.getWindow()));
 			//Get the traveling value of the subpath
@@ -139,32 +213,27 @@ public class AntRoutingTable extends LocalRoutingTable {
 			//If it is a good sub-path or it is the "true" target node do
 			if ((pathValue < upperCondidenceInterval) || dest.equals(nodeId)) {
 				//Updates the local view
-				model.update(pathValue,nodeId);
-				view = model.get(nodeId);
-				//Gets the appropriate routing table 
-				int index = destinationMap.get(nodeId);
-				RoutingTableEntry rTable = destination[index];
-				int neighborhoodSize = rTable.size();
+				model.update(pathValue,node);
+				view = model.get(node);
+				//Gets the appropriate row of the pheromone matrix 
+				int row = pheromones.row(node);
+				int[] columns = pheromones.columns(row);
+				int offset = pheromones.offset(row);
 				//Gets the reinforcement value.
-				double reinforcement = this.getReinforcement(ant,view,neighborhoodSize,nodeId);
+				double reinforcement = this.getReinforcement(ant,view,columns.length,nodeId);
 				//System.out.println("---reinforcement: "+ reinforcement);
-				//Gets the node who is the one chosen as forward node
-				String forwardId = ant.getForwardNode();
+				int forward = pheromones.column(row,forwardNode);
 				//For each neighbor do		
-				for (String neighId : rTable.neighborhood()) {
+				for (int column : columns) {
 					//Gets the old pheromone level
-					NeighborAttr attr = (NeighborAttr)rTable.getEntry(neighId);
-					double oldLevel = attr.getPheromoneLevel();
-					double newLevel; //New pheromone level
-					if (neighId.equals(forwardId)) { //Positive reinforcement
-						newLevel = oldLevel + (reinforcement * (1.0 - oldLevel));
+					double oldLevel = levels[offset + column];
+					if (column == forward) { //Positive reinforcement
+						levels[offset + column] = oldLevel + (reinforcement * (1.0 - oldLevel));
 					} else { //Negative reinforcement
-						newLevel = oldLevel - (reinforcement * oldLevel);
+						levels[offset + column] = oldLevel - (reinforcement * oldLevel);
 					}
-					//Set the new level and update the pheromone routing table
-					attr.setPheromoneLevel(newLevel);
-					rTable.putEntry(neighId,attr);
 				}
+				pheromones.touch(row);
 			}
 		}		
 	}
@@ -251,6 +320,17 @@ public class AntRoutingTable extends LocalRoutingTable {
 				}				
 			}
 		}		
+		//Move the levels to a new dense matrix
+		pheromones = new PheromoneMatrix(destinationMap,destination);
+		aliases = null;
+	}
+	
+	/**
+	 * Returns the dense pheromone levels of the routing table, e.g., for taking a snapshot.
+	 * @return The dense pheromone levels of the routing table.
+	 */
+	public PheromoneMatrix getPheromones() {
+		return pheromones;
 	}
 
 	/**
@@ -86,7 +86,8 @@ public class LSA extends Message implements Comparable<LSA>{
 		if (content != null) {
 			clone.content = new ArrayList<Double>((ArrayList<Double>)content);
 		}
-		clone.path = (Path) path.clone();		
+		clone.path = (Path) path.clone();
+		clone.hop = hop;
 		return clone;
 	}
 	
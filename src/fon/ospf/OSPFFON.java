@@ -6,7 +6,6 @@ package fon.ospf;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Hashtable;
 import java.util.LinkedHashMap;
 
 import event.Event;
@@ -23,18 +22,22 @@ import fon.RSVP;
 import fon.Request;
 import fon.SpectrumAssignment;
 import fon.SpectrumAssignment.Strategy;
+import fon.TraceRequestTraffic;
 import fon.ospf.llrsa.OSPFLLRSARefreshTraffic;
+import fon.topological.FON;
 import fon.topological.FlexiNode;
 import fon.topological.FlexiNode.ReRouting;
 import graph.Edge;
 import graph.Graph;
 import graph.Path;
+import graph.PathPool;
 import graph.YEN;
 import main.Accounting;
 import main.Config;
 import net.Error;
 import net.Failure;
 import net.Link;
+import net.ExpiringTable;
 import net.Message;
 import net.Network;
 import net.Node;
@@ -76,12 +79,17 @@ public class OSPFFON extends Network {
 	/** Number of re-routing attempts per LSR. */
 	protected static int reroutingAttempts;
 	/** The collection of Connection successfully re-routed after a failure. */
-	protected Hashtable<String, Connection> reroutedConnection;
+	protected ExpiringTable<Connection> reroutedConnection;
 	/**
 	 * The collection of Connection disrupted by a failure, which are eligible for
 	 * full re-routing.
 	 */
-	protected Hashtable<String, Request> disruptedConnection;
+	protected ExpiringTable<Request> disruptedConnection;
+	/**
+	 * The time for retaining the disrupted and re-routed connections after the
+	 * end of their holding time.
+	 */
+	protected double retention;
 	/** The chosen wavelength assignment algorithm. */
 	protected SpectrumAssignment.Strategy sa;
 	/** The chosen metric to calculate the link cost */
@@ -113,8 +121,11 @@ public class OSPFFON extends Network {
 		//Create the links of this network
 		links = new LinkedHashMap<String,FlexiLink>();
 		//Create the storage of disrupted connections by failure
-		reroutedConnection = new Hashtable<String,Connection>();
-		disruptedConnection = new Hashtable<String,Request>();		
+		reroutedConnection = new ExpiringTable<Connection>();
+		disruptedConnection = new ExpiringTable<Request>();		
+		//Get the retention time of the disrupted and re-routed connections, if specified
+		ArrayList<String> retentionTime = parameters.get("/Failure/Timing/@retention");
+		retention = (retentionTime != null) ? Double.parseDouble(retentionTime.get(0)) : FON.RETENTION;
 		//Get the links of the network graph
 		LinkedHashMap<String,Link> graphLinks = config.getLinks();
 		//Number of slots per link
@@ -161,6 +172,9 @@ public class OSPFFON extends Network {
 
 	@Override
 	public Event process(Event event) {
+		//Retire the expired entries of the disrupted and re-routed connections
+		disruptedConnection.purge(event.getTimeStamp());
+		reroutedConnection.purge(event.getTimeStamp());
 		//The id of the processing node
 		String id;
 		//Event response object
@@ -227,7 +241,8 @@ public class OSPFFON extends Network {
 				accounting.addEvent(Accounting.Type.SUCCESS, event);				
 				//See if it is a succesful re-routing of a failed LSP
 				if (rsvpConfirm.isReRouting()) {
-					reroutedConnection.put(rsvpConfirm.getId(),connectionEst);
+					disruptedConnection.remove(rsvpConfirm.getKey());
+					reroutedConnection.put(rsvpConfirm.getKey(),connectionEst,event.getTimeStamp() + duration + retention);
 				}
 				//System.out.println(event.toString());
 				//Return a new event for tearing down the lightpath when appropriate
@@ -250,7 +265,7 @@ public class OSPFFON extends Network {
 					connectionRequest = (Request) ((Connection)rsvpErr.getContent()).getRequest();
 					rsvpRetry = new RSVP(connectionRequest,hopLimit,slots);
 					//System.out.println("Contention: "+connectionRequest.toString());
-					if (disruptedConnection.containsKey(rsvpErr.getId())) {
+					if (disruptedConnection.containsKey(rsvpErr.getKey())) {
 						rsvpRetry.setReRouting(); //set the flag of re-routing
 						//System.out.println(event.toString());
 					}
@@ -269,14 +284,16 @@ public class OSPFFON extends Network {
 						rsvpRetry = new RSVP(connectionRequest,hopLimit,slots);
 						//Add the effective hops of the previous Path message
 						rsvpRetry.setEffectiveHops(rsvpErr.getEffectiveHops());
-						if (disruptedConnection.containsKey(rsvpErr.getId())) {
+						if (disruptedConnection.containsKey(rsvpErr.getKey())) {
 							rsvpRetry.setReRouting(); //set the flag of re-routing
 							//System.out.println(event.toString());
 						}
 					} else { 
 						//Account the failed connection establishment
-						accounting.addEvent(Accounting.Type.FAILED, event);		
-						//if (disruptedConnection.containsKey(rsvpErr.getId()));
+						accounting.addEvent(Accounting.Type.FAILED, event);
+						//The restoration, if any, has definitively failed
+						disruptedConnection.remove(rsvpErr.getKey());
+						//if (disruptedConnection.containsKey(rsvpErr.getKey()));
 							//System.out.println("Failed:"+event.toString());
 					}
 				//Connection failure forward or backward 	
@@ -296,13 +313,16 @@ public class OSPFFON extends Network {
 					//Set the label indicating to tackle the failure
 					rsvpRetry.setReRouting();
 					//Adds the connection to the list of disrupted LSP 
-					disruptedConnection.put(rsvpErr.getId(),connectionRequest);
+					disruptedConnection.put(rsvpErr.getKey(),connectionRequest,event.getTimeStamp() + Math.max(residualDuration,0.0) + retention);
+					accounting.addEvent(Accounting.Type.DISRUPTED, event);
 					//System.out.println("Adding LSP failure: "+rsvpErr.getFlowLabel()+" ,"+disrupted.toString());
 				} else if(errorCode.equals(Error.Code.RP_REROUTING_LIMIT_EXCEEDED)){
 					counterReroutingLimitExceeded ++;
 					//System.err.println(counterReroutingLimitExceeded);
 					//Accounts the failed connection request
-					accounting.addEvent(Accounting.Type.FAILED, event);					
+					accounting.addEvent(Accounting.Type.FAILED, event);
+					//The restoration, if any, has definitively failed
+					disruptedConnection.remove(rsvpErr.getKey());
 				}								
 				//Now, return the result.
 				if (rsvpRetry != null)
@@ -314,7 +334,7 @@ public class OSPFFON extends Network {
 				counterConnectionTeardown ++;
 				//System.err.println("counterConnectionTeardown: "+counterConnectionTeardown);
 				Connection connectionTear = (Connection) event.getContent();
-				String connectionID = connectionTear.getId();
+				long connectionID = connectionTear.getKey();
 				if ((disruptedConnection.get(connectionID) == null) || ((reroutedConnection.get(connectionID) != null) && (reroutedConnection.get(connectionID).getPath().equals(connectionTear.getPath()) ) )) {
 					//Send RSVP PathTear message
 					RSVP rsvpTear = new RSVP(connectionTear,Message.Type.RSVP_PATH_TEAR,connectionTear.getSource(),connectionTear.getDestination());
@@ -450,6 +470,9 @@ public class OSPFFON extends Network {
 			int tries = Integer.parseInt(parameters.get("/RSA/Routing/@maxAttempts").get(0));
 			double bandwidth = Double.parseDouble(parameters.get("/Generators/Traffic/@bandwidth").get(index));
 			subscriber = new FixedRequestTraffic(tries,bandwidth);				
+		} else if(nameClass.equals("fon.TraceRequestTraffic")) {
+			int tries = Integer.parseInt(parameters.get("/RSA/Routing/@maxAttempts").get(0));
+			subscriber = new TraceRequestTraffic(tries);
 		} else if (nameClass.equals("fon.ospf.OSPFRefreshTraffic")) {
 			subscriber = new OSPFRefreshTraffic();
 		} else if (nameClass.equals("fon.ospf.llrsa.OSPFLLRSARefreshTraffic")) {
@@ -464,12 +487,22 @@ public class OSPFFON extends Network {
 		return new ArrayList<Event>();
 	}
 
+	@Override
+	public double getMemoryPerConnection() {
+		return FlexiNode.getMemoryPerConnection(nodes.values());
+	}
+
 	/**
 	 * Prints the last simulation time.
 	 */
 	public void updateValues() {
+		//Memory of the connection state tables of the nodes at the end of the run
+		double memory = this.getMemoryPerConnection();
+		accounting.addConnectionMemory(memory);
+		System.out.println("Memory per active connection (bytes): "+memory);
+		System.out.println("Pooled paths: "+PathPool.size()+" (shared: "+PathPool.getHits()+")");
 		System.out.println("LastTime: "+lastTime);
-		System.out.println("Disrupted: "+this.disruptedConnection.keySet().toString());
+		System.out.println("Disrupted: "+this.disruptedConnection.keysToString());
 		System.out.println("Total disrupted: "+disruptedConnection.size());
 		System.out.println("Rerouted: "+reroutedConnection.toString());
 		System.out.println("counterConnectionRequest: "+ counterConnectionRequest);
@@ -519,7 +552,7 @@ public class OSPFFON extends Network {
 					try { 
 						paths = yen.getShortestPaths(src,tgt,LSAGraph,1+alternative);
 					} catch (Exception e) {e.printStackTrace();}
-					routes.put(src+"-"+tgt,paths);
+					routes.put(src+"-"+tgt,PathPool.share(paths));
 				}
 			}
 		}
@@ -543,7 +576,7 @@ public class OSPFFON extends Network {
 					try { 
 						paths = yen.getShortestPaths(src,tgt,topology,1+alternative);
 					} catch (Exception e) {e.printStackTrace();}
-					routes.put(src+"-"+tgt,paths);
+					routes.put(src+"-"+tgt,PathPool.share(paths));
 				}
 			}
 		}
@@ -576,7 +609,7 @@ public class OSPFFON extends Network {
 			for (String adjacentNode: neighborsLinkStates.keySet()) {
 				try {
 					boolean[] slots = neighborsLinkStates.get(adjacentNode);
-					LabelSet ls = new LabelSet(slots);
+					LabelSet ls = LabelSet.wrap(slots);
 					//metric to OSPF
 					
 					//metric 1
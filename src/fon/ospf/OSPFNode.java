@@ -111,11 +111,11 @@ public class OSPFNode extends FlexiNode {
 			    			clonedFrom.retransmit(id,neighId);
 			    			clonedFrom.setNode(neighId);
 					    	//Set the utilization of the control channel
-					    	link = flexiLinks.get(neighId).getLink();
+					    	link = this.getFlexiLink(clonedFrom.getProcIndex()).getLink();
 							link.setCounter(Message.HEADER_LENGTH + lsa.getPayloadLength());
 							//System.out.println(link.getCounter());
 			    			//Set new time stamp
-			    			double transmissionTime = this.flexiLinks.get(neighId).getDelay();
+			    			double transmissionTime = this.getFlexiLink(clonedFrom.getProcIndex()).getDelay();
 			    			double newTimeStamp = event.getTimeStamp() + transmissionTime;
 			    			//Add to the list of broadcast
 			    			broadcast.add(new Event(newTimeStamp,Event.Type.MESSAGE_ARRIVAL,clonedFrom));
@@ -169,10 +169,10 @@ public class OSPFNode extends FlexiNode {
 			    		//Set the object to the message
 			    		path.setContent(conn);
 			    		//Add the connection to the table of active connections. 
-			    		activeConnections.put(path.getId(),conn);
+			    		this.addActiveConnection(path.getKey(),conn);
 			    		//System.out.println(activeConnections.toString());
 		    			//* Set the reverse (bidirectional) connection
-						FlexiLink linkMask = flexiLinks.get(path.getBackwardNode());
+						FlexiLink linkMask = this.getFlexiLink(path.getBackwardIndex());
 						linkMask.addFrequencySlot(conn.getId(), conn.getFS());
 						//System.err.println(linkMask.toString());
 					} else {	//There is no free frequency slot to allocate										
@@ -205,7 +205,7 @@ public class OSPFNode extends FlexiNode {
 				} else { //Intermediate node 
 		    		//Get the next hop
 					if (this.rerouting.equals(ReRouting.SEGMENT)) { //Intermediate node re-routing
-						int routingTry = this.sizeHistoryTable(path.getId());
+						int routingTry = this.sizeHistoryTable(path.getKey());
 						//System.out.println("routingTry:  "+routingTry);
 						nextHop = ((LSDB)routingTable).nextHop(path, routingTry);
 					} else { //None or end-to-end routing
@@ -230,16 +230,17 @@ public class OSPFNode extends FlexiNode {
 			    			break;
 			    		}
 		    	    } else {
+		    			FlexiLink nextLink = this.getFlexiLink(nextHop);
 		    			//Store the label set, if applicable
 		    			if ((this.rerouting.equals(ReRouting.SEGMENT)) && (labelSet != null) )  {
-		    				labelSetTable.put(path.getId(), (LabelSet)labelSet.clone());		    				
+		    				labelSetTable.put(path.getKey(), (LabelSet)labelSet.clone());		    				
 		    			}
 		    			//Updates the mask
 		    			if (labelSet == null){
-		    				path.setLabelSet(new LabelSet(this.flexiLinks.get(nextHop).getNumberSlots()));
+		    				path.setLabelSet(new LabelSet(nextLink.getNumberSlots()));
 		    			}
 		    			//System.out.println(flexiLinks.get(nextHop).getMask());
-		    			path.updateMask(flexiLinks.get(nextHop).getMask());
+		    			path.updateMask(nextLink.getMask());
 		    			//Decrement the number of hops
 		    			path.decrementHopLimit();
 		    			path.addEffectiveHop();
@@ -249,7 +250,7 @@ public class OSPFNode extends FlexiNode {
 				//Set the next hop
 				path.setNode(nextHop);		    
 				//Add the delay
-				double delay = flexiLinks.get(nextHop).getLink().getDelay();
+				double delay = this.getFlexiLink(path.getProcIndex()).getLink().getDelay();
 				event.setTimeStamp(event.getTimeStamp()+delay);
  		    	//Return the response
 	    		response = event;
@@ -293,7 +294,7 @@ public class OSPFNode extends FlexiNode {
 		    				clonedFrom.retransmit(id,neighId);
 		    				clonedFrom.setNode(neighId);
 		    				//Set new time stamp
-		    				double transmissionTime = this.flexiLinks.get(neighId).getDelay();
+		    				double transmissionTime = this.getFlexiLink(clonedFrom.getProcIndex()).getDelay();
 		    				double newTimeStamp = event.getTimeStamp() + transmissionTime;
 		    				//Add to the list of broadcast
 		    				broadcast.add(new Event(newTimeStamp,Event.Type.MESSAGE_ARRIVAL,clonedFrom));
@@ -303,17 +304,18 @@ public class OSPFNode extends FlexiNode {
 		    		failureID.add(failure.getID());
 		    		/* Remove the link states affected by the failure. */
 		    		if (((Edge)failure.getInformation()).getSource().equals(id)) {
-		    			flexiLinks.remove(((Edge)failure.getInformation()).getDestination());
+		    			this.removeFlexiLink(((Edge)failure.getInformation()).getDestination());
 		    		}
 		    		/* Treatment the failure by the neighbor nodes */
 		    		//Now, if it is the closest node upstream to the failure
 		    		if(id.equals(((Edge)failure.getInformation()).getSource())) {
 		    			//Adds the notification of broken LSP to the event
-		    			for(String activeID:activeConnections.keySet()) {
-		    				//Gets the connection
-		    				Connection active = activeConnections.get(activeID);
+		    			for(long activeKey:connectionIndex.getKeys(id,((Edge)failure.getInformation()).getDestination())) {
+		    				//Gets the connection and the position of this node in its path
+		    				Connection active = activeConnections.get(activeKey);
+		    				int position = connectionIndex.getPosition(activeKey);
 		    				//Locate the failure
-		    				Location location = failure.locate(id,active.getPath());
+		    				Location location = failure.locate(position,active.getPath());
 		    				if(!location.equals(Failure.Location.NOT_APPLICABLE)) {
 		    					//Create the PathErr packet
 		    					RSVP pathErr = new RSVP(active,Message.Type.RSVP_PATH_ERR,id,active.getSource());
@@ -324,10 +326,10 @@ public class OSPFNode extends FlexiNode {
 		    					double transmissionTime=0;
 		    					//Not the source node to treat the failure
 		    					if(!id.equals(active.getPath().firstNode())) {
-		    						nextHop = active.getPath().getPreviousNode(id);
+		    						nextHop = active.getPath().getNode(position - 1);
 		    						pathErr.setNode(nextHop);
 		    						//Set new time stamp
-		    						transmissionTime = this.flexiLinks.get(nextHop).getDelay();	
+		    						transmissionTime = this.getFlexiLink(pathErr.getProcIndex()).getDelay();	
 		    					}
 		    					double newTimeStamp = event.getTimeStamp() + transmissionTime + DELTA_TIME;
 		    					broadcast.add(new Event(newTimeStamp,Event.Type.MESSAGE_ARRIVAL,pathErr));
@@ -336,11 +338,12 @@ public class OSPFNode extends FlexiNode {
 		    			//Now, if it is the closest node downstream to the failure
 		    		} else if(id.equals(((Edge)failure.getInformation()).getDestination())) {
 		    			//Adds the notification of broken LSP to the event
-		    			for(String activeID:activeConnections.keySet()) {
-		    				//Gets the connection
-		    				Connection active = activeConnections.get(activeID);
+		    			for(long activeKey:connectionIndex.getKeys(((Edge)failure.getInformation()).getSource(),id)) {
+		    				//Gets the connection and the position of this node in its path
+		    				Connection active = activeConnections.get(activeKey);
+		    				int position = connectionIndex.getPosition(activeKey);
 		    				//Locate the failure
-		    				Location location = failure.locate(id,active.getPath());
+		    				Location location = failure.locate(position,active.getPath());
 		    				if(!location.equals(Failure.Location.NOT_APPLICABLE)) {
 		    					//Create the PathErr packet
 		    					RSVP pathTear = new RSVP(active,Message.Type.RSVP_PATH_TEAR,id,active.getDestination());
@@ -352,9 +355,9 @@ public class OSPFNode extends FlexiNode {
 		    					double transmissionTime = 0;
 		    					//Not the last node to tackle the failure
 		    					if(!id.equals(active.getPath().lastNode())) {
-		    						nextHop = active.getPath().getNextNode(id);
+		    						nextHop = active.getPath().getNode(position + 1);
 		    						pathTear.setNode(nextHop);
-		    						transmissionTime = this.flexiLinks.get(nextHop).getDelay();	
+		    						transmissionTime = this.getFlexiLink(pathTear.getProcIndex()).getDelay();	
 		    					}
 	    						//Set new time stamp
 		    					double newTimeStamp = event.getTimeStamp() + transmissionTime + DELTA_TIME;
@@ -390,7 +393,7 @@ public class OSPFNode extends FlexiNode {
 		//Create the state advertisement values
 		LinkedHashMap<String, boolean[]> neighborLinks = new LinkedHashMap<String,boolean[]>();
 		for (String neighbor_id: flexiLinks.keySet()) {			
-			boolean[] slots = flexiLinks.get(neighbor_id).getMask();
+			boolean[] slots = this.getFlexiLink(neighbor_id).getMask();
 			neighborLinks.put(neighbor_id, slots);
 		}	
 		//Create the state advertisement
@@ -409,7 +412,7 @@ public class OSPFNode extends FlexiNode {
 			//Send the LSA to the neighbor
 			lsa.setNode(neighbor);
 			//Get the new times
-			double transmissionTime = this.flexiLinks.get(neighbor).getDelay();
+			double transmissionTime = this.getFlexiLink(lsa.getProcIndex()).getDelay();
 			//System.out.println("lsa :"+lsa);
 			Event neigh = new Event(timeStamp+transmissionTime,Event.Type.MESSAGE_ARRIVAL,lsa);
 			//Add to the list
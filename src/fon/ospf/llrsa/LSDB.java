@@ -1,22 +1,119 @@
 package fon.ospf.llrsa;
 
 import java.util.Arrays;
-import java.util.LinkedHashMap;
+
+import net.Interner;
 
 public class LSDB{
 	/** Serial version UID. */
 	@SuppressWarnings("unused")
 	private static final long serialVersionUID = 1L;
-	/** The set of links and his states */
-	protected LinkedHashMap<String,boolean[]> flexiLinksStates;
+	/** The states of the links, indexed by the interned integer of each link. Null, if not advertised. */
+	protected boolean[][] flexiLinksStates;
+	/** The advertised masks copied into the states of the links. */
+	protected boolean[][] sources;
+	/** The versions of the advertised masks when they were copied. -1, if unknown. */
+	protected long[] versions;
+	/** The links whose states changed from the previous LSDB. */
+	protected int[] changed;
+	/** The number of changed links. */
+	protected int changedCounter;
+
+	/**
+	 * Creates a new empty LSDB object.
+	 */
+	public LSDB() {
+		this.flexiLinksStates = new boolean[Interner.links()][];
+		this.sources = new boolean[Interner.links()][];
+		this.versions = new long[Interner.links()];
+		this.changed = new int[16];
+	}
+
+	/**
+	 * Sets the state of the specified link.
+	 * @param link The interned integer of the link.
+	 * @param slots The status of the frequency slots of the link.
+	 */
+	public void putLinkState(int link, boolean[] slots) {
+		this.putLinkState(link,slots,null,-1L);
+	}
+
+	/**
+	 * Sets the state of the specified link, copied from the specified advertised mask.
+	 * @param link The interned integer of the link.
+	 * @param slots The status of the frequency slots of the link.
+	 * @param source The advertised mask.
+	 * @param version The version of the advertised mask. -1, if unknown.
+	 */
+	public void putLinkState(int link, boolean[] slots, boolean[] source, long version) {
+		if (link >= flexiLinksStates.length) {
+			flexiLinksStates = Arrays.copyOf(flexiLinksStates,Interner.links());
+			sources = Arrays.copyOf(sources,Interner.links());
+			versions = Arrays.copyOf(versions,Interner.links());
+		}
+		flexiLinksStates[link] = slots;
+		sources[link] = source;
+		versions[link] = version;
+	}
+
+	/**
+	 * Verifies if the state of the specified link is a copy of the specified advertised mask
+	 * at the specified version, i.e., if it is still valid.
+	 * @param link The interned integer of the link.
+	 * @param source The advertised mask.
+	 * @param version The actual version of the advertised mask.
+	 * @return True, if the state is still valid. False, otherwise.
+	 */
+	public boolean isCurrent(int link, boolean[] source, long version) {
+		if ((link < 0) || (link >= flexiLinksStates.length) || (version == -1L))
+			return false;
+		return (flexiLinksStates[link] != null) && (sources[link] == source) && (versions[link] == version);
+	}
+
+	/**
+	 * Marks the state of the specified link as changed from the previous LSDB.
+	 * @param link The interned integer of the link.
+	 */
+	public void addChanged(int link) {
+		if (changedCounter == changed.length)
+			changed = Arrays.copyOf(changed,2 * changedCounter);
+		changed[changedCounter++] = link;
+	}
+
+	/**
+	 * Returns the number of links whose states changed from the previous LSDB.
+	 * @return The number of changed links.
+	 */
+	public int changes() {
+		return changedCounter;
+	}
+
+	/**
+	 * Returns the specified changed link.
+	 * @param i The index of the change.
+	 * @return The interned integer of the changed link.
+	 */
+	public int getChanged(int i) {
+		return changed[i];
+	}
+
+	/**
+	 * Returns the number of links that fit in this LSDB.
+	 * @return The number of links that fit in this LSDB.
+	 */
+	public int capacity() {
+		return flexiLinksStates.length;
+	}
 
 	/**
-	 * Creates a new ExplicitRoutingTable object;
-	 * @param source The source id of the node associated to this routing table.
-	 * @param k The number of k-shortest paths calculated.
+	 * Returns the state of the specified link.
+	 * @param link The interned integer of the link.
+	 * @return The status of the frequency slots of the link. Null, if not advertised.
 	 */
-	public LSDB(LinkedHashMap<String,boolean[]> flexiLinksStates) {
-		this.flexiLinksStates = flexiLinksStates;
+	public boolean[] getLinkState(int link) {
+		if ((link < 0) || (link >= flexiLinksStates.length))
+			return null;
+		return flexiLinksStates[link];
 	}
 
 	/**
@@ -24,11 +121,13 @@ public class LSDB{
 	 */
 	public String toString() {
 		StringBuilder builder = new StringBuilder();
-		for (String id: flexiLinksStates.keySet()) {
-			builder.append(id);
-			builder.append(" : ");
-			builder.append(Arrays.toString(flexiLinksStates.get(id)));
-			builder.append("\n");
+		for (int link=0; link < flexiLinksStates.length; link++) {
+			if (flexiLinksStates[link] != null) {
+				builder.append(Interner.linkLabel(link));
+				builder.append(" : ");
+				builder.append(Arrays.toString(flexiLinksStates[link]));
+				builder.append("\n");
+			}
 		}
 		return builder.toString();
 	}
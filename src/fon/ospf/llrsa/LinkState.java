@@ -6,6 +6,8 @@ package fon.ospf.llrsa;
 import java.util.Arrays;
 import java.util.LinkedHashMap;
 
+import fon.FlexiLink;
+
 /**
  * The informations gathered by a node about all its neighbors.
  * 
@@ -18,6 +20,8 @@ public class LinkState {
 	private static final long serialVersionUID = 1L;
 	/** The set of adjacent flexi links and his states of this node. */
 	protected LinkedHashMap<String,boolean[]> neighborsLinksStates;
+	/** The adjacent flexi links whose states are advertised, for reading their versions. Null, if unknown. */
+	protected LinkedHashMap<String,FlexiLink> neighborsLinks;
 
 	/**
 	 * Creates a new LinkState object.
@@ -26,8 +30,31 @@ public class LinkState {
 	 * @param aId The LSA identification.
 	 */
 	public LinkState (LinkedHashMap<String,boolean[]> neighborsLinksStates) {
+		this(neighborsLinksStates,null);
+	}
+
+	/**
+	 * Creates a new LinkState object with the versions of the advertised links.
+	 * @param neighborsLinksStates The states of the adjacent flexi links.
+	 * @param neighborsLinks The adjacent flexi links.
+	 */
+	public LinkState (LinkedHashMap<String,boolean[]> neighborsLinksStates, LinkedHashMap<String,FlexiLink> neighborsLinks) {
 		this.neighborsLinksStates = neighborsLinksStates;
-	}	
+		this.neighborsLinks = neighborsLinks;
+	}
+
+	/**
+	 * Returns the actual version of the flexi link to the specified neighbor, which changes
+	 * with its advertised state, since the state is not copied until the LSDB is updated.
+	 * @param neighbor The id of the neighbor.
+	 * @return The version of the flexi link. -1, if unknown.
+	 */
+	public long getVersion(String neighbor) {
+		if (neighborsLinks == null)
+			return -1L;
+		FlexiLink link = neighborsLinks.get(neighbor);
+		return (link == null) ? -1L : link.getVersion();
+	}
 
 	/**
 	 * Returns the length of the LSA links states, in bytes.
@@ -5,7 +5,6 @@ package fon.ospf.llrsa;
 
 import java.lang.reflect.Method;
 import java.util.ArrayList;
-import java.util.Hashtable;
 import java.util.LinkedHashMap;
 
 import event.Event;
@@ -19,18 +18,26 @@ import fon.RSVP;
 import fon.Request;
 import fon.SpectrumAssignment;
 import fon.SpectrumAssignment.Strategy;
+import fon.TraceRequestTraffic;
 import fon.topological.ExplicitRoutingTable;
+import fon.topological.FON;
 import fon.topological.FlexiNode;
 import fon.topological.FlexiNode.ReRouting;
+import fon.topological.SharedRoutingTable;
+import fon.topological.StaticModel;
 import graph.Edge;
 import graph.Graph;
 import graph.Path;
+import graph.PathPool;
+import graph.Topology;
 import graph.YEN;
 import main.Accounting;
 import main.Config;
 import net.Error;
 import net.Failure;
+import net.Interner;
 import net.Link;
+import net.ExpiringTable;
 import net.Message;
 import net.Network;
 import net.Node;
@@ -47,6 +54,8 @@ public class OSPFLLRSAFON extends Network {
 	protected LinkedHashMap<String, FlexiLink> links;
 	/** The actual collection of shortest paths of this network. */
 	public static LinkedHashMap<String,ArrayList<Path>> setPaths;
+	/** The actual collection of shortest paths, indexed by the interned integers of the source and target nodes. */
+	protected static ArrayList<Path>[][] pathTable;
 	/** The set of nodes of this simulation. */
 	protected LinkedHashMap<String, OSPFLLRSANode> nodes;
 	/** The maximum hop limit for a packet. */
@@ -71,13 +80,24 @@ public class OSPFLLRSAFON extends Network {
 	protected int maxReroutingAttempts;
 	/** Number of re-routing attempts per LSR. */
 	protected static int reroutingAttempts;
+	/** Indicates if the nodes share a compact next-hop table instead of keeping a full routing table each. */
+	protected boolean sharedTable;
+	/** The static part of the model, reused between the points of the sweep. */
+	protected StaticModel model;
+	/** The actual snapshot of the topology. */
+	protected Topology topology;
 	/** The collection of Connection successfully re-routed after a failure. */
-	protected Hashtable<String, Connection> reroutedConnection;
+	protected ExpiringTable<Connection> reroutedConnection;
 	/**
 	 * The collection of Connection disrupted by a failure, which are eligible for
 	 * full re-routing.
 	 */
-	protected Hashtable<String, Request> disruptedConnection;
+	protected ExpiringTable<Request> disruptedConnection;
+	/**
+	 * The time for retaining the disrupted and re-routed connections after the
+	 * end of their holding time.
+	 */
+	protected double retention;
 
 	/** The chosen wavelength assignment algorithm. */
 	protected SpectrumAssignment.Strategy sa;
@@ -112,8 +132,11 @@ public class OSPFLLRSAFON extends Network {
 		//Create the links of this network
 		links = new LinkedHashMap<String,FlexiLink>();
 		//Create the storage of disrupted connections by failure
-		reroutedConnection = new Hashtable<String,Connection>();
-		disruptedConnection = new Hashtable<String,Request>();		
+		reroutedConnection = new ExpiringTable<Connection>();
+		disruptedConnection = new ExpiringTable<Request>();		
+		//Get the retention time of the disrupted and re-routed connections, if specified
+		ArrayList<String> retentionTime = parameters.get("/Failure/Timing/@retention");
+		retention = (retentionTime != null) ? Double.parseDouble(retentionTime.get(0)) : FON.RETENTION;
 		//Get the links of the network graph
 		LinkedHashMap<String,Link> graphLinks = config.getLinks();
 		//Number of slots per link
@@ -136,16 +159,28 @@ public class OSPFLLRSAFON extends Network {
 		//Get details about the RSA algorithm used
 		rerouting = ReRouting.valueOf(parameters.get("/RSA/Routing/@rerouting").get(0));
 		reroutingAttempts = Integer.parseInt(parameters.get("/RSA/Routing/@attempts").get(0));
+		//Get the type of routing table of the nodes, if specified
+		ArrayList<String> tableType = parameters.get("/RSA/Routing/@table");
+		sharedTable = (tableType != null) && tableType.get(0).equals("SHARED");
 		maxReroutingAttempts = Integer.parseInt(parameters.get("/RSA/Routing/@maxAttempts").get(0));
 		sa = Strategy.valueOf(parameters.get("/RSA/SA/@strategy").get(0));
-		//Create the set of paths
-		setPaths = this.getPaths(graph, reroutingAttempts);
+		//Reuse the set of paths of the same topology, if already created in a previous point of the sweep
+		model = StaticModel.lookup(graph,reroutingAttempts + 1);
+		if (model == null) { //Create the set of paths
+			model = StaticModel.create(graph,reroutingAttempts + 1,this.getPaths(graph, reroutingAttempts));
+		} else {
+			indexPaths(model.getPaths());
+		}
+		setPaths = model.getPaths();
+		topology = model.getTopology();
+		//The working graph is the one of the actual snapshot of the topology
+		graph = topology.getGraph();
 		//System.out.println(setPaths);
 				
 		//Initialize each network node
 		for (String id: graph.nodes()) {
 			//Create the routing table for this node
-			ExplicitRoutingTable ert = new ExplicitRoutingTable(id,reroutingAttempts + 1);			
+			ExplicitRoutingTable ert = sharedTable ? new SharedRoutingTable(id,reroutingAttempts + 1) : model.getRoutingTable(id);
 			ert.updateFromTopology(graph,setPaths);
 			//Create the links adjacent to this node.
 			ArrayList<String> adjacent = graph.adjacentNodes(id);
@@ -164,14 +199,15 @@ public class OSPFLLRSAFON extends Network {
 
 	@Override
 	public Event process(Event event) {
+		//Retire the expired entries of the disrupted and re-routed connections
+		disruptedConnection.purge(event.getTimeStamp());
+		reroutedConnection.purge(event.getTimeStamp());
 		//The id of the processing node
 		String id;
 		//Event response object
 		Event response = null;
 		//Update the time stamp of the last event to be processed processed.
 		lastTime = event.getTimeStamp(); 
-		//Use to clone the nodes to remove orphans nodes in Failure Link and Failure Node.
-		ArrayList<String> aNodes;
 		//Do transient accounting, if applicable
 		if (lastTime > actualTimeSlice) {
 			//Update the actual time slice
@@ -231,7 +267,8 @@ public class OSPFLLRSAFON extends Network {
 				accounting.addEvent(Accounting.Type.SUCCESS, event);				
 				//See if it is a succesful re-routing of a failed LSP
 				if (rsvpConfirm.isReRouting()) {
-					reroutedConnection.put(rsvpConfirm.getId(),connectionEst);
+					disruptedConnection.remove(rsvpConfirm.getKey());
+					reroutedConnection.put(rsvpConfirm.getKey(),connectionEst,event.getTimeStamp() + duration + retention);
 				}
 				//System.out.println(event.toString());
 				//Return a new event for tearing down the lightpath when appropriate
@@ -256,7 +293,7 @@ public class OSPFLLRSAFON extends Network {
 					connectionRequest = (Request) ((Connection)rsvpErr.getContent()).getRequest();
 					rsvpRetry = new RSVP(connectionRequest,hopLimit,slots);
 					//System.out.println("Contention: "+connectionRequest.toString());
-					if (disruptedConnection.containsKey(rsvpErr.getId())) {
+					if (disruptedConnection.containsKey(rsvpErr.getKey())) {
 						rsvpRetry.setReRouting(); //set the flag of re-routing
 						rsvpRetry.setId(rsvpErr.getId()); //fix the id since it should contain the "r" suffix
 						//System.out.println("--------Set Rerouting 1----------");
@@ -278,7 +315,7 @@ public class OSPFLLRSAFON extends Network {
 						rsvpRetry = new RSVP(connectionRequest,hopLimit,slots);
 						//Add the effective hops of the previous Path message
 						rsvpRetry.setEffectiveHops(rsvpErr.getEffectiveHops());
-						if (disruptedConnection.containsKey(rsvpErr.getId())) {
+						if (disruptedConnection.containsKey(rsvpErr.getKey())) {
 							rsvpRetry.setReRouting(); //set the flag of re-routing
 							rsvpRetry.setId(rsvpErr.getId()); //fix the id since it should contain the "r" suffix
 							//System.out.println("--------Set Rerouting 2----------");
@@ -286,8 +323,10 @@ public class OSPFLLRSAFON extends Network {
 						}
 					} else { 
 						//Account the failed connection establishment
-						accounting.addEvent(Accounting.Type.FAILED, event);		
-						//if (disruptedConnection.containsKey(rsvpErr.getId()));
+						accounting.addEvent(Accounting.Type.FAILED, event);
+						//The restoration, if any, has definitively failed
+						disruptedConnection.remove(rsvpErr.getKey());
+						//if (disruptedConnection.containsKey(rsvpErr.getKey()));
 							//System.out.println("Failed:"+event.toString());
 					}
 				//Connection failure forward or backward 	
@@ -310,15 +349,18 @@ public class OSPFLLRSAFON extends Network {
 					//To avoid race conditions if the path_tear takes a different route and arrives after the restoring path message
 					rsvpRetry.setId(connectionRequest.getId()+"r");
 					//Adds the connection to the list of disrupted LSP 
-					disruptedConnection.put(connectionRequest.getId()+"r",connectionRequest);
+					disruptedConnection.put(Interner.connection(connectionRequest.getId()+"r"),connectionRequest,event.getTimeStamp() + Math.max(residualDuration,0.0) + retention);
+					accounting.addEvent(Accounting.Type.DISRUPTED, event);
 					//System.out.println("disruptedConnection add: " +disruptedConnection);
 					//System.out.println("Adding LSP failure: "+rsvpErr.getId()+" ,"+disrupted.toString());
 				} else if(errorCode.equals(Error.Code.RP_REROUTING_LIMIT_EXCEEDED)){
 					counterReroutingLimitExceeded ++;
 					//System.err.println(counterReroutingLimitExceeded);
 					//Accounts the failed connection request
-					accounting.addEvent(Accounting.Type.FAILED, event);	
-					//if (disruptedConnection.containsKey(rsvpErr.getId()));
+					accounting.addEvent(Accounting.Type.FAILED, event);
+					//The restoration, if any, has definitively failed
+					disruptedConnection.remove(rsvpErr.getKey());
+					//if (disruptedConnection.containsKey(rsvpErr.getKey()));
 					//System.out.println("Failed RP_REROUTING_LIMIT_EXCEEDED:"+event.toString());
 				}								
 				//Now, return the result.
@@ -333,7 +375,7 @@ public class OSPFLLRSAFON extends Network {
 				counterConnectionTeardown ++;
 				//System.err.println("counterConnectionTeardown: "+counterConnectionTeardown);
 				Connection connectionTear = (Connection) event.getContent();
-				String connectionID = connectionTear.getId();
+				long connectionID = connectionTear.getKey();
 				if ((disruptedConnection.get(connectionID) == null) || ((reroutedConnection.get(connectionID) != null) && (reroutedConnection.get(connectionID).getPath().equals(connectionTear.getPath()) ) )) {
 					//Send RSVP PathTear message
 					RSVP rsvpTear = new RSVP(connectionTear,Message.Type.RSVP_PATH_TEAR,connectionTear.getSource(),connectionTear.getDestination());
@@ -375,28 +417,11 @@ public class OSPFLLRSAFON extends Network {
 				String sEdge = (String) event.getContent();
 				Edge edge = links.get(sEdge).getLink().getEdge();
 				Edge revEdge = links.get(edge.getDestination().toString()+"-"+edge.getSource().toString()).getLink().getEdge();
-				//Remove the failure edge from the graph
-				try { //Do it only if it is not a node failure
-					if (nodes.containsKey(edge.getSource()) && nodes.containsKey(edge.getDestination())) {
-						graph.removeEdge(edge.getSource(),edge.getDestination());
-						graph.removeEdge(revEdge.getSource(),revEdge.getDestination());
-					}
-				} catch(Exception e) {e.printStackTrace();}	
-				//detect and remove "orphan" nodes, i.e., disconnected ones.
-				aNodes = (ArrayList<String>) graph.nodes().clone();
-				for (String node : aNodes) {
-					int degree = graph.adjacencyDegree(node);
-					if (degree == 0) {
-						try {
-							//System.out.println("Removing orphan node from the graph: "+node);
-							graph.removeNode(node);
-							//Remove the node from the list of nodes 
-							nodes.remove(node);
-						} catch (Exception e) {e.printStackTrace();}
-					}
-				}
-				//Recalculate the set of paths
-				setPaths = this.getPaths(graph,reroutingAttempts);
+				//Remove the failure edge from the topology, only if it is not a node failure
+				if (nodes.containsKey(edge.getSource()) && nodes.containsKey(edge.getDestination()))
+					this.setTopology(topology.withoutLink(edge.getSource(),edge.getDestination()).withoutLink(revEdge.getSource(),revEdge.getDestination()));
+				//Recalculate the set of paths, or reuse the set of an equal snapshot of the topology
+				setPaths = this.getPaths(topology);
 				//this.printAllConnections();
 				//Notifies the end nodes of the failure after the localization time
 				double timeNotification = lastTime + this.faultLocalizationTime;
@@ -438,25 +463,10 @@ public class OSPFLLRSAFON extends Network {
 					////Add the edge "to" the removed node
 					////*failuresNode.add(new Event(lastTime,Event.Type.FAILURE_LINK,new String(neighId+"-"+id)));
 				}
-				//Remove the failure node from the graph
-				try {					
-					graph.removeNode(id);
-				} catch(Exception e) {e.printStackTrace();}
-				//detect and remove "orphan" nodes, i.e., disconnected ones.
-				aNodes = (ArrayList<String>) graph.nodes().clone();
-				for (String node : aNodes) {
-					int degree = graph.adjacencyDegree(node);
-					if (degree == 0) {
-						try {
-							//System.out.println("Removing orphan node from the graph: "+node);
-							graph.removeNode(node);
-							//Remove the node from the list of nodes 
-							nodes.remove(node);
-						} catch (Exception e) {e.printStackTrace();}
-					}
-				}
-				//Recalculate the set of paths
-				setPaths = this.getPaths(graph,reroutingAttempts);
+				//Remove the failure node from the topology
+				this.setTopology(topology.withoutNode(id));
+				//Recalculate the set of paths, or reuse the set of an equal snapshot of the topology
+				setPaths = this.getPaths(topology);
 				//Remove the node from the list of nodes 
 				nodes.remove(id);
 				//Set the sequence number
@@ -489,6 +499,9 @@ public class OSPFLLRSAFON extends Network {
 			int tries = Integer.parseInt(parameters.get("/RSA/Routing/@maxAttempts").get(0));
 			double bandwidth = Double.parseDouble(parameters.get("/Generators/Traffic/@bandwidth").get(index));
 			subscriber = new FixedRequestTraffic(tries,bandwidth);				
+		} else if(nameClass.equals("fon.TraceRequestTraffic")) {
+			int tries = Integer.parseInt(parameters.get("/RSA/Routing/@maxAttempts").get(0));
+			subscriber = new TraceRequestTraffic(tries);
 		} else if (nameClass.equals("fon.ospf.OSPFRefreshTraffic")) {
 			subscriber = new OSPFLLRSARefreshTraffic();
 		} else if (nameClass.equals("fon.ospf.llrsa.OSPFLLRSARefreshTraffic")) {
@@ -505,15 +518,25 @@ public class OSPFLLRSAFON extends Network {
 		return new ArrayList<Event>();
 	}
 
+	@Override
+	public double getMemoryPerConnection() {
+		return FlexiNode.getMemoryPerConnection(nodes.values());
+	}
+
 	/**
 	 * Prints the last simulation time.
 	 */
 	public void updateValues() {
+		//Memory of the connection state tables of the nodes at the end of the run
+		double memory = this.getMemoryPerConnection();
+		accounting.addConnectionMemory(memory);
+		System.out.println("Memory per active connection (bytes): "+memory);
+		System.out.println("Pooled paths: "+PathPool.size()+" (shared: "+PathPool.getHits()+")");
 		accounting.setUtilization(links,lastTime,1); //bps.
 		System.out.println("LastTime: "+lastTime);
-		System.out.println("Disrupted: "+this.disruptedConnection.keySet().toString());
+		System.out.println("Disrupted: "+this.disruptedConnection.keysToString());
 		System.out.println("Total disrupted: "+disruptedConnection.size());
-		System.out.println("Rerouted: "+reroutedConnection.keySet().toString());
+		System.out.println("Rerouted: "+reroutedConnection.keysToString());
 		System.out.println("Total rerouted: "+reroutedConnection.size());
 		System.out.println("counterConnectionRequest: "+ counterConnectionRequest);
 		System.out.println("counterConnectionEstablished: "+ counterConnectionEstablished);
@@ -537,6 +560,8 @@ public class OSPFLLRSAFON extends Network {
 	public LinkedHashMap<String,ArrayList<Path>> getPaths(Graph topology, int alternative) {
 		//System.out.println("Topology: " + topology.nodes());
 		LinkedHashMap<String,ArrayList<Path>> routes = new LinkedHashMap<String,ArrayList<Path>>();
+		//Index the paths by the interned integers of the pair
+		ArrayList<Path>[][] table = newPathTable(Interner.nodes());
 		YEN yen = new YEN();
 		for(String src: topology.nodes()) {
 			for (String tgt: topology.nodes()) {
@@ -547,14 +572,79 @@ public class OSPFLLRSAFON extends Network {
 							//System.out.println("src: "+src+" - tgt: "+ tgt);
 							//System.out.println(paths);
 					} catch (Exception e) {e.printStackTrace();}
-					routes.put(src+"-"+tgt,paths);
+					routes.put(src+"-"+tgt,PathPool.share(paths));
+					table[Interner.node(src)][Interner.node(tgt)] = paths;
 				}
 			}
 		}
+		pathTable = table;
 		//System.out.println("-------ROUTES: "+routes);
 		return routes;
 	}	
 	
+	/**
+	 * Returns an empty table of paths indexed by the interned integers of the pairs.
+	 * @param size The number of interned nodes.
+	 * @return An empty table of paths.
+	 */
+	@SuppressWarnings("unchecked")
+	protected static ArrayList<Path>[][] newPathTable(int size) {
+		return (ArrayList<Path>[][]) new ArrayList<?>[size][size];
+	}
+	
+	/**
+	 * Indexes the specified set of paths by the interned integers of the pairs.
+	 * @param routes The set of shortest paths.
+	 */
+	protected static void indexPaths(LinkedHashMap<String,ArrayList<Path>> routes) {
+		ArrayList<Path>[][] table = newPathTable(Interner.nodes());
+		for (ArrayList<Path> paths : routes.values()) {
+			if ((paths != null) && (paths.size() > 0)) {
+				Path path = paths.get(0);
+				table[Interner.node(path.firstNode())][Interner.node(path.lastNode())] = paths;
+			}
+		}
+		pathTable = table;
+	}
+	
+	/**
+	 * Returns the set of shortest paths of the specified snapshot of the topology, reusing
+	 * the set already calculated for an equal snapshot, if any.
+	 * @param snapshot The snapshot of the actual topology.
+	 * @return 1+alternatives paths for each pair source-destination of the topology.
+	 */
+	protected LinkedHashMap<String,ArrayList<Path>> getPaths(Topology snapshot) {
+		LinkedHashMap<String,ArrayList<Path>> routes = model.getPaths(snapshot);
+		if (routes == null) {
+			routes = this.getPaths(snapshot.getGraph(),reroutingAttempts);
+			model.putPaths(snapshot,routes);
+		} else {
+			indexPaths(routes);
+		}
+		return routes;
+	}
+	
+	/**
+	 * Changes the actual snapshot of the topology, e.g., after a failure. The nodes left
+	 * disconnected ("orphan" nodes) are also removed from the topology and from the list of
+	 * nodes. The working graph is replaced by the graph of the new snapshot.
+	 * @param snapshot The new snapshot of the topology.
+	 */
+	protected void setTopology(Topology snapshot) {
+		topology = snapshot;
+		//detect and remove "orphan" nodes, i.e., disconnected ones.
+		Graph aGraph = topology.getGraph();
+		for (String node : aGraph.nodes()) {
+			if (aGraph.adjacencyDegree(node) == 0) {
+				nodes.remove(node);
+				topology = topology.withoutNode(node);
+			}
+		}
+		graph = topology.getGraph();
+		for (OSPFLLRSANode node : nodes.values())
+			node.setGraph(graph);
+	}
+	
 	/**
 	 * Returns the set of shortest paths of the actual topology.
 	 * @return The set of shortest paths of the actual topology.
@@ -562,5 +652,19 @@ public class OSPFLLRSAFON extends Network {
 	public static LinkedHashMap<String,ArrayList<Path>> getPaths() {
 		return setPaths;
 	}
+	
+	/**
+	 * Returns the shortest paths of the actual topology between the specified nodes.
+	 * @param source The source node.
+	 * @param target The target node.
+	 * @return The shortest paths between the specified nodes. Null, if there is none.
+	 */
+	public static ArrayList<Path> getPaths(String source, String target) {
+		int src = Interner.getNode(source);
+		int tgt = Interner.getNode(target);
+		if ((src == Interner.NONE) || (tgt == Interner.NONE) || (src >= pathTable.length) || (tgt >= pathTable.length))
+			return null;
+		return pathTable[src][tgt];
+	}
 
 }
@@ -10,6 +10,7 @@ import fon.Connection;
 import fon.FlexiLink;
 import fon.FrequencySlot;
 import fon.LabelSet;
+import fon.PathSpectrum;
 import fon.RSVP;
 import fon.Request;
 import fon.SpectrumAssignment;
@@ -23,6 +24,7 @@ import graph.Graph;
 import graph.Path;
 import net.Error;
 import net.Failure;
+import net.Interner;
 import net.Link;
 import net.Message;
 import net.RoutingTable;
@@ -38,6 +40,8 @@ public class OSPFLLRSANode extends FlexiNode {
 	protected LSDB lsdb;
 	/** The current sequence number. */
 	protected long current_sequence;
+	/** The spectrum availability of the paths from this node, according to the LSDB. */
+	protected PathSpectrum spectrum;
 	
 	/**
 	 * Creates a new AntNetLSR object.
@@ -56,6 +60,9 @@ public class OSPFLLRSANode extends FlexiNode {
 		//Initialize the list of seen updates
 		this.updates = new LinkedHashMap<Long,ArrayList<LSA>>(); 
 		//System.out.println("UPDATES NO CONSTRUTOR: "+updates);
+		//Initialize the availability of the paths
+		int size = flexiLinks.isEmpty() ? 0 : flexiLinks.values().iterator().next().size();
+		this.spectrum = new PathSpectrum(size);
 	}
 
 	@Override
@@ -107,11 +114,11 @@ public class OSPFLLRSANode extends FlexiNode {
 			    			clonedFrom.retransmit(id,neighId);
 			    			clonedFrom.setNode(neighId);
 					    	//Set the utilization of the control channel
-					    	link = flexiLinks.get(neighId).getLink();
+					    	link = this.getFlexiLink(clonedFrom.getProcIndex()).getLink();
 							link.setCounter(lsa.getLength());
 							//System.out.println(link.getCounter());
 			    			//Set new time stamp
-			    			double transmissionTime = this.flexiLinks.get(neighId).getDelay();
+			    			double transmissionTime = this.getFlexiLink(clonedFrom.getProcIndex()).getDelay();
 			    			double newTimeStamp = event.getTimeStamp() + transmissionTime;
 			    			//Add to the list of broadcast
 			    			broadcast.add(new Event(newTimeStamp,Event.Type.MESSAGE_ARRIVAL,clonedFrom));
@@ -174,10 +181,10 @@ public class OSPFLLRSANode extends FlexiNode {
 			    		//Set the object to the message
 			    		path.setContent(conn);
 			    		//Add the connection to the table of active connections. 
-			    		activeConnections.put(path.getId(),conn);
+			    		this.addActiveConnection(path.getKey(),conn);
 			    		//System.out.println(activeConnections.toString());
 		    			//* Set the reverse (bidirectional) connection
-						FlexiLink linkMask = flexiLinks.get(path.getBackwardNode());
+						FlexiLink linkMask = this.getFlexiLink(path.getBackwardIndex());
 						linkMask.addFrequencySlot(conn.getId(), conn.getFS());
 						//System.err.println(linkMask.toString());
 					} else {	//There is no free frequency slot to allocate										
@@ -211,7 +218,7 @@ public class OSPFLLRSANode extends FlexiNode {
 				} else { //Intermediate node 
 		    		//Get the next hop
 					if (this.rerouting.equals(ReRouting.SEGMENT)) { //Intermediate node re-routing
-						int routingTry = this.sizeHistoryTable(path.getId());
+						int routingTry = this.sizeHistoryTable(path.getKey());
 						//System.out.println("routingTry:  "+routingTry);
 						nextHop = ((ExplicitRoutingTable)routingTable).nextHop(path, routingTry);
 					} else { //None or end-to-end routing
@@ -236,16 +243,17 @@ public class OSPFLLRSANode extends FlexiNode {
 			    			break;
 			    		}
 		    	    } else {
+		    			FlexiLink nextLink = this.getFlexiLink(nextHop);
 		    			//Store the label set, if applicable
 		    			if ((this.rerouting.equals(ReRouting.SEGMENT)) && (labelSet != null) )  {
-		    				labelSetTable.put(path.getId(), (LabelSet)labelSet.clone());		    				
+		    				labelSetTable.put(path.getKey(), (LabelSet)labelSet.clone());		    				
 		    			}
 		    			//Updates the mask
 		    			if (labelSet == null){
-		    				path.setLabelSet(new LabelSet(this.flexiLinks.get(nextHop).getNumberSlots()));
+		    				path.setLabelSet(new LabelSet(nextLink.getNumberSlots()));
 		    			}
 		    			//System.out.println(flexiLinks.get(nextHop).getMask());
-		    			path.updateMask(flexiLinks.get(nextHop).getMask());
+		    			path.updateMask(nextLink.getMask());
 		    			//Decrement the number of hops
 		    			path.decrementHopLimit();
 		    			path.addEffectiveHop();
@@ -255,7 +263,7 @@ public class OSPFLLRSANode extends FlexiNode {
 				//Set the next hop
 				path.setNode(nextHop);		    
 				//Add the delay
-				double delay = flexiLinks.get(nextHop).getLink().getDelay();
+				double delay = this.getFlexiLink(path.getProcIndex()).getLink().getDelay();
 				event.setTimeStamp(event.getTimeStamp()+delay);
  		    	//Return the response
 	    		response = event;
@@ -286,6 +294,9 @@ public class OSPFLLRSANode extends FlexiNode {
 		    		//System.out.println("Graph nodes: " + graph.nodes());
 		    		//routingTable.updateFromTopology(graph);
 		    		((ExplicitRoutingTable)routingTable).updateFromTopology(graph,OSPFLLRSAFON.getPaths());
+		    		//Release the availability of the paths replaced due to the failed link
+		    		Edge failed = (Edge)failure.getInformation();
+		    		spectrum.unregister(Interner.getLink(failed.getSource(),failed.getDestination()));
 		    		//Broadcast the failure to the neighbors
 		    		String previousHop = msg.getSource();
 		    		ArrayList<String> neighbors = graph.adjacentNodes(id);
@@ -298,7 +309,7 @@ public class OSPFLLRSANode extends FlexiNode {
 		    				clonedFrom.retransmit(id,neighId);
 		    				clonedFrom.setNode(neighId);
 		    				//Set new time stamp
-		    				double transmissionTime = this.flexiLinks.get(neighId).getDelay();
+		    				double transmissionTime = this.getFlexiLink(clonedFrom.getProcIndex()).getDelay();
 		    				double newTimeStamp = event.getTimeStamp() + transmissionTime;
 		    				//Add to the list of broadcast
 		    				broadcast.add(new Event(newTimeStamp,event.getInitialTimeStamp(),Event.Type.MESSAGE_ARRIVAL,clonedFrom));
@@ -308,17 +319,18 @@ public class OSPFLLRSANode extends FlexiNode {
 		    		failureID.add(failure.getID());
 		    		/* Remove the link states affected by the failure. */
 		    		if (((Edge)failure.getInformation()).getSource().equals(id)) {
-		    			flexiLinks.remove(((Edge)failure.getInformation()).getDestination());
+		    			this.removeFlexiLink(((Edge)failure.getInformation()).getDestination());
 		    		}
 		    		/* Treatment the failure by the neighbor nodes */
 		    		//Now, if it is the closest node upstream to the failure
 		    		if(id.equals(((Edge)failure.getInformation()).getSource())) {
 		    			//Adds the notification of broken LSP to the event
-		    			for(String activeID:activeConnections.keySet()) {
-		    				//Gets the connection
-		    				Connection active = activeConnections.get(activeID);
+		    			for(long activeKey:connectionIndex.getKeys(id,((Edge)failure.getInformation()).getDestination())) {
+		    				//Gets the connection and the position of this node in its path
+		    				Connection active = activeConnections.get(activeKey);
+		    				int position = connectionIndex.getPosition(activeKey);
 		    				//Locate the failure
-		    				Location location = failure.locate(id,active.getPath());
+		    				Location location = failure.locate(position,active.getPath());
 		    				if(!location.equals(Failure.Location.NOT_APPLICABLE)) {
 		    					//Create the PathErr packet
 		    					RSVP pathErr = new RSVP(active,Message.Type.RSVP_PATH_ERR,id,active.getSource());
@@ -329,10 +341,10 @@ public class OSPFLLRSANode extends FlexiNode {
 		    					double transmissionTime=0;
 		    					//Not the source node to treat the failure
 		    					if(!id.equals(active.getPath().firstNode())) {
-		    						nextHop = active.getPath().getPreviousNode(id);
+		    						nextHop = active.getPath().getNode(position - 1);
 		    						pathErr.setNode(nextHop);
 		    						//Set new time stamp
-		    						transmissionTime = this.flexiLinks.get(nextHop).getDelay();	
+		    						transmissionTime = this.getFlexiLink(pathErr.getProcIndex()).getDelay();	
 		    					}
 		    					double newTimeStamp = event.getTimeStamp() + transmissionTime + DELTA_TIME;
 		    					broadcast.add(new Event(newTimeStamp,event.getInitialTimeStamp(),Event.Type.MESSAGE_ARRIVAL,pathErr));
@@ -341,11 +353,12 @@ public class OSPFLLRSANode extends FlexiNode {
 		    			//Now, if it is the closest node downstream to the failure
 		    		} else if(id.equals(((Edge)failure.getInformation()).getDestination())) {
 		    			//Adds the notification of broken LSP to the event
-		    			for(String activeID:activeConnections.keySet()) {
-		    				//Gets the connection
-		    				Connection active = activeConnections.get(activeID);
+		    			for(long activeKey:connectionIndex.getKeys(((Edge)failure.getInformation()).getSource(),id)) {
+		    				//Gets the connection and the position of this node in its path
+		    				Connection active = activeConnections.get(activeKey);
+		    				int position = connectionIndex.getPosition(activeKey);
 		    				//Locate the failure
-		    				Location location = failure.locate(id,active.getPath());
+		    				Location location = failure.locate(position,active.getPath());
 		    				if(!location.equals(Failure.Location.NOT_APPLICABLE)) {
 		    					//Create the PathErr packet
 		    					RSVP pathTear = new RSVP(active,Message.Type.RSVP_PATH_TEAR,id,active.getDestination());
@@ -357,9 +370,9 @@ public class OSPFLLRSANode extends FlexiNode {
 		    					double transmissionTime = 0;
 		    					//Not the last node to tackle the failure
 		    					if(!id.equals(active.getPath().lastNode())) {
-		    						nextHop = active.getPath().getNextNode(id);
+		    						nextHop = active.getPath().getNode(position + 1);
 		    						pathTear.setNode(nextHop);
-		    						transmissionTime = this.flexiLinks.get(nextHop).getDelay();	
+		    						transmissionTime = this.getFlexiLink(pathTear.getProcIndex()).getDelay();	
 		    					}
 	    						//Set new time stamp
 		    					double newTimeStamp = event.getTimeStamp() + transmissionTime + DELTA_TIME;
@@ -395,11 +408,11 @@ public class OSPFLLRSANode extends FlexiNode {
 		//Create the state advertisement values
 		LinkedHashMap<String, boolean[]> neighborLinks = new LinkedHashMap<String,boolean[]>();
 		for (String neighbor_id: flexiLinks.keySet()) {			
-			boolean[] slots = flexiLinks.get(neighbor_id).getMask();
+			boolean[] slots = this.getFlexiLink(neighbor_id).getMask();
 			neighborLinks.put(neighbor_id, slots);
 		}	
-		//Create the state advertisement
-		LinkState adv = new LinkState(neighborLinks);		
+		//Create the state advertisement, with the links for reading their versions
+		LinkState adv = new LinkState(neighborLinks,new LinkedHashMap<String,FlexiLink>(flexiLinks));		
 		//Add the entry to the list
 		ArrayList<LSA> list = new ArrayList<LSA>();
 		list.add(new LSA(sequence.toString(),this.id,this.id,this.id,adv));
@@ -414,7 +427,7 @@ public class OSPFLLRSANode extends FlexiNode {
 			//Send the LSA to the neighbor
 			lsa.setNode(neighbor);
 			//Get the new times
-			double transmissionTime = this.flexiLinks.get(neighbor).getDelay();
+			double transmissionTime = this.getFlexiLink(lsa.getProcIndex()).getDelay();
 			//System.out.println("lsa :"+lsa);
 			Event neigh = new Event(timeStamp+transmissionTime,Event.Type.MESSAGE_ARRIVAL,lsa);
 			//Add to the list
@@ -432,19 +445,27 @@ public class OSPFLLRSANode extends FlexiNode {
 	public void updateLSDB(long sequence, ArrayList<LSA> lsas) {
 		//If it is the last sequence, recalculate the LSDB with the LSAS.
 		if (sequence > current_sequence) { 
-			this.lsdb = new LSDB(LSAsToLSDB(lsas));
+			this.lsdb = LSAsToLSDB(lsas,lsdb);
 			current_sequence = sequence;
+			//Update the availability of the paths that traverse the changed links
+			for (int i=0; i < lsdb.changes(); i++) {
+				int link = lsdb.getChanged(i);
+				spectrum.setLinkState(link,lsdb.getLinkState(link));
+			}
 		} 
 	}
 
 	/**
-	 * Join the LSAs informations received by the node to use in the LSDB
+	 * Join the LSAs informations received by the node to use in the LSDB.
+	 * The states of the links whose versions did not change are kept from the previous LSDB,
+	 * and the other ones are copied and marked as changed.
 	 * @param lsas The LSAs received by the node
+	 * @param previous The previous LSDB. Null, if there is none.
 	 * @return the informations joined .
 	 */
-	protected static LinkedHashMap<String, boolean[]> LSAsToLSDB (ArrayList<LSA> lsas) {
-		// The flexilinks states of the LSAs to create the LSDB. 
-		LinkedHashMap<String,boolean[]> flexiLinksStates = new LinkedHashMap<String,boolean[]>();
+	protected static LSDB LSAsToLSDB (ArrayList<LSA> lsas, LSDB previous) {
+		// The LSDB with the flexilinks states of the LSAs. 
+		LSDB flexiLinksStates = new LSDB();
 		// The source node
 		String src = null;
 		// The destination node
@@ -460,13 +481,30 @@ public class OSPFLLRSANode extends FlexiNode {
 			//System.out.println("neighborsLinkStates: "+neighborsLinkStates);
 			// For each neighbor
 			for (String adjacentNode: neighborsLinkStates.keySet()) {
-					//Clone the slots of the neighbor
-					boolean[] slots = neighborsLinkStates.get(adjacentNode).clone();
-					//System.out.println("slots: "+Arrays.toString(slots));
-					//Add to the flexilinks states to create the LSDB.
 					src = lsa.getNodeLSA();
 					dst = adjacentNode;
-					flexiLinksStates.put(src+"-"+dst,slots);
+					int link = Interner.link(src,dst);
+					boolean[] source = neighborsLinkStates.get(adjacentNode);
+					long version = lsa.getLinkState().getVersion(adjacentNode);
+					boolean[] slots;
+					if ((previous != null) && previous.isCurrent(link,source,version)) {
+						//Unchanged since the previous LSDB
+						slots = previous.getLinkState(link);
+					} else {
+						//Clone the slots of the neighbor
+						slots = source.clone();
+						flexiLinksStates.addChanged(link);
+					}
+					//System.out.println("slots: "+Arrays.toString(slots));
+					//Add to the flexilinks states to create the LSDB.
+					flexiLinksStates.putLinkState(link,slots,source,version);
+			}
+		}
+		//The links no longer advertised
+		if (previous != null) {
+			for (int link=0; link < previous.capacity(); link++) {
+				if ((previous.getLinkState(link) != null) && (flexiLinksStates.getLinkState(link) == null))
+					flexiLinksStates.addChanged(link);
 			}
 		}
 		//Return the flexiLinkStates created
@@ -486,7 +524,7 @@ public class OSPFLLRSANode extends FlexiNode {
 		
 		//Get the paths to the source/destination pair
 		
-		ArrayList<Path> paths = OSPFLLRSAFON.setPaths.get(source+"-"+destination);
+		ArrayList<Path> paths = OSPFLLRSAFON.getPaths(source,destination);
 		
 		//parameters LLRSA
 		int flagRouteAvailable = 0;
@@ -517,11 +555,16 @@ public class OSPFLLRSANode extends FlexiNode {
 	}
 	
 	/**
-	 * Returns the number of FSs available on the path 
+	 * Returns the number of FSs available on the path.
+	 * It is read from the availability maintained with the LSDB, when the states of all its links are known.
 	 * @param path
 	 * @return The number of FSs available on the path
 	 */
 	public int countAvailablesFS (Path path) {
+		//Availability maintained incrementally, in positions of the mask
+		int availables = spectrum.freeSlots(spectrum.register(path));
+		if (availables >= 0)
+			return availables / 2;
 		//parameters
 		String source = null; // Source node
 		String destination = null; // Destination node
@@ -538,7 +581,7 @@ public class OSPFLLRSANode extends FlexiNode {
 			//Get the links states of the edge (s-d) in the LSDB
 			//System.out.println("source: "+source+" destination: "+destination);	
 			//System.out.println(this.lsdb);			
-			boolean[] slots = (this.lsdb.flexiLinksStates.get(source+"-"+destination));
+			boolean[] slots = this.lsdb.getLinkState(Interner.getLink(source,destination));
 			//System.out.println(Arrays.toString(slots));
 			//If first node
 			if (source == path.firstNode()){
@@ -556,7 +599,7 @@ public class OSPFLLRSANode extends FlexiNode {
 			compareSlots = compareSlots(compareSlots, slots);		
 		}		
 		//Create label set with the link states slots
-		LabelSet ls = new LabelSet(compareSlots);		
+		LabelSet ls = LabelSet.wrap(compareSlots);		
 		//Calculate FS available slots in the ls
 		numberFSAvailable = (int) ((ls.freeBandwidth()/FlexiLink.SLOT_WIDTH_GRANULARITY));			
 		//Return the available FS on path
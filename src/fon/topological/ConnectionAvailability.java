@@ -0,0 +1,88 @@
+/**
+ * Created on 19/10/2026.
+ */
+package fon.topological;
+
+/**
+ * Availability of a connection disrupted by one or more failures, i.e., the ratio of
+ * its holding time in which it was not interrupted. The connection is down from its
+ * disruption until its restoration by re-routing, or until the end of its holding time
+ * if the restoration definitively fails.
+ *
+ * @author Gustavo Sousa Pavani
+ * @version 1.0
+ *
+ */
+public class ConnectionAvailability {
+	/** The time when the connection was established for the first time. */
+	protected final double start;
+	/** The time when the holding time of the connection ends. */
+	protected final double end;
+	/** The accumulated time in which the connection was down. */
+	protected double downtime;
+	/** The time of the actual disruption. NaN, if the connection is up. */
+	protected double disruption;
+
+	/**
+	 * Creates a new ConnectionAvailability object.
+	 * @param aStart The time when the connection was established for the first time.
+	 * @param aEnd The time when the holding time of the connection ends.
+	 */
+	public ConnectionAvailability(double aStart, double aEnd) {
+		this.start = aStart;
+		this.end = aEnd;
+		this.downtime = 0.0;
+		this.disruption = Double.NaN;
+	}
+
+	/**
+	 * Marks the connection as down.
+	 * @param time The time of the disruption.
+	 */
+	public void disrupt(double time) {
+		if (Double.isNaN(disruption))
+			disruption = time;
+	}
+
+	/**
+	 * Marks the connection as up again, accounting the time it was down.
+	 * @param time The time of the restoration.
+	 */
+	public void restore(double time) {
+		if (!Double.isNaN(disruption)) {
+			downtime = downtime + Math.max(Math.min(time,end) - disruption,0.0);
+			disruption = Double.NaN;
+		}
+	}
+
+	/**
+	 * Marks the restoration of the connection as definitively failed,
+	 * so it is down until the end of its holding time.
+	 */
+	public void fail() {
+		this.restore(end);
+	}
+
+	/**
+	 * Returns the availability of the connection at the specified time.
+	 * @param time The actual time.
+	 * @return The availability of the connection, between 0 and 1.
+	 */
+	public double getAvailability(double time) {
+		double holding = end - start;
+		if (holding <= 0.0)
+			return 1.0;
+		double down = downtime;
+		if (!Double.isNaN(disruption))
+			down = down + Math.max(Math.min(time,end) - disruption,0.0);
+		return Math.max(1.0 - (down / holding),0.0);
+	}
+
+	/**
+	 * Returns a String representation of this object.
+	 * @return A String representation of this object.
+	 */
+	public String toString() {
+		return "start: "+start+", end: "+end+", downtime: "+downtime;
+	}
+}
@@ -0,0 +1,154 @@
+/**
+ * Created on 19/10/2026.
+ */
+package fon.topological;
+
+import java.util.Arrays;
+
+import fon.Connection;
+import graph.CompactPath;
+import net.Interner;
+import net.LongHashMap;
+
+/**
+ * Inverted index of the active connections of a node, by the adjacent
+ * links traversed by them. It also stores the position (hop) of the node
+ * in the path of each connection, so that a failure of an adjacent link
+ * can be located without scanning all the active connections.
+ *
+ * @author Gustavo Sousa Pavani
+ * @version 1.0
+ *
+ */
+public class ConnectionIndex {
+	/** Marks the absence of an adjacent link in an entry. */
+	protected static final int NO_LINK = Interner.NONE;
+	/** The id of the node owning this index. */
+	protected String node;
+	/** The connections traversing each adjacent link, indexed by the interned link. */
+	protected LongHashMap<Connection>[] links;
+	/** The position of the node in the path, the incoming link and the outgoing link of each connection. */
+	protected LongHashMap<int[]> entries;
+
+	/**
+	 * Creates a new ConnectionIndex object.
+	 * @param aNode The id of the node owning this index.
+	 */
+	public ConnectionIndex(String aNode) {
+		this.node = aNode;
+		this.links = newBuckets(Interner.links());
+		this.entries = new LongHashMap<int[]>();
+	}
+
+	/**
+	 * Adds the specified connection to the index.
+	 * @param key The key of the RSVP identification of the connection.
+	 * @param conn The connection.
+	 */
+	public void add(long key, Connection conn) {
+		//Remove a previous entry with the same key
+		if (entries.containsKey(key))
+			this.remove(key);
+		CompactPath path = conn.getPath().compact();
+		int position = path.getNodePosition(Interner.node(node));
+		if (position == -1)
+			return; //not traversing this node
+		int in = NO_LINK;
+		int out = NO_LINK;
+		if (position > 0) {
+			in = path.getLink(position - 1);
+			this.getBucket(in,true).put(key,conn);
+		}
+		if (position < path.size() - 1) {
+			out = path.getLink(position);
+			this.getBucket(out,true).put(key,conn);
+		}
+		entries.put(key,new int[]{position,in,out});
+	}
+
+	/**
+	 * Removes the specified connection from the index.
+	 * @param key The key of the RSVP identification of the connection.
+	 */
+	public void remove(long key) {
+		int[] entry = entries.remove(key);
+		if (entry == null)
+			return;
+		if (entry[1] != NO_LINK)
+			this.getBucket(entry[1],false).remove(key);
+		if (entry[2] != NO_LINK)
+			this.getBucket(entry[2],false).remove(key);
+	}
+
+	/**
+	 * Returns the position of this node in the path of the specified connection.
+	 * @param key The key of the RSVP identification of the connection.
+	 * @return The position of this node in the path. -1, if the connection is not indexed.
+	 */
+	public int getPosition(long key) {
+		int[] entry = entries.get(key);
+		return (entry == null) ? -1 : entry[0];
+	}
+
+	/**
+	 * Returns the keys of the connections traversing the link between the specified nodes,
+	 * in ascending order, so that the notifications do not depend on the layout of the tables.
+	 * @param source The id of the source node of the link.
+	 * @param destination The id of the destination node of the link.
+	 * @return The keys of the connections traversing the link.
+	 */
+	public long[] getKeys(String source, String destination) {
+		int link = Interner.getLink(Interner.getNode(source),Interner.getNode(destination));
+		if ((link == NO_LINK) || (link >= links.length) || (links[link] == null))
+			return new long[0];
+		long[] keys = links[link].keys();
+		Arrays.sort(keys);
+		return keys;
+	}
+
+	/**
+	 * Returns the number of indexed connections.
+	 * @return The number of indexed connections.
+	 */
+	public int size() {
+		return entries.size();
+	}
+
+	/**
+	 * Returns the estimated memory, in bytes, used by this index.
+	 * @return The estimated memory used by this index.
+	 */
+	public long memory() {
+		//Each entry holds an array of three integers
+		long memory = entries.memory() + (entries.size() * (LongHashMap.HEADER_SIZE + 12L));
+		for (LongHashMap<Connection> bucket : links) {
+			if (bucket != null)
+				memory = memory + bucket.memory();
+		}
+		return memory + LongHashMap.HEADER_SIZE + ((long)LongHashMap.REFERENCE_SIZE * links.length);
+	}
+
+	/**
+	 * Returns the connections of the specified link.
+	 * @param link The interned link.
+	 * @param create Creates the bucket if it does not exist.
+	 * @return The connections of the specified link.
+	 */
+	protected LongHashMap<Connection> getBucket(int link, boolean create) {
+		if (link >= links.length)
+			links = Arrays.copyOf(links,Interner.links());
+		if ((links[link] == null) && create)
+			links[link] = new LongHashMap<Connection>();
+		return links[link];
+	}
+
+	/**
+	 * Returns a new array of buckets of connections.
+	 * @param size The number of buckets.
+	 * @return A new array of buckets of connections, all of them null.
+	 */
+	@SuppressWarnings("unchecked")
+	protected static LongHashMap<Connection>[] newBuckets(int size) {
+		return (LongHashMap<Connection>[]) new LongHashMap<?>[size];
+	}
+}
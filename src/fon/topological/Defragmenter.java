@@ -0,0 +1,311 @@
+/**
+ * Created on 19/10/2026.
+ */
+package fon.topological;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+
+import fon.Connection;
+import fon.FlexiLink;
+import fon.FrequencySlot;
+import fon.Request;
+import fon.SlotOwnerTable;
+import graph.Edge;
+import main.Accounting;
+import net.LongHashMap;
+
+/**
+ * Spectrum defragmentation of the established connections. Each run compacts the
+ * spectrum towards the lowest positions of the masks, which is the side preferred by
+ * the first fit assignment, so the free positions are merged into larger blocks.
+ * <p>
+ * The connections are selected from the links with more holes, i.e., free positions
+ * below their highest occupied position, by scanning the slot owners of the link from
+ * the top of the mask. A connection is moved by push-pull retuning when the positions
+ * immediately below its frequency slot are free in all the links of its path, so it
+ * slides to the lowest of them without disruption. Otherwise, it can be re-allocated
+ * by make-before-break to the lowest free frequency slot below it, which interrupts the
+ * traffic during the switching to the new frequency slot.
+ * <p>
+ * The runs are triggered periodically or reactively, when a request is blocked by the
+ * lack of a free frequency slot. In the latter case, the blocked request is retried
+ * once after the run, so the requests established by the retry are the improvement of
+ * the blocking due to the defragmentation.
+ *
+ * @author Gustavo Sousa Pavani
+ * @version 1.0
+ *
+ */
+public class Defragmenter {
+	/** The default maximum number of moved connections per run. */
+	public static final int MOVES = 10;
+	/** The default disruption time of a make-before-break re-allocation, i.e., the time for switching the traffic. */
+	public static final double DISRUPTION = 50E-3;
+	/** The links of the network, indexed by source-destination. */
+	protected LinkedHashMap<String,FlexiLink> links;
+	/** The accounting of the moves. */
+	protected Accounting accounting;
+	/** The interval between the periodical runs. Zero, if not periodical. */
+	protected double interval;
+	/** The time of the next periodical run. */
+	protected double next;
+	/** Indicates if a blocked request triggers a run. */
+	protected boolean reactive;
+	/** Indicates if the connections can be re-allocated by make-before-break. */
+	protected boolean makeBeforeBreak;
+	/** The maximum number of moved connections per run. */
+	protected int moves;
+	/** The disruption time of a make-before-break re-allocation. */
+	protected double disruption;
+	/** The established connections, indexed by their keys. */
+	protected LongHashMap<Connection> established;
+	/** The blocked requests retried after a run, indexed by the keys of their RSVP identification. */
+	protected LongHashMap<Request> retried;
+	/** The connections already visited in the actual run. */
+	protected LongHashMap<Connection> visited;
+	/** The free positions of the path of the actual connection. */
+	protected boolean[] free;
+	/** The number of runs. */
+	protected long counterRuns;
+	/** The number of connections moved by push-pull retuning. */
+	protected long counterPushPull;
+	/** The number of connections moved by make-before-break. */
+	protected long counterMakeBeforeBreak;
+	/** The number of blocked requests established after a run. */
+	protected long counterRecovered;
+
+	/**
+	 * Creates a new Defragmenter object.
+	 * @param aLinks The links of the network, indexed by source-destination.
+	 * @param aAccounting The accounting of the moves.
+	 * @param aInterval The interval between the periodical runs. Zero, if not periodical.
+	 * @param aReactive True, if a blocked request triggers a run. False, otherwise.
+	 * @param aMakeBeforeBreak True, if the connections can be re-allocated by make-before-break. False, otherwise.
+	 * @param aMoves The maximum number of moved connections per run.
+	 * @param aDisruption The disruption time of a make-before-break re-allocation.
+	 */
+	public Defragmenter(LinkedHashMap<String,FlexiLink> aLinks, Accounting aAccounting, double aInterval, boolean aReactive, boolean aMakeBeforeBreak, int aMoves, double aDisruption) {
+		this.links = aLinks;
+		this.accounting = aAccounting;
+		this.interval = aInterval;
+		this.next = aInterval;
+		this.reactive = aReactive;
+		this.makeBeforeBreak = aMakeBeforeBreak;
+		this.moves = aMoves;
+		this.disruption = aDisruption;
+		this.established = new LongHashMap<Connection>();
+		this.retried = new LongHashMap<Request>();
+		this.visited = new LongHashMap<Connection>();
+		this.free = new boolean[0];
+	}
+
+	/**
+	 * Runs the periodical defragmentation, if it is due at the specified time.
+	 * @param time The actual time.
+	 */
+	public void schedule(double time) {
+		if ((interval <= 0.0) || (time < next))
+			return;
+		this.run();
+		//Skip the runs missed during long intervals without events
+		while (next <= time)
+			next = next + interval;
+	}
+
+	/**
+	 * Runs the reactive defragmentation after a request blocked by the lack of a free frequency slot.
+	 * The request must be retried only if this method returns True.
+	 * @param key The key of the RSVP identification of the blocked request.
+	 * @param request The blocked request.
+	 * @return True, if the request can be retried. False, if it was already retried or nothing was moved.
+	 */
+	public boolean block(long key, Request request) {
+		if (!reactive || retried.containsKey(key))
+			return false;
+		if (this.run() == 0)
+			return false;
+		retried.put(key,request);
+		return true;
+	}
+
+	/**
+	 * Adds an established connection, which becomes a candidate for being moved.
+	 * @param key The key of the RSVP identification of the connection.
+	 * @param conn The connection.
+	 */
+	public void establish(long key, Connection conn) {
+		established.put(conn.getKey(),conn);
+		//Account the blocked request established after a run
+		if (retried.remove(key) != null) {
+			counterRecovered++;
+			accounting.addRecovered();
+		}
+	}
+
+	/**
+	 * Removes a connection that is being torn down.
+	 * @param conn The connection.
+	 */
+	public void release(Connection conn) {
+		//A re-routed connection with the same key may have replaced it
+		if (established.get(conn.getKey()) == conn)
+			established.remove(conn.getKey());
+	}
+
+	/**
+	 * Removes a request that definitively failed after being retried.
+	 * @param key The key of the RSVP identification of the request.
+	 */
+	public void fail(long key) {
+		retried.remove(key);
+	}
+
+	/**
+	 * Moves up to the maximum number of connections, starting from the most fragmented links.
+	 * @return The number of moved connections.
+	 */
+	public int run() {
+		counterRuns++;
+		int pushPull = 0;
+		int makeBeforeBreak = 0;
+		visited.clear();
+		//Sort the links by their number of holes
+		FlexiLink[] candidates = links.values().toArray(new FlexiLink[links.size()]);
+		final int[] holes = new int[candidates.length];
+		Integer[] order = new Integer[candidates.length];
+		for (int i=0; i < candidates.length; i++) {
+			holes[i] = this.holes(candidates[i]);
+			order[i] = i;
+		}
+		Arrays.sort(order,new Comparator<Integer>() {
+			public int compare(Integer a, Integer b) {
+				return holes[b] - holes[a];
+			}
+		});
+		for (int i=0; i < order.length; i++) {
+			FlexiLink link = candidates[order[i]];
+			if (holes[order[i]] == 0)
+				break; //already compact
+			//Scan the owners from the top of the mask
+			for (int position = link.getMask().length - 1; position >= 0; position--) {
+				if ((pushPull + makeBeforeBreak) >= moves)
+					break;
+				long key = link.getOwner(position);
+				if ((key == SlotOwnerTable.EMPTY) || visited.containsKey(key))
+					continue;
+				Connection conn = established.get(key);
+				if (conn == null)
+					continue;
+				visited.put(key,conn);
+				int result = this.move(conn);
+				if (result == 1)
+					pushPull++;
+				else if (result == 2)
+					makeBeforeBreak++;
+			}
+		}
+		counterPushPull = counterPushPull + pushPull;
+		counterMakeBeforeBreak = counterMakeBeforeBreak + makeBeforeBreak;
+		accounting.addDefragmentation(pushPull,makeBeforeBreak,makeBeforeBreak * disruption);
+		return pushPull + makeBeforeBreak;
+	}
+
+	/**
+	 * Moves the specified connection to a lower frequency slot, if possible.
+	 * @param conn The connection.
+	 * @return 1, if moved by push-pull retuning. 2, if moved by make-before-break. 0, if not moved.
+	 */
+	protected int move(Connection conn) {
+		long key = conn.getKey();
+		FrequencySlot fs = conn.getFS();
+		int n = fs.getCentralSlot();
+		int m = fs.getNumberSlots();
+		//Get the links of the path in both directions, which must hold the actual frequency slot
+		Edge[] edges = conn.getPath().edges();
+		FlexiLink[] path = new FlexiLink[2 * edges.length];
+		for (int i=0; i < edges.length; i++) {
+			path[2 * i] = links.get(edges[i].getSource()+"-"+edges[i].getDestination());
+			path[(2 * i) + 1] = links.get(edges[i].getDestination()+"-"+edges[i].getSource());
+		}
+		for (FlexiLink link : path) {
+			if (link == null)
+				return 0;
+			FrequencySlot actual = link.getFrequencySlot(key);
+			if ((actual == null) || (actual.getCentralSlot() != n) || (actual.getNumberSlots() != m))
+				return 0; //in setup, teardown or disrupted
+		}
+		//Free positions of the path, including the ones of the connection
+		int size = path[0].getMask().length;
+		if (free.length != size)
+			free = new boolean[size];
+		Arrays.fill(free,true);
+		for (FlexiLink link : path) {
+			boolean[] mask = link.getMask();
+			for (int i=0; i < size; i++) {
+				if (!mask[i] && (link.getOwner(i) != key))
+					free[i] = false;
+			}
+		}
+		int numberSlots = path[0].getNumberSlots();
+		int first = n + numberSlots - m;
+		int width = 2 * m;
+		//Push-pull: slide down through the free positions adjacent to the frequency slot
+		int target = first;
+		while ((target > 0) && free[target - 1])
+			target--;
+		int result = 1;
+		if (target == first) {
+			if (!makeBeforeBreak)
+				return 0;
+			//Make-before-break: the lowest free frequency slot below the actual one
+			target = -1;
+			int count = 0;
+			for (int i=0; i < first; i++) {
+				count = free[i] ? count + 1 : 0;
+				if (count == width) {
+					target = i - width + 1;
+					break;
+				}
+			}
+			if (target == -1)
+				return 0;
+			result = 2;
+		}
+		//Retune all the links of the path
+		FrequencySlot moved = new FrequencySlot(target - numberSlots + m,m);
+		for (FlexiLink link : path) {
+			link.removeFrequencySlot(conn.getId());
+			link.addFrequencySlot(conn.getId(),moved);
+		}
+		conn.setFS(moved);
+		return result;
+	}
+
+	/**
+	 * Returns the number of free positions of the link below its highest occupied position.
+	 * @param link The link.
+	 * @return The number of holes of the link.
+	 */
+	protected int holes(FlexiLink link) {
+		boolean[] mask = link.getMask();
+		int top = mask.length - 1;
+		while ((top >= 0) && mask[top])
+			top--;
+		int counter = 0;
+		for (int i=0; i < top; i++) {
+			if (mask[i])
+				counter++;
+		}
+		return counter;
+	}
+
+	/**
+	 * Returns a String representation of the statistics of this object.
+	 * @return A String representation of the statistics of this object.
+	 */
+	public String toString() {
+		return "Defragmentation runs: "+counterRuns+", push-pull: "+counterPushPull+", make-before-break: "+counterMakeBeforeBreak+", recovered: "+counterRecovered;
+	}
+}
@@ -10,6 +10,7 @@ import graph.YEN;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.LinkedHashMap;
 
 import fon.ospf.llrsa.LSDB;
@@ -40,6 +41,20 @@ public class ExplicitRoutingTable extends FullRoutingTable implements Serializab
 		this.alternative = k;
 	}
 
+	/**
+	 * Returns a new table that shares the entries of this table until it is
+	 * updated from a different topology, when it copies them.
+	 * @return A new table that shares the entries of this table.
+	 */
+	public ExplicitRoutingTable share() {
+		ExplicitRoutingTable copy = new ExplicitRoutingTable(id,alternative);
+		copy.nodeMap = nodeMap;
+		copy.table = table;
+		copy.localGraph = localGraph;
+		copy.shared = true;
+		return copy;
+	}
+
 	/**
 	 * Gets the next hop of the packet of the specified packet.
 	 * @param packet The packet to be routed.
@@ -156,34 +171,73 @@ public class ExplicitRoutingTable extends FullRoutingTable implements Serializab
 					int indexTarget = nodeMap.get(target);
 					//Get the routing table
 					RoutingTableEntry rTable = table[indexSource][indexTarget];
-					//for each neighbor link of the destination do			
-					for (String neighId : rTable.neighborhood()) {
-						//Get the shortest paths between id and the destination
-						ArrayList<Path> paths = setPaths.get(source+"-"+target);
-						//Index for generating the paths
-						int counter = 0;
-						boolean[] option = new boolean[alternative];
-						Arrays.fill(option,false); //fill with false values
-						//For each path do
-						for (Path path : paths) {
-							if ((path != null) && path.containNode(neighId) && path.containNode(id) && (path.getNodePosition(neighId) > path.getNodePosition(id))) {
-								//Neighbor is present in the path
-								try {
-									if (neighId.equals(path.getNextNode(id)))
-										option[counter] = true; //set as true this position
-								} catch (Exception e) {e.printStackTrace();}
-							} 
-							counter ++; //Increment counter
-						}
-						//System.out.println(neighId +" - "+option.toString());
-						//Now put the entry
-						rTable.putEntry(neighId,option);
-					}
+					//Get the shortest paths between id and the destination
+					this.putEntries(rTable,setPaths.get(source+"-"+target));
 				}
 			}
 		}
 	}
 	
+	/**
+	 * Updates only the entries of the specified pairs from the specified set of paths,
+	 * e.g., after a repair that changed the paths of these pairs only. The whole table
+	 * is updated if it was not built from the previous topology, or if the nodes of the
+	 * topology or the neighbors of this node have changed.
+	 * @param previous The previous topology of the network.
+	 * @param graph The actual topology of the network.
+	 * @param setPaths The k-shortest paths of each source-destination pair.
+	 * @param pairs The source-destination pairs whose paths have changed.
+	 */
+	public void updateFromTopology(Graph previous, Graph graph, LinkedHashMap<String,ArrayList<Path>> setPaths, Collection<String> pairs) {
+		if ((localGraph != null) && localGraph.equals(graph))
+			return; //nothing to do
+		if ((localGraph == null) || !localGraph.equals(previous) || !graph.nodes().equals(new ArrayList<String>(nodeMap.keySet())) || !graph.adjacentNodes(id).equals(localGraph.adjacentNodes(id))) {
+			this.updateFromTopology(graph,setPaths);
+			return;
+		}
+		//Copy the entries shared with other tables before changing them
+		if (shared) {
+			this.table = this.copyEntries();
+			shared = false;
+		}
+		this.localGraph = (Graph)graph.clone();
+		for (String pair : pairs) {
+			//The pair is identified by source-destination
+			int separator = pair.indexOf('-');
+			RoutingTableEntry rTable = table[nodeMap.get(pair.substring(0,separator))][nodeMap.get(pair.substring(separator + 1))];
+			this.putEntries(rTable,setPaths.get(pair));
+		}
+	}
+	
+	/**
+	 * Marks the neighbors of the entry that are the next hop of each of the specified paths.
+	 * @param rTable The entry of a source-destination pair.
+	 * @param paths The k-shortest paths of the pair.
+	 */
+	protected void putEntries(RoutingTableEntry rTable, ArrayList<Path> paths) {
+		//for each neighbor link of the destination do			
+		for (String neighId : rTable.neighborhood()) {
+			//Index for generating the paths
+			int counter = 0;
+			boolean[] option = new boolean[alternative];
+			Arrays.fill(option,false); //fill with false values
+			//For each path do
+			for (Path path : paths) {
+				if ((path != null) && path.containNode(neighId) && path.containNode(id) && (path.getNodePosition(neighId) > path.getNodePosition(id))) {
+					//Neighbor is present in the path
+					try {
+						if (neighId.equals(path.getNextNode(id)))
+							option[counter] = true; //set as true this position
+					} catch (Exception e) {e.printStackTrace();}
+				} 
+				counter ++; //Increment counter
+			}
+			//System.out.println(neighId +" - "+option.toString());
+			//Now put the entry
+			rTable.putEntry(neighId,option);
+		}
+	}
+	
 
 	/**
 	 * Returns a string representation of the routing table.
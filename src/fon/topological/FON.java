@@ -4,8 +4,10 @@
 package fon.topological;
 
 import java.util.ArrayList;
-import java.util.Hashtable;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Logger;
 
 import event.Event;
 import event.EventGenerator;
@@ -15,10 +17,17 @@ import fon.FlexiLink;
 import fon.NonUniformRequestTraffic;
 import fon.RSVP;
 import fon.Request;
+import fon.SpectrumMatrix;
 import fon.SpectrumAssignment.Strategy;
+import graph.AreaPartition;
 import graph.Edge;
 import graph.Graph;
+import graph.HierarchicalPathCache;
 import graph.Path;
+import graph.PathCache;
+import graph.PathPool;
+import graph.RepairBound;
+import graph.Topology;
 import graph.YEN;
 import main.Accounting;
 import main.Config;
@@ -26,11 +35,15 @@ import main.Simulator;
 import net.Failure;
 import net.Link;
 import net.Message;
+import net.Interner;
+import net.ExpiringTable;
+import net.LongHashMap;
 import net.Network;
 import net.Node;
 import fon.topological.FlexiNode.ReRouting;
 import net.Error;
 import fon.Connection;
+import fon.TraceRequestTraffic;
 
 /**
  * This class represents a flexible optical network with topological routing.
@@ -40,6 +53,14 @@ import fon.Connection;
  *
  */
 public class FON extends Network {
+	/** Logging. */
+	private static Logger logger = Logger.getLogger(FON.class.getName());
+	/** The default time for retaining the disrupted and re-routed connections after
+	 * the end of their holding time, long enough for the re-routing retries. */
+	public static final double RETENTION = 10.0;
+	/** The default number of extra hops of a re-routed connection, compared to the
+	 * shortest path of its pair, for being counted as left on a detour after a repair. */
+	public static final int DETOUR = 1;
 	/** The set of optical nodes of this simulation. */
 	protected LinkedHashMap<String,FlexiNode> nodes;
 	/** The set of links of this flexible optical network. */
@@ -55,16 +76,38 @@ public class FON extends Network {
 	/** Time necessary to localize a failure. */
 	protected double faultLocalizationTime;
 	/** The collection of Connection successfully re-routed after a failure. */
-	protected Hashtable<String,Connection> reroutedConnection;
+	protected ExpiringTable<Connection> reroutedConnection;
 	/** The collection of Connection disrupted by a failure, which
 	 * are eligible for full re-routing. */
-	protected Hashtable<String,Request> disruptedConnection;
+	protected ExpiringTable<Request> disruptedConnection;
+	/** The time for retaining the disrupted and re-routed connections after the end of their holding time. */
+	protected double retention;
 	/** Indicates the re-routing behavior. */
 	protected ReRouting rerouting;
 	/** Maximum number of re-routing attempts allowed. */
 	protected int maxReroutingAttempts;	
 	/** Number of re-routing attempts per LSR. */
 	protected int reroutingAttempts;
+	/** Indicates if the nodes share a compact next-hop table instead of keeping a full routing table each. */
+	protected boolean sharedTable;
+	/** The cache of the k-shortest paths calculated on demand. Null, if the paths are calculated for all the pairs. */
+	protected PathCache pathCache;
+	/** The static part of the model, reused between the points of the sweep. Null, if the paths are calculated on demand. */
+	protected StaticModel model;
+	/** The actual snapshot of the topology. */
+	protected Topology topology;
+	/** The nodes failed and not yet repaired, excluding the orphan ones. */
+	protected HashSet<String> failedNodes;
+	/** The availability of the connections disrupted by a failure, indexed by the key of their re-routing. */
+	protected LongHashMap<ConnectionAvailability> availability;
+	/** The number of extra hops of a re-routed connection for being counted as left on a detour. */
+	protected int detour;
+	/** The global occupancy matrix of the spectrum. Null, if not used. */
+	protected SpectrumMatrix matrix;
+	/** The file for dumping the occupancy matrix at the end of the simulation. Null, if not dumped. */
+	protected String matrixDump;
+	/** The spectrum defragmentation of the established connections. Null, if not used. */
+	protected Defragmenter defragmenter;
 	/** The spectrum assignment strategy. */
 	protected Strategy sa;
 	/** Counters */
@@ -79,6 +122,8 @@ public class FON extends Network {
 	int counterRPProblemLabelSet;
 	int counterRPProblemNoRouteAvailable;
 	int counterReroutingLimitExceeded;
+	int counterRepair;
+	int counterDetoured;
 	
 	/**
 	 * Creates a new FON object.
@@ -93,8 +138,16 @@ public class FON extends Network {
 		//Create the links of this network
 		links = new LinkedHashMap<String,FlexiLink>();
 		//Create the storage of disrupted connections by failure
-		reroutedConnection = new Hashtable<String,Connection>();
-		disruptedConnection = new Hashtable<String,Request>();			
+		reroutedConnection = new ExpiringTable<Connection>();
+		disruptedConnection = new ExpiringTable<Request>();			
+		//Get the retention time of the disrupted and re-routed connections, if specified
+		ArrayList<String> retentionTime = parameters.get("/Failure/Timing/@retention");
+		retention = (retentionTime != null) ? Double.parseDouble(retentionTime.get(0)) : FON.RETENTION;
+		//Get the threshold for counting the re-routed connections left on detours after a repair, if specified
+		ArrayList<String> detourHops = parameters.get("/Failure/Timing/@detour");
+		detour = (detourHops != null) ? Integer.parseInt(detourHops.get(0)) : FON.DETOUR;
+		failedNodes = new HashSet<String>();
+		availability = new LongHashMap<ConnectionAvailability>();
 		//Get the links of the network graph
 		LinkedHashMap<String,Link> graphLinks = config.getLinks();
 		//Number of slots per link
@@ -103,6 +156,29 @@ public class FON extends Network {
 		for (String l: graphLinks.keySet()) {
 			links.put(l,new FlexiLink(graphLinks.get(l), slots));
 		}
+		//Attach the links to the global occupancy matrix, if specified
+		ArrayList<String> matrixUsage = parameters.get("/RSA/Link/@matrix");
+		if ((matrixUsage != null) && Boolean.parseBoolean(matrixUsage.get(0))) {
+			matrix = new SpectrumMatrix(Interner.links(), 2 * slots);
+			for (FlexiLink link : links.values())
+				link.setMatrix(matrix);
+			ArrayList<String> dumpFile = parameters.get("/RSA/Link/@dump");
+			matrixDump = (dumpFile != null) ? dumpFile.get(0) : null;
+		}
+		//Get the parameters of the spectrum defragmentation, if specified
+		ArrayList<String> defragInterval = parameters.get("/RSA/Defragmentation/@interval");
+		ArrayList<String> defragReactive = parameters.get("/RSA/Defragmentation/@reactive");
+		if ((defragInterval != null) || (defragReactive != null)) {
+			ArrayList<String> defragMBB = parameters.get("/RSA/Defragmentation/@makeBeforeBreak");
+			ArrayList<String> defragMoves = parameters.get("/RSA/Defragmentation/@moves");
+			ArrayList<String> defragDisruption = parameters.get("/RSA/Defragmentation/@disruption");
+			double interval = (defragInterval != null) ? Double.parseDouble(defragInterval.get(0)) : 0.0;
+			boolean reactive = (defragReactive != null) && Boolean.parseBoolean(defragReactive.get(0));
+			boolean mbb = (defragMBB != null) && Boolean.parseBoolean(defragMBB.get(0));
+			int moves = (defragMoves != null) ? Integer.parseInt(defragMoves.get(0)) : Defragmenter.MOVES;
+			double disruption = (defragDisruption != null) ? Double.parseDouble(defragDisruption.get(0)) : Defragmenter.DISRUPTION;
+			defragmenter = new Defragmenter(links,accounting,interval,reactive,mbb,moves,disruption);
+		}
 		//Get the configuration parameters
 		hopLimit = Integer.parseInt(parameters.get("/RSA/Routing/@hopLimit").get(0));
 		//Failure parameters
@@ -111,34 +187,83 @@ public class FON extends Network {
 		//Get details about the RSA algorithm used
 		rerouting = ReRouting.valueOf(parameters.get("/RSA/Routing/@rerouting").get(0));
 		reroutingAttempts = Integer.parseInt(parameters.get("/RSA/Routing/@attempts").get(0));
+		//Get the type of routing table of the nodes, if specified
+		ArrayList<String> tableType = parameters.get("/RSA/Routing/@table");
+		sharedTable = (tableType != null) && tableType.get(0).equals("SHARED");
 		maxReroutingAttempts = Integer.parseInt(parameters.get("/RSA/Routing/@maxAttempts").get(0));
 		sa = Strategy.valueOf(parameters.get("/RSA/SA/@strategy").get(0));
-		//Create the set of paths
-		setPaths = this.getPaths(graph, reroutingAttempts);
+		//Get the capacity of the cache of paths calculated on demand, if specified
+		ArrayList<String> cacheSize = parameters.get("/RSA/Routing/@cache");
+		//Get the areas of the hierarchical routing, if specified
+		ArrayList<String> areaCount = parameters.get("/RSA/Routing/@areas");
+		ArrayList<String> areaNodes = parameters.get("/RSA/Area/@nodes");
+		if ((cacheSize != null) || (areaCount != null) || (areaNodes != null)) {
+			ArrayList<String> eviction = parameters.get("/RSA/Routing/@eviction");
+			int capacity = (cacheSize != null) ? Integer.parseInt(cacheSize.get(0)) : Integer.MAX_VALUE;
+			PathCache.Eviction policy = (eviction != null) ? PathCache.Eviction.valueOf(eviction.get(0)) : PathCache.Eviction.LRU;
+			topology = new Topology(graph);
+			if ((areaCount != null) || (areaNodes != null)) {
+				AreaPartition partition = (areaNodes != null) ? new AreaPartition(graph,areaNodes) : new AreaPartition(graph,Integer.parseInt(areaCount.get(0)));
+				logger.config(partition.toString());
+				pathCache = new HierarchicalPathCache(topology, reroutingAttempts + 1, capacity, policy, partition);
+			} else
+				pathCache = new PathCache(topology, reroutingAttempts + 1, capacity, policy);
+			//The paths are calculated on demand
+			setPaths = new LinkedHashMap<String,ArrayList<Path>>();
+		} else {
+			//Reuse the set of paths of the same topology, if already created in a previous point of the sweep
+			model = StaticModel.lookup(graph,reroutingAttempts + 1);
+			if (model == null) //Create the set of paths
+				model = StaticModel.create(graph,reroutingAttempts + 1,this.getPaths(graph, reroutingAttempts));
+			setPaths = model.getPaths();
+			topology = model.getTopology();
+		}
+		//The working graph is the one of the actual snapshot of the topology
+		graph = topology.getGraph();
 		//System.out.println(setPaths);
 		//Initialize each network node
 		for (String id: graph.nodes()) {
-			//Create the routing table for this node
-			ExplicitRoutingTable ert = new ExplicitRoutingTable(id,reroutingAttempts + 1);			
-			ert.updateFromTopology(graph,setPaths);
-			//Create the links adjacent to this node.
-			ArrayList<String> adjacent = graph.adjacentNodes(id);
-			LinkedHashMap<String,FlexiLink> linkStateSet = new LinkedHashMap<String,FlexiLink>();	
-			//for each adjacent node do
-			for (String adjId:adjacent) {
-				FlexiLink linkState = links.get(id+"-"+adjId);
-				linkStateSet.put(adjId.toString(),linkState);
-			}
-			//Create the node
-			FlexiNode node = new FlexiNode(id, Node.Type.FIXED_ALTERNATE, ert, linkStateSet, graph, rerouting, maxReroutingAttempts, reroutingAttempts,sa);
 			//Add it to the set
-			nodes.put(id, node);
+			nodes.put(id, this.createNode(id));
 		}
 
 	}
+	
+	/**
+	 * Creates a node of the actual topology, with its routing table and adjacent links.
+	 * @param id The id of the node.
+	 * @return The node created.
+	 */
+	protected FlexiNode createNode(String id) {
+		//Create the routing table for this node
+		ExplicitRoutingTable ert;
+		if (pathCache != null)
+			ert = new LazyRoutingTable(id,reroutingAttempts + 1,pathCache);
+		else if (sharedTable)
+			ert = new SharedRoutingTable(id,reroutingAttempts + 1);
+		else
+			ert = model.getRoutingTable(id);
+		ert.updateFromTopology(graph,setPaths);
+		//Create the links adjacent to this node.
+		ArrayList<String> adjacent = graph.adjacentNodes(id);
+		LinkedHashMap<String,FlexiLink> linkStateSet = new LinkedHashMap<String,FlexiLink>();	
+		//for each adjacent node do
+		for (String adjId:adjacent) {
+			FlexiLink linkState = links.get(id+"-"+adjId);
+			linkStateSet.put(adjId.toString(),linkState);
+		}
+		//Create the node
+		return new FlexiNode(id, Node.Type.FIXED_ALTERNATE, ert, linkStateSet, graph, rerouting, maxReroutingAttempts, reroutingAttempts,sa);
+	}
 
 	@Override
 	public Event process(Event event) {
+		//Retire the expired entries of the disrupted and re-routed connections
+		disruptedConnection.purge(event.getTimeStamp());
+		reroutedConnection.purge(event.getTimeStamp());
+		//Run the periodical defragmentation, if due
+		if (defragmenter != null)
+			defragmenter.schedule(event.getTimeStamp());
 		//System.out.println(event.toString());
 		//Event response object
 		Event response = null;
@@ -148,8 +273,6 @@ public class FON extends Network {
 		double timeStamp = event.getTimeStamp();
 		// Identifier of an event
 		String id;
-		//Use to clone the nodes to remove orphans nodes in Failure Link and Failure Node.
-		ArrayList<String> aNodes;
 		//Accordingly to the type doBinaryHeap
 		switch (type) {
 			case CONNECTION_REQUEST:
@@ -191,7 +314,7 @@ public class FON extends Network {
 					connectionRequest = (Request) ((Connection)rsvpErr.getContent()).getRequest();
 					rsvpRetry = new RSVP(connectionRequest,hopLimit,slots);
 					//System.out.println("Contention: "+connectionRequest.toString());
-					if (disruptedConnection.containsKey(rsvpErr.getId())) {
+					if (disruptedConnection.containsKey(rsvpErr.getKey())) {
 						rsvpRetry.setReRouting(); //set the flag of re-routing
 						rsvpRetry.setId(rsvpErr.getId()); //fix the id since it should contain the "r" suffix						
 						//System.out.println(event.toString());
@@ -212,15 +335,28 @@ public class FON extends Network {
 						rsvpRetry = new RSVP(connectionRequest,hopLimit,slots);
 						//Add the effective hops of the previous Path message
 						rsvpRetry.setEffectiveHops(rsvpErr.getEffectiveHops());
-						if (disruptedConnection.containsKey(rsvpErr.getId())) {
+						if (disruptedConnection.containsKey(rsvpErr.getKey())) {
 							rsvpRetry.setReRouting(); //set the flag of re-routing
 							rsvpRetry.setId(rsvpErr.getId()); //fix the id since it should contain the "r" suffix
 							//System.out.println(event.toString());
 						}
+					} else if ((defragmenter != null) && errorCode.equals(Error.Code.RP_LABEL_SET) && defragmenter.block(rsvpErr.getKey(),connectionRequest)) {
+						//Retry the blocked request once after the defragmentation
+						connectionRequest.resetTry();
+						rsvpRetry = new RSVP(connectionRequest,hopLimit,slots);
+						if (disruptedConnection.containsKey(rsvpErr.getKey())) {
+							rsvpRetry.setReRouting(); //set the flag of re-routing
+							rsvpRetry.setId(rsvpErr.getId()); //fix the id since it should contain the "r" suffix
+						}
 					} else { 
 						//Account the failed connection establishment
-						accounting.addEvent(Accounting.Type.FAILED, event);		
-						//if (disruptedConnection.containsKey(rsvpErr.getId()));
+						accounting.addEvent(Accounting.Type.FAILED, event);
+						if (defragmenter != null)
+							defragmenter.fail(rsvpErr.getKey());
+						//The restoration, if any, has definitively failed
+						disruptedConnection.remove(rsvpErr.getKey());
+						this.failRestoration(rsvpErr.getKey());
+						//if (disruptedConnection.containsKey(rsvpErr.getKey()));
 							//System.out.println("Failed:"+event.toString());
 					}
 				//Connection failure forward or backward 	
@@ -233,6 +369,14 @@ public class FON extends Network {
 					connectionRequest.resetTry(); 
 					//Calculates the rest of time of the connection
 					double residualDuration = connectionRequest.getDuration() - (event.getInitialTimeStamp() - disrupted.getStartTime());
+					//Marks the connection as down for its availability
+					long restorationKey = Interner.connection(connectionRequest.getId()+"r");
+					ConnectionAvailability down = availability.get(restorationKey);
+					if (down == null) {
+						down = new ConnectionAvailability(disrupted.getStartTime(),disrupted.getStartTime() + connectionRequest.getDuration());
+						availability.put(restorationKey,down);
+					}
+					down.disrupt(event.getInitialTimeStamp());
 					//System.out.println("residual: "+residualDuration);
 					connectionRequest.setDuration(residualDuration);
 					//Create a new path message
@@ -242,13 +386,19 @@ public class FON extends Network {
 					//To avoid race conditions if the path_tear takes a different route and arrives after the restoring path message
 					rsvpRetry.setId(connectionRequest.getId()+"r");
 					//Adds the connection to the list of disrupted LSP 
-					disruptedConnection.put(connectionRequest.getId()+"r",connectionRequest);
+					disruptedConnection.put(restorationKey,connectionRequest,event.getTimeStamp() + Math.max(residualDuration,0.0) + retention);
+					accounting.addEvent(Accounting.Type.DISRUPTED, event);
 					//System.out.println("Adding LSP failure: "+rsvpErr.getFlowLabel()+" ,"+disrupted.toString());
 				} else if(errorCode.equals(Error.Code.RP_REROUTING_LIMIT_EXCEEDED)){
 					counterReroutingLimitExceeded ++;
 					//System.err.println(counterReroutingLimitExceeded);
 					//Accounts the failed connection request
-					accounting.addEvent(Accounting.Type.FAILED, event);					
+					accounting.addEvent(Accounting.Type.FAILED, event);
+					if (defragmenter != null)
+						defragmenter.fail(rsvpErr.getKey());
+					//The restoration, if any, has definitively failed
+					disruptedConnection.remove(rsvpErr.getKey());
+					this.failRestoration(rsvpErr.getKey());
 				}								
 				//Now, return the result.
 				if (rsvpRetry != null) {
@@ -269,8 +419,15 @@ public class FON extends Network {
 				accounting.addEvent(Accounting.Type.SUCCESS, event);				
 				//See if it is a succesful re-routing of a failed LSP
 				if (rsvpConfirm.isReRouting()) {
-					reroutedConnection.put(rsvpConfirm.getId(),connectionEst);
+					disruptedConnection.remove(rsvpConfirm.getKey());
+					ConnectionAvailability up = availability.get(rsvpConfirm.getKey());
+					if (up != null)
+						up.restore(event.getTimeStamp());
+					reroutedConnection.put(rsvpConfirm.getKey(),connectionEst,event.getTimeStamp() + duration + retention);
 				}
+				//The connection becomes a candidate for the defragmentation
+				if (defragmenter != null)
+					defragmenter.establish(rsvpConfirm.getKey(),connectionEst);
 				//System.out.println(event.toString());
 				//Return a new event for tearing down the lightpath when appropriate
 				response = new Event((event.getTimeStamp() + duration),Event.Type.CONNECTION_TEARDOWN,connectionEst);
@@ -279,7 +436,9 @@ public class FON extends Network {
 				counterConnectionTeardown ++;
 				//System.err.println("counterConnectionTeardown: "+counterConnectionTeardown);
 				Connection connectionTear = (Connection) event.getContent();
-				String connectionID = connectionTear.getId();
+				long connectionID = connectionTear.getKey();
+				if (defragmenter != null)
+					defragmenter.release(connectionTear);
 				if ((disruptedConnection.get(connectionID) == null) || ((reroutedConnection.get(connectionID) != null) && (reroutedConnection.get(connectionID).getPath().equals(connectionTear.getPath()) ) )) {
 					//Send RSVP PathTear message
 					RSVP rsvpTear = new RSVP(connectionTear,Message.Type.RSVP_PATH_TEAR,connectionTear.getSource(),connectionTear.getDestination());
@@ -326,25 +485,14 @@ public class FON extends Network {
 					////Add the edge "to" the removed node
 					////*failuresNode.add(new Event(timeStamp,Event.Type.FAILURE_LINK,new String(neighId+"-"+id)));
 				}
-				//Remove the failure node from the graph
-				try {					
-					graph.removeNode(id);
-				} catch(Exception e) {e.printStackTrace();}	
-				//detect and remove "orphan" nodes, i.e., disconnected ones.
-				aNodes = (ArrayList<String>) graph.nodes().clone();
-				for (String node : aNodes) {
-					int degree = graph.adjacencyDegree(node);
-					if (degree == 0) {
-						try {
-							//System.out.println("Removing orphan node from the graph: "+node);
-							graph.removeNode(node);
-							//Remove the node from the list of nodes 
-							nodes.remove(node);
-						} catch (Exception e) {e.printStackTrace();}
-					}
-				}
-				//Recalculate the set of paths
-				setPaths = this.getPaths(graph,reroutingAttempts);
+				//Remove the failure node from the topology
+				failedNodes.add(id);
+				this.setTopology(topology.withoutNode(id));
+				//Recalculate the set of paths, or invalidate the pairs affected if they are calculated on demand
+				if (pathCache == null)
+					setPaths = this.getPaths(topology);
+				else
+					pathCache.invalidateNode(id);
 				//Remove the node from the list of nodes 
 				nodes.remove(id);
 				//this.printAllConnections();
@@ -357,28 +505,16 @@ public class FON extends Network {
 				String sEdge = (String) event.getContent();
 				Edge edge = links.get(sEdge).getLink().getEdge();
 				Edge revEdge = links.get(edge.getDestination().toString()+"-"+edge.getSource().toString()).getLink().getEdge();
-				//Remove the failure edge from the graph
-				try { //Do it only if it is not a node failure
-					if (nodes.containsKey(edge.getSource()) && nodes.containsKey(edge.getDestination())) {
-						graph.removeEdge(edge.getSource(),edge.getDestination());
-						graph.removeEdge(revEdge.getSource(),revEdge.getDestination());
-					}
-				} catch(Exception e) {e.printStackTrace();}	
-				//detect and remove "orphan" nodes, i.e., disconnected ones.
-				aNodes = (ArrayList<String>) graph.nodes().clone();
-				for (String node : aNodes) {
-					int degree = graph.adjacencyDegree(node);
-					if (degree == 0) {
-						try {
-							//System.out.println("Removing orphan node from the graph: "+node);
-							graph.removeNode(node);
-							//Remove the node from the list of nodes 
-							nodes.remove(node);
-						} catch (Exception e) {e.printStackTrace();}
-					}
+				//Remove the failure edge from the topology, only if it is not a node failure
+				if (nodes.containsKey(edge.getSource()) && nodes.containsKey(edge.getDestination()))
+					this.setTopology(topology.withoutLink(edge.getSource(),edge.getDestination()).withoutLink(revEdge.getSource(),revEdge.getDestination()));
+				//Recalculate the set of paths, or invalidate the pairs affected if they are calculated on demand
+				if (pathCache == null) {
+					setPaths = this.getPaths(topology);
+				} else {
+					pathCache.invalidateLink(edge.getSource(),edge.getDestination());
+					pathCache.invalidateLink(revEdge.getSource(),revEdge.getDestination());
 				}
-				//Recalculate the set of paths
-				setPaths = this.getPaths(graph,reroutingAttempts);
 				//this.printAllConnections();
 				//Notifies the end nodes of the failure after the localization time
 				double timeNotification = timeStamp + this.faultLocalizationTime;
@@ -403,6 +539,21 @@ public class FON extends Network {
 				failuresLink.add(new Event(timeNotification, event.getInitialTimeStamp(), Event.Type.MESSAGE_ARRIVAL,revFailureTo));				
 				return new Event(timeNotification,event.getInitialTimeStamp(),Event.Type.MULTIPLE,failuresLink);
 				//break;
+			case TOPOLOGY_NODE:
+				System.out.println("Repair node: "+event.toString());
+				//Get the repaired node and its links, except the ones still failed
+				id = (String)event.getContent();
+				failedNodes.remove(id);
+				topology = topology.withNode(id);
+				this.repair(timeStamp);
+				break;
+			case TOPOLOGY_LINK:
+				System.out.println("Repair link: "+event.toString());
+				//Get the edges associated with the repair, in both directions
+				Edge repEdge = links.get((String) event.getContent()).getLink().getEdge();
+				topology = topology.withLink(repEdge.getSource(),repEdge.getDestination()).withLink(repEdge.getDestination(),repEdge.getSource());
+				this.repair(timeStamp);
+				break;
 			default: //other events not listed.
 				System.err.println("Unknown event: "+event.toString());
 				break;
@@ -431,6 +582,9 @@ public class FON extends Network {
 			int tries = Integer.parseInt(parameters.get("/RSA/Routing/@maxAttempts").get(0));
 			double bandwidth = Double.parseDouble(parameters.get("/Generators/Traffic/@bandwidth").get(index));
 			subscriber = new FixedRequestTraffic(tries,bandwidth);				
+		} else if(nameClass.equals("fon.TraceRequestTraffic")) {
+			int tries = Integer.parseInt(parameters.get("/RSA/Routing/@maxAttempts").get(0));
+			subscriber = new TraceRequestTraffic(tries);
 		}
 		return subscriber;
 	}
@@ -440,13 +594,36 @@ public class FON extends Network {
 		//Empty list
 		return new ArrayList<Event>();
 	}
-		
+
+
+	@Override
+	public double getMemoryPerConnection() {
+		return FlexiNode.getMemoryPerConnection(nodes.values());
+	}
+
 	@Override
 	public void updateValues() {
+		//Memory of the connection state tables of the nodes at the end of the run
+		double memory = this.getMemoryPerConnection();
+		accounting.addConnectionMemory(memory);
+		System.out.println("Memory per active connection (bytes): "+memory);
+		System.out.println("Pooled paths: "+PathPool.size()+" (shared: "+PathPool.getHits()+")");
+		if (pathCache != null)
+			System.out.println("Path cache: "+pathCache.toString()+", hit rate: "+pathCache.getHitRate());
+		if (matrix != null) {
+			System.out.println(matrix.toString());
+			if (matrixDump != null) {
+				try {
+					matrix.dump(matrixDump);
+				} catch (Exception e) {e.printStackTrace();}
+			}
+		}
+		if (defragmenter != null)
+			System.out.println(defragmenter.toString());
 		System.out.println("Last Simulation Time: "+Simulator.getLastSimulationTime());
-		System.out.println("Disrupted: "+this.disruptedConnection.keySet().toString());
+		System.out.println("Disrupted: "+this.disruptedConnection.keysToString());
 		System.out.println("Total disrupted: "+disruptedConnection.size());
-		System.out.println("Rerouted: "+reroutedConnection.keySet().toString());
+		System.out.println("Rerouted: "+reroutedConnection.keysToString());
 		System.out.println("Total rerouted: "+reroutedConnection.size());
 		System.out.println("counterConnectionRequest: "+ counterConnectionRequest);
 		System.out.println("counterConnectionEstablished: "+ counterConnectionEstablished);
@@ -459,6 +636,26 @@ public class FON extends Network {
 		System.out.println("- counterAdmissionControlFailure: "+ counterAdmissionControlFailure);
 		System.out.println("- counterLSPFailure: "+ counterLSPFailure);
 		System.out.println("- counterReroutingLimitExceeded: "+ counterReroutingLimitExceeded);
+		if (!availability.isEmpty()) {
+			//Availability of each connection disrupted by a failure
+			double time = Simulator.getLastSimulationTime();
+			double sum = 0.0;
+			StringBuilder buffer = new StringBuilder();
+			for (long key : availability.keys()) {
+				double value = availability.get(key).getAvailability(time);
+				sum = sum + value;
+				buffer.append(Interner.connectionLabel(key));
+				buffer.append("=");
+				buffer.append(value);
+				buffer.append(" ");
+			}
+			System.out.println("Availability: "+buffer.toString());
+			System.out.println("Mean availability of disrupted connections: "+(sum / availability.size()));
+		}
+		if (counterRepair > 0) {
+			System.out.println("counterRepair: "+ counterRepair);
+			System.out.println("counterDetoured: "+ counterDetoured);
+		}
 	}		
 	
 	/**
@@ -477,7 +674,7 @@ public class FON extends Network {
 					try { 
 						paths = yen.getShortestPaths(src,tgt,topology,1+alternative);
 					} catch (Exception e) {e.printStackTrace();}
-					routes.put(src+"-"+tgt,paths);
+					routes.put(src+"-"+tgt,PathPool.share(paths));
 				}
 			}
 		}
@@ -485,6 +682,198 @@ public class FON extends Network {
 		return routes;
 	}
 		
+	/**
+	 * Returns the set of shortest paths of the specified snapshot of the topology, reusing
+	 * the set already calculated for an equal snapshot, if any.
+	 * @param snapshot The snapshot of the actual topology.
+	 * @return 1+alternatives paths for each pair source-destination of the topology.
+	 */
+	protected LinkedHashMap<String,ArrayList<Path>> getPaths(Topology snapshot) {
+		LinkedHashMap<String,ArrayList<Path>> routes = model.getPaths(snapshot);
+		if (routes == null) {
+			routes = this.getPaths(snapshot.getGraph(),reroutingAttempts);
+			model.putPaths(snapshot,routes);
+		}
+		return routes;
+	}
+	
+	/**
+	 * Changes the actual snapshot of the topology, e.g., after a failure or a repair. The nodes
+	 * left disconnected ("orphan" nodes) are also removed from the topology and from the list of
+	 * nodes. The working graph is replaced by the graph of the new snapshot, so the graphs of the
+	 * previous snapshots are never modified.
+	 * @param snapshot The new snapshot of the topology.
+	 */
+	protected void setTopology(Topology snapshot) {
+		topology = snapshot;
+		//detect and remove "orphan" nodes, i.e., disconnected ones.
+		Graph aGraph = topology.getGraph();
+		for (String node : aGraph.nodes()) {
+			if (aGraph.adjacencyDegree(node) == 0) {
+				//System.out.println("Removing orphan node from the graph: "+node);
+				nodes.remove(node);
+				topology = topology.withoutNode(node);
+			}
+		}
+		graph = topology.getGraph();
+		for (FlexiNode node : nodes.values())
+			node.setGraph(graph);
+		if (pathCache != null)
+			pathCache.update(topology);
+	}
+	
+	/**
+	 * Restores into the topology the links and the nodes that are no longer failed in the actual
+	 * snapshot, including the orphan nodes reconnected by them. The paths are
+	 * updated incrementally, i.e., only the pairs that may be shortened by a repaired link are
+	 * recalculated, and only the entries of the pairs whose paths have changed are updated in
+	 * the routing tables of the nodes. The re-routed connections are not moved back to the
+	 * shortest paths, but the ones left on detours are counted in a single batch.
+	 * @param time The time of the repair.
+	 */
+	protected void repair(double time) {
+		counterRepair ++;
+		ArrayList<Edge> restored = new ArrayList<Edge>();
+		ArrayList<String> restoredNodes = new ArrayList<String>();
+		Topology snapshot = topology;
+		for (Edge edge : topology.getBase().edges()) {
+			String source = edge.getSource();
+			String destination = edge.getDestination();
+			//Skip the links still failed and the ones already in the graph
+			if (failedNodes.contains(source) || failedNodes.contains(destination) || topology.isFailedLink(source,destination) || graph.hasEdge(source,destination))
+				continue;
+			//Restore the end nodes removed by a failure or as orphans
+			for (String end : new String[] {source,destination}) {
+				if ((graph.getNodeIndex(end) == -1) && !restoredNodes.contains(end)) {
+					snapshot = snapshot.withNode(end);
+					restoredNodes.add(end);
+				}
+			}
+			restored.add(edge);
+		}
+		//A repaired node without restored links is an orphan again
+		Graph previousGraph = graph;
+		this.setTopology(snapshot);
+		if (restored.isEmpty()) //e.g., the end node of the repaired link is still failed
+			return;
+		//Clear the spectrum of the restored links, since their connections were already disrupted
+		for (Edge edge : restored) {
+			FlexiLink link = links.get(edge.getSource()+"-"+edge.getDestination());
+			link.clear();
+			FlexiNode node = nodes.get(edge.getSource());
+			if (node != null)
+				node.restoreLink(edge.getDestination(),link);
+		}
+		//Bound the paths that traverse each restored link
+		ArrayList<RepairBound> bounds = new ArrayList<RepairBound>();
+		for (Edge edge : restored)
+			bounds.add(new RepairBound(graph,edge.getSource(),edge.getDestination()));
+		//Update the set of paths, or invalidate the pairs affected if they are calculated on demand
+		if (pathCache == null) {
+			LinkedHashMap<String,ArrayList<Path>> previous = setPaths;
+			LinkedHashMap<String,ArrayList<Path>> routes = model.getPaths(topology);
+			if (routes == null) {
+				routes = this.getPaths(setPaths,bounds);
+				model.putPaths(topology,routes);
+			}
+			setPaths = routes;
+			//The pairs kept share the lists of paths of the previous set
+			ArrayList<String> changed = new ArrayList<String>();
+			for (Map.Entry<String,ArrayList<Path>> entry : setPaths.entrySet()) {
+				if (entry.getValue() != previous.get(entry.getKey()))
+					changed.add(entry.getKey());
+			}
+			//Mock update of the routing tables, since the repair is known by the management system
+			for (FlexiNode node : nodes.values())
+				node.updateRoutingTable(previousGraph,changed);
+		} else {
+			for (RepairBound bound : bounds)
+				pathCache.invalidateRepair(bound);
+		}
+		//Create the restored nodes
+		for (String id : restoredNodes)
+			nodes.put(id,this.createNode(id));
+		//Batch the counting of the connections left on detours
+		ArrayList<Connection> detoured = this.getDetoured(time);
+		counterDetoured = counterDetoured + detoured.size();
+		logger.info("Restored links: "+restored.size()+", restored nodes: "+restoredNodes+", detoured connections: "+detoured.size());
+	}
+	
+	/**
+	 * Returns the set of shortest paths after the repair of some links, reusing the paths of
+	 * the pairs that cannot be shortened by the repaired links.
+	 * @param previous The set of shortest paths before the repair.
+	 * @param bounds The bounds of the paths that traverse each repaired link.
+	 * @return 1+alternatives paths for each pair source-destination of the topology.
+	 */
+	protected LinkedHashMap<String,ArrayList<Path>> getPaths(LinkedHashMap<String,ArrayList<Path>> previous, ArrayList<RepairBound> bounds) {
+		LinkedHashMap<String,ArrayList<Path>> routes = new LinkedHashMap<String,ArrayList<Path>>();
+		YEN yen = new YEN();
+		int counter = 0;
+		for(String src: graph.nodes()) {
+			for (String tgt: graph.nodes()) {
+				if (!src.equals(tgt)) { //Assure different nodes in the pair
+					String pair = src+"-"+tgt;
+					ArrayList<Path> paths = previous.get(pair);
+					//New pairs, i.e., with a restored node, are always calculated
+					boolean affected = !previous.containsKey(pair);
+					for (int i=0; !affected && (i < bounds.size()); i++)
+						affected = bounds.get(i).affects(src,tgt,paths,reroutingAttempts + 1);
+					if (affected) {
+						paths = null;
+						try { 
+							paths = yen.getShortestPaths(src,tgt,graph,reroutingAttempts + 1);
+						} catch (Exception e) {e.printStackTrace();}
+						paths = PathPool.share(paths);
+						counter++;
+					}
+					routes.put(pair,paths);
+				}
+			}
+		}
+		logger.info("Recalculated pairs: "+counter+" of "+routes.size());
+		return routes;
+	}
+	
+	/**
+	 * Returns the active connections re-routed after a failure whose paths have at least the
+	 * detour threshold of extra hops compared to the actual shortest path of their pair. They
+	 * are counted after a repair, but they are kept on their paths until they are torn down.
+	 * @param time The actual time.
+	 * @return The active re-routed connections on detours.
+	 */
+	protected ArrayList<Connection> getDetoured(double time) {
+		ArrayList<Connection> detoured = new ArrayList<Connection>();
+		for (Connection conn : reroutedConnection.values()) {
+			//Skip the connections already finished
+			if (conn.getStartTime() + conn.getRequest().getDuration() <= time)
+				continue;
+			ArrayList<Path> paths = (pathCache == null) ? setPaths.get(conn.getSource()+"-"+conn.getDestination()) : pathCache.getPaths(conn.getSource(),conn.getDestination());
+			if ((paths != null) && !paths.isEmpty() && (paths.get(0) != null) && ((conn.getPath().size() - paths.get(0).size()) >= detour))
+				detoured.add(conn);
+		}
+		return detoured;
+	}
+	
+	/**
+	 * The repairs of the failed links and nodes are handled by this network.
+	 * @return True.
+	 */
+	@Override
+	public boolean isRepairable() {
+		return true;
+	}
+	
+	/**
+	 * Marks the restoration of the specified connection as definitively failed, if it was disrupted.
+	 * @param key The key of the re-routing of the connection.
+	 */
+	protected void failRestoration(long key) {
+		ConnectionAvailability down = availability.get(key);
+		if (down != null)
+			down.fail();
+	}
+	
 	/**
 	 * Returns the set of shortest paths of the actual topology.
 	 * @return The set of shortest paths of the actual topology.
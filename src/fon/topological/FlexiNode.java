@@ -5,7 +5,8 @@ package fon.topological;
 
 import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.Hashtable;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.LinkedHashMap;
 
 import event.Event;
@@ -17,8 +18,12 @@ import fon.RSVP;
 import fon.Request;
 import fon.SpectrumAssignment;
 import fon.SpectrumAssignment.Strategy;
+import graph.CompactPath;
 import graph.Edge;
 import graph.Graph;
+import net.IntHashSet;
+import net.Interner;
+import net.LongHashMap;
 import net.RoutingTable;
 import net.Failure;
 import net.Message;
@@ -34,8 +39,12 @@ import net.Error;
 public class FlexiNode extends Node {
 	/** The set of adjacent flexi links of this node. */
 	protected LinkedHashMap<String,FlexiLink> flexiLinks;
+	/** The interned adjacent nodes of this node, in the order of the adjacent flexi links. */
+	protected int[] adjacentNodes;
+	/** The adjacent flexi links, in the order of the interned adjacent nodes. Null, if the link has been removed. */
+	protected FlexiLink[] adjacentLinks;
 	/** The unique IDs of the failures already processed. */
-	protected ArrayList<Integer> failureID;
+	protected IntHashSet failureID;
 	/** The routing table of this node. */
 	protected RoutingTable routingTable;
 	/** The physical topology of the network. */
@@ -43,8 +52,12 @@ public class FlexiNode extends Node {
 	/** Delta introduced to avoid race conditions between
 	 *  flooding and failure notification. */
 	public static final double DELTA_TIME = 1E-7; 
-	/** The table of active connections in that node. */
-	protected Hashtable<String,Connection> activeConnections;
+	/** The table of active connections in that node, indexed by the key of the RSVP identification. */
+	protected LongHashMap<Connection> activeConnections;
+	/** The index of the active connections by the adjacent links traversed by them. */
+	protected ConnectionIndex connectionIndex;
+	/** The number of active connections terminated in this node. */
+	protected int terminated;
 	/** Sets the desire of re-routing in case of LSP establishment failure. */
 	public enum ReRouting {
 		/** No re-route retry after LSP establishment failure. */ NONE,
@@ -61,9 +74,9 @@ public class FlexiNode extends Node {
 	/** The spectrum assignment strategy. */
 	protected Strategy sa;	
 	/** The table for temporarily storing Label Set objects. */
-	protected Hashtable<String,LabelSet> labelSetTable;
+	protected LongHashMap<LabelSet> labelSetTable;
 	/** The history table serving as tabu in segment re-routing. */
-	protected Hashtable<String,ArrayList<String>> historyTable;
+	protected LongHashMap<ArrayList<String>> historyTable;
 
 
 	/**
@@ -83,16 +96,25 @@ public class FlexiNode extends Node {
 		super(aId, aType);
 		this.routingTable = aTable;
 		this.flexiLinks = aLinks;
-		this.activeConnections = new Hashtable<String,Connection>();
-		this.failureID = new ArrayList<Integer>();
+		this.adjacentNodes = new int[aLinks.size()];
+		this.adjacentLinks = new FlexiLink[aLinks.size()];
+		int i = 0;
+		for (String neighbor : aLinks.keySet()) {
+			adjacentNodes[i] = Interner.node(neighbor);
+			adjacentLinks[i] = aLinks.get(neighbor);
+			i++;
+		}
+		this.activeConnections = new LongHashMap<Connection>();
+		this.connectionIndex = new ConnectionIndex(aId);
+		this.failureID = new IntHashSet();
 		this.graph = aGraph;
 		this.rerouting = aBehavior;
 		this.maxReroutingAttempts = aMaxAttempts;
 		this.reroutingAttempts = aAttempts;
 		this.sa = sa;
 		if (this.rerouting.equals(ReRouting.SEGMENT)) {
-			labelSetTable = new Hashtable<String,LabelSet>();
-			historyTable = new Hashtable<String,ArrayList<String>>();
+			labelSetTable = new LongHashMap<LabelSet>();
+			historyTable = new LongHashMap<ArrayList<String>>();
 		}	
 	}
 
@@ -155,10 +177,10 @@ public class FlexiNode extends Node {
 			    		//Set the object to the message
 			    		path.setContent(conn);
 			    		//Add the connection to the table of active connections. 
-			    		activeConnections.put(path.getId(),conn);
+			    		this.addActiveConnection(path.getKey(),conn);
 			    		//System.out.println(activeConnections.toString());
 		    			//* Set the reverse (bidirectional) connection
-						FlexiLink linkMask = flexiLinks.get(path.getBackwardNode());
+						FlexiLink linkMask = this.getFlexiLink(path.getBackwardIndex());
 						linkMask.addFrequencySlot(conn.getId(), conn.getFS());
 						//System.err.println(linkMask.toString());
 					} else {	//There is no free frequency slot to allocate										
@@ -192,7 +214,7 @@ public class FlexiNode extends Node {
 				} else { //Intermediate node 
 		    		//Get the next hop
 					if (this.rerouting.equals(ReRouting.SEGMENT)) { //Intermediate node re-routing
-						int routingTry = this.sizeHistoryTable(path.getId());
+						int routingTry = this.sizeHistoryTable(path.getKey());
 						//System.out.println("routingTry:  "+routingTry);
 						nextHop = ((ExplicitRoutingTable)routingTable).nextHop(path, routingTry);
 					} else { //None or end-to-end routing
@@ -217,16 +239,17 @@ public class FlexiNode extends Node {
 			    			break;
 			    		}
 		    	    } else {
+		    			FlexiLink nextLink = this.getFlexiLink(nextHop);
 		    			//Store the label set, if applicable
 		    			if ((this.rerouting.equals(ReRouting.SEGMENT)) && (labelSet != null) )  {
-		    				labelSetTable.put(path.getId(), (LabelSet)labelSet.clone());		    				
+		    				labelSetTable.put(path.getKey(), (LabelSet)labelSet.clone());		    				
 		    			}
 		    			//Updates the mask
 		    			if (labelSet == null){
-		    				path.setLabelSet(new LabelSet(this.flexiLinks.get(nextHop).getNumberSlots()));
+		    				path.setLabelSet(new LabelSet(nextLink.getNumberSlots()));
 		    			}
 		    			//System.out.println(flexiLinks.get(nextHop).getMask());
-		    			path.updateMask(flexiLinks.get(nextHop).getMask());
+		    			path.updateMask(nextLink.getMask());
 		    			//Decrement the number of hops
 		    			path.decrementHopLimit();
 		    			path.addEffectiveHop();
@@ -236,7 +259,7 @@ public class FlexiNode extends Node {
 				//Set the next hop
 				path.setNode(nextHop);		    
 				//Add the delay
-				double delay = flexiLinks.get(nextHop).getLink().getDelay();
+				double delay = this.getFlexiLink(path.getProcIndex()).getLink().getDelay();
 				event.setTimeStamp(event.getTimeStamp()+delay);
  		    	//Return the response
 	    		response = event;
@@ -245,7 +268,7 @@ public class FlexiNode extends Node {
 				rsvp = (RSVP) msg;
 				//System.out.println(rsvp.toString());
 				//Remove this connection from the list of active connections
-    			activeConnections.remove(rsvp.getId());
+    			this.removeActiveConnection(rsvp.getKey());
 	    		//Gets the connection
 	    		Connection teared = (Connection)rsvp.getContent(); 		
 				//Get the destination node
@@ -254,9 +277,9 @@ public class FlexiNode extends Node {
 		    	if (destination.equals(id)) { //RSVP reached the destination node
 		    		event.setType(Event.Type.CONNECTION_FINISHED);
 		    		//* Remove the last reverse (bidirectional) segment
-		    		String backNode = rsvp.getBackwardNode();
-		    		if (backNode != null) { //Test in case of failure, where the path tear is at the first node, i.e., destination==source.
-		    			FlexiLink reLinkMask = flexiLinks.get(backNode);
+		    		int backNode = rsvp.getBackwardIndex();
+		    		if (backNode != Interner.NONE) { //Test in case of failure, where the path tear is at the first node, i.e., destination==source.
+		    			FlexiLink reLinkMask = this.getFlexiLink(backNode);
 		    			if (reLinkMask == null){ //Do nothing because the link was removed by the failure.
 		    				//System.out.println("flexiLinks: "+flexiLinks);
 		    				//System.out.println("backNode: "+backNode);
@@ -274,11 +297,13 @@ public class FlexiNode extends Node {
 		    	} else {
 		    		//Clean the temporary label set and the history table, if applicable
 		    		if (this.rerouting.equals(ReRouting.SEGMENT)) {
-		    			labelSetTable.remove(rsvp.getId());
-		    			historyTable.remove(rsvp.getId());
+		    			labelSetTable.remove(rsvp.getKey());
+		    			historyTable.remove(rsvp.getKey());
 		    		}
-		    		nextHop = teared.getPath().getNextNode(id);
-	    			FlexiLink link = flexiLinks.get(nextHop);
+		    		CompactPath.Cursor route = rsvp.locate(teared.getPath().compact());
+		    		int next = (route != null) ? route.getNextNodeIndex() : Interner.NONE;
+		    		nextHop = (next != Interner.NONE) ? Interner.label(next) : null;
+	    			FlexiLink link = this.getFlexiLink(next);
 	    			if (link != null) { //Maybe the state was removed due to failure
 	    				//Get the associated mask
 	    				FlexiLink linkMaskTear = link;
@@ -289,7 +314,7 @@ public class FlexiNode extends Node {
 	    			}
 					//* Clean the reverse (bidirectional) segment, if not source
 					if (!id.equals(rsvp.getSource())) {
-						FlexiLink reLink = flexiLinks.get(rsvp.getBackwardNode());
+						FlexiLink reLink = this.getFlexiLink(rsvp.getBackwardIndex());
 						if (reLink != null) {
 							FlexiLink reLinkMask = reLink;
 							reLinkMask.removeFrequencySlot(teared.getId());	
@@ -298,12 +323,12 @@ public class FlexiNode extends Node {
 					}		
 					//Set the next hop in the packet
 					rsvp.setNode(nextHop);
-					if (flexiLinks.get(nextHop)==null) { //Do nothing if there is no route in the return path, since the PATH_TEAR message could not return to the original source node
+					if (link==null) { //Do nothing if there is no route in the return path, since the PATH_TEAR message could not return to the original source node
 						event.setType(Event.Type.IGNORE);
 						//System.out.println("path_tear: "+event.toString());
 					} else { //There is a route to return
 						//Set the new time of the event due to transmission time
-						event.setTimeStamp(event.getTimeStamp() + flexiLinks.get(nextHop).getDelay());
+						event.setTimeStamp(event.getTimeStamp() + link.getDelay());
 					}
 		    	}
 				//Return the response
@@ -317,10 +342,10 @@ public class FlexiNode extends Node {
 				//Remove this connection from the list of active connections
 	    		//if the remove flag is enabled
 	    		if (error.getRemoveFlag()) {
-	    			activeConnections.remove(rsvp.getId());	    			
+	    			this.removeActiveConnection(rsvp.getKey());	    			
 	    			Connection removed_perr = (Connection)rsvp.getContent();
-	    			String forwardHop = removed_perr.getPath().getNextNode(id);
-	    			FlexiLink link = flexiLinks.get(forwardHop);
+	    			CompactPath.Cursor route = rsvp.locate(removed_perr.getPath().compact());
+	    			FlexiLink link = this.getFlexiLink((route != null) ? route.getNextNodeIndex() : Interner.NONE);
 	    			if (link != null) { //Maybe the state was removed due to failure
 			    		//Get the associated mask
 	    				FlexiLink linkMaskRem = link;
@@ -329,7 +354,7 @@ public class FlexiNode extends Node {
 	    			}
 	    			//* Remove the reverse (bidirectional) segment, if not source of the connection
 					if (!id.equals(removed_perr.getSource())) {
-						FlexiLink reLink = flexiLinks.get(rsvp.getBackwardNode());
+						FlexiLink reLink = this.getFlexiLink(rsvp.getBackwardIndex());
 						if (reLink != null) {
 							FlexiLink reLinkMaskRem = reLink;
 							reLinkMaskRem.removeFrequencySlot(removed_perr.getId());
@@ -347,30 +372,33 @@ public class FlexiNode extends Node {
 						if (destination.equals(id)) { //RSVP reached the destination node
 							event.setType(Event.Type.CONNECTION_PROBLEM);
 						} else { //intermediate nodes
-							nextHop = ((Connection)rsvp.getContent()).getPath().getPreviousNode(id);
+							CompactPath.Cursor route = rsvp.locate(((Connection)rsvp.getContent()).getPath().compact());
+							int previous = (route != null) ? route.getPreviousNodeIndex() : Interner.NONE;
+							nextHop = (previous != Interner.NONE) ? Interner.label(previous) : null;
 							//Set the next hop in the packet
 							rsvp.setNode(nextHop);
 							//Set the new time of the event due to transmission time
-							event.setTimeStamp(event.getTimeStamp() + flexiLinks.get(nextHop).getDelay());
+							event.setTimeStamp(event.getTimeStamp() + this.getFlexiLink(previous).getDelay());
 						}
 						break;
 					case ADMISSION_CONTROL_FAILURE:
 						if (this.rerouting.equals(ReRouting.SEGMENT)) {
 							//Remove the connection from the history table
-							this.historyTable.remove(rsvp.getId());	
+							this.historyTable.remove(rsvp.getKey());	
 						}
 						if (destination.equals(id)) { //RSVP reached the destination node
 							event.setType(Event.Type.CONNECTION_PROBLEM);
 						} else { //intermediate nodes
+							FlexiLink backLink = this.getFlexiLink(rsvp.getBackwardIndex());
 							nextHop = rsvp.getBackwardNode();
 							//Set the next hop in the packet
 							rsvp.setNode(nextHop);
-							if (flexiLinks.get(nextHop) == null) { //Do nothing if there is no route in the return path
+							if (backLink == null) { //Do nothing if there is no route in the return path
 								//System.err.println("null rp admission control failure: "+event.toString());
 								event.setType(Event.Type.IGNORE);
 							} else {
 								//Set the new time of the event due to transmission time
-								event.setTimeStamp(event.getTimeStamp() + flexiLinks.get(nextHop).getDelay());
+								event.setTimeStamp(event.getTimeStamp() + backLink.getDelay());
 							}
 						}
 						break;
@@ -379,7 +407,7 @@ public class FlexiNode extends Node {
 							//Remove the last visited node from the record route
 							String last = rsvp.removeLastVisited();
 							//Put it in the history table
-							String label = rsvp.getId();
+							long label = rsvp.getKey();
 							this.putHistoryTable(label, last);
 						    //System.out.println("ProcLA: "+id+" last: "+last);
 							//Gets the request and update the try counter
@@ -398,7 +426,7 @@ public class FlexiNode extends Node {
 								//Set as path message
 								rsvp.setType(Message.Type.RSVP_PATH);
 								//Sets the previous label set
-								rsvp.setLabelSet(labelSetTable.get(rsvp.getId()));
+								rsvp.setLabelSet(labelSetTable.get(rsvp.getKey()));
 								//Set the record route in the RSVP
 								rsvp.setRecordRoute(true);
 								//Reset the error
@@ -413,35 +441,37 @@ public class FlexiNode extends Node {
 				    				event.setType(Event.Type.CONNECTION_PROBLEM);
 				    			} else {
 				    				//Set the backward node
+				    				FlexiLink backLink = this.getFlexiLink(rsvp.getBackwardIndex());
 				    				nextHop = rsvp.getBackwardNode();
 				    				rsvp.addEffectiveHop();
 				    				//Set the next hop in the packet
 				    				rsvp.setNode(nextHop);
 									//Set the new time of the event due to transmission time
-									if (flexiLinks.get(nextHop) == null) { //Do nothing if there is no route in the return path
+									if (backLink == null) { //Do nothing if there is no route in the return path
 										//System.err.println("null rp label set: "+event.toString());
 										event.setType(Event.Type.IGNORE);
 									} else {
-										event.setTimeStamp(event.getTimeStamp() + flexiLinks.get(nextHop).getDelay());
+										event.setTimeStamp(event.getTimeStamp() + backLink.getDelay());
 									}
 				    				//Remove the entry in the history table
-				    				this.historyTable.remove(rsvp.getId());
+				    				this.historyTable.remove(rsvp.getKey());
 				    			}
 							}
 						} else { //None or end-to-end routing
 							if (destination.equals(id)) { //RSVP reached the destination node
 								event.setType(Event.Type.CONNECTION_PROBLEM);
 							} else { //intermediate nodes
+								FlexiLink backLink = this.getFlexiLink(rsvp.getBackwardIndex());
 								nextHop = rsvp.getBackwardNode();
 								rsvp.addEffectiveHop();
 								//Set the next hop in the packet
 								rsvp.setNode(nextHop);
 								//Set the new time of the event due to transmission time
-								if (flexiLinks.get(nextHop) == null) { //Do nothing if there is no route in the return path
+								if (backLink == null) { //Do nothing if there is no route in the return path
 									//System.err.println("null rp label set: "+event.toString());
 									event.setType(Event.Type.IGNORE);
 								} else {
-									event.setTimeStamp(event.getTimeStamp() + flexiLinks.get(nextHop).getDelay());
+									event.setTimeStamp(event.getTimeStamp() + backLink.getDelay());
 								}
 							}
 						}
@@ -452,14 +482,14 @@ public class FlexiNode extends Node {
 							if (rsvp.getPathLength() != 0) {
 								String last = rsvp.removeLastVisited();
 								//Put it in the history table
-								this.putHistoryTable(rsvp.getId(), last);
+								this.putHistoryTable(rsvp.getKey(), last);
 								//System.out.println("ProcRT: "+id+" last: "+last);
 							}
     						//Gets the request and update the try counter
 							request = (Request) rsvp.getContent();
 							request.addTry();
 							//Verify if we can make another re-routing attempt
-							int currentAttempt = this.sizeHistoryTable(rsvp.getId());
+							int currentAttempt = this.sizeHistoryTable(rsvp.getKey());
 							//System.out.println("Cur: "+currentAttempt+" max: "+this.reroutingAttempts);
 							//Gets the number of available neighbors
 							int neighbors;
@@ -472,7 +502,7 @@ public class FlexiNode extends Node {
 								//Set as path message
 								rsvp.setType(Message.Type.RSVP_PATH);
 								//Sets the previous label set, if applicable
-								LabelSet previous = labelSetTable.get(rsvp.getId());
+								LabelSet previous = labelSetTable.get(rsvp.getKey());
 								if (previous != null)
 									rsvp.setLabelSet(previous);
 								//Set the record route in the RSVP
@@ -489,35 +519,37 @@ public class FlexiNode extends Node {
 				    				event.setType(Event.Type.CONNECTION_PROBLEM);
 				    			} else {
 				    				//Set the backward node
+				    				FlexiLink backLink = this.getFlexiLink(rsvp.getBackwardIndex());
 				    				nextHop = rsvp.getBackwardNode();
 				    				rsvp.addEffectiveHop();
 				    				//Set the next hop in the packet
 				    				rsvp.setNode(nextHop);
 									//Set the new time of the event due to transmission time
-									if (flexiLinks.get(nextHop) == null) { //Do nothing if there is no route in the return path
+									if (backLink == null) { //Do nothing if there is no route in the return path
 										//System.err.println("null rp no route available: "+event.toString());
 										event.setType(Event.Type.IGNORE);
 									} else {
-										event.setTimeStamp(event.getTimeStamp() + flexiLinks.get(nextHop).getDelay());
+										event.setTimeStamp(event.getTimeStamp() + backLink.getDelay());
 									}
 				    				//Remove the entry in the history table
-				    				this.historyTable.remove(rsvp.getId());
+				    				this.historyTable.remove(rsvp.getKey());
 				    			}
 							}
 						} else { //None or end-to-end routing
 							if (destination.equals(id)) { //RSVP reached the destination node
 								event.setType(Event.Type.CONNECTION_PROBLEM);
 							} else { //intermediate nodes
+								FlexiLink backLink = this.getFlexiLink(rsvp.getBackwardIndex());
 								nextHop = rsvp.getBackwardNode();
 								rsvp.addEffectiveHop();
 								//Set the next hop in the message
 								rsvp.setNode(nextHop);
 								//Set the new time of the event due to transmission time
-								if (flexiLinks.get(nextHop) == null) { //Do nothing if there is no route in the return path
+								if (backLink == null) { //Do nothing if there is no route in the return path
 									//System.err.println("null rp no route: "+event.toString());
 									event.setType(Event.Type.IGNORE);
 								} else {
-									event.setTimeStamp(event.getTimeStamp() + flexiLinks.get(nextHop).getDelay());
+									event.setTimeStamp(event.getTimeStamp() + backLink.getDelay());
 								}
 							}
 						}
@@ -526,13 +558,13 @@ public class FlexiNode extends Node {
 						//Remove the last visited node from the record route
 						String last = rsvp.removeLastVisited();
 						//Put it in the history table
-						this.putHistoryTable(rsvp.getId(),last);
+						this.putHistoryTable(rsvp.getKey(),last);
 					    //System.out.println("ProcRE: "+id+" last: "+last);
 						//Gets the request and update the try counter
 						request = (Request) rsvp.getContent();
 						request.addTry(); //Observation: May exceed the maxReRoutingAttempts when the maximum is reached. However, it does not influence the result as the else clause will be selected in any limit 
 						//Verify if we can make another re-routing attempt
-						int currentAttempt = this.sizeHistoryTable(rsvp.getId());
+						int currentAttempt = this.sizeHistoryTable(rsvp.getKey());
 						//System.out.println("Cur: "+currentAttempt);
 						//Gets the number of available neighbors
 						int neighbors;
@@ -545,7 +577,7 @@ public class FlexiNode extends Node {
 							//Set as path message
 							rsvp.setType(Message.Type.RSVP_PATH);
 							//Sets the previous label set
-							rsvp.setLabelSet(labelSetTable.get(rsvp.getId()));
+							rsvp.setLabelSet(labelSetTable.get(rsvp.getKey()));
 							//Set the record route in the RSVP
 							rsvp.setRecordRoute(true);
 							//Reset the error
@@ -559,19 +591,20 @@ public class FlexiNode extends Node {
 //									rsvp.setNode(request.getSource());
 							} else { //Not in the source node
 								//Set the backward node
+								FlexiLink backLink = this.getFlexiLink(rsvp.getBackwardIndex());
 								nextHop = rsvp.getBackwardNode();
 								rsvp.addEffectiveHop();
 								//Set the next hop in the packet
 								rsvp.setNode(nextHop);
 								//Set the new time of the event due to transmission time
-								if (flexiLinks.get(nextHop) == null) {  //Do nothing if there is no route in the return path
+								if (backLink == null) {  //Do nothing if there is no route in the return path
 									//System.err.println("null rp rerouting exceeded: "+event.toString());
 									event.setType(Event.Type.IGNORE);
 								} else {
-									event.setTimeStamp(event.getTimeStamp() + flexiLinks.get(nextHop).getDelay());
+									event.setTimeStamp(event.getTimeStamp() + backLink.getDelay());
 								}
 			    				//Remove the entry in the history table
-			    				this.historyTable.remove(rsvp.getId());
+			    				this.historyTable.remove(rsvp.getKey());
 							}
 						}
 						break;
@@ -585,10 +618,8 @@ public class FlexiNode extends Node {
 				rsvp = (RSVP) msg;
 	    		/* Update the the frequency slot mask of this node. */
 	    		Connection connection = (Connection) rsvp.getContent();
-	    		//Get the forward node
-	    		String fwdId = rsvp.getForwardNode();
-	    		//Get the associated mask
-	    		FlexiLink linkMask = flexiLinks.get(fwdId);	    		
+	    		//Get the associated mask of the forward node
+	    		FlexiLink linkMask = this.getFlexiLink(rsvp.getForwardIndex());	    		
 	    		if (linkMask == null) {  //Do nothing if there is no route in the return path
 	    			System.err.println("no routing in return path (rsvp_path): "+event.toString());
 	    			event.setType(Event.Type.IGNORE);
@@ -596,12 +627,12 @@ public class FlexiNode extends Node {
 	    			//See the status of the frequency slot
 	    			if (linkMask.isAvailable(connection.getFS())) {
 	    				//System.out.println("Adding conn: "+rsvp.getId()+" with: "+connection.toString()+" to intermediate node: "+id);
-	    				activeConnections.put(rsvp.getId(),connection);
+	    				this.addActiveConnection(rsvp.getKey(),connection);
 	    				//Set the frequency slot
 	    				linkMask.addFrequencySlot(connection.getId(), connection.getFS());
 	    				if (this.rerouting.equals(ReRouting.SEGMENT)) {
 	    					//Remove the connection from the history table
-	    					this.historyTable.remove(rsvp.getId());
+	    					this.historyTable.remove(rsvp.getKey());
 	    				}
 	    				//Verify if the resv message reached the destination node.
 	    				destination = rsvp.getDestination();
@@ -623,7 +654,7 @@ public class FlexiNode extends Node {
 	    						nextHop = rsvp.getForwardNode();
 	    					}else {
 	    						//* Set the reverse (bidirectional) connection
-	    						FlexiLink reLinkMask = flexiLinks.get(nextHop);
+	    						FlexiLink reLinkMask = this.getFlexiLink(rsvp.getBackwardIndex());
 	    						reLinkMask.addFrequencySlot(connection.getId(), connection.getFS());
 	    						//System.err.println(reLinkMask);
 	    						//System.out.println("LinkMask backward id: "+id+" node: "+nextHop);
@@ -631,7 +662,7 @@ public class FlexiNode extends Node {
 	    					//Set the next hop in the packet
 	    					rsvp.setNode(nextHop);
 	    					//Set the new time of the event due to transmission time
-	    					event.setTimeStamp(event.getTimeStamp() + flexiLinks.get(nextHop).getDelay());
+	    					event.setTimeStamp(event.getTimeStamp() + this.getFlexiLink(rsvp.getProcIndex()).getDelay());
 	    				}	    			    			
 	    			} else { //Contention problem!
 	    				//Send a resvErr msg to the sender
@@ -645,7 +676,7 @@ public class FlexiNode extends Node {
 	    				//Set the next hop in the packet
 	    				rsvp.setNode(nextHop);
 	    				//Set the new time of the event due to transmission time
-	    				event.setTimeStamp(event.getTimeStamp() + flexiLinks.get(nextHop).getDelay());
+	    				event.setTimeStamp(event.getTimeStamp() + this.getFlexiLink(rsvp.getProcIndex()).getDelay());
 	    			}
 	    		}
 	    		response = event;
@@ -653,12 +684,12 @@ public class FlexiNode extends Node {
 			case RSVP_RESV_ERR:				
 				rsvp = (RSVP) msg;
 	    		//Remove the connection from the table of connections
-	    		activeConnections.remove(rsvp.getId());
+	    		this.removeActiveConnection(rsvp.getKey());
 	    		Connection removed_rerr = (Connection) rsvp.getContent();
 	    		destination = rsvp.getDestination(); 
 	    		if (destination.equals(id)) { //Now, send a PathErr to the ingress node
 	    			//* Clear the last reverse (bidirectional) segment
-					FlexiLink reLinkMaskErr = flexiLinks.get(rsvp.getBackwardNode());
+					FlexiLink reLinkMaskErr = this.getFlexiLink(rsvp.getBackwardIndex());
 					reLinkMaskErr.removeFrequencySlot(removed_rerr.getId());	
 					//System.err.println(reLinkMaskErr);
 	    			//Convert to pathErr msg, if not RP_NOT_ROUTE_AVAILABLE
@@ -673,19 +704,19 @@ public class FlexiNode extends Node {
 	    		} else {
 		    		nextHop = rsvp.getForwardNode();
 		    		//Get the associated mask
-		    		FlexiLink linkMaskErr = flexiLinks.get(nextHop);
+		    		FlexiLink linkMaskErr = this.getFlexiLink(rsvp.getForwardIndex());
 		    		//Clear the frequency slot
 		    		linkMaskErr.removeFrequencySlot(removed_rerr.getId());
 		    		//* Clear the reverse (bidirectional) segment, if not source of the connection
 					if (!id.equals(removed_rerr.getSource())) {
-						FlexiLink reLinkMaskErr = flexiLinks.get(rsvp.getBackwardNode());
+						FlexiLink reLinkMaskErr = this.getFlexiLink(rsvp.getBackwardIndex());
 						reLinkMaskErr.removeFrequencySlot(removed_rerr.getId());
 						//System.err.println(reLinkMaskErr);
 					}
 			    	//Set the next hop in the packet
 			    	rsvp.setNode(nextHop);
 		    		//Set the new time of the event due to transmission time
-		    		event.setTimeStamp(event.getTimeStamp() + flexiLinks.get(nextHop).getDelay());
+		    		event.setTimeStamp(event.getTimeStamp() + this.getFlexiLink(rsvp.getProcIndex()).getDelay());
 	    		}
 	    		response = event;
 	    		break;				
@@ -711,7 +742,7 @@ public class FlexiNode extends Node {
 		    				clonedFrom.retransmit(id,neighId);
 		    				clonedFrom.setNode(neighId);
 		    				//Set new time stamp
-		    				double transmissionTime = this.flexiLinks.get(neighId).getDelay();
+		    				double transmissionTime = this.getFlexiLink(clonedFrom.getProcIndex()).getDelay();
 		    				double newTimeStamp = event.getTimeStamp() + transmissionTime;
 		    				//Add to the list of broadcast
 		    				broadcast.add(new Event(newTimeStamp,event.getInitialTimeStamp(),Event.Type.MESSAGE_ARRIVAL,clonedFrom));
@@ -721,17 +752,18 @@ public class FlexiNode extends Node {
 		    		failureID.add(failure.getID());
 		    		/* Remove the link states affected by the failure. */
 		    		if (((Edge)failure.getInformation()).getSource().equals(id)) {
-		    			flexiLinks.remove(((Edge)failure.getInformation()).getDestination());
+		    			this.removeFlexiLink(((Edge)failure.getInformation()).getDestination());
 		    		}
 		    		/* Treatment the failure by the neighbor nodes */
 		    		//Now, if it is the closest node upstream to the failure
 		    		if(id.equals(((Edge)failure.getInformation()).getSource())) {
 		    			//Adds the notification of broken LSP to the event
-		    			for(String activeID:activeConnections.keySet()) {
-		    				//Gets the connection
-		    				Connection active = activeConnections.get(activeID);
+		    			for(long activeKey:connectionIndex.getKeys(id,((Edge)failure.getInformation()).getDestination())) {
+		    				//Gets the connection and the position of this node in its path
+		    				Connection active = activeConnections.get(activeKey);
+		    				int position = connectionIndex.getPosition(activeKey);
 		    				//Locate the failure
-		    				Location location = failure.locate(id,active.getPath());
+		    				Location location = failure.locate(position,active.getPath());
 		    				if(!location.equals(Failure.Location.NOT_APPLICABLE)) {
 		    					//Create the PathErr packet
 		    					RSVP pathErr = new RSVP(active,Message.Type.RSVP_PATH_ERR,id,active.getSource());
@@ -742,10 +774,10 @@ public class FlexiNode extends Node {
 		    					double transmissionTime=0;
 		    					//Not the source node to treat the failure
 		    					if(!id.equals(active.getPath().firstNode())) {
-		    						nextHop = active.getPath().getPreviousNode(id);
+		    						nextHop = active.getPath().getNode(position - 1);
 		    						pathErr.setNode(nextHop);
 		    						//Set new time stamp
-		    						transmissionTime = this.flexiLinks.get(nextHop).getDelay();	
+		    						transmissionTime = this.getFlexiLink(pathErr.getProcIndex()).getDelay();	
 		    					}
 		    					double newTimeStamp = event.getTimeStamp() + transmissionTime + DELTA_TIME;
 		    					broadcast.add(new Event(newTimeStamp,event.getInitialTimeStamp(),Event.Type.MESSAGE_ARRIVAL,pathErr));
@@ -754,11 +786,12 @@ public class FlexiNode extends Node {
 		    			//Now, if it is the closest node downstream to the failure
 		    		} else if(id.equals(((Edge)failure.getInformation()).getDestination())) {
 		    			//Adds the notification of broken LSP to the event
-		    			for(String activeID:activeConnections.keySet()) {
-		    				//Gets the connection
-		    				Connection active = activeConnections.get(activeID);
+		    			for(long activeKey:connectionIndex.getKeys(((Edge)failure.getInformation()).getSource(),id)) {
+		    				//Gets the connection and the position of this node in its path
+		    				Connection active = activeConnections.get(activeKey);
+		    				int position = connectionIndex.getPosition(activeKey);
 		    				//Locate the failure
-		    				Location location = failure.locate(id,active.getPath());
+		    				Location location = failure.locate(position,active.getPath());
 		    				if(!location.equals(Failure.Location.NOT_APPLICABLE)) {
 		    					//Create the PathErr packet
 		    					RSVP pathTear = new RSVP(active,Message.Type.RSVP_PATH_TEAR,id,active.getDestination());
@@ -770,9 +803,9 @@ public class FlexiNode extends Node {
 		    					double transmissionTime = 0;
 		    					//Not the last node to tackle the failure
 		    					if(!id.equals(active.getPath().lastNode())) {
-		    						nextHop = active.getPath().getNextNode(id);
+		    						nextHop = active.getPath().getNode(position + 1);
 		    						pathTear.setNode(nextHop);
-		    						transmissionTime = this.flexiLinks.get(nextHop).getDelay();	
+		    						transmissionTime = this.getFlexiLink(pathTear.getProcIndex()).getDelay();	
 		    					}
 	    						//Set new time stamp
 		    					double newTimeStamp = event.getTimeStamp() + transmissionTime + DELTA_TIME;
@@ -812,10 +845,10 @@ public class FlexiNode extends Node {
 
 	/**
 	 * Associates the neighbor id of a failed routed node to a flow label.
-	 * @param label The label of the RSVP message.
+	 * @param label The key of the label of the RSVP message.
 	 * @param neigh The id of the visited neighbor.
 	 */
-	protected void putHistoryTable(String label, String neigh) {
+	protected void putHistoryTable(long label, String neigh) {
 		ArrayList<String> history = historyTable.get(label);
 		if (history == null)  //no neighbor id in the list
 			history = new ArrayList<String>();
@@ -827,10 +860,10 @@ public class FlexiNode extends Node {
 	
 	/**
 	 * Gets the number of already visited neighbor nodes by the RSVP Path message.
-	 * @param label The label of the RSVP message.
+	 * @param label The key of the label of the RSVP message.
 	 * @return The number of already visited neighbor nodes by the RSVP Path message.
 	 */
-	protected int sizeHistoryTable(String label) {
+	protected int sizeHistoryTable(long label) {
 		ArrayList<String> history = historyTable.get(label);		
 		if (history == null)  //no neighbor id in the list
 			return 0;
@@ -843,7 +876,7 @@ public class FlexiNode extends Node {
 	 * @param label
 	 * @return
 	 */
-	protected ArrayList<String> getHistoryTable(String label) {
+	protected ArrayList<String> getHistoryTable(long label) {
 		ArrayList<String> history = historyTable.get(label);
 		if (history == null)  //no neighbor id in the list
 			return new ArrayList<String>();
@@ -851,6 +884,147 @@ public class FlexiNode extends Node {
 			return historyTable.get(label);
 	}
 	
+	/**
+	 * Adds a connection to the table of active connections and to the index by links.
+	 * @param key The key of the RSVP identification of the connection.
+	 * @param conn The connection.
+	 */
+	protected void addActiveConnection(long key, Connection conn) {
+		Connection previous = activeConnections.put(key,conn);
+		if ((previous != null) && id.equals(previous.getDestination()))
+			terminated--;
+		if (id.equals(conn.getDestination()))
+			terminated++;
+		connectionIndex.add(key,conn);
+	}
+	
+	/**
+	 * Removes a connection from the table of active connections and from the index by links.
+	 * @param key The key of the RSVP identification of the connection.
+	 */
+	protected void removeActiveConnection(long key) {
+		Connection previous = activeConnections.remove(key);
+		if ((previous != null) && id.equals(previous.getDestination()))
+			terminated--;
+		connectionIndex.remove(key);
+	}
+	
+	/**
+	 * Restores the adjacent link to the specified neighbor, e.g., after its repair.
+	 * @param neighbor The id of the neighbor node.
+	 * @param link The repaired link.
+	 */
+	public void restoreLink(String neighbor, FlexiLink link) {
+		flexiLinks.put(neighbor,link);
+		int node = Interner.node(neighbor);
+		for (int i=0; i < adjacentNodes.length; i++) {
+			if (adjacentNodes[i] == node) {
+				adjacentLinks[i] = link;
+				return;
+			}
+		}
+		//New adjacent node
+		adjacentNodes = Arrays.copyOf(adjacentNodes,adjacentNodes.length + 1);
+		adjacentLinks = Arrays.copyOf(adjacentLinks,adjacentLinks.length + 1);
+		adjacentNodes[adjacentNodes.length - 1] = node;
+		adjacentLinks[adjacentLinks.length - 1] = link;
+	}
+	
+	/**
+	 * Removes the adjacent link to the specified neighbor, e.g., after its failure.
+	 * @param neighbor The id of the neighbor node.
+	 */
+	protected void removeFlexiLink(String neighbor) {
+		flexiLinks.remove(neighbor);
+		int node = Interner.getNode(neighbor);
+		for (int i=0; i < adjacentNodes.length; i++) {
+			if (adjacentNodes[i] == node)
+				adjacentLinks[i] = null;
+		}
+	}
+	
+	/**
+	 * Returns the adjacent link to the specified interned neighbor. Since the
+	 * degree of the nodes is small, the adjacent nodes are scanned in order.
+	 * @param neighbor The interned neighbor node.
+	 * @return The adjacent link to the neighbor. Null, if there is no such link or it has been removed.
+	 */
+	protected FlexiLink getFlexiLink(int neighbor) {
+		for (int i=0; i < adjacentNodes.length; i++) {
+			if (adjacentNodes[i] == neighbor)
+				return adjacentLinks[i];
+		}
+		return null;
+	}
+	
+	/**
+	 * Returns the adjacent link to the specified neighbor.
+	 * @param neighbor The id of the neighbor node.
+	 * @return The adjacent link to the neighbor. Null, if there is no such link or it has been removed.
+	 */
+	protected FlexiLink getFlexiLink(String neighbor) {
+		return this.getFlexiLink(Interner.getNode(neighbor));
+	}
+	
+	/**
+	 * Sets the graph of the actual topology, which replaces the previous one
+	 * when the topology changes, e.g., after a failure or a repair.
+	 * @param aGraph The graph of the actual topology. It must not be modified.
+	 */
+	public void setGraph(Graph aGraph) {
+		this.graph = aGraph;
+	}
+	
+	/**
+	 * Updates the routing table of this node from the actual topology and the
+	 * actual set of paths of the network, e.g., after a repair. Only the entries
+	 * of the specified pairs are updated, if the table was built from the previous
+	 * topology and the neighbors of this node are the same.
+	 * @param previous The previous topology of the network.
+	 * @param pairs The source-destination pairs whose paths have changed.
+	 */
+	public void updateRoutingTable(Graph previous, Collection<String> pairs) {
+		((ExplicitRoutingTable)routingTable).updateFromTopology(previous,graph,FON.getPaths(),pairs);
+	}
+	
+	/**
+	 * Returns the number of active connections terminated in this node.
+	 * @return The number of active connections terminated in this node.
+	 */
+	public int getTerminatedConnections() {
+		return terminated;
+	}
+	
+	/**
+	 * Returns the estimated memory, in bytes, used by the tables of the connection
+	 * state of this node, excluding the connections themselves.
+	 * @return The estimated memory used by the tables of this node.
+	 */
+	public long getTablesMemory() {
+		long memory = activeConnections.memory() + connectionIndex.memory() + failureID.memory();
+		if (labelSetTable != null)
+			memory = memory + labelSetTable.memory() + historyTable.memory();
+		return memory;
+	}
+	
+	/**
+	 * Returns the estimated memory, in bytes, used by the tables of the connection
+	 * state per active connection of the specified nodes.
+	 * @param nodes The nodes of the network.
+	 * @return The estimated memory per active connection. Zero, if there is no active connection.
+	 */
+	public static double getMemoryPerConnection(Collection<? extends FlexiNode> nodes) {
+		long memory = 0L;
+		long connections = 0L;
+		for (FlexiNode node : nodes) {
+			memory = memory + node.getTablesMemory();
+			connections = connections + node.getTerminatedConnections();
+		}
+		if (connections == 0L)
+			return 0.0;
+		return (double) memory / (double) connections;
+	}
+	
 	public String debugFlexiLinks() {
 		StringBuilder builder = new StringBuilder();
 		for(FlexiLink f: flexiLinks.values()) {
@@ -870,8 +1044,8 @@ public class FlexiNode extends Node {
 	
 	public String debugHistoryTable() {
 		StringBuilder builder = new StringBuilder();
-		for(String conn:this.historyTable.keySet()) {
-			builder.append(conn);
+		for(long conn:this.historyTable.keys()) {
+			builder.append(Interner.connectionLabel(conn));
 			builder.append(" - ");
 			builder.append(this.historyTable.get(conn).toString());
 		}
@@ -0,0 +1,108 @@
+/**
+ * Created on 19/10/2026.
+ */
+package fon.topological;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+
+import graph.Graph;
+import graph.Path;
+import graph.PathCache;
+import net.Message;
+import net.RoutingTableEntry;
+
+/**
+ * Routing table with full-knowledge of the network's topology, whose k-shortest
+ * paths are calculated on demand by the PathCache shared by all the nodes. The
+ * next hop is the node following this node in the requested path of the pair,
+ * as in ExplicitRoutingTable, but no path is calculated for the pairs that are
+ * never requested.
+ *
+ * @author Gustavo Sousa Pavani
+ * @version 1.0
+ *
+ */
+public class LazyRoutingTable extends ExplicitRoutingTable {
+	/** Default serial version uid. */
+	private static final long serialVersionUID = 1L;
+	/** The shared cache of paths. */
+	protected transient PathCache cache;
+
+	/**
+	 * Creates a new LazyRoutingTable object.
+	 * @param source The source id of the node associated to this routing table.
+	 * @param k The number of k-shortest paths calculated.
+	 * @param aCache The shared cache of paths.
+	 */
+	public LazyRoutingTable(String source, int k, PathCache aCache) {
+		super(source,k);
+		this.cache = aCache;
+	}
+
+	/**
+	 * Gets the next hop of the message of the specified message.
+	 * @param msg The message to be routed.
+	 * @param k The shortest-path chosen. The first path starts with 0 index.
+	 * @return The next hop of the packet of the specified packet. Null,
+	 * if nothing appropriate is found
+	 */
+	public String nextHop(Message msg, int k) {
+		if (k >= alternative)
+			throw new ArrayIndexOutOfBoundsException(k);
+		ArrayList<Path> paths = cache.getPaths(msg.getSource(),msg.getDestination());
+		if ((paths == null) || (k >= paths.size()))
+			return null;
+		return paths.get(k).compact().getNextNode(id);
+	}
+
+	/**
+	 * Nothing to do, since the shared cache is notified of the topology changes.
+	 * @param graph The actual topology of the network.
+	 */
+	public void updateFromTopology(Graph graph) {
+	}
+
+	/**
+	 * Nothing to do, since the shared cache is notified of the topology changes.
+	 * @param graph The actual topology of the network.
+	 * @param setPaths The k-shortest paths of each source-destination pair.
+	 */
+	public void updateFromTopology(Graph graph, LinkedHashMap<String,ArrayList<Path>> setPaths) {
+	}
+
+	/**
+	 * Nothing to do, since the shared cache is notified of the topology changes.
+	 * @param previous The previous topology of the network.
+	 * @param graph The actual topology of the network.
+	 * @param setPaths The k-shortest paths of each source-destination pair.
+	 * @param pairs The source-destination pairs whose paths have changed.
+	 */
+	public void updateFromTopology(Graph previous, Graph graph, LinkedHashMap<String,ArrayList<Path>> setPaths, Collection<String> pairs) {
+	}
+
+	/**
+	 * The neighborhood entries are not kept by this table.
+	 * @return Null.
+	 */
+	public RoutingTableEntry neighbors(String source, String target) {
+		return null;
+	}
+
+	/**
+	 * The neighborhood entries are not kept by this table.
+	 * @return Null.
+	 */
+	public RoutingTableEntry[][] getRoutingTable() {
+		return null;
+	}
+
+	/**
+	 * Returns a string representation of the routing table.
+	 * @return A string representation of the routing table.
+	 */
+	public String toString() {
+		return "Node id: "+id+"\nLazy routing table: "+cache.toString()+"\n";
+	}
+}
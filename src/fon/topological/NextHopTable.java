@@ -0,0 +1,169 @@
+/**
+ * Created on 19/10/2026.
+ */
+package fon.topological;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+
+import graph.CompactPath;
+import graph.Path;
+import net.Interner;
+
+/**
+ * Compact next-hop table derived from the set of k-shortest paths of the
+ * topology, shared by all the nodes. For each rank of path, the interned nodes of
+ * the paths of all the source-destination pairs are stored contiguously in a single
+ * int array, delimited by a flat array of offsets indexed by the interned pair.
+ * The next hop of a node is the node following it in the path of the pair,
+ * found by scanning a few integers, so no objects are allocated per entry.
+ *
+ * @author Gustavo Sousa Pavani
+ * @version 1.0
+ *
+ */
+public class NextHopTable {
+	/** The table built from the last set of paths requested. */
+	protected static NextHopTable current;
+	/** The set of paths from which this table was built. */
+	protected final LinkedHashMap<String,ArrayList<Path>> setPaths;
+	/** The number of ranks of paths. */
+	protected final int alternative;
+	/** The number of interned nodes when this table was built. */
+	protected final int size;
+	/** The offsets of the path of each pair in hops, by rank. The pair (s,d) uses [s*size+d, s*size+d+1). */
+	protected final int[][] offsets;
+	/** The interned nodes of the paths, stored contiguously by rank. */
+	protected final int[][] hops;
+
+	/**
+	 * Creates a new NextHopTable object.
+	 * @param aSetPaths The k-shortest paths of each source-destination pair.
+	 * @param aAlternative The number of ranks of paths.
+	 */
+	public NextHopTable(LinkedHashMap<String,ArrayList<Path>> aSetPaths, int aAlternative) {
+		this.setPaths = aSetPaths;
+		this.alternative = aAlternative;
+		this.size = Interner.nodes();
+		this.offsets = new int[alternative][size * size + 1];
+		this.hops = new int[alternative][];
+		//Count the number of nodes of the path of each pair and rank
+		int[] total = new int[alternative];
+		for (ArrayList<Path> paths : setPaths.values()) {
+			if (paths == null)
+				continue;
+			for (int k=0; (k < paths.size()) && (k < alternative); k++) {
+				CompactPath path = paths.get(k).compact();
+				offsets[k][this.pair(path) + 1] = path.size();
+				total[k] = total[k] + path.size();
+			}
+		}
+		//Accumulate the offsets
+		for (int k=0; k < alternative; k++) {
+			for (int i=1; i < offsets[k].length; i++)
+				offsets[k][i] = offsets[k][i] + offsets[k][i - 1];
+			hops[k] = new int[total[k]];
+		}
+		//Copy the nodes of the paths
+		for (ArrayList<Path> paths : setPaths.values()) {
+			if (paths == null)
+				continue;
+			for (int k=0; (k < paths.size()) && (k < alternative); k++) {
+				CompactPath path = paths.get(k).compact();
+				int start = offsets[k][this.pair(path)];
+				for (int i=0; i < path.size(); i++)
+					hops[k][start + i] = path.getNodeIndex(i);
+			}
+		}
+	}
+
+	/**
+	 * Returns the table built from the specified set of paths, which is shared
+	 * by all the nodes that request it. It is rebuilt only when the set of paths changes.
+	 * @param setPaths The k-shortest paths of each source-destination pair.
+	 * @param alternative The number of ranks of paths.
+	 * @return The table built from the specified set of paths.
+	 */
+	public static NextHopTable getInstance(LinkedHashMap<String,ArrayList<Path>> setPaths, int alternative) {
+		if ((current == null) || !current.isBuiltFrom(setPaths) || (current.alternative != alternative))
+			current = new NextHopTable(setPaths,alternative);
+		return current;
+	}
+
+	/**
+	 * Verifies if this table was built from the specified set of paths.
+	 * @param aSetPaths The set of paths.
+	 * @return True, if this table was built from the specified set of paths. False, otherwise.
+	 */
+	public boolean isBuiltFrom(LinkedHashMap<String,ArrayList<Path>> aSetPaths) {
+		return this.setPaths == aSetPaths;
+	}
+
+	/**
+	 * Gets the next hop of the specified node in the path of the specified rank.
+	 * @param node The interned node processing the message.
+	 * @param source The interned source node of the message.
+	 * @param destination The interned destination node of the message.
+	 * @param k The rank of the path. The first path starts with 0 index.
+	 * @return The interned next hop. Interner.NONE, if the node is not in the path or there is no such path.
+	 */
+	public int nextHop(int node, int source, int destination, int k) {
+		if (k >= alternative)
+			throw new ArrayIndexOutOfBoundsException(k);
+		if ((source < 0) || (destination < 0) || (source >= size) || (destination >= size))
+			return Interner.NONE;
+		int pair = (source * size) + destination;
+		int[] path = hops[k];
+		int end = offsets[k][pair + 1];
+		//The last node has no next hop
+		for (int i = offsets[k][pair]; i < end - 1; i++) {
+			if (path[i] == node)
+				return path[i + 1];
+		}
+		return Interner.NONE;
+	}
+
+	/**
+	 * Returns the number of ranks of paths.
+	 * @return The number of ranks of paths.
+	 */
+	public int getAlternative() {
+		return alternative;
+	}
+
+	/**
+	 * Returns the estimated memory, in bytes, used by this table.
+	 * @return The estimated memory used by this table.
+	 */
+	public long memory() {
+		long memory = 0;
+		for (int k=0; k < alternative; k++)
+			memory = memory + (4L * offsets[k].length) + (4L * hops[k].length) + 32L;
+		return memory;
+	}
+
+	/**
+	 * Returns a String representation of this object.
+	 * @return A String representation of this object.
+	 */
+	public String toString() {
+		StringBuilder buffer = new StringBuilder();
+		for (int k=0; k < alternative; k++) {
+			buffer.append(k);
+			buffer.append(": ");
+			buffer.append(Arrays.toString(hops[k]));
+			buffer.append("\n");
+		}
+		return buffer.toString();
+	}
+
+	/**
+	 * Returns the index of the source-destination pair of the specified path.
+	 * @param path The path.
+	 * @return The index of the source-destination pair of the specified path.
+	 */
+	protected int pair(CompactPath path) {
+		return (path.getNodeIndex(0) * size) + path.getNodeIndex(path.size() - 1);
+	}
+}
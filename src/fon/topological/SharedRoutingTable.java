@@ -0,0 +1,131 @@
+/**
+ * Created on 19/10/2026.
+ */
+package fon.topological;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+
+import graph.Graph;
+import graph.Path;
+import graph.PathPool;
+import graph.YEN;
+import net.Interner;
+import net.Message;
+import net.RoutingTableEntry;
+
+/**
+ * Routing table with full-knowledge of the network's topology, backed by the
+ * NextHopTable shared by all the nodes instead of a table of RoutingTableEntry
+ * objects per node. It gives the same next hops as ExplicitRoutingTable, but its
+ * memory does not grow with the cube of the number of nodes.
+ *
+ * @author Gustavo Sousa Pavani
+ * @version 1.0
+ *
+ */
+public class SharedRoutingTable extends ExplicitRoutingTable {
+	/** Default serial version uid. */
+	private static final long serialVersionUID = 1L;
+	/** The interned id of the node associated to this routing table. */
+	protected int index;
+	/** The shared next-hop table. */
+	protected transient NextHopTable shared;
+
+	/**
+	 * Creates a new SharedRoutingTable object.
+	 * @param source The source id of the node associated to this routing table.
+	 * @param k The number of k-shortest paths calculated.
+	 */
+	public SharedRoutingTable(String source, int k) {
+		super(source,k);
+		this.index = Interner.node(source);
+	}
+
+	/**
+	 * Gets the next hop of the message of the specified message.
+	 * @param msg The message to be routed.
+	 * @param k The shortest-path chosen. The first path starts with 0 index.
+	 * @return The next hop of the packet of the specified packet. Null,
+	 * if nothing appropriate is found
+	 */
+	public String nextHop(Message msg, int k) {
+		int next = shared.nextHop(index,Interner.getNode(msg.getSource()),Interner.getNode(msg.getDestination()),k);
+		return (next == Interner.NONE) ? null : Interner.label(next);
+	}
+
+	/**
+	 * Calculates the k-shortest paths of the specified topology and
+	 * updates the shared table from them.
+	 * @param graph The actual topology of the network.
+	 */
+	public void updateFromTopology(Graph graph) {
+		LinkedHashMap<String,ArrayList<Path>> setPaths = new LinkedHashMap<String,ArrayList<Path>>();
+		YEN yen = new YEN();
+		for (String source: graph.nodes()) {
+			for (String target: graph.nodes()) {
+				if (!source.equals(target)) {
+					try {
+						setPaths.put(source+"-"+target,PathPool.share(yen.getShortestPaths(source,target,graph,alternative)));
+					} catch (Exception e) {e.printStackTrace();}
+				}
+			}
+		}
+		this.updateFromTopology(graph,setPaths);
+	}
+
+	/**
+	 * Updates the shared table from the specified set of paths. The table
+	 * is rebuilt only once for all the nodes when the set of paths changes.
+	 * @param graph The actual topology of the network.
+	 * @param setPaths The k-shortest paths of each source-destination pair.
+	 */
+	public void updateFromTopology(Graph graph, LinkedHashMap<String,ArrayList<Path>> setPaths) {
+		if ((shared != null) && shared.isBuiltFrom(setPaths))
+			return; //nothing to do
+		shared = NextHopTable.getInstance(setPaths,alternative);
+	}
+
+	/**
+	 * Updates the shared table from the specified set of paths. The table is
+	 * flattened again once for all the nodes, without recalculating any path.
+	 * @param previous The previous topology of the network.
+	 * @param graph The actual topology of the network.
+	 * @param setPaths The k-shortest paths of each source-destination pair.
+	 * @param pairs The source-destination pairs whose paths have changed.
+	 */
+	public void updateFromTopology(Graph previous, Graph graph, LinkedHashMap<String,ArrayList<Path>> setPaths, Collection<String> pairs) {
+		this.updateFromTopology(graph,setPaths);
+	}
+
+	/**
+	 * The neighborhood entries are not kept by this table.
+	 * @return Null.
+	 */
+	public RoutingTableEntry neighbors(String source, String target) {
+		return null;
+	}
+
+	/**
+	 * The neighborhood entries are not kept by this table.
+	 * @return Null.
+	 */
+	public RoutingTableEntry[][] getRoutingTable() {
+		return null;
+	}
+
+	/**
+	 * Returns a string representation of the routing table.
+	 * @return A string representation of the routing table.
+	 */
+	public String toString() {
+		StringBuilder buffer = new StringBuilder();
+		buffer.append("Node id: ");
+		buffer.append(id);
+		buffer.append("\n");
+		buffer.append("Shared routing table: \n");
+		buffer.append(shared);
+		return buffer.toString();
+	}
+}
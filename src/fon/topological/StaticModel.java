@@ -0,0 +1,179 @@
+/**
+ * Created on 19/10/2026.
+ */
+package fon.topological;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import graph.Edge;
+import graph.Graph;
+import graph.Path;
+import graph.Topology;
+
+/**
+ * Static part of the model of a network, i.e., the k-shortest paths and the routing
+ * tables derived from the initial topology, which is kept between the points of a
+ * sweep. Only the arrival rate or another traffic parameter changes between the
+ * points, so a new network built with the same topology reuses this model and only
+ * creates its dynamic state (spectrum, connections and counters).
+ * <p>
+ * The model is never modified after its creation: the set of paths is replaced,
+ * not modified, after a failure, and each node receives a copy-on-write view of
+ * its routing table. The sets of paths calculated after failures are also kept,
+ * indexed by the version of the snapshot of the topology, so they are reused when the same
+ * failures happen in another point of the sweep or when a failure is repaired.
+ * Only the sets of the most recently used snapshots are kept, so the memory does
+ * not grow with the number of distinct failure states.
+ *
+ * @author Gustavo Sousa Pavani
+ * @version 1.0
+ *
+ */
+public class StaticModel {
+	/** The maximum number of sets of paths kept for the snapshots with failures. */
+	public static final int MAX_PATH_SETS = 64;
+	/** The model of the last topology requested. */
+	protected static StaticModel current;
+	/** The initial topology of the network. */
+	protected final Graph graph;
+	/** The snapshot of the initial topology, without failures. */
+	protected final Topology topology;
+	/** The number of alternative paths calculated. */
+	protected final int alternative;
+	/** The k-shortest paths of the initial topology. */
+	protected final LinkedHashMap<String,ArrayList<Path>> setPaths;
+	/** The routing tables of the initial topology, indexed by the id of the node. */
+	protected final LinkedHashMap<String,ExplicitRoutingTable> tables;
+	/** The sets of paths calculated for the most recently used snapshots with failures, indexed by their versions. */
+	protected final LinkedHashMap<Long,LinkedHashMap<String,ArrayList<Path>>> pathSets;
+	/** The snapshots of the sets of paths kept, so that they keep their versions. */
+	protected final HashMap<Long,Topology> snapshots;
+
+	/**
+	 * Creates a new StaticModel object.
+	 * @param aGraph The initial topology of the network. A copy of it is kept.
+	 * @param aAlternative The number of alternative paths calculated.
+	 * @param aSetPaths The k-shortest paths of the initial topology.
+	 */
+	@SuppressWarnings("serial")
+	protected StaticModel(Graph aGraph, int aAlternative, LinkedHashMap<String,ArrayList<Path>> aSetPaths) {
+		this.topology = new Topology(aGraph);
+		this.graph = topology.getBase();
+		this.alternative = aAlternative;
+		this.setPaths = aSetPaths;
+		this.tables = new LinkedHashMap<String,ExplicitRoutingTable>();
+		this.snapshots = new HashMap<Long,Topology>();
+		//The access order evicts the least recently used snapshot
+		this.pathSets = new LinkedHashMap<Long,LinkedHashMap<String,ArrayList<Path>>>(16,0.75f,true) {
+			protected boolean removeEldestEntry(Map.Entry<Long,LinkedHashMap<String,ArrayList<Path>>> eldest) {
+				if (size() > MAX_PATH_SETS) {
+					snapshots.remove(eldest.getKey());
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	/**
+	 * Returns the model of the specified topology, if it was already created.
+	 * @param graph The initial topology of the network.
+	 * @param alternative The number of alternative paths calculated.
+	 * @return The model of the specified topology. Null, if it was not created yet.
+	 */
+	public static StaticModel lookup(Graph graph, int alternative) {
+		if ((current != null) && (current.alternative == alternative) && sameTopology(current.graph,graph))
+			return current;
+		return null;
+	}
+
+	/**
+	 * Verifies if the specified graphs have the same edges with the same values, since
+	 * the comparison of the graphs ignores the values, which are the weights of the paths.
+	 * @param graph The first graph.
+	 * @param other The second graph.
+	 * @return True, if the graphs have the same edges and values. False, otherwise.
+	 */
+	protected static boolean sameTopology(Graph graph, Graph other) {
+		if (!graph.equals(other))
+			return false;
+		try {
+			for (Edge edge : graph.edges()) {
+				Object value = other.getEdge(edge.getSource(),edge.getDestination()).getValue();
+				if ((value == null) ? (edge.getValue() != null) : !value.equals(edge.getValue()))
+					return false;
+			}
+		} catch (Exception e) {e.printStackTrace();}
+		return true;
+	}
+
+	/**
+	 * Creates the model of the specified topology, replacing the previous one.
+	 * @param graph The initial topology of the network.
+	 * @param alternative The number of alternative paths calculated.
+	 * @param setPaths The k-shortest paths of the initial topology.
+	 * @return The model of the specified topology.
+	 */
+	public static StaticModel create(Graph graph, int alternative, LinkedHashMap<String,ArrayList<Path>> setPaths) {
+		current = new StaticModel(graph,alternative,setPaths);
+		return current;
+	}
+
+	/**
+	 * Returns the k-shortest paths of the initial topology.
+	 * @return The k-shortest paths of the initial topology.
+	 */
+	public LinkedHashMap<String,ArrayList<Path>> getPaths() {
+		return setPaths;
+	}
+
+	/**
+	 * Returns the snapshot of the initial topology, without failures.
+	 * @return The snapshot of the initial topology.
+	 */
+	public Topology getTopology() {
+		return topology;
+	}
+
+	/**
+	 * Returns the set of paths already calculated for the specified snapshot of the topology.
+	 * @param snapshot The snapshot of the topology.
+	 * @return The set of paths of the snapshot. Null, if it was not calculated yet.
+	 */
+	public LinkedHashMap<String,ArrayList<Path>> getPaths(Topology snapshot) {
+		if (snapshot.getVersion() == topology.getVersion())
+			return setPaths;
+		return pathSets.get(snapshot.getVersion());
+	}
+
+	/**
+	 * Keeps the set of paths calculated for the specified snapshot of the topology.
+	 * @param snapshot The snapshot of the topology.
+	 * @param paths The set of paths of the snapshot.
+	 */
+	public void putPaths(Topology snapshot, LinkedHashMap<String,ArrayList<Path>> paths) {
+		if (snapshot.getVersion() != topology.getVersion()) {
+			snapshots.put(snapshot.getVersion(),snapshot);
+			pathSets.put(snapshot.getVersion(),paths);
+		}
+	}
+
+	/**
+	 * Returns a copy-on-write view of the routing table of the specified node,
+	 * creating the table from the initial topology if necessary.
+	 * @param id The id of the node.
+	 * @return A copy-on-write view of the routing table of the node.
+	 */
+	public ExplicitRoutingTable getRoutingTable(String id) {
+		ExplicitRoutingTable table = tables.get(id);
+		if (table == null) {
+			table = new ExplicitRoutingTable(id,alternative);
+			table.updateFromTopology(graph,setPaths);
+			tables.put(id,table);
+		}
+		return table.share();
+	}
+}
@@ -0,0 +1,202 @@
+/*
+ * Created on 2026-10-19 by Pavani.
+ */
+package graph;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * Partition of the nodes of a topology into areas, for hierarchical routing.
+ * The areas are either configured, as lists of nodes, or computed by growing
+ * balanced regions around seeds chosen as far as possible from each other.
+ * The border nodes of an area are the ones with a link to another area.
+ *
+ * @author Gustavo Sousa Pavani
+ * @version 1.0
+ */
+public class AreaPartition {
+	/** The area of each node. */
+	protected HashMap<String,Integer> area;
+	/** The nodes of each area. */
+	protected ArrayList<ArrayList<String>> nodes;
+
+	/**
+	 * Creates a new AreaPartition object from the configured areas.
+	 * The nodes of the topology not listed in any area join the first area.
+	 * @param graph The topology of the network.
+	 * @param lists The nodes of each area, separated by commas.
+	 */
+	public AreaPartition(Graph graph, ArrayList<String> lists) {
+		this.area = new HashMap<String,Integer>();
+		this.nodes = new ArrayList<ArrayList<String>>();
+		for (String list : lists) {
+			ArrayList<String> members = new ArrayList<String>();
+			for (String node : list.split(",")) {
+				members.add(node.trim());
+				area.put(node.trim(),nodes.size());
+			}
+			nodes.add(members);
+		}
+		for (String node : graph.nodes()) {
+			if (!area.containsKey(node)) {
+				area.put(node,0);
+				nodes.get(0).add(node);
+			}
+		}
+	}
+
+	/**
+	 * Creates a new AreaPartition object by partitioning the specified topology.
+	 * The first seed is the first node of the graph and each following seed is the
+	 * node farthest, in hops, from the previous ones. Then, the area with fewer nodes
+	 * is grown by one node of its frontier at a time, so the areas are connected and balanced.
+	 * The nodes not reachable from any seed join the first area.
+	 * @param graph The topology of the network.
+	 * @param count The number of areas.
+	 */
+	public AreaPartition(Graph graph, int count) {
+		this.area = new HashMap<String,Integer>();
+		this.nodes = new ArrayList<ArrayList<String>>();
+		count = Math.max(1,Math.min(count,graph.size()));
+		//Choose the seeds by farthest-first traversal
+		ArrayList<String> seeds = new ArrayList<String>();
+		HashMap<String,Integer> hops = new HashMap<String,Integer>();
+		String seed = graph.getNode(0);
+		while (seeds.size() < count) {
+			seeds.add(seed);
+			HashMap<String,Integer> distance = this.hops(graph,seed);
+			String farthest = null;
+			for (String node : graph.nodes()) {
+				Integer value = distance.get(node);
+				Integer previous = hops.get(node);
+				int minimum = (previous == null) ? ((value == null) ? Integer.MAX_VALUE : value) : ((value == null) ? previous : Math.min(previous,value));
+				hops.put(node,minimum);
+				if (!seeds.contains(node) && ((farthest == null) || (minimum > hops.get(farthest))))
+					farthest = node;
+			}
+			if (farthest == null)
+				break;
+			seed = farthest;
+		}
+		//Grow the areas from the seeds
+		ArrayList<ArrayDeque<String>> frontier = new ArrayList<ArrayDeque<String>>();
+		for (String s : seeds) {
+			ArrayList<String> members = new ArrayList<String>();
+			members.add(s);
+			area.put(s,nodes.size());
+			nodes.add(members);
+			ArrayDeque<String> queue = new ArrayDeque<String>();
+			queue.add(s);
+			frontier.add(queue);
+		}
+		while (true) {
+			//The smallest area with a frontier
+			int chosen = -1;
+			for (int i=0; i < nodes.size(); i++) {
+				if (!frontier.get(i).isEmpty() && ((chosen == -1) || (nodes.get(i).size() < nodes.get(chosen).size())))
+					chosen = i;
+			}
+			if (chosen == -1)
+				break;
+			String node = frontier.get(chosen).poll();
+			for (String neighbor : graph.adjacentNodes(node)) {
+				if (!area.containsKey(neighbor)) {
+					area.put(neighbor,chosen);
+					nodes.get(chosen).add(neighbor);
+					frontier.get(chosen).add(neighbor);
+				}
+			}
+		}
+		for (String node : graph.nodes()) {
+			if (!area.containsKey(node)) {
+				area.put(node,0);
+				nodes.get(0).add(node);
+			}
+		}
+	}
+
+	/**
+	 * Returns the area of the specified node.
+	 * @param node The node.
+	 * @return The area of the node. -1, if the node does not belong to any area.
+	 */
+	public int getArea(String node) {
+		Integer value = area.get(node);
+		return (value == null) ? -1 : value;
+	}
+
+	/**
+	 * Returns the nodes of the specified area.
+	 * @param index The area.
+	 * @return The nodes of the area.
+	 */
+	public ArrayList<String> getNodes(int index) {
+		return nodes.get(index);
+	}
+
+	/**
+	 * Returns the number of areas.
+	 * @return The number of areas.
+	 */
+	public int size() {
+		return nodes.size();
+	}
+
+	/**
+	 * Verifies if the specified node has a link to another area in the specified topology.
+	 * @param node The node.
+	 * @param graph The topology of the network.
+	 * @return True, if the node is a border node. False, otherwise.
+	 */
+	public boolean isBorder(String node, Graph graph) {
+		if (graph.getNodeIndex(node) == -1)
+			return false;
+		int index = this.getArea(node);
+		for (String neighbor : graph.adjacentNodes(node)) {
+			if (this.getArea(neighbor) != index)
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Returns a String representation of this object.
+	 * @return A String representation of this object.
+	 */
+	public String toString() {
+		StringBuilder buffer = new StringBuilder();
+		for (int i=0; i < nodes.size(); i++) {
+			buffer.append("Area ");
+			buffer.append(i);
+			buffer.append(": ");
+			buffer.append(nodes.get(i).size());
+			buffer.append(" nodes\n");
+		}
+		return buffer.toString();
+	}
+
+	/**
+	 * Returns the distance, in hops, from the specified node to the nodes reachable from it.
+	 * @param graph The topology of the network.
+	 * @param source The source node.
+	 * @return The distance of each reachable node.
+	 */
+	protected HashMap<String,Integer> hops(Graph graph, String source) {
+		HashMap<String,Integer> distance = new HashMap<String,Integer>();
+		ArrayDeque<String> queue = new ArrayDeque<String>();
+		distance.put(source,0);
+		queue.add(source);
+		while (!queue.isEmpty()) {
+			String node = queue.poll();
+			for (String neighbor : graph.adjacentNodes(node)) {
+				if (!distance.containsKey(neighbor)) {
+					distance.put(neighbor,distance.get(node) + 1);
+					queue.add(neighbor);
+				}
+			}
+		}
+		return distance;
+	}
+}
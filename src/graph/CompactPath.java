@@ -0,0 +1,383 @@
+/*
+ * Created on 2026-10-19 by Pavani.
+ */
+package graph;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+import net.Interner;
+
+/**
+ * Immutable representation of a path, with the interned nodes and the interned
+ * links between consecutive nodes stored in integer arrays. Since it cannot be
+ * modified, a CompactPath can be shared by any number of messages and connections
+ * without copying. The hops are looked up by comparing the interned nodes, and
+ * walked hop by hop in constant time with a Cursor. The String API of Path is
+ * kept as a read-only view.
+ *
+ * @author Gustavo Sousa Pavani
+ * @version 1.0
+ */
+public class CompactPath {
+	/** The interned nodes of this path. */
+	protected final int[] nodes;
+	/** The interned links of this path, i.e., links[i] goes from nodes[i] to nodes[i+1]. */
+	protected final int[] links;
+	/** Total cost of this path. */
+	protected final double cost;
+	/** The read-only view of the labels of the nodes, created on demand. */
+	protected List<String> view;
+
+	/**
+	 * Creates a new CompactPath object from the specified path.
+	 * @param path The path.
+	 */
+	public CompactPath(Path path) {
+		int size = path.size();
+		int[] aNodes = new int[size];
+		for (int i=0; i < size; i++)
+			aNodes[i] = Interner.node(path.getNode(i));
+		this.nodes = aNodes;
+		this.links = this.intern(aNodes);
+		this.cost = path.getCost();
+	}
+
+	/**
+	 * Creates a new CompactPath object from the specified interned nodes.
+	 * @param aNodes The interned nodes of the path. The array is not copied.
+	 * @param aCost The cost of the path.
+	 */
+	public CompactPath(int[] aNodes, double aCost) {
+		this.nodes = aNodes;
+		this.links = this.intern(aNodes);
+		this.cost = aCost;
+	}
+
+	/**
+	 * Gets the size of the path (in number of nodes).
+	 * @return The size of the path (in number of nodes).
+	 */
+	public int size() {
+		return nodes.length;
+	}
+
+	/**
+	 * Gets the cost of this path.
+	 * @return The cost of this path.
+	 */
+	public double getCost() {
+		return cost;
+	}
+
+	/**
+	 * Gets the label of the node at the specified position.
+	 * @param i The position of the node.
+	 * @return The label of the specified node.
+	 */
+	public String getNode(int i) {
+		return Interner.label(nodes[i]);
+	}
+
+	/**
+	 * Gets the interned node at the specified position.
+	 * @param i The position of the node.
+	 * @return The interned node.
+	 */
+	public int getNodeIndex(int i) {
+		return nodes[i];
+	}
+
+	/**
+	 * Gets the interned link of the specified hop, i.e., the link
+	 * between the nodes at positions hop and hop+1.
+	 * @param hop The hop, starting at 0.
+	 * @return The interned link.
+	 */
+	public int getLink(int hop) {
+		return links[hop];
+	}
+
+	/**
+	 * Gets the first node (source node).
+	 * @return The first node.
+	 */
+	public String firstNode() {
+		return Interner.label(nodes[0]);
+	}
+
+	/**
+	 * Gets the last node (destination node).
+	 * @return The last node.
+	 */
+	public String lastNode() {
+		return Interner.label(nodes[nodes.length - 1]);
+	}
+
+	/**
+	 * Gets the position of the specified interned node.
+	 * @param node The interned node.
+	 * @return The position of the node. -1, if it is not in the path.
+	 */
+	public int getNodePosition(int node) {
+		for (int i=0; i < nodes.length; i++) {
+			if (nodes[i] == node)
+				return i;
+		}
+		return -1;
+	}
+
+	/**
+	 * Gets the position of the specified node.
+	 * @param key The label of the node.
+	 * @return The position of the node. -1, if it is not in the path.
+	 */
+	public int getNodePosition(String key) {
+		int node = Interner.getNode(key);
+		return (node == Interner.NONE) ? -1 : this.getNodePosition(node);
+	}
+
+	/**
+	 * Gets the position of the specified node, trying first the positions
+	 * around the hint, so that walking the path hop by hop takes constant time.
+	 * @param node The interned node.
+	 * @param hint The expected position of the node.
+	 * @return The position of the node. -1, if it is not in the path.
+	 */
+	public int getNodePosition(int node, int hint) {
+		for (int i = hint - 1; i <= hint + 1; i++) {
+			if ((i >= 0) && (i < nodes.length) && (nodes[i] == node))
+				return i;
+		}
+		return this.getNodePosition(node);
+	}
+
+	/**
+	 * Verifies if a node belongs to this path.
+	 * @param key The label of the node.
+	 * @return True, if the node is present in the path. False, otherwise.
+	 */
+	public boolean containNode(String key) {
+		return this.getNodePosition(key) != -1;
+	}
+
+	/**
+	 * Gets the next node of the specified node.
+	 * @param key The label of the specified node.
+	 * @return The next node. Null, if it is the last node or it is not in the path.
+	 */
+	public String getNextNode(String key) {
+		int position = this.getNodePosition(key);
+		if ((position == -1) || (position == nodes.length - 1))
+			return null;
+		return Interner.label(nodes[position + 1]);
+	}
+
+	/**
+	 * Gets the previous node of the specified node.
+	 * @param key The label of the specified node.
+	 * @return The previous node. Null, if it is the first node or it is not in the path.
+	 */
+	public String getPreviousNode(String key) {
+		int position = this.getNodePosition(key);
+		if (position <= 0)
+			return null;
+		return Interner.label(nodes[position - 1]);
+	}
+
+	/**
+	 * Returns a read-only view of the labels of the nodes. The first element is the source node.
+	 * @return A read-only view of the labels of the nodes.
+	 */
+	public List<String> nodes() {
+		if (view == null) {
+			view = new AbstractList<String>() {
+				public String get(int index) {
+					return Interner.label(nodes[index]);
+				}
+				public int size() {
+					return nodes.length;
+				}
+			};
+		}
+		return view;
+	}
+
+	/**
+	 * Returns a new cursor on this path.
+	 * @param hop The initial position of the cursor.
+	 * @return A new cursor on this path.
+	 */
+	public Cursor cursor(int hop) {
+		return new Cursor(hop);
+	}
+
+	/**
+	 * Returns a new mutable Path with the nodes and the cost of this path.
+	 * @return A new mutable Path.
+	 */
+	public Path toPath() {
+		Path path = new Path();
+		for (int node : nodes)
+			path.addNode(Interner.label(node));
+		path.setCost(cost);
+		return path;
+	}
+
+	/**
+	 * Verifies if two paths are equal. Two paths are defined to be equal if they
+	 * contain the same nodes in the same order and have the same cost.
+	 * @param obj The object to be compared to this path.
+	 * @return True if the specified object is equal to this path.
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (!(obj instanceof CompactPath))
+			return false;
+		CompactPath other = (CompactPath) obj;
+		return (cost == other.cost) && Arrays.equals(nodes,other.nodes);
+	}
+
+	/**
+	 * Returns a hash code for this path.
+	 * @return A hash code for this path.
+	 */
+	@Override
+	public int hashCode() {
+		long bits = Double.doubleToLongBits(cost);
+		return (31 * Arrays.hashCode(nodes)) + (int)(bits ^ (bits >>> 32));
+	}
+
+	/**
+	 * Returns a string representation of the path, in the same format of Path.
+	 * @return A string representation of the path.
+	 */
+	@Override
+	public String toString() {
+		StringBuilder buffer = new StringBuilder();
+		for (int i=0; i < nodes.length; i++) {
+			if (i > 0)
+				buffer.append("-");
+			buffer.append(Interner.label(nodes[i]));
+		}
+		return buffer.toString();
+	}
+
+	/**
+	 * Interns the links between consecutive nodes.
+	 * @param aNodes The interned nodes.
+	 * @return The interned links.
+	 */
+	protected int[] intern(int[] aNodes) {
+		int[] aLinks = new int[Math.max(aNodes.length - 1,0)];
+		for (int i=0; i < aLinks.length; i++)
+			aLinks[i] = Interner.link(aNodes[i],aNodes[i + 1]);
+		return aLinks;
+	}
+
+	/**
+	 * Cursor on the nodes of a CompactPath, kept by a message to walk the path hop
+	 * by hop. The node at each hop is located by looking first around the position
+	 * of the previous hop, so the forwarding only compares interned nodes.
+	 */
+	public class Cursor {
+		/** The actual position of the cursor. */
+		protected int hop;
+
+		/**
+		 * Creates a new Cursor object.
+		 * @param aHop The initial position of the cursor.
+		 */
+		protected Cursor(int aHop) {
+			this.hop = aHop;
+		}
+
+		/**
+		 * Gets the path of this cursor.
+		 * @return The path of this cursor.
+		 */
+		public CompactPath getPath() {
+			return CompactPath.this;
+		}
+
+		/**
+		 * Gets the actual position of the cursor.
+		 * @return The actual position of the cursor.
+		 */
+		public int getHop() {
+			return hop;
+		}
+
+		/**
+		 * Gets the interned node at the cursor.
+		 * @return The interned node at the cursor.
+		 */
+		public int getNodeIndex() {
+			return nodes[hop];
+		}
+
+		/**
+		 * Gets the interned next node.
+		 * @return The interned next node. Interner.NONE, if the cursor is at the last node.
+		 */
+		public int getNextNodeIndex() {
+			return (hop < nodes.length - 1) ? nodes[hop + 1] : Interner.NONE;
+		}
+
+		/**
+		 * Gets the interned previous node.
+		 * @return The interned previous node. Interner.NONE, if the cursor is at the first node.
+		 */
+		public int getPreviousNodeIndex() {
+			return (hop > 0) ? nodes[hop - 1] : Interner.NONE;
+		}
+
+		/**
+		 * Gets the label of the next node.
+		 * @return The label of the next node. Null, if the cursor is at the last node.
+		 */
+		public String getNextNode() {
+			return (hop < nodes.length - 1) ? Interner.label(nodes[hop + 1]) : null;
+		}
+
+		/**
+		 * Gets the label of the previous node.
+		 * @return The label of the previous node. Null, if the cursor is at the first node.
+		 */
+		public String getPreviousNode() {
+			return (hop > 0) ? Interner.label(nodes[hop - 1]) : null;
+		}
+
+		/**
+		 * Gets the interned link from the node at the cursor to the next node.
+		 * @return The interned outgoing link. Interner.NONE, if the cursor is at the last node.
+		 */
+		public int getOutgoingLink() {
+			return (hop < links.length) ? links[hop] : Interner.NONE;
+		}
+
+		/**
+		 * Gets the interned link from the previous node to the node at the cursor.
+		 * @return The interned incoming link. Interner.NONE, if the cursor is at the first node.
+		 */
+		public int getIncomingLink() {
+			return (hop > 0) ? links[hop - 1] : Interner.NONE;
+		}
+
+		/**
+		 * Moves the cursor to the specified node, looking first around the actual position.
+		 * @param node The interned node.
+		 * @return True, if the node was found. False, otherwise, and the cursor is not moved.
+		 */
+		public boolean moveTo(int node) {
+			int position = getNodePosition(node,hop);
+			if (position == -1)
+				return false;
+			hop = position;
+			return true;
+		}
+	}
+}
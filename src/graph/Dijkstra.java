@@ -54,7 +54,7 @@ public class Dijkstra {
             distance[i]=Double.POSITIVE_INFINITY;
         }
         //Insert the first node in the heap and update the predecessor's list.
-        int position = graph.map.indexOf(keySource);
+        int position = graph.indexOf(keySource);
         distance[position] = 0.0;
         predecessor[position] = keySource;
         dHeap.add(new DijkstraNode(keySource,0.0));
@@ -71,7 +71,7 @@ public class Dijkstra {
                 //Gets the value of the edge
                 double value = node.getDistanceLabel() + ((Double)edge.getValue()).doubleValue();
                 //Gets the index in the Node-Node Adjacence Matrix
-                position = graph.map.indexOf(edge.getDestination());
+                position = graph.indexOf(edge.getDestination());
                 //for debug purposes
                 logger.finest("Adjacent Node: " + edge.getDestination());   
                 //Distance Update Operation
@@ -95,7 +95,7 @@ public class Dijkstra {
             }
         }
         //Verify if a shortest path has been found; return null if not.
-        int positionDestination = graph.map.indexOf(keyDestination);
+        int positionDestination = graph.indexOf(keyDestination);
         if (distance[positionDestination] == Double.POSITIVE_INFINITY) { //Infinite distance means node not reachable.
             return null;
         }
@@ -106,6 +106,67 @@ public class Dijkstra {
         return path;
     }
     
+    /** Executes the Djikstra's algorithm for the shortest distances from the source node to
+     * all the other nodes or, in the reverse direction, from all the other nodes to the source node.
+     * @param keySource The key of the source node.
+     * @param graph The graph used to calculate the algorithm.
+     * @param reverse True, if the distances to the source node are calculated, i.e., the edges
+     * are traversed in the reverse direction.
+     * @return The shortest distance of each node, indexed by its position in the graph. Infinity,
+     * if the node is not reachable.
+     */
+    public double[] getDistances(String keySource, Graph graph, boolean reverse) {
+        //Initializes the binary heap.
+        dHeap = new DijkstraHeap(true);
+        //Gets the number of nodes of the graph
+        size = graph.size();
+        //Initializes all distance labels as infinity value.
+        distance = new double[size];
+        for (int i=0; i < size; i++) {
+            distance[i]=Double.POSITIVE_INFINITY;
+        }
+        //Insert the first node in the heap.
+        int position = graph.indexOf(keySource);
+        if (position == -1)
+            return distance;
+        distance[position] = 0.0;
+        dHeap.add(new DijkstraNode(keySource,0.0));
+        //Iterations
+        while (!dHeap.isEmpty()) {
+            //Node Selection Operation
+            DijkstraNode node = (DijkstraNode) dHeap.remove();
+            //Relax all nodes that are adjacents to this node, in the chosen direction.
+            for (String key : graph.nodes()) {
+                Edge edge = null;
+                try {
+                    if (!reverse && graph.hasEdge(node.getKey(),key))
+                        edge = graph.getEdge(node.getKey(),key);
+                    else if (reverse && graph.hasEdge(key,node.getKey()))
+                        edge = graph.getEdge(key,node.getKey());
+                } catch (Exception e) {e.printStackTrace();}
+                if (edge == null)
+                    continue;
+                //Gets the value of the edge
+                double value = node.getDistanceLabel() + ((Double)edge.getValue()).doubleValue();
+                position = graph.indexOf(key);
+                //Distance Update Operation
+                if (distance[position] > value) {
+                    //If the node is not already inserted in the heap, inserts it
+                    if (distance[position] == Double.POSITIVE_INFINITY) {
+                        distance[position] = value;
+                        dHeap.add(new DijkstraNode(key,value));
+                    }
+                    //If the node is already inserted in the heap, updates its priority in the key.
+                    else {
+                        distance[position] = value;
+                        dHeap.decreaseKey(key,value);
+                    }
+                }
+            }
+        }
+        return distance;
+    }
+    
     /** Generates recursively the shortest path using the predecessor list of Dijkstra's algorithm.
      * @param predecesorList The predecessor list obtained from the Dijkstra's algorithm.
      * @param keySource The key of the source node.
@@ -116,9 +177,9 @@ public class Dijkstra {
      */
     private Path generateShortestPath(String[] predecessorList, String keySource, String keyDestination,Graph graph) {
         //Gets the index of the destination node.
-        int positionDestination = graph.map.indexOf(keyDestination);
+        int positionDestination = graph.indexOf(keyDestination);
         //Base case - the source node has been reached.
-        if (positionDestination == graph.map.indexOf(keySource)) {
+        if (positionDestination == graph.indexOf(keySource)) {
             return null;
         } else {
             Path path = generateShortestPath(predecessorList, keySource, predecessorList[positionDestination], graph);
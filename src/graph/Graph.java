@@ -30,11 +30,14 @@ public class Graph implements Cloneable, Serializable {
     private int numberOfEdges;
     /** Holds the translation from the key of the node to the integer index of the Node-Node Adjacency Matrix. */
     protected ArrayList<String> map;
+    /** Holds the translation from the key of the node to its position in the mapping vector, for constant-time lookups. */
+    protected HashMap<String,Integer> index;
     
     /** Creates new Graph */
     public Graph() {
         matrix = new ArrayList<Edge>();
         map = new ArrayList<String>();
+        index = new HashMap<String,Integer>();
         size = 0;
         numberOfEdges = 0;
     }
@@ -46,10 +49,11 @@ public class Graph implements Cloneable, Serializable {
      */
     public void addNode(String key) throws Exception {
         //Verify if this node has been already added to the graph.
-        if (map.contains(key)) {
+        if (index.containsKey(key)) {
             throw new Exception("Duplicate node :" + key + " !");
         } else {
             map.add(key); //Put the key in the end of the mapping vector
+            index.put(key,map.size() - 1);
             //Insert null positions inside the Node-Node Adjacence Matrix (in the form of a 1-dimensional array).
             if (size==0)
                 matrix.add(null);
@@ -65,6 +69,38 @@ public class Graph implements Cloneable, Serializable {
         }
     }
     
+    /**
+     * Adds the specified nodes to this graph at once. The Node-Node Adjacence Matrix
+     * is rebuilt only once, instead of being expanded for each node as in addNode(),
+     * so large topologies are created in a time proportional to the size of the matrix.
+     * @param keys The keys of the nodes to be inserted, in this order.
+     * @throws Exception When one of the specified nodes already exists.
+     */
+    public void addNodes(Collection<String> keys) throws Exception {
+        //Verify if any of the nodes has been already added to the graph.
+        HashSet<String> added = new HashSet<String>();
+        for (String key : keys) {
+            if (index.containsKey(key) || !added.add(key))
+                throw new Exception("Duplicate node :" + key + " !");
+        }
+        int newSize = size + keys.size();
+        ArrayList<Edge> newMatrix = new ArrayList<Edge>(newSize * newSize);
+        //Copy each row, completing it with the new columns, and then the new rows
+        for (int i=0; i < size; i++) {
+            newMatrix.addAll(matrix.subList(i*size,(i+1)*size));
+            for (int j=size; j < newSize; j++)
+                newMatrix.add(null);
+        }
+        for (int i=size*newSize; i < newSize*newSize; i++)
+            newMatrix.add(null);
+        for (String key : keys) {
+            map.add(key); //Put the key in the end of the mapping vector
+            index.put(key,map.size() - 1);
+        }
+        matrix = newMatrix;
+        size = newSize;
+    }
+    
     /**
      * Adds an edge to this graph.
      * @param keySource The key from the source node.
@@ -74,8 +110,8 @@ public class Graph implements Cloneable, Serializable {
      */
     public Edge addEdge(String keySource, String keyTarget, Object value) throws Exception{
         //Get the position to be inserted in the Node-Node Adjacence Matrix.
-        int source = map.indexOf(keySource);
-        int target = map.indexOf(keyTarget);
+        int source = indexOf(keySource);
+        int target = indexOf(keyTarget);
         //Verify if a edge has already been inserted.
         Edge edge = null;
         if ((source == -1) || (target == -1)) {
@@ -99,10 +135,10 @@ public class Graph implements Cloneable, Serializable {
      */
     public void removeNode(String key) throws Exception {
         //Verify if this node exists.
-        if (!map.contains(key)) {
+        if (!index.containsKey(key)) {
             throw new Exception("Cannot remove node. Node :" + key + " does not exist!");
         } else {
-            int position = map.indexOf(key);
+            int position = indexOf(key);
             //First, remove the row.
             for (int i=0; i < size; i++) {
                 matrix.remove(position*size);
@@ -113,6 +149,11 @@ public class Graph implements Cloneable, Serializable {
             }
             size --; //Decrement the size of the graph
             map.remove(key); //Remove the key from the mapping
+            //The positions after the removed node are shifted
+            index.remove(key);
+            for (int i=position; i < map.size(); i++) {
+                index.put(map.get(i),i);
+            }
         }
     }
     
@@ -124,8 +165,8 @@ public class Graph implements Cloneable, Serializable {
      */
     public void removeEdge(String keySource, String keyTarget) throws Exception {
         //Get the position to be removed in the Node-Node Adjacence Matrix.
-        int source = map.indexOf(keySource);
-        int target = map.indexOf(keyTarget);
+        int source = indexOf(keySource);
+        int target = indexOf(keyTarget);
         //Verify if exists an edge in between these keys.
         if (matrix.get(source*size+target) == null) {
             throw new Exception("Cannot remove edge. Edge from " + keySource + " to " + keyTarget +  "does not exist!");
@@ -146,8 +187,8 @@ public class Graph implements Cloneable, Serializable {
      */ 
     public Edge getEdge(String keySource, String keyTarget) throws Exception {
         //Get the position of the specified edge in the Node-Node Adjacence Matrix.
-        int source = map.indexOf(keySource);
-        int target = map.indexOf(keyTarget);
+        int source = indexOf(keySource);
+        int target = indexOf(keyTarget);
         //Verify if exists an edge in between these keys.
         if (matrix.get(source*size+target) == null) {
             throw new Exception("Cannot get edge. Edge from " + keySource + " to " + keyTarget +  "does not exist!");
@@ -163,8 +204,8 @@ public class Graph implements Cloneable, Serializable {
      */
     public boolean hasEdge(String keySource, String keyTarget) {
         //Get the position of the specified edge in the Node-Node Adjacence Matrix.
-        int source = map.indexOf(keySource);
-        int target = map.indexOf(keyTarget);
+        int source = indexOf(keySource);
+        int target = indexOf(keyTarget);
         if (source == -1 || target == -1) { //if one or both nodes do not exist.
         	return false;
         }
@@ -186,7 +227,17 @@ public class Graph implements Cloneable, Serializable {
      * @return The node index.
      */
     public int getNodeIndex(String key) {
-    	return map.indexOf(key);    	
+    	return indexOf(key);    	
+    }
+    
+    /**
+     * Returns the position of the specified node in the mapping vector.
+     * @param key The key of the specified node.
+     * @return The position of the specified node. -1, if the node does not exist.
+     */
+    protected int indexOf(String key) {
+    	Integer position = index.get(key);
+    	return (position == null) ? -1 : position;
     }
     
     /**
@@ -239,6 +290,7 @@ public class Graph implements Cloneable, Serializable {
         Graph cloneGraph = new Graph();
         cloneGraph.matrix = (ArrayList<Edge>) matrix.clone();
         cloneGraph.map = (ArrayList<String>) map.clone();
+        cloneGraph.index = (HashMap<String,Integer>) index.clone();
         cloneGraph.size = size;
         cloneGraph.numberOfEdges = numberOfEdges;
         return cloneGraph;
@@ -309,7 +361,7 @@ public class Graph implements Cloneable, Serializable {
      */
     public ArrayList<Edge> adjacentEdges(String key) {
     	ArrayList<Edge> adjacent = new ArrayList<Edge>();
-        int position = map.indexOf(key);
+        int position = indexOf(key);
         for (int i=0; i < size; i++) {
             Edge edge = matrix.get(position*size + i);
             if (edge != null)
@@ -325,7 +377,7 @@ public class Graph implements Cloneable, Serializable {
      */
     public ArrayList<String> adjacentNodes(String key) {
     	ArrayList<String> adjacent = new ArrayList<String>();
-        int position = map.indexOf(key);
+        int position = indexOf(key);
         for (int i=0; i < size; i++) {
         	Edge edge = matrix.get(position*size + i);
         	if (edge != null)
@@ -341,7 +393,7 @@ public class Graph implements Cloneable, Serializable {
      */
     public int adjacencyDegree(String key) {
     	int degree = 0;
-        int position = map.indexOf(key);
+        int position = indexOf(key);
         for (int i=0; i < size; i++) {
         	Edge edge = matrix.get(position*size + i);
         	//If has edge, increment the counter of neighbors
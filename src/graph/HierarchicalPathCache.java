@@ -0,0 +1,305 @@
+/*
+ * Created on 2026-10-19 by Pavani.
+ */
+package graph;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache of paths calculated by hierarchical routing, for very large topologies.
+ * The nodes are grouped into areas and each area is abstracted by its border nodes,
+ * linked by virtual edges whose costs are the shortest intra-area distances. The
+ * paths of a pair are the k-shortest paths of a reduced graph, which has the full
+ * detail of the areas of the source and of the target and only the abstraction of
+ * the other areas. Then, the virtual edges are expanded into their intra-area paths,
+ * so the paths are explicit and the nodes signal them as any other path.
+ * <p>
+ * The computation of each pair grows with the size of two areas plus the number of
+ * border nodes, instead of the size of the whole topology, and only the requested
+ * pairs are calculated and kept, as in the parent class. The reduced graph of a pair
+ * of areas is built once and reused by all the pairs of nodes of these areas, while
+ * it is among the most recently used ones. The abstraction and the reduced graphs are
+ * rebuilt after any change of the topology.
+ * <p>
+ * An expanded path may visit a node twice, when a virtual edge crosses a node of the
+ * reduced path. These paths are discarded, and more candidates are requested from the
+ * reduced graph until the k paths are loop-free or there are no more candidates.
+ *
+ * @author Gustavo Sousa Pavani
+ * @version 1.0
+ */
+public class HierarchicalPathCache extends PathCache {
+	/** The areas of the topology. */
+	protected AreaPartition partition;
+	/** The intra-area shortest paths between the border nodes of each area. */
+	protected HashMap<String,Path> virtual;
+	/** The actual border nodes. */
+	protected ArrayList<String> borders;
+	/** The reduced graphs of the most recently used pairs of areas, indexed by the pair. */
+	protected LinkedHashMap<Long,Graph> reduced;
+	/** Indicates if the abstraction must be rebuilt. */
+	protected boolean dirty;
+
+	/**
+	 * Creates a new HierarchicalPathCache object.
+	 * @param snapshot The snapshot of the topology of the network. Changes to it must be notified to the cache.
+	 * @param aAlternative The number of paths calculated for each pair.
+	 * @param aCapacity The maximum number of pairs kept in the cache.
+	 * @param eviction The eviction policy.
+	 * @param aPartition The areas of the topology.
+	 */
+	@SuppressWarnings("serial")
+	public HierarchicalPathCache(Topology snapshot, int aAlternative, int aCapacity, Eviction eviction, AreaPartition aPartition) {
+		super(snapshot,aAlternative,aCapacity,eviction);
+		this.partition = aPartition;
+		this.virtual = new HashMap<String,Path>();
+		this.borders = new ArrayList<String>();
+		//Keep as many reduced graphs as areas
+		this.reduced = new LinkedHashMap<Long,Graph>(16,0.75f,true) {
+			protected boolean removeEldestEntry(Map.Entry<Long,Graph> eldest) {
+				return size() > partition.size();
+			}
+		};
+		this.dirty = true;
+	}
+
+	/**
+	 * Calculates the paths between the specified nodes in the reduced graph of their areas.
+	 * @param source The source node.
+	 * @param target The target node.
+	 * @return The loop-free paths between the specified nodes, sorted by cost.
+	 * @throws Exception When the paths cannot be calculated.
+	 */
+	protected ArrayList<Path> calculate(String source, String target) throws Exception {
+		if (dirty)
+			this.build();
+		int sourceArea = partition.getArea(source);
+		int targetArea = partition.getArea(target);
+		Graph reducedGraph = this.getReduced(sourceArea,targetArea);
+		ArrayList<Path> paths = new ArrayList<Path>();
+		HashSet<CompactPath> distinct = new HashSet<CompactPath>();
+		int candidates = alternative;
+		int expanded = 0;
+		while (true) {
+			//The first paths of a larger request are the same, so only the new ones are expanded
+			ArrayList<Path> found = yen.getShortestPaths(source,target,reducedGraph,candidates);
+			for (int i=expanded; (i < found.size()) && (paths.size() < alternative); i++) {
+				Path path = found.get(i);
+				if (path == null) { //not reachable
+					paths.add(null);
+					continue;
+				}
+				//Expand the virtual edges, discarding the loops and the repeated paths
+				Path explicit = this.expand(path,sourceArea,targetArea);
+				if ((explicit != null) && distinct.add(explicit.compact()))
+					paths.add(explicit);
+			}
+			expanded = found.size();
+			//Enough paths or no more candidates
+			if ((paths.size() >= alternative) || (found.size() < candidates))
+				break;
+			candidates = candidates + alternative;
+		}
+		return paths;
+	}
+
+	/**
+	 * Returns the reduced graph of the specified areas, building it if necessary. It has the
+	 * full detail of the areas and the border nodes and virtual edges of the other areas.
+	 * @param sourceArea The area of the source node.
+	 * @param targetArea The area of the target node.
+	 * @return The reduced graph of the areas. It must not be modified.
+	 * @throws Exception When the graph cannot be built.
+	 */
+	protected Graph getReduced(int sourceArea, int targetArea) throws Exception {
+		long pair = this.pair(sourceArea,targetArea);
+		Graph reducedGraph = reduced.get(pair);
+		if (reducedGraph != null)
+			return reducedGraph;
+		//Nodes of the reduced graph: the detailed areas and the border nodes of the others
+		ArrayList<String> keys = new ArrayList<String>();
+		HashSet<String> present = new HashSet<String>();
+		for (String node : partition.getNodes(sourceArea)) {
+			if ((graph.getNodeIndex(node) != -1) && present.add(node))
+				keys.add(node);
+		}
+		for (String node : partition.getNodes(targetArea)) {
+			if ((graph.getNodeIndex(node) != -1) && present.add(node))
+				keys.add(node);
+		}
+		for (String node : borders) {
+			if (present.add(node))
+				keys.add(node);
+		}
+		reducedGraph = new Graph();
+		reducedGraph.addNodes(keys);
+		//Real edges inside the detailed areas and between areas
+		for (String node : keys) {
+			int nodeArea = partition.getArea(node);
+			for (Edge edge : graph.adjacentEdges(node)) {
+				String neighbor = edge.getDestination();
+				int neighborArea = partition.getArea(neighbor);
+				boolean detailed = (nodeArea == neighborArea) && ((nodeArea == sourceArea) || (nodeArea == targetArea));
+				if (present.contains(neighbor) && (detailed || (nodeArea != neighborArea)))
+					reducedGraph.addEdge(node,neighbor,edge.getValue());
+			}
+		}
+		//Virtual edges of the abstracted areas
+		for (String key : virtual.keySet()) {
+			Path path = virtual.get(key);
+			int pathArea = partition.getArea(path.firstNode());
+			if ((pathArea != sourceArea) && (pathArea != targetArea))
+				reducedGraph.addEdge(path.firstNode(),path.lastNode(),Double.valueOf(path.getCost()));
+		}
+		reduced.put(pair,reducedGraph);
+		return reducedGraph;
+	}
+
+	/**
+	 * Replaces the virtual edges of the specified path by their intra-area paths.
+	 * @param path The path in the reduced graph.
+	 * @param sourceArea The area of the source node.
+	 * @param targetArea The area of the target node.
+	 * @return The expanded path. Null, if the expanded path has a loop.
+	 */
+	protected Path expand(Path path, int sourceArea, int targetArea) {
+		Path expanded = new Path();
+		HashSet<String> visited = new HashSet<String>();
+		expanded.addNode(path.firstNode());
+		visited.add(path.firstNode());
+		double cost = 0.0;
+		ArrayList<String> hops = path.nodes();
+		for (int i=1; i < hops.size(); i++) {
+			String from = hops.get(i - 1);
+			String to = hops.get(i);
+			int fromArea = partition.getArea(from);
+			Path segment = null;
+			if ((fromArea == partition.getArea(to)) && (fromArea != sourceArea) && (fromArea != targetArea))
+				segment = virtual.get(from+"-"+to);
+			ArrayList<String> nodes = new ArrayList<String>();
+			if (segment != null)
+				nodes.addAll(segment.nodes().subList(1,segment.size()));
+			else
+				nodes.add(to);
+			for (String node : nodes) {
+				if (!visited.add(node))
+					return null;
+				try {
+					cost = cost + ((Double)graph.getEdge(expanded.lastNode(),node).getValue()).doubleValue();
+				} catch (Exception e) {e.printStackTrace();}
+				expanded.addNode(node);
+			}
+		}
+		expanded.setCost(cost);
+		return expanded;
+	}
+
+	/**
+	 * Rebuilds the abstraction of the areas from the actual topology, i.e.,
+	 * their border nodes and the virtual edges between them.
+	 */
+	protected void build() {
+		virtual.clear();
+		borders.clear();
+		reduced.clear();
+		Dijkstra dijkstra = new Dijkstra();
+		for (int i=0; i < partition.size(); i++) {
+			//Subgraph of the area
+			ArrayList<String> members = new ArrayList<String>();
+			ArrayList<String> areaBorders = new ArrayList<String>();
+			for (String node : partition.getNodes(i)) {
+				if (graph.getNodeIndex(node) != -1) {
+					members.add(node);
+					if (partition.isBorder(node,graph))
+						areaBorders.add(node);
+				}
+			}
+			borders.addAll(areaBorders);
+			Graph subgraph = new Graph();
+			try {
+				subgraph.addNodes(members);
+				for (String node : members) {
+					for (Edge edge : graph.adjacentEdges(node)) {
+						if (partition.getArea(edge.getDestination()) == i)
+							subgraph.addEdge(node,edge.getDestination(),edge.getValue());
+					}
+				}
+			} catch (Exception e) {e.printStackTrace();}
+			//Shortest intra-area path between each pair of border nodes
+			for (String from : areaBorders) {
+				for (String to : areaBorders) {
+					if (!from.equals(to)) {
+						Path path = dijkstra.getShortestPath(from,to,subgraph);
+						if (path != null)
+							virtual.put(from+"-"+to,path);
+					}
+				}
+			}
+		}
+		dirty = false;
+	}
+
+	/**
+	 * Invalidates the pairs whose paths traverse the specified link and the abstraction.
+	 * @param source The source node of the link.
+	 * @param destination The destination node of the link.
+	 * @return The number of invalidated pairs.
+	 */
+	public int invalidateLink(String source, String destination) {
+		dirty = true;
+		return super.invalidateLink(source,destination);
+	}
+
+	/**
+	 * Invalidates the pairs whose paths traverse the specified node and the abstraction.
+	 * @param node The node.
+	 * @return The number of invalidated pairs.
+	 */
+	public int invalidateNode(String node) {
+		dirty = true;
+		return super.invalidateNode(node);
+	}
+
+	/**
+	 * Invalidates all the pairs after a repair, since the paths are not the exact
+	 * k-shortest ones and the bound of the repaired link does not apply to them.
+	 * @param bound The bound of the paths that traverse the repaired link.
+	 * @return The number of invalidated pairs.
+	 */
+	public int invalidateRepair(RepairBound bound) {
+		int counter = this.size();
+		this.invalidateAll();
+		return counter;
+	}
+
+	/**
+	 * Updates the cache to the specified snapshot of the topology, rebuilding the
+	 * abstraction from its graph if the topology has changed.
+	 * @param snapshot The actual snapshot of the topology.
+	 */
+	public void update(Topology snapshot) {
+		if (snapshot.getVersion() != version)
+			dirty = true;
+		super.update(snapshot);
+	}
+
+	/**
+	 * Invalidates all the pairs and the abstraction.
+	 */
+	public void invalidateAll() {
+		dirty = true;
+		super.invalidateAll();
+	}
+
+	/**
+	 * Returns a String representation of the statistics of this cache.
+	 * @return A String representation of the statistics of this cache.
+	 */
+	public String toString() {
+		return super.toString()+", areas: "+partition.size()+", borders: "+borders.size()+", virtual edges: "+virtual.size();
+	}
+}
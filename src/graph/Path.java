@@ -13,6 +13,9 @@ import java.util.*;
 
 /** The Path class represents a directed path or route and its associated cost.
  * It cannot contain repeated nodes, i.e., it must be a loopless path.
+ * <p>
+ * Clones share the storage of the nodes until one of them is modified (copy-on-write),
+ * so a path can be passed between messages without copying it.
  *
  * @author Gustavo Sousa Pavani
  * @version 1.1
@@ -25,6 +28,10 @@ public class Path implements Serializable,Cloneable,Comparable<Path> {
     private double cost = 0;
     /** Contains the nodes of this path. */
     protected ArrayList<String> path;
+    /** Indicates if the storage of the nodes is shared with a clone. */
+    private transient boolean shared;
+    /** The immutable compact representation of this path, created on demand. */
+    private transient CompactPath compact;
     
     /** Creates new Path */
     public Path() {
@@ -35,6 +42,7 @@ public class Path implements Serializable,Cloneable,Comparable<Path> {
      * @param key The key of the node to be added.
      */
     public void addNode(String key) {
+        this.modify();
         path.add(key);
     }
     
@@ -44,11 +52,13 @@ public class Path implements Serializable,Cloneable,Comparable<Path> {
      * @throws java.lang.ArrayIndexOutOfBoundsException
      */
     public void addNode(int i, String key) throws java.lang.ArrayIndexOutOfBoundsException {
+        this.modify();
         path.add(i,key);
     }
     
     /** Gives an ordered enumeration of the nodes in the path. The first element
-     * is the source node.
+     * is the source node. The returned list must not be modified, since it may be
+     * shared with clones of this path.
      * @return An enumeration of the nodes.
      */
     public ArrayList<String> nodes() {
@@ -113,12 +123,37 @@ public class Path implements Serializable,Cloneable,Comparable<Path> {
         return path.indexOf(key);
     }
     
+    /** Gets the index of the specified node, trying first the positions around
+     * the hint, so that walking the path hop by hop takes constant time.
+     * @param key The key of the specified node.
+     * @param hint The expected index of the node.
+     * @return The index of the node.
+     */
+    public int getNodePosition(String key, int hint) {
+        for (int i = hint - 1; i <= hint + 1; i++) {
+            if ((i >= 0) && (i < path.size()) && path.get(i).equals(key))
+                return i;
+        }
+        return path.indexOf(key);
+    }
+    
+    /** Gets the immutable compact representation of this path. It is kept until
+     * this path is modified.
+     * @return The immutable compact representation of this path.
+     */
+    public CompactPath compact() {
+        if (compact == null)
+            compact = new CompactPath(this);
+        return compact;
+    }
+    
     /** Replaces the node at the specified position with the specified node.
      * @param i The position to be inserted.
      * @param key The key of the node.
      * @throws java.lang.ArrayIndexOutOfBoundsException
      */
     public void setNode(int i, String key) throws java.lang.ArrayIndexOutOfBoundsException {
+        this.modify();
         path.set(i,key);
     }
     
@@ -127,6 +162,7 @@ public class Path implements Serializable,Cloneable,Comparable<Path> {
      * @throws java.lang.ArrayIndexOutOfBoundsException
      */
     public void removeNodeAt(int i) throws java.lang.ArrayIndexOutOfBoundsException {
+        this.modify();
         path.remove(i);
     }
     
@@ -135,6 +171,7 @@ public class Path implements Serializable,Cloneable,Comparable<Path> {
      * @return True, if the node has been removed; false, otherwise. 
      */    
     public boolean removeNode(Object key) {
+        this.modify();
         return path.remove(key);
     }
     
@@ -167,16 +204,31 @@ public class Path implements Serializable,Cloneable,Comparable<Path> {
         }
     }
     
-    /** Returns a clone object of this path object.
+    /** Returns a clone object of this path object. The storage of the nodes is
+     * shared until one of the paths is modified.
      * @return A clone of this object.
      */
     public Object clone() {
         Path clonePath = new Path();
         clonePath.setCost(cost);
-        clonePath.path = (ArrayList<String>)path.clone();
+        clonePath.path = path;
+        clonePath.shared = true;
+        clonePath.compact = compact;
+        shared = true;
         return clonePath;
     }
     
+    /** Prepares the storage of the nodes to be modified, copying it if it
+     * is shared with a clone, and discards the compact representation.
+     */
+    private void modify() {
+        if (shared) {
+            path = new ArrayList<String>(path);
+            shared = false;
+        }
+        compact = null;
+    }
+    
     /** Gets the size of the path (in number of nodes).
      * @return The size of the path (in number of nodes).
      */
@@ -196,6 +248,7 @@ public class Path implements Serializable,Cloneable,Comparable<Path> {
      */
     public void setCost(double value) {
         cost = value;
+        compact = null;
     }
     
     /** Concatenates this path object to another path.
@@ -203,6 +256,7 @@ public class Path implements Serializable,Cloneable,Comparable<Path> {
      * @return The concatenated path.
      */
     public Path concatenate(Path anotherPath) {
+        this.modify();
         cost = cost + anotherPath.getCost();
         for (String value: anotherPath.nodes()) {
             path.add(value);
@@ -0,0 +1,268 @@
+/*
+ * Created on 2026-10-19 by Pavani.
+ */
+package graph;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import net.Interner;
+
+/**
+ * Size-bounded cache of the k-shortest paths of the source-destination pairs,
+ * calculated on demand the first time a pair is requested. When the cache is full,
+ * the least recently used pair (LRU) or the oldest calculated pair (FIFO) is evicted.
+ * <p>
+ * A topology change invalidates only the pairs affected by it. Removing a link or
+ * a node cannot shorten any path, so the k-shortest paths of a pair that do not
+ * traverse the removed element are still valid; the other pairs are recalculated
+ * on their next request. After the invalidation, the cache is updated to the new
+ * snapshot of the topology, whose graph and version the cached pairs are valid for.
+ * <p>
+ * The paths of a pair are calculated once while it is cached, and the paths of
+ * different pairs are never equal, so they are not shared with the PathPool. The
+ * cache is the only owner of its paths, which are released when evicted or invalidated.
+ *
+ * @author Gustavo Sousa Pavani
+ * @version 1.0
+ */
+public class PathCache {
+	/** The eviction policies of the cache. */
+	public enum Eviction {
+		/** Evicts the least recently used pair. */ LRU,
+		/** Evicts the oldest calculated pair. */ FIFO
+	}
+	/** The topology of the network. */
+	protected Graph graph;
+	/** The version of the snapshot of the topology the cached pairs are valid for. */
+	protected long version;
+	/** The number of paths calculated for each pair. */
+	protected int alternative;
+	/** The maximum number of pairs kept in the cache. */
+	protected int capacity;
+	/** The cached paths, indexed by the interned pair. */
+	protected LinkedHashMap<Long,ArrayList<Path>> cache;
+	/** The algorithm for calculating the k-shortest paths. */
+	protected YEN yen;
+	/** The number of requests answered by the cache. */
+	protected long hits;
+	/** The number of requests that required the calculation of the paths. */
+	protected long misses;
+	/** The number of pairs evicted due to the capacity. */
+	protected long evictions;
+	/** The number of pairs invalidated by topology changes. */
+	protected long invalidations;
+
+	/**
+	 * Creates a new PathCache object.
+	 * @param snapshot The snapshot of the topology of the network. Changes to it must be notified to the cache.
+	 * @param aAlternative The number of paths calculated for each pair.
+	 * @param aCapacity The maximum number of pairs kept in the cache.
+	 * @param eviction The eviction policy.
+	 */
+	@SuppressWarnings("serial")
+	public PathCache(Topology snapshot, int aAlternative, int aCapacity, Eviction eviction) {
+		this.graph = snapshot.getGraph();
+		this.version = snapshot.getVersion();
+		this.alternative = aAlternative;
+		this.capacity = aCapacity;
+		this.yen = new YEN();
+		//The access order implements the LRU policy
+		this.cache = new LinkedHashMap<Long,ArrayList<Path>>(16,0.75f,eviction.equals(Eviction.LRU)) {
+			protected boolean removeEldestEntry(Map.Entry<Long,ArrayList<Path>> eldest) {
+				if (size() > capacity) {
+					evictions++;
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	/**
+	 * Returns the k-shortest paths between the specified nodes, calculating them if necessary.
+	 * @param source The source node.
+	 * @param target The target node.
+	 * @return The k-shortest paths between the specified nodes. Null, if one of the nodes is
+	 * not in the topology or the paths could not be calculated.
+	 */
+	public ArrayList<Path> getPaths(String source, String target) {
+		long pair = this.pair(Interner.node(source),Interner.node(target));
+		ArrayList<Path> paths = cache.get(pair);
+		if ((paths != null) || cache.containsKey(pair)) {
+			hits++;
+			return paths;
+		}
+		misses++;
+		if ((graph.getNodeIndex(source) == -1) || (graph.getNodeIndex(target) == -1))
+			return null; //removed node, not cached
+		//Not pooled, so the evicted and invalidated paths are released with their pairs
+		try {
+			paths = this.calculate(source,target);
+		} catch (Exception e) {e.printStackTrace();}
+		cache.put(pair,paths);
+		return paths;
+	}
+
+	/**
+	 * Calculates the k-shortest paths between the specified nodes of the topology.
+	 * @param source The source node.
+	 * @param target The target node.
+	 * @return The k-shortest paths between the specified nodes.
+	 * @throws Exception When the paths cannot be calculated.
+	 */
+	protected ArrayList<Path> calculate(String source, String target) throws Exception {
+		return yen.getShortestPaths(source,target,graph,alternative);
+	}
+
+	/**
+	 * Invalidates the pairs whose paths traverse the specified link. The pairs
+	 * without any path are kept, since removing a link cannot connect them.
+	 * @param source The source node of the link.
+	 * @param destination The destination node of the link.
+	 * @return The number of invalidated pairs.
+	 */
+	public int invalidateLink(String source, String destination) {
+		int link = Interner.getLink(Interner.getNode(source),Interner.getNode(destination));
+		int counter = 0;
+		Iterator<ArrayList<Path>> iterator = cache.values().iterator();
+		while (iterator.hasNext()) {
+			ArrayList<Path> paths = iterator.next();
+			if ((paths != null) && this.traverse(paths,link)) {
+				iterator.remove();
+				counter++;
+			}
+		}
+		invalidations = invalidations + counter;
+		return counter;
+	}
+
+	/**
+	 * Invalidates the pairs whose paths traverse the specified node, including
+	 * the pairs that have it as source or target.
+	 * @param node The node.
+	 * @return The number of invalidated pairs.
+	 */
+	public int invalidateNode(String node) {
+		int index = Interner.getNode(node);
+		int counter = 0;
+		Iterator<ArrayList<Path>> iterator = cache.values().iterator();
+		while (iterator.hasNext()) {
+			ArrayList<Path> paths = iterator.next();
+			boolean remove = false;
+			for (int i=0; (paths != null) && !remove && (i < paths.size()); i++)
+				remove = paths.get(i).compact().getNodePosition(index) != -1;
+			if (remove) {
+				iterator.remove();
+				counter++;
+			}
+		}
+		invalidations = invalidations + counter;
+		return counter;
+	}
+
+	/**
+	 * Invalidates the pairs whose paths may be shortened by a repaired link, i.e., the pairs
+	 * whose k-th path is not shorter than the bound of the paths that traverse the link.
+	 * @param bound The bound of the paths that traverse the repaired link.
+	 * @return The number of invalidated pairs.
+	 */
+	public int invalidateRepair(RepairBound bound) {
+		int counter = 0;
+		Iterator<Map.Entry<Long,ArrayList<Path>>> iterator = cache.entrySet().iterator();
+		while (iterator.hasNext()) {
+			Map.Entry<Long,ArrayList<Path>> entry = iterator.next();
+			long pair = entry.getKey();
+			String source = Interner.label((int) (pair >>> 32));
+			String target = Interner.label((int) pair);
+			if (bound.affects(source,target,entry.getValue(),alternative)) {
+				iterator.remove();
+				counter++;
+			}
+		}
+		invalidations = invalidations + counter;
+		return counter;
+	}
+
+	/**
+	 * Updates the cache to the specified snapshot of the topology, after the pairs
+	 * affected by the change were invalidated.
+	 * @param snapshot The actual snapshot of the topology.
+	 */
+	public void update(Topology snapshot) {
+		this.graph = snapshot.getGraph();
+		this.version = snapshot.getVersion();
+	}
+
+	/**
+	 * Returns the version of the snapshot of the topology the cached pairs are valid for.
+	 * @return The version of the snapshot of the topology.
+	 */
+	public long getVersion() {
+		return version;
+	}
+
+	/**
+	 * Invalidates all the pairs, e.g., when a link or a node is added to the topology.
+	 */
+	public void invalidateAll() {
+		invalidations = invalidations + cache.size();
+		cache.clear();
+	}
+
+	/**
+	 * Returns the number of pairs in the cache.
+	 * @return The number of pairs in the cache.
+	 */
+	public int size() {
+		return cache.size();
+	}
+
+	/**
+	 * Returns the ratio of requests answered by the cache.
+	 * @return The ratio of requests answered by the cache.
+	 */
+	public double getHitRate() {
+		long total = hits + misses;
+		return (total == 0) ? 0.0 : ((double) hits / total);
+	}
+
+	/**
+	 * Returns a String representation of the statistics of this cache.
+	 * @return A String representation of the statistics of this cache.
+	 */
+	public String toString() {
+		return "pairs: "+cache.size()+", hits: "+hits+", misses: "+misses+", evictions: "+evictions+", invalidations: "+invalidations;
+	}
+
+	/**
+	 * Verifies if any of the specified paths traverses the specified link.
+	 * @param paths The paths.
+	 * @param link The interned link.
+	 * @return True, if any of the paths traverses the link. False, otherwise.
+	 */
+	protected boolean traverse(ArrayList<Path> paths, int link) {
+		if (link == Interner.NONE)
+			return false;
+		for (Path path : paths) {
+			CompactPath compact = path.compact();
+			for (int hop=0; hop < compact.size() - 1; hop++) {
+				if (compact.getLink(hop) == link)
+					return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the key of the specified pair.
+	 * @param source The interned source node.
+	 * @param target The interned target node.
+	 * @return The key of the specified pair.
+	 */
+	protected long pair(int source, int target) {
+		return (((long) source) << 32) | target;
+	}
+}
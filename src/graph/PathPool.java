@@ -0,0 +1,99 @@
+/*
+ * Created on 2026-10-19 by Pavani.
+ */
+package graph;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.WeakHashMap;
+
+/**
+ * Global pool of the paths used by the routing tables. Every distinct path
+ * (sequence of nodes and cost) is stored once, so that the sets of k-shortest
+ * paths recalculated after a topology change, or calculated by several nodes,
+ * refer to the same objects instead of keeping copies of the overlapping paths.
+ * <p>
+ * Only the paths that are kept are pooled: the sets of k-shortest paths of the
+ * networks and of the shared routing tables, and through them the paths of the
+ * connections. The paths are referred to directly, not by an id, since the
+ * explicit routing tables keep only the next hop of each alternative and the
+ * messages record the route they follow.
+ * <p>
+ * The pool holds the paths weakly: a pooled path is released by the garbage collector
+ * as soon as no routing table, cache or connection refers to it, e.g., after the paths
+ * are recalculated for a new topology or evicted from a cache, so the pool never retains
+ * paths by itself. Since only the paths still referenced can be returned, sharing does
+ * not depend on when the paths are collected.
+ * <p>
+ * The pooled paths are shared, so they must not be modified. A message that
+ * needs to modify a pooled path must work on a clone of it, which is cheap
+ * since the clones of a path share its nodes until they are modified.
+ *
+ * @author Gustavo Sousa Pavani
+ * @version 1.0
+ */
+public class PathPool {
+	/** The pooled paths, indexed by their compact representation, which is referenced by the path itself. */
+	protected static WeakHashMap<CompactPath,WeakReference<Path>> paths = new WeakHashMap<CompactPath,WeakReference<Path>>();
+	/** The number of requests answered with a path already pooled. */
+	protected static long hits = 0;
+
+	/**
+	 * Returns the pooled path with the same nodes and cost of the specified path.
+	 * @param path The path.
+	 * @return The pooled path. It is the specified path, if it was not pooled yet.
+	 */
+	public static Path share(Path path) {
+		if (path == null)
+			return null;
+		CompactPath compact = path.compact();
+		WeakReference<Path> reference = paths.get(compact);
+		Path pooled = (reference == null) ? null : reference.get();
+		if (pooled == null) {
+			//Replace the key of a released path, so the entry is kept by the new one
+			paths.remove(compact);
+			paths.put(compact,new WeakReference<Path>(path));
+			return path;
+		}
+		hits++;
+		return pooled;
+	}
+
+	/**
+	 * Replaces, in place, each path of the specified list by the pooled path with
+	 * the same nodes and cost.
+	 * @param list The list of paths.
+	 * @return The specified list, for convenience.
+	 */
+	public static ArrayList<Path> share(ArrayList<Path> list) {
+		if (list == null)
+			return null;
+		for (int i=0; i < list.size(); i++)
+			list.set(i,share(list.get(i)));
+		return list;
+	}
+
+	/**
+	 * Returns the number of pooled paths, including the ones not yet released by the garbage collector.
+	 * @return The number of pooled paths.
+	 */
+	public static int size() {
+		return paths.size();
+	}
+
+	/**
+	 * Returns the number of requests answered with a path already pooled.
+	 * @return The number of requests answered with a path already pooled.
+	 */
+	public static long getHits() {
+		return hits;
+	}
+
+	/**
+	 * Removes all the pooled paths.
+	 */
+	public static void clear() {
+		paths.clear();
+		hits = 0;
+	}
+}
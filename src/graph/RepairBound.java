@@ -0,0 +1,79 @@
+/*
+ * Created on 2026-10-19 by Pavani.
+ */
+package graph;
+
+import java.util.ArrayList;
+
+/**
+ * Lower bound of the cost of the paths that traverse a repaired edge. Repairing an
+ * edge cannot lengthen any path, and a new path between a source and a target
+ * traverses the repaired edge, so its cost is at least the distance from the source
+ * to the head of the edge, plus the cost of the edge, plus the distance from the
+ * tail of the edge to the target. Therefore, the k-shortest paths of a pair are
+ * still valid after the repair if this bound is greater than the cost of its k-th path,
+ * and only the other pairs must be recalculated.
+ *
+ * @author Gustavo Sousa Pavani
+ * @version 1.0
+ */
+public class RepairBound {
+	/** The topology of the network, with the repaired edge. */
+	protected Graph graph;
+	/** The shortest distance from each node to the head of the edge. */
+	protected double[] toHead;
+	/** The shortest distance from the tail of the edge to each node. */
+	protected double[] fromTail;
+	/** The cost of the repaired edge. */
+	protected double cost;
+
+	/**
+	 * Creates a new RepairBound object.
+	 * @param aGraph The topology of the network, with the repaired edge. It must not
+	 * be modified while this bound is used.
+	 * @param head The source node of the repaired edge.
+	 * @param tail The destination node of the repaired edge.
+	 */
+	public RepairBound(Graph aGraph, String head, String tail) {
+		this.graph = aGraph;
+		Dijkstra dijkstra = new Dijkstra();
+		this.toHead = dijkstra.getDistances(head,graph,true);
+		this.fromTail = dijkstra.getDistances(tail,graph,false);
+		try {
+			this.cost = ((Double)graph.getEdge(head,tail).getValue()).doubleValue();
+		} catch (Exception e) {e.printStackTrace();}
+	}
+
+	/**
+	 * Returns the lower bound of the cost of the paths between the specified nodes
+	 * that traverse the repaired edge.
+	 * @param source The source node.
+	 * @param target The target node.
+	 * @return The lower bound of the cost. Infinity, if no such path exists.
+	 */
+	public double getBound(String source, String target) {
+		int indexSource = graph.indexOf(source);
+		int indexTarget = graph.indexOf(target);
+		if ((indexSource == -1) || (indexTarget == -1))
+			return Double.POSITIVE_INFINITY;
+		return toHead[indexSource] + cost + fromTail[indexTarget];
+	}
+
+	/**
+	 * Verifies if the repaired edge may change the k-shortest paths of the specified pair.
+	 * @param source The source node.
+	 * @param target The target node.
+	 * @param paths The k-shortest paths of the pair, sorted by cost, before the repair.
+	 * @param k The number of paths calculated for each pair.
+	 * @return True, if the paths must be recalculated. False, if they are still valid.
+	 */
+	public boolean affects(String source, String target, ArrayList<Path> paths, int k) {
+		double bound = this.getBound(source,target);
+		if (bound == Double.POSITIVE_INFINITY)
+			return false;
+		if ((paths == null) || (paths.size() < k) || (paths.get(k - 1) == null))
+			return true;
+		//Ties are recalculated, since the order of the paths of equal cost may change
+		return bound <= paths.get(k - 1).getCost();
+	}
+}
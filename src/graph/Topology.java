@@ -0,0 +1,300 @@
+/*
+ * Created on 2026-10-19 by Pavani.
+ */
+package graph;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.WeakHashMap;
+
+import net.Interner;
+
+/**
+ * Immutable snapshot of a topology, represented by a base graph, which is never
+ * modified, and the sorted sets of its failed nodes and links. A failure or a repair
+ * creates a new snapshot that shares the base graph with the previous one, so taking
+ * a snapshot costs only the copy of the (small) sets of failed elements.
+ * <p>
+ * Each snapshot has a version number, increasing in the order of creation. Two
+ * snapshots are equal when they have the same base graph and the same failed
+ * elements, and the equal snapshots are shared while any of them is referenced,
+ * so the version identifies the topology: the values calculated for a topology
+ * (e.g., the sets of k-shortest paths) can be indexed by the version and reused
+ * when the same failures happen again or when a failure is repaired.
+ * <p>
+ * The working graph of a network is the graph of its actual snapshot, which is
+ * replaced, never modified, when the topology changes.
+ *
+ * @author Gustavo Sousa Pavani
+ * @version 1.0
+ */
+public class Topology {
+	/** The counter of versions. */
+	protected static long versions = 0;
+	/** The snapshots still referenced, indexed by themselves, so that equal snapshots are shared. */
+	protected static WeakHashMap<Topology,WeakReference<Topology>> snapshots = new WeakHashMap<Topology,WeakReference<Topology>>();
+	/** The base graph, without failures. It must not be modified. */
+	protected final Graph base;
+	/** The interned failed nodes, sorted. */
+	protected final int[] nodes;
+	/** The interned failed links, sorted. */
+	protected final int[] links;
+	/** The version of this snapshot. */
+	protected final long version;
+	/** The graph without the failed elements, created on demand. */
+	protected Graph graph;
+
+	/**
+	 * Creates a new Topology object without failures.
+	 * @param aBase The base graph. A copy of it is kept.
+	 */
+	public Topology(Graph aBase) {
+		this((Graph) aBase.clone(),new int[0],new int[0],versions++);
+		snapshots.put(this,new WeakReference<Topology>(this));
+	}
+
+	/**
+	 * Creates a new Topology object.
+	 * @param aBase The base graph.
+	 * @param aNodes The interned failed nodes, sorted.
+	 * @param aLinks The interned failed links, sorted.
+	 * @param aVersion The version of the snapshot.
+	 */
+	protected Topology(Graph aBase, int[] aNodes, int[] aLinks, long aVersion) {
+		this.base = aBase;
+		this.nodes = aNodes;
+		this.links = aLinks;
+		this.version = aVersion;
+	}
+
+	/**
+	 * Returns the snapshot with the specified failed elements, sharing the equal snapshot
+	 * still referenced, if any, so that it keeps its version.
+	 * @param aBase The base graph.
+	 * @param aNodes The interned failed nodes, sorted.
+	 * @param aLinks The interned failed links, sorted.
+	 * @return The snapshot with the specified failed elements.
+	 */
+	protected static Topology share(Graph aBase, int[] aNodes, int[] aLinks) {
+		Topology snapshot = new Topology(aBase,aNodes,aLinks,-1);
+		WeakReference<Topology> reference = snapshots.get(snapshot);
+		Topology shared = (reference == null) ? null : reference.get();
+		if (shared == null) {
+			shared = new Topology(aBase,aNodes,aLinks,versions++);
+			//Replace the key of a released snapshot, so the entry is kept by the new one
+			snapshots.remove(snapshot);
+			snapshots.put(shared,new WeakReference<Topology>(shared));
+		}
+		return shared;
+	}
+
+	/**
+	 * Returns the version of this snapshot.
+	 * @return The version of this snapshot.
+	 */
+	public long getVersion() {
+		return version;
+	}
+
+	/**
+	 * Returns the base graph, without failures. It must not be modified.
+	 * @return The base graph.
+	 */
+	public Graph getBase() {
+		return base;
+	}
+
+	/**
+	 * Returns a snapshot without the specified node, and therefore without its links.
+	 * @param node The failed node.
+	 * @return A snapshot without the specified node.
+	 */
+	public Topology withoutNode(String node) {
+		int[] newNodes = insert(nodes,Interner.node(node));
+		return (newNodes == nodes) ? this : share(base,newNodes,links);
+	}
+
+	/**
+	 * Returns a snapshot without the specified link.
+	 * @param source The source node of the failed link.
+	 * @param destination The destination node of the failed link.
+	 * @return A snapshot without the specified link.
+	 */
+	public Topology withoutLink(String source, String destination) {
+		int[] newLinks = insert(links,Interner.link(source,destination));
+		return (newLinks == links) ? this : share(base,nodes,newLinks);
+	}
+
+	/**
+	 * Returns a snapshot with the specified node repaired.
+	 * @param node The repaired node.
+	 * @return A snapshot with the specified node repaired.
+	 */
+	public Topology withNode(String node) {
+		int[] newNodes = delete(nodes,Interner.getNode(node));
+		return (newNodes == nodes) ? this : share(base,newNodes,links);
+	}
+
+	/**
+	 * Returns a snapshot with the specified link repaired.
+	 * @param source The source node of the repaired link.
+	 * @param destination The destination node of the repaired link.
+	 * @return A snapshot with the specified link repaired.
+	 */
+	public Topology withLink(String source, String destination) {
+		int[] newLinks = delete(links,Interner.getLink(Interner.getNode(source),Interner.getNode(destination)));
+		return (newLinks == links) ? this : share(base,nodes,newLinks);
+	}
+
+	/**
+	 * Verifies if the specified node is failed in this snapshot.
+	 * @param node The node.
+	 * @return True, if the node is failed. False, otherwise.
+	 */
+	public boolean isFailed(String node) {
+		int index = Interner.getNode(node);
+		return (index != Interner.NONE) && (Arrays.binarySearch(nodes,index) >= 0);
+	}
+
+	/**
+	 * Verifies if the specified link is failed in this snapshot, including
+	 * the links of the failed nodes.
+	 * @param source The source node of the link.
+	 * @param destination The destination node of the link.
+	 * @return True, if the link is failed. False, otherwise.
+	 */
+	public boolean isFailed(String source, String destination) {
+		int link = Interner.getLink(Interner.getNode(source),Interner.getNode(destination));
+		if ((link != Interner.NONE) && (Arrays.binarySearch(links,link) >= 0))
+			return true;
+		return this.isFailed(source) || this.isFailed(destination);
+	}
+
+	/**
+	 * Verifies if the specified link itself is failed in this snapshot,
+	 * regardless of the state of its end nodes.
+	 * @param source The source node of the link.
+	 * @param destination The destination node of the link.
+	 * @return True, if the link is failed. False, otherwise.
+	 */
+	public boolean isFailedLink(String source, String destination) {
+		int link = Interner.getLink(Interner.getNode(source),Interner.getNode(destination));
+		return (link != Interner.NONE) && (Arrays.binarySearch(links,link) >= 0);
+	}
+
+	/**
+	 * Verifies if this snapshot has no failed element.
+	 * @return True, if this snapshot has no failed element. False, otherwise.
+	 */
+	public boolean isIntact() {
+		return (nodes.length == 0) && (links.length == 0);
+	}
+
+	/**
+	 * Returns the graph without the failed elements. It is created once per
+	 * snapshot and it must not be modified.
+	 * @return The graph without the failed elements.
+	 */
+	public Graph getGraph() {
+		if (graph == null) {
+			Graph aGraph = (Graph) base.clone();
+			try {
+				for (int link : links) {
+					String source = Interner.label(Interner.linkSource(link));
+					String destination = Interner.label(Interner.linkDestination(link));
+					if (aGraph.hasEdge(source,destination))
+						aGraph.removeEdge(source,destination);
+				}
+				for (int node : nodes) {
+					if (aGraph.getNodeIndex(Interner.label(node)) != -1)
+						aGraph.removeNode(Interner.label(node));
+				}
+			} catch (Exception e) {e.printStackTrace();}
+			graph = aGraph;
+		}
+		return graph;
+	}
+
+	/**
+	 * Verifies if the other snapshot has the same base graph and the same failed elements.
+	 * @param obj The other snapshot.
+	 * @return True, if the snapshots represent the same topology. False, otherwise.
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (!(obj instanceof Topology))
+			return false;
+		Topology other = (Topology) obj;
+		return (base == other.base) && Arrays.equals(nodes,other.nodes) && Arrays.equals(links,other.links);
+	}
+
+	/**
+	 * Returns a hash code for this snapshot.
+	 * @return A hash code for this snapshot.
+	 */
+	@Override
+	public int hashCode() {
+		return (31 * ((31 * System.identityHashCode(base)) + Arrays.hashCode(nodes))) + Arrays.hashCode(links);
+	}
+
+	/**
+	 * Returns a String representation of this object.
+	 * @return A String representation of this object.
+	 */
+	@Override
+	public String toString() {
+		StringBuilder buffer = new StringBuilder();
+		buffer.append("Version: ");
+		buffer.append(version);
+		buffer.append(", failed nodes: [");
+		for (int i=0; i < nodes.length; i++) {
+			if (i > 0)
+				buffer.append(", ");
+			buffer.append(Interner.label(nodes[i]));
+		}
+		buffer.append("], failed links: [");
+		for (int i=0; i < links.length; i++) {
+			if (i > 0)
+				buffer.append(", ");
+			buffer.append(Interner.linkLabel(links[i]));
+		}
+		buffer.append("]");
+		return buffer.toString();
+	}
+
+	/**
+	 * Returns a copy of the sorted array with the specified value.
+	 * @param array The sorted array.
+	 * @param value The value to be inserted.
+	 * @return A copy of the array with the value. The same array, if the value is already present.
+	 */
+	protected static int[] insert(int[] array, int value) {
+		int position = Arrays.binarySearch(array,value);
+		if (position >= 0)
+			return array;
+		position = -(position + 1);
+		int[] result = new int[array.length + 1];
+		System.arraycopy(array,0,result,0,position);
+		result[position] = value;
+		System.arraycopy(array,position,result,position + 1,array.length - position);
+		return result;
+	}
+
+	/**
+	 * Returns a copy of the sorted array without the specified value.
+	 * @param array The sorted array.
+	 * @param value The value to be deleted.
+	 * @return A copy of the array without the value. The same array, if the value is not present.
+	 */
+	protected static int[] delete(int[] array, int value) {
+		int position = (value == Interner.NONE) ? -1 : Arrays.binarySearch(array,value);
+		if (position < 0)
+			return array;
+		int[] result = new int[array.length - 1];
+		System.arraycopy(array,0,result,0,position);
+		System.arraycopy(array,position + 1,result,position,array.length - position - 1);
+		return result;
+	}
+}
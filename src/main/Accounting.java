@@ -41,13 +41,19 @@ public abstract class Accounting {
 		/** Restorability ratio. */ RESTORABILITY,
 		/** The average number of hops per succesfull request. */ AVG_HOP,
 		/** The average number of EFFECTIVE hops per succesfull request. */ AVG_EFF_HOP,	
-		/** The restoration time after a failure.*/ RESTORATION_TIME	
+		/** The restoration time after a failure.*/ RESTORATION_TIME,
+		/** The memory of the node state tables per active connection, in bytes. */ MEMORY,
+		/** The number of connections disrupted by failures. */ DISRUPTED,
+		/** The peak of the heap retained after the garbage collections, in bytes. */ HEAP,
+		/** The spectrum fragmentation, sampled at each time slice. */ FRAGMENTATION,
+		/** The moves, disruption and recovered requests of the spectrum defragmentation. */ DEFRAGMENTATION
 	}
 	
 	/** The types of accounted events. */
 	public enum Type {
 		/** Success. */ SUCCESS,
 		/** Failed. */ FAILED,
+		/** Disrupted by a failure. */ DISRUPTED,
 	}
     /** The selected values to be sent to the output. */
     protected ArrayList<Values> print;
@@ -116,6 +122,34 @@ public abstract class Accounting {
 	 */
 	public abstract void setUtilization(LinkedHashMap<String, FlexiLink> links, double lastSimulationTime, double dataRate);
 
+	/**
+	 * Accounts a sample of the memory of the node state tables per active connection.
+	 * @param memory The memory per active connection, in bytes.
+	 */
+	public abstract void addConnectionMemory(double memory);
+
+	/**
+	 * Verifies if the specified value is printed.
+	 * @param value The value.
+	 * @return True, if the value is printed. False, otherwise.
+	 */
+	public boolean isPrinted(Values value) {
+		return print.contains(value);
+	}
+
+	/**
+	 * Accounts a run of the spectrum defragmentation.
+	 * @param pushPull The number of connections moved by push-pull retuning.
+	 * @param makeBeforeBreak The number of connections moved by make-before-break.
+	 * @param disruption The total disruption time of the moved connections.
+	 */
+	public abstract void addDefragmentation(int pushPull, int makeBeforeBreak, double disruption);
+
+	/**
+	 * Accounts a blocked request that was established after a run of the spectrum defragmentation.
+	 */
+	public abstract void addRecovered();
+
 	
 	/**
 	 * Returns a String representation of this object. 
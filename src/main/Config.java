@@ -17,6 +17,7 @@ import javax.xml.parsers.SAXParser;
 import javax.xml.parsers.SAXParserFactory;
 
 import net.Link;
+import net.TopologyGenerator;
 
 import org.xml.sax.Attributes;
 import org.xml.sax.SAXException;
@@ -38,12 +39,16 @@ public class Config extends DefaultHandler {
     protected StringBuilder path;
     /** The hashmap for storing the configuration of the dynamic simulation. */
     protected LinkedHashMap<String,ArrayList<String>> config;
+    /** The attributes of each occurrence of the elements of the simulation parameters, indexed by their path. */
+    protected LinkedHashMap<String,ArrayList<HashMap<String,String>>> elements;
     /** The graph representing the network. */
     protected Graph graph;
     /** The links of the network. */
     protected LinkedHashMap<String,Link> links;
     /** Flag to indicate the building of the simulation parameters section. */
     protected boolean flag_simulation = false;
+    /** The nodes read and not yet added to the graph, which are added at once. */
+    protected ArrayList<String> pendingNodes;
 
 	/**
 	 * Creates a new Config object.
@@ -55,9 +60,11 @@ public class Config extends DefaultHandler {
         SAXParser parser = factory.newSAXParser();
 		logger.info("Reading XML configuration file: "+fileConfig);
 		this.config = new LinkedHashMap<String,ArrayList<String>>();
+		this.elements = new LinkedHashMap<String,ArrayList<HashMap<String,String>>>();
 		this.path = new StringBuilder();
 		this.graph = new Graph();
         this.links = new LinkedHashMap<String,Link>();
+        this.pendingNodes = new ArrayList<String>();
         this.flag_simulation = false;
         //Parse the XML file
 		parser.parse(fileConfig, this);
@@ -87,6 +94,7 @@ public class Config extends DefaultHandler {
              }
              String lengthString = atts.getValue("length");
              logger.config("from= "+fromString+" to= "+toString+" value= "+costString);
+             this.flushNodes();
              try {
                  Edge edge = graph.addEdge(fromString,toString,new Double(costString));
                  //System.out.println(graph);
@@ -98,6 +106,10 @@ public class Config extends DefaultHandler {
                  links.put(fromString+"-"+toString,link);
              } catch(Exception e) {logger.severe(e.toString());};
          }
+         /* The graph representing the network - generated instead of listed. */
+         else if (qname.equals("Topology") && !flag_simulation) {
+             this.generate(atts);
+         }
         /* Simulation Parameters */
          else if (flag_simulation){
          	//Starts with the path
@@ -105,10 +117,19 @@ public class Config extends DefaultHandler {
              path.append(qname);
  			//Adds the parameters of the traffic to the hashtable simulation
  			int nattrs = atts.getLength();
+ 			HashMap<String,String> attributes = new HashMap<String,String>();
  			for(int i=0; i<nattrs; i++) {
  				addValue(config,path.toString()+"/@"+atts.getQName(i),atts.getValue(i));
+ 				attributes.put(atts.getQName(i),atts.getValue(i));
  				logger.config(path.toString()+"/@"+atts.getQName(i)+" = "+atts.getValue(i));
  			}        	
+ 			//Keep the attributes of this occurrence of the element
+ 			ArrayList<HashMap<String,String>> occurrences = elements.get(path.toString());
+ 			if (occurrences == null) {
+ 				occurrences = new ArrayList<HashMap<String,String>>();
+ 				elements.put(path.toString(),occurrences);
+ 			}
+ 			occurrences.add(attributes);
              this.buffer = new StringBuilder();
          } else if (qname.equals("Simulation")) {
          	flag_simulation = true;
@@ -122,12 +143,12 @@ public class Config extends DefaultHandler {
          logger.fine("End: "+qname);
         /* The graph representing the network - nodes. */
          if (qname.equals("Node")) {
-             try{
-                 logger.fine("Node="+this.buffer.toString());
-                 graph.addNode(new String(this.buffer));
-                 //System.out.println(graph);
-                 buffer = null;
-             } catch(Exception e) {logger.severe(e.toString());};
+             logger.fine("Node="+this.buffer.toString());
+             pendingNodes.add(new String(this.buffer));
+             buffer = null;
+         }
+         else if (qname.equals("Nodes")) {
+             this.flushNodes();
          }
          /* Turns off the simulation flag, i.e, no more elements in configuration hashtable. */
          else if (qname.equals("Simulation")){
@@ -149,6 +170,60 @@ public class Config extends DefaultHandler {
      }
 
 	
+    /**
+     * Adds the nodes read so far to the graph at once.
+     */
+    protected void flushNodes() {
+        if (pendingNodes.isEmpty())
+            return;
+        try {
+            graph.addNodes(pendingNodes);
+        } catch(Exception e) {logger.severe(e.toString());};
+        pendingNodes.clear();
+    }
+    
+    /**
+     * Generates the graph and the links of the network from the attributes of the Topology element, e.g.:
+     * <p>&lt;Topology model="WAXMAN" nodes="1000" alpha="0.05" beta="0.05" size="4000" seed="1"/&gt;
+     * <p>&lt;Topology model="BARABASI_ALBERT" nodes="1000" degree="2" size="4000" seed="1"/&gt;
+     * <p>&lt;Topology model="GRID" rows="10" columns="10" length="500"/&gt; (or model="TORUS")
+     * <p>&lt;Topology model="SNDLIB" file="germany50.txt"/&gt;
+     * @param atts The attributes of the Topology element.
+     * @throws SAXException When a required attribute is missing or the topology cannot be read.
+     */
+    protected void generate(Attributes atts) throws SAXException {
+        this.flushNodes();
+        String modelString = atts.getValue("model");
+        if (modelString==null) {
+            logger.severe("Attribute 'model' missing");
+            throw new SAXException("Attribute 'model' missing");
+        }
+        String seedString = atts.getValue("seed");
+        TopologyGenerator.Model model = TopologyGenerator.Model.valueOf(modelString);
+        logger.info("Generating topology: "+model);
+        try {
+            TopologyGenerator generator = new TopologyGenerator(graph,links,(seedString != null) ? Long.parseLong(seedString) : 1L);
+            switch (model) {
+                case WAXMAN:
+                    generator.waxman(Integer.parseInt(atts.getValue("nodes")),Double.parseDouble(atts.getValue("alpha")),Double.parseDouble(atts.getValue("beta")),Double.parseDouble(atts.getValue("size")));
+                    break;
+                case BARABASI_ALBERT:
+                    generator.barabasiAlbert(Integer.parseInt(atts.getValue("nodes")),Integer.parseInt(atts.getValue("degree")),Double.parseDouble(atts.getValue("size")));
+                    break;
+                case GRID:
+                case TORUS:
+                    generator.grid(Integer.parseInt(atts.getValue("rows")),Integer.parseInt(atts.getValue("columns")),Double.parseDouble(atts.getValue("length")),model.equals(TopologyGenerator.Model.TORUS));
+                    break;
+                case SNDLIB:
+                    generator.sndlib(atts.getValue("file"));
+                    break;
+            }
+        } catch (Exception e) {
+            logger.severe(e.toString());
+            throw new SAXException("Cannot generate the topology: "+e.toString());
+        }
+    }
+    
 	  /**
      * Adds a value of to the ArrayList with same key.
      * @param hashmap The hashmap containing the simulation parameters/values.
@@ -190,6 +265,22 @@ public class Config extends DefaultHandler {
 	public LinkedHashMap<String,ArrayList<String>> getSimulationParameters() {
 		return this.config;
 	}
+
+	/**
+	 * Returns an attribute of the specified occurrence of an element of the simulation parameters.
+	 * Unlike the lists of the simulation parameters, the occurrences without the attribute are
+	 * also counted, so an optional attribute is found in the right element.
+	 * @param element The path of the element, e.g., /Generators/Traffic.
+	 * @param index The index of the occurrence of the element.
+	 * @param attribute The name of the attribute.
+	 * @return The value of the attribute. Null, if the occurrence does not exist or does not have the attribute.
+	 */
+	public String getAttribute(String element, int index, String attribute) {
+		ArrayList<HashMap<String,String>> occurrences = elements.get(element);
+		if ((occurrences == null) || (index >= occurrences.size()))
+			return null;
+		return occurrences.get(index).get(attribute);
+	}
 	
 	public void characters(char[] ch, int start, int length) throws SAXException {
 		if (this.buffer != null) {
@@ -10,12 +10,14 @@ import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.logging.Logger;
 
+import distribution.BufferedDistribution;
 import distribution.QueueDistribution;
 import net.Network;
 import event.Event;
 import event.EventGenerator;
 import event.EventSubscriber;
 import event.Scheduler;
+import graph.PathPool;
 
 /**
  * This class is the main entry for the event-driven simulator.
@@ -153,8 +155,12 @@ public class Simulator {
 		/** The simulation main loop. */
 		while (variableValue[0] <= stopValue) {
 			logger.info(variable+": "+variableValue[0]);
+			//Release the paths pooled by the network of the previous run
+			PathPool.clear();
 			/* Start the network part. */
 			network = loader.getNetwork(config,accounting);
+			//The time slices of the transient accounting restart with the run
+			actualTimeSlice = timeSlice;
 			//Reset the counter of requests.
 			long requestCounter = 0;
 			/* Start the event-driven part. */
@@ -163,7 +169,7 @@ public class Simulator {
 			//Add the traffic generators to the scheduler
 			loader.addGenerators(scheduler,network);
 			//Add failure events, if any
-			loader.addFailures(scheduler);		
+			loader.addFailures(scheduler,network);		
 			//Add other events to the scheduler, if any
 			loader.addOtherEvents(scheduler,network);
 			//Flag for stopping the simulation after the grace period
@@ -182,13 +188,11 @@ public class Simulator {
 					//Get its time stamp
 					timeStamp = event.getTimeStamp();
 					//Do transient accounting, if applicable
-					if (timeStamp > actualTimeSlice) {
+					while ((timeSlice > 0.0) && (timeStamp > actualTimeSlice)) {
 						//System.out.print(".");
-						//Updates the periodical accounting, if applicable
-						try {
-							Method periodical = accounting.getClass().getMethod("periodical",new Class[] { Double.class } );
-							periodical.invoke(accounting,actualTimeSlice);
-						}catch (Exception e) {} //do nothing - method not implemented					
+						//Updates the periodical accounting
+						accounting.periodical(actualTimeSlice);
+						network.periodical(actualTimeSlice);
 						//Update the actual time slice
 						actualTimeSlice = actualTimeSlice + timeSlice;
 					}
@@ -343,9 +347,10 @@ class Loader {
 		//Counters for each type of traffic
 		int counter1 = 0; //Poisson
 		int counter2 = 0; //Constant
+		int counter3 = 0; //Trace
 		//For each traffic generator
 		for (@SuppressWarnings("unused") String nClass : classes) {
-			String trafficType = parameters.get("/Generators/Traffic/@type").get(counter1+counter2);
+			String trafficType = parameters.get("/Generators/Traffic/@type").get(counter1+counter2+counter3);
 			QueueDistribution traffic = null;
 			try {
 				Class<?>[] argsClass = null;
@@ -404,10 +409,20 @@ class Loader {
 					}
 					//Increment the counter
 					counter2 ++;					
+				/* Pre-generated traffic trace. */
+				} else if (trafficType.equals("Trace")) {
+					argsClass = new Class[] {String.class};
+					aArgs = new Object[] {parameters.get("/Generators/Traffic/@file").get(counter3)};
+					//Increment the counter
+					counter3 ++;
 				}
 				//Then, instantiate the traffic object
 				Constructor<?> argsConstructor = sTraffic.getConstructor(argsClass);
 				traffic = (QueueDistribution) argsConstructor.newInstance(aArgs);
+				//Generate the random variates in blocks, if specified
+				String bufferSize = config.getAttribute("/Generators/Traffic",distrib.size(),"bufferSize");
+				if ((bufferSize != null) && (traffic instanceof BufferedDistribution))
+					((BufferedDistribution) traffic).setBufferSize(Integer.parseInt(bufferSize));
 			} catch (Exception e) {e.printStackTrace(); }
 			//Add the distribution to the vector
 			distrib.add(traffic);
@@ -457,10 +472,12 @@ class Loader {
 		}
 	}
 	
-	/** Adds failures that are configured for this simulation to the scheduler.
+	/** Adds failures and repairs that are configured for this simulation to the scheduler.
+	 * The repairs are rejected if the network does not handle them.
 	 * @param scheduler The event-driven scheduler. 
+	 * @param net The network that will manage the simulation.
 	 */
-	public void addFailures(Scheduler scheduler) {
+	public void addFailures(Scheduler scheduler, Network net) {
 		ArrayList<String> nodeFailures = parameters.get("/Failure/NodeFailure/@node");
 		ArrayList<String> linkFailures = parameters.get("/Failure/LinkFailure/@link");
 		int nCounter=0, lCounter = 0;
@@ -484,6 +501,27 @@ class Loader {
 				lCounter++;			
 			}	
 		}
+		//Repairs, which add the failed element to the topology again
+		ArrayList<String> nodeRepairs = parameters.get("/Failure/NodeRepair/@node");
+		ArrayList<String> linkRepairs = parameters.get("/Failure/LinkRepair/@link");
+		if (((nodeRepairs != null) || (linkRepairs != null)) && !net.isRepairable()) {
+			logger.severe("Repairs not handled by the network: "+net.getClass().getName());
+			return;
+		}
+		if (nodeRepairs != null) {
+			//for each node repair do
+			for (int i=0; i < nodeRepairs.size(); i++) {
+				double time = Double.parseDouble(parameters.get("/Failure/NodeRepair/@time").get(i));
+				scheduler.insertEvent(new Event(time,Event.Type.TOPOLOGY_NODE,nodeRepairs.get(i)));
+			}
+		}
+		if (linkRepairs != null) {
+			//for each link repair do
+			for (int i=0; i < linkRepairs.size(); i++) {
+				double time = Double.parseDouble(parameters.get("/Failure/LinkRepair/@time").get(i));
+				scheduler.insertEvent(new Event(time,Event.Type.TOPOLOGY_LINK,linkRepairs.get(i)));
+			}
+		}
 	}
 	
 	/**
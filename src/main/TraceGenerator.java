@@ -0,0 +1,85 @@
+/*
+ * Created on 2026-10-19 by Pavani.
+ */
+package main;
+
+import java.util.Date;
+import java.util.logging.Logger;
+
+import distribution.TraceRecord;
+import distribution.TraceWriter;
+import event.Event;
+import event.Scheduler;
+
+/**
+ * Pre-generates the traffic trace of a simulation into a binary file, which can be
+ * replayed later with the Trace traffic type and the fon.TraceRequestTraffic class.
+ * The traffic generators of the configuration file are executed without any network
+ * processing, for the first value of the simulation variable, until the number of
+ * requests of the simulation is reached.
+ *
+ * @author Gustavo Sousa Pavani
+ * @version 1.0
+ */
+public class TraceGenerator extends Simulator {
+	/** The logging generator. */
+	private static Logger logger = Logger.getLogger(TraceGenerator.class.getName());
+	/** The name of the trace file. */
+	protected String fileTrace;
+
+	/**
+	 * Creates a new TraceGenerator object.
+	 * @param fileConfig The name of the configuration file.
+	 * @param aFileTrace The name of the trace file.
+	 */
+	public TraceGenerator(String fileConfig, String aFileTrace) {
+		super(fileConfig);
+		this.fileTrace = aFileTrace;
+	}
+
+	/**
+	 * Generates a new traffic trace.
+	 *
+	 * @param args
+	 */
+	public static void main(String[] args) {
+		//Verify if the arguments are correct. Otherwise, print usage information.
+		if (args.length != 2) {
+			System.err.println("Usage: java main.TraceGenerator config_file.xml trace_file");
+			return;
+		}
+		TraceGenerator generator = new TraceGenerator(args[0],args[1]);
+		logger.info("Starting trace generation at: "+(new Date()).toString());
+		generator.run();
+		logger.info("Trace generation finished at:"+(new Date()).toString());
+	}
+
+	/**
+	 * Executes the traffic generators and writes the requests to the trace file.
+	 */
+	@Override
+	public void run() {
+		//The network is needed for choosing the source and destination nodes
+		accounting = loader.getAccounting();
+		network = loader.getNetwork(config,accounting);
+		//Initialize the scheduler with the traffic generators only
+		scheduler = new Scheduler();
+		loader.addGenerators(scheduler,network);
+		try {
+			TraceWriter writer = new TraceWriter(fileTrace,config.getGraph().nodes());
+			//Run the generators until the maximum number of requests is reached
+			while (writer.size() < numberOfRequests) {
+				Event event = scheduler.step();
+				if (event.getType().equals(Event.Type.TERMINATE))
+					break; //no more generators
+				if (event.getContent() instanceof TraceRecord)
+					writer.write(event.getTimeStamp(),(TraceRecord)event.getContent());
+			}
+			writer.close();
+			logger.info("Requests written to "+fileTrace+": "+writer.size());
+		} catch (Exception e) {e.printStackTrace();}
+		//Closes the accounting part
+		accounting.close();
+	}
+
+}
@@ -0,0 +1,222 @@
+/*
+ * Created on 2026-10-19 by Pavani.
+ */
+package net;
+
+import java.util.Arrays;
+
+/**
+ * Time-bounded table with primitive long keys, used for the bookkeeping of
+ * disrupted and re-routed connections. Each entry has an expiration time, after
+ * which it is retired by purge(), so the table only holds the entries that can
+ * still be referenced by the simulation. Entries can also be retired explicitly
+ * with remove().
+ * <p>
+ * The expiration times are stored in an array parallel to the slots of the hash
+ * table, so no object is allocated per entry, and they are also kept in a binary
+ * heap of primitive arrays. Entries replaced or removed before expiring leave stale
+ * heap nodes, which are skipped when popped and discarded when the heap becomes
+ * much larger than the table.
+ *
+ * @author Gustavo Sousa Pavani
+ * @version 1.0
+ */
+public class ExpiringTable<V> extends LongHashMap<V> {
+	/** Serial version UID. */
+	private static final long serialVersionUID = 1L;
+	/** The expiration times of the entries, parallel to the slots of the table. */
+	protected double[] expirations;
+	/** The expiration time of the key 0. */
+	protected double zeroExpiration;
+	/** The keys in the heap of expiration times. */
+	protected long[] heapKeys;
+	/** The expiration times in the heap. */
+	protected double[] heapTimes;
+	/** The number of nodes in the heap. */
+	protected int heapSize;
+	/** The number of entries retired by expiration. */
+	protected long expired;
+
+	/**
+	 * Creates a new ExpiringTable object.
+	 */
+	public ExpiringTable() {
+		super();
+		this.heapKeys = new long[16];
+		this.heapTimes = new double[16];
+	}
+
+	/**
+	 * Associates the specified value to the specified key until the expiration time.
+	 * @param key The key.
+	 * @param value The value.
+	 * @param expiration The time after which the entry is retired.
+	 */
+	public void put(long key, V value, double expiration) {
+		super.put(key,value);
+		if (key == 0L)
+			zeroExpiration = expiration;
+		else
+			expirations[this.find(key)] = expiration;
+		//Discard the stale nodes if the heap is too large
+		if (heapSize > (2 * this.size()) + 16)
+			this.rebuild();
+		this.push(key,expiration);
+	}
+
+	/**
+	 * Associates the specified value to the specified key, without expiration.
+	 * @param key The key.
+	 * @param value The value.
+	 * @return The previous value associated to the key. Null, if it was not present.
+	 */
+	@Override
+	public V put(long key, V value) {
+		V previous = this.get(key);
+		this.put(key,value,Double.POSITIVE_INFINITY);
+		return previous;
+	}
+
+	/**
+	 * Retires all the entries whose expiration time is not after the specified time.
+	 * @param time The current time of the simulation.
+	 * @return The number of retired entries.
+	 */
+	public int purge(double time) {
+		int counter = 0;
+		while ((heapSize > 0) && (heapTimes[0] <= time)) {
+			long key = heapKeys[0];
+			double expiration = heapTimes[0];
+			this.pop();
+			//Skip the stale nodes of the heap
+			if (this.getExpiration(key) == expiration) {
+				this.remove(key);
+				counter++;
+			}
+		}
+		expired = expired + counter;
+		return counter;
+	}
+
+	/**
+	 * Returns the expiration time of the specified key.
+	 * @param key The key.
+	 * @return The expiration time of the key. NaN, if it is not present.
+	 */
+	public double getExpiration(long key) {
+		if (key == 0L)
+			return hasZero ? zeroExpiration : Double.NaN;
+		int slot = this.find(key);
+		return (slot < 0) ? Double.NaN : expirations[slot];
+	}
+
+	/**
+	 * Returns the number of entries retired by expiration so far.
+	 * @return The number of entries retired by expiration.
+	 */
+	public long getExpired() {
+		return expired;
+	}
+
+	/**
+	 * Removes all the entries of this table.
+	 */
+	@Override
+	public void clear() {
+		super.clear();
+		heapSize = 0;
+	}
+
+	/**
+	 * Returns the estimated memory, in bytes, used by this table, excluding the values.
+	 * @return The estimated memory used by this table.
+	 */
+	@Override
+	public long memory() {
+		return super.memory() + (3L * HEADER_SIZE) + (8L * expirations.length) + (16L * heapKeys.length);
+	}
+
+	@Override
+	protected void move(int from, int to) {
+		super.move(from,to);
+		expirations[to] = expirations[from];
+	}
+
+	@Override
+	protected void allocate(int capacity) {
+		super.allocate(capacity);
+		expirations = new double[capacity];
+	}
+
+	@Override
+	protected void rehash(int capacity) {
+		long[] oldKeys = keys;
+		double[] oldExpirations = expirations;
+		super.rehash(capacity);
+		for (int i=0; i < oldKeys.length; i++) {
+			if (oldKeys[i] != 0L)
+				expirations[this.find(oldKeys[i])] = oldExpirations[i];
+		}
+	}
+
+	/**
+	 * Adds a node to the heap.
+	 * @param key The key.
+	 * @param expiration The expiration time.
+	 */
+	protected void push(long key, double expiration) {
+		if (heapSize == heapKeys.length) {
+			heapKeys = Arrays.copyOf(heapKeys,2 * heapSize);
+			heapTimes = Arrays.copyOf(heapTimes,2 * heapSize);
+		}
+		//Sift up
+		int i = heapSize++;
+		while (i > 0) {
+			int parent = (i - 1) >>> 1;
+			if (heapTimes[parent] <= expiration)
+				break;
+			heapKeys[i] = heapKeys[parent];
+			heapTimes[i] = heapTimes[parent];
+			i = parent;
+		}
+		heapKeys[i] = key;
+		heapTimes[i] = expiration;
+	}
+
+	/**
+	 * Removes the root of the heap.
+	 */
+	protected void pop() {
+		heapSize--;
+		long key = heapKeys[heapSize];
+		double expiration = heapTimes[heapSize];
+		//Sift down
+		int i = 0;
+		int half = heapSize >>> 1;
+		while (i < half) {
+			int child = (2 * i) + 1;
+			if ((child + 1 < heapSize) && (heapTimes[child + 1] < heapTimes[child]))
+				child++;
+			if (expiration <= heapTimes[child])
+				break;
+			heapKeys[i] = heapKeys[child];
+			heapTimes[i] = heapTimes[child];
+			i = child;
+		}
+		heapKeys[i] = key;
+		heapTimes[i] = expiration;
+	}
+
+	/**
+	 * Rebuilds the heap from the entries of the table, discarding the stale nodes.
+	 */
+	protected void rebuild() {
+		heapSize = 0;
+		if (hasZero)
+			this.push(0L,zeroExpiration);
+		for (int i=0; i < keys.length; i++) {
+			if (keys[i] != 0L)
+				this.push(keys[i],expirations[i]);
+		}
+	}
+}
@@ -3,6 +3,7 @@
  */
 package net;
 
+import graph.CompactPath;
 import graph.Edge;
 import graph.Path;
 import java.io.Serializable;
@@ -100,13 +101,15 @@ public class Failure implements Serializable {
 	public Location locate(String key, Path path) {
 		//The location of the failure
 		Location location = null;
+		//Gets the compact representation of the path, to compare interned nodes
+		CompactPath compact = path.compact();
 		//Gets the positon of the key in the path of the connection
-		int indexKey = path.getNodePosition(key);
+		int indexKey = compact.getNodePosition(key);
 		if (type.equals(Failure.Type.NODE)) { //Node failure
 			//Gets the node failed
 			String nodeFailure = (String) information;
 			//Gets the index of the node failed
-			int indexNode = path.getNodePosition(nodeFailure);
+			int indexNode = compact.getNodePosition(nodeFailure);
 			//Verify the position of the failure
 			if (indexNode == -1) { //Failure not in the path!
 				location = Location.NOT_APPLICABLE;
@@ -127,8 +130,8 @@ public class Failure implements Serializable {
 			//Gets the first node downstream to the failure 
 			String targetFailure = ((Edge) information).getDestination();
 			//Gets the positions of the failure 
-			int indexSource = path.getNodePosition(sourceFailure);
-			int indexTarget = path.getNodePosition(targetFailure);
+			int indexSource = compact.getNodePosition(sourceFailure);
+			int indexTarget = compact.getNodePosition(targetFailure);
 			//Verify the position of the failure
 			if ((indexSource == -1) || (indexTarget == -1) || ((indexTarget - indexSource) != 1)) {
 				//Failure not in the path!
@@ -149,6 +152,34 @@ public class Failure implements Serializable {
 		return location; 
 	}
 	
+	/**
+	 * Locates the failure specified by the position of the node in the
+	 * path of a connection. The closest nodes to the failure are located in
+	 * constant time; otherwise, it falls back to locate(String, Path).
+	 * @param position The position of the node in the path of the connection.
+	 * @param path The path of the connection.
+	 * @return The location of the failure.
+	 */
+	public Location locate(int position, Path path) {
+		String key = path.getNode(position);
+		String previous = (position > 0) ? path.getNode(position - 1) : null;
+		String next = (position < path.size() - 1) ? path.getNode(position + 1) : null;
+		if (type.equals(Failure.Type.NODE)) { //Node failure
+			if (information.equals(next))
+				return Location.NEIGHBOR_UPSTREAM;
+			else if (information.equals(previous))
+				return Location.NEIGHBOR_DOWNSTREAM;
+		} else if (type.equals(Failure.Type.LINK)) { //Link failure
+			Edge edge = (Edge) information;
+			if (key.equals(edge.getSource()) && edge.getDestination().equals(next))
+				return Location.NEIGHBOR_UPSTREAM;
+			else if (key.equals(edge.getDestination()) && edge.getSource().equals(previous))
+				return Location.NEIGHBOR_DOWNSTREAM;
+		}
+		//Not a neighbor of the failure
+		return this.locate(key,path);
+	}
+	
 	/**
 	 * Returns a cloned version of this object.
 	 */
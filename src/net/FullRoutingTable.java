@@ -29,6 +29,8 @@ public abstract class FullRoutingTable implements RoutingTable, Serializable{
 	protected RoutingTableEntry[][] table;
 	/** Local topology graph. */
 	protected Graph localGraph;
+	/** Indicates if the entries of the table are shared with other tables, so they must be copied before any change. */
+	protected transient boolean shared;
 
 	/**
 	 * Creates a new FullRoutingTable object.
@@ -81,6 +83,11 @@ public abstract class FullRoutingTable implements RoutingTable, Serializable{
 	public void updateFromTopology(Graph graph) {
 		if ((localGraph != null) && localGraph.equals(graph))
 			return; //nothing to do
+		//Copy the entries shared with other tables before changing them
+		if (shared) {
+			this.table = this.copyEntries();
+			shared = false;
+		}
 		//Clone the graph and maintain a copy
 		this.localGraph = (Graph)graph.clone();
 		//Create space for the new destination
@@ -139,6 +146,22 @@ public abstract class FullRoutingTable implements RoutingTable, Serializable{
 		this.nodeMap = newNodeMap;
 	}
 	
+	/**
+	 * Returns a copy of the table with a clone of each entry.
+	 * @return A copy of the table with a clone of each entry.
+	 */
+	protected RoutingTableEntry[][] copyEntries() {
+		RoutingTableEntry[][] copy = new RoutingTableEntry[table.length][];
+		for (int i=0; i < table.length; i++) {
+			copy[i] = new RoutingTableEntry[table[i].length];
+			for (int j=0; j < table[i].length; j++) {
+				if (table[i][j] != null)
+					copy[i][j] = (RoutingTableEntry) table[i][j].clone();
+			}
+		}
+		return copy;
+	}
+	
 	/**
 	 * Returns a string representation of the routing table.
 	 * @return A string representation of the routing table.
@@ -0,0 +1,132 @@
+/*
+ * Created on 2026-10-19 by Pavani.
+ */
+package net;
+
+/**
+ * Hash set of primitive int values with open addressing (linear probing),
+ * used for the identifiers of the failures already processed by a node.
+ * It is not synchronized and it does not box the values.
+ * <p>
+ * The value 0 is used to mark the free slots of the table, so its
+ * presence is stored apart.
+ *
+ * @author Gustavo Sousa Pavani
+ * @version 1.0
+ */
+public class IntHashSet {
+	/** The minimum capacity of the table. */
+	public static final int MIN_CAPACITY = 8;
+	/** The values of the table. */
+	protected int[] values;
+	/** Indicates if the value 0 is present. */
+	protected boolean hasZero;
+	/** The number of values stored in the table, excluding the value 0. */
+	protected int size;
+	/** The mask used to map a hash to a slot of the table. */
+	protected int mask;
+
+	/**
+	 * Creates a new IntHashSet object.
+	 */
+	public IntHashSet() {
+		this.values = new int[MIN_CAPACITY];
+		this.mask = MIN_CAPACITY - 1;
+	}
+
+	/**
+	 * Verifies if the specified value is present.
+	 * @param value The value.
+	 * @return True, if the value is present. False, otherwise.
+	 */
+	public boolean contains(int value) {
+		if (value == 0)
+			return hasZero;
+		int slot = this.hash(value);
+		while (values[slot] != 0) {
+			if (values[slot] == value)
+				return true;
+			slot = (slot + 1) & mask;
+		}
+		return false;
+	}
+
+	/**
+	 * Adds the specified value.
+	 * @param value The value.
+	 * @return True, if the value was not present. False, otherwise.
+	 */
+	public boolean add(int value) {
+		if (value == 0) {
+			boolean added = !hasZero;
+			hasZero = true;
+			return added;
+		}
+		int slot = this.hash(value);
+		while (values[slot] != 0) {
+			if (values[slot] == value)
+				return false;
+			slot = (slot + 1) & mask;
+		}
+		values[slot] = value;
+		size++;
+		//Keep the load factor below 1/2
+		if (size * 2 >= values.length)
+			this.rehash(values.length << 1);
+		return true;
+	}
+
+	/**
+	 * Returns the number of values of this set.
+	 * @return The number of values of this set.
+	 */
+	public int size() {
+		return hasZero ? size + 1 : size;
+	}
+
+	/**
+	 * Removes all the values of this set.
+	 */
+	public void clear() {
+		this.values = new int[MIN_CAPACITY];
+		this.mask = MIN_CAPACITY - 1;
+		this.size = 0;
+		this.hasZero = false;
+	}
+
+	/**
+	 * Returns the estimated memory, in bytes, used by the table of this set.
+	 * @return The estimated memory used by the table of this set.
+	 */
+	public long memory() {
+		return (2L * LongHashMap.HEADER_SIZE) + (4L * values.length);
+	}
+
+	/**
+	 * Returns the home slot of the specified value.
+	 * @param value The value.
+	 * @return The home slot of the specified value.
+	 */
+	protected int hash(int value) {
+		int h = value * 0x9E3779B9;
+		return (h ^ (h >>> 16)) & mask;
+	}
+
+	/**
+	 * Moves the values to a new table with the specified capacity.
+	 * @param capacity The new capacity, a power of two.
+	 */
+	protected void rehash(int capacity) {
+		int[] oldValues = values;
+		values = new int[capacity];
+		mask = capacity - 1;
+		for (int value : oldValues) {
+			if (value != 0) {
+				int slot = this.hash(value);
+				while (values[slot] != 0)
+					slot = (slot + 1) & mask;
+				values[slot] = value;
+			}
+		}
+	}
+}
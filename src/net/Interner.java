@@ -0,0 +1,301 @@
+/*
+ * Created on 2026-10-19 by Pavani.
+ */
+package net;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+import graph.Edge;
+import graph.Graph;
+
+/**
+ * Global interning of the identifiers used by the simulation. Node labels and
+ * links (ordered pairs of nodes) are mapped to dense integers at load time, so that
+ * the tables on the hot path can be indexed by arrays instead of hashing strings
+ * built by concatenation. The integers are never reused, even if a node or a link
+ * is removed from the topology by a failure.
+ * <p>
+ * Connection identifications are mapped to long keys. The usual identifications
+ * (a decimal counter followed by zero or more "r" suffixes of re-routing) are
+ * converted arithmetically, without any table.
+ *
+ * @author Gustavo Sousa Pavani
+ * @version 1.0
+ */
+public class Interner {
+	/** Value returned for unknown nodes or links. */
+	public static final int NONE = -1;
+	/** The number of bits reserved for the re-routing suffixes in a connection key. */
+	public static final int SUFFIX_BITS = 3;
+	/** The mapping between node labels and their integers. */
+	protected static HashMap<String,Integer> nodeMap = new HashMap<String,Integer>();
+	/** The node labels, indexed by their integers. */
+	protected static ArrayList<String> nodeLabels = new ArrayList<String>();
+	/** The hash table of the links (open addressing with linear probing), which holds the integer of each link or NONE. */
+	protected static int[] linkTable = newLinkTable(16);
+	/** The source node of each link, indexed by the integer of the link. */
+	protected static int[] linkSource = new int[16];
+	/** The destination node of each link, indexed by the integer of the link. */
+	protected static int[] linkDestination = new int[16];
+	/** The number of interned links. */
+	protected static int linkCounter = 0;
+	/** The keys of the connection identifications that are not in the usual format. */
+	protected static HashMap<String,Long> connectionMap = new HashMap<String,Long>();
+	/** The connection identifications that are not in the usual format, indexed by -(key + 1). */
+	protected static ArrayList<String> connectionLabels = new ArrayList<String>();
+
+	/**
+	 * Interns all the nodes and links of the specified graph, in the graph order.
+	 * The connection identifications interned so far are discarded.
+	 * @param graph The topology of the network.
+	 */
+	public static void load(Graph graph) {
+		for (String node : graph.nodes())
+			node(node);
+		for (Edge edge : graph.edges())
+			link(edge.getSource(),edge.getDestination());
+		connectionMap.clear();
+		connectionLabels.clear();
+	}
+
+	/**
+	 * Returns the integer of the specified node label, interning it if necessary.
+	 * @param label The label of the node.
+	 * @return The integer of the specified node label.
+	 */
+	public static int node(String label) {
+		Integer index = nodeMap.get(label);
+		if (index == null) {
+			index = nodeLabels.size();
+			nodeMap.put(label,index);
+			nodeLabels.add(label);
+		}
+		return index;
+	}
+
+	/**
+	 * Returns the integer of the specified node label, without interning it.
+	 * @param label The label of the node.
+	 * @return The integer of the specified node label. NONE, if it is not interned.
+	 */
+	public static int getNode(String label) {
+		Integer index = nodeMap.get(label);
+		return (index == null) ? NONE : index;
+	}
+
+	/**
+	 * Returns the label of the specified node.
+	 * @param node The integer of the node.
+	 * @return The label of the specified node.
+	 */
+	public static String label(int node) {
+		return nodeLabels.get(node);
+	}
+
+	/**
+	 * Returns the number of interned nodes.
+	 * @return The number of interned nodes.
+	 */
+	public static int nodes() {
+		return nodeLabels.size();
+	}
+
+	/**
+	 * Returns the integer of the link between the specified nodes, interning it if necessary.
+	 * @param source The integer of the source node.
+	 * @param destination The integer of the destination node.
+	 * @return The integer of the link between the specified nodes.
+	 */
+	public static int link(int source, int destination) {
+		int entry = findLink(source,destination);
+		int index = linkTable[entry];
+		if (index == NONE) {
+			index = linkCounter++;
+			if (index == linkSource.length) {
+				linkSource = Arrays.copyOf(linkSource,2 * index);
+				linkDestination = Arrays.copyOf(linkDestination,2 * index);
+			}
+			linkSource[index] = source;
+			linkDestination[index] = destination;
+			linkTable[entry] = index;
+			//Keep the load factor below 1/2
+			if (linkCounter * 2 >= linkTable.length)
+				growLinkTable(linkTable.length << 1);
+		}
+		return index;
+	}
+
+	/**
+	 * Returns the integer of the link between the specified nodes, interning it if necessary.
+	 * @param source The label of the source node.
+	 * @param destination The label of the destination node.
+	 * @return The integer of the link between the specified nodes.
+	 */
+	public static int link(String source, String destination) {
+		return link(node(source),node(destination));
+	}
+
+	/**
+	 * Returns the integer of the link between the specified nodes, without interning it.
+	 * @param source The integer of the source node.
+	 * @param destination The integer of the destination node.
+	 * @return The integer of the link between the specified nodes. NONE, if it is not interned.
+	 */
+	public static int getLink(int source, int destination) {
+		if ((source < 0) || (destination < 0))
+			return NONE;
+		return linkTable[findLink(source,destination)];
+	}
+
+	/**
+	 * Returns the integer of the link between the specified nodes, without interning it.
+	 * @param source The label of the source node.
+	 * @param destination The label of the destination node.
+	 * @return The integer of the link between the specified nodes. NONE, if it is not interned.
+	 */
+	public static int getLink(String source, String destination) {
+		return getLink(getNode(source),getNode(destination));
+	}
+
+	/**
+	 * Returns the integer of the source node of the specified link.
+	 * @param link The integer of the link.
+	 * @return The integer of the source node of the specified link.
+	 */
+	public static int linkSource(int link) {
+		return linkSource[link];
+	}
+
+	/**
+	 * Returns the integer of the destination node of the specified link.
+	 * @param link The integer of the link.
+	 * @return The integer of the destination node of the specified link.
+	 */
+	public static int linkDestination(int link) {
+		return linkDestination[link];
+	}
+
+	/**
+	 * Returns the label of the specified link, in the "source-destination" format.
+	 * @param link The integer of the link.
+	 * @return The label of the specified link.
+	 */
+	public static String linkLabel(int link) {
+		return nodeLabels.get(linkSource[link])+"-"+nodeLabels.get(linkDestination[link]);
+	}
+
+	/**
+	 * Returns the number of interned links.
+	 * @return The number of interned links.
+	 */
+	public static int links() {
+		return linkCounter;
+	}
+
+	/**
+	 * Returns the key of the specified connection identification. The usual identifications,
+	 * i.e., a decimal counter followed by less than 2^SUFFIX_BITS "r" suffixes, are mapped to
+	 * (counter &lt;&lt; SUFFIX_BITS) | suffixes. Any other one is interned with a negative key.
+	 * @param id The identification of the connection.
+	 * @return The key of the specified connection identification.
+	 */
+	public static long connection(String id) {
+		int length = id.length();
+		int suffixes = 0;
+		//Count the re-routing suffixes
+		while ((length > 0) && (id.charAt(length - 1) == 'r')) {
+			length--;
+			suffixes++;
+		}
+		if ((length > 0) && (length <= 18) && (suffixes < (1 << SUFFIX_BITS))) {
+			long counter = 0;
+			int i = 0;
+			for (; i < length; i++) {
+				char c = id.charAt(i);
+				if ((c < '0') || (c > '9'))
+					break;
+				counter = (counter * 10) + (c - '0');
+			}
+			if (i == length)
+				return (counter << SUFFIX_BITS) | suffixes;
+		}
+		//Not in the usual format
+		Long key = connectionMap.get(id);
+		if (key == null) {
+			key = -(connectionMap.size() + 1L);
+			connectionMap.put(id,key);
+			connectionLabels.add(id);
+		}
+		return key;
+	}
+
+	/**
+	 * Returns the connection identification of the specified key.
+	 * @param key The key of the connection identification.
+	 * @return The connection identification of the specified key.
+	 */
+	public static String connectionLabel(long key) {
+		if (key < 0)
+			return connectionLabels.get((int)(-(key + 1)));
+		StringBuilder builder = new StringBuilder();
+		builder.append(key >>> SUFFIX_BITS);
+		for (long i = key & ((1 << SUFFIX_BITS) - 1); i > 0; i--)
+			builder.append('r');
+		return builder.toString();
+	}
+
+	/**
+	 * Returns the entry of the hash table of the specified link, or the free entry where it must be added.
+	 * @param source The integer of the source node.
+	 * @param destination The integer of the destination node.
+	 * @return The entry of the hash table of the specified link.
+	 */
+	protected static int findLink(int source, int destination) {
+		int mask = linkTable.length - 1;
+		int entry = hashLink(source,destination) & mask;
+		while (linkTable[entry] != NONE) {
+			int index = linkTable[entry];
+			if ((linkSource[index] == source) && (linkDestination[index] == destination))
+				return entry;
+			entry = (entry + 1) & mask;
+		}
+		return entry;
+	}
+
+	/**
+	 * Returns the hash of the specified link, from its source and destination packed in a long.
+	 * @param source The integer of the source node.
+	 * @param destination The integer of the destination node.
+	 * @return The hash of the specified link.
+	 */
+	protected static int hashLink(int source, int destination) {
+		//Fibonacci hashing, since the integers are sequential
+		long h = (((long) source << 32) | (destination & 0xFFFFFFFFL)) * 0x9E3779B97F4A7C15L;
+		return (int)(h ^ (h >>> 32));
+	}
+
+	/**
+	 * Returns an empty hash table of links with the specified capacity.
+	 * @param capacity The capacity, a power of two.
+	 * @return An empty hash table of links.
+	 */
+	protected static int[] newLinkTable(int capacity) {
+		int[] table = new int[capacity];
+		Arrays.fill(table,NONE);
+		return table;
+	}
+
+	/**
+	 * Grows the hash table of links to the specified capacity.
+	 * @param capacity The new capacity, a power of two.
+	 */
+	protected static void growLinkTable(int capacity) {
+		linkTable = newLinkTable(capacity);
+		for (int index=0; index < linkCounter; index++) {
+			int entry = findLink(linkSource[index],linkDestination[index]);
+			linkTable[entry] = index;
+		}
+	}
+}
@@ -0,0 +1,325 @@
+/*
+ * Created on 2026-10-19 by Pavani.
+ */
+package net;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+
+/**
+ * Hash map with primitive long keys and open addressing (linear probing),
+ * used for the per-node state indexed by the interned connection keys.
+ * It is not synchronized, since the simulation runs in a single thread,
+ * and it does not box the keys or allocate entries on insertion.
+ * <p>
+ * The key 0 is used to mark the free slots of the table, so its value is
+ * stored apart. Removals shift back the following entries of the same
+ * cluster, so no tombstones are left in the table.
+ *
+ * @author Gustavo Sousa Pavani
+ * @version 1.0
+ */
+public class LongHashMap<V> implements Serializable {
+	/** Serial version UID. */
+	private static final long serialVersionUID = 1L;
+	/** The minimum capacity of the table. */
+	public static final int MIN_CAPACITY = 16;
+	/** The estimated size, in bytes, of a reference (compressed oops). */
+	public static final int REFERENCE_SIZE = 4;
+	/** The estimated size, in bytes, of the header of an object or array. */
+	public static final int HEADER_SIZE = 16;
+	/** The keys of the table. */
+	protected long[] keys;
+	/** The values of the table. */
+	protected Object[] values;
+	/** The value associated to the key 0. */
+	protected Object zeroValue;
+	/** Indicates if the key 0 is present. */
+	protected boolean hasZero;
+	/** The number of keys stored in the table, excluding the key 0. */
+	protected int size;
+	/** The mask used to map a hash to a slot of the table. */
+	protected int mask;
+
+	/**
+	 * Creates a new LongHashMap object with the minimum capacity.
+	 */
+	public LongHashMap() {
+		this(MIN_CAPACITY);
+	}
+
+	/**
+	 * Creates a new LongHashMap object.
+	 * @param expected The expected number of keys.
+	 */
+	public LongHashMap(int expected) {
+		int capacity = MIN_CAPACITY;
+		while (capacity * 3 < expected * 4)
+			capacity = capacity << 1;
+		this.allocate(capacity);
+	}
+
+	/**
+	 * Returns the value associated to the specified key.
+	 * @param key The key.
+	 * @return The value associated to the specified key. Null, if it is not present.
+	 */
+	@SuppressWarnings("unchecked")
+	public V get(long key) {
+		if (key == 0L)
+			return (V) zeroValue;
+		int slot = this.find(key);
+		return (slot < 0) ? null : (V) values[slot];
+	}
+
+	/**
+	 * Verifies if the specified key is present.
+	 * @param key The key.
+	 * @return True, if the key is present. False, otherwise.
+	 */
+	public boolean containsKey(long key) {
+		if (key == 0L)
+			return hasZero;
+		return this.find(key) >= 0;
+	}
+
+	/**
+	 * Associates the specified value to the specified key.
+	 * @param key The key.
+	 * @param value The value.
+	 * @return The previous value associated to the key. Null, if it was not present.
+	 */
+	@SuppressWarnings("unchecked")
+	public V put(long key, V value) {
+		if (key == 0L) {
+			Object previous = zeroValue;
+			zeroValue = value;
+			hasZero = true;
+			return (V) previous;
+		}
+		int slot = this.hash(key);
+		while (keys[slot] != 0L) {
+			if (keys[slot] == key) {
+				Object previous = values[slot];
+				values[slot] = value;
+				return (V) previous;
+			}
+			slot = (slot + 1) & mask;
+		}
+		keys[slot] = key;
+		values[slot] = value;
+		size++;
+		//Keep the load factor below 3/4
+		if (size * 4 >= keys.length * 3)
+			this.rehash(keys.length << 1);
+		return null;
+	}
+
+	/**
+	 * Removes the specified key.
+	 * @param key The key.
+	 * @return The value associated to the removed key. Null, if it was not present.
+	 */
+	@SuppressWarnings("unchecked")
+	public V remove(long key) {
+		if (key == 0L) {
+			Object previous = zeroValue;
+			zeroValue = null;
+			hasZero = false;
+			return (V) previous;
+		}
+		int slot = this.find(key);
+		if (slot < 0)
+			return null;
+		Object previous = values[slot];
+		//Shift back the following entries of the cluster
+		int free = slot;
+		int next = (slot + 1) & mask;
+		while (keys[next] != 0L) {
+			int home = this.hash(keys[next]);
+			//Move the entry if its home slot is not between the free slot and itself
+			if (((next - home) & mask) >= ((next - free) & mask)) {
+				this.move(next,free);
+				free = next;
+			}
+			next = (next + 1) & mask;
+		}
+		keys[free] = 0L;
+		values[free] = null;
+		size--;
+		return (V) previous;
+	}
+
+	/**
+	 * Returns the number of keys of this map.
+	 * @return The number of keys of this map.
+	 */
+	public int size() {
+		return hasZero ? size + 1 : size;
+	}
+
+	/**
+	 * Verifies if this map is empty.
+	 * @return True, if this map is empty. False, otherwise.
+	 */
+	public boolean isEmpty() {
+		return this.size() == 0;
+	}
+
+	/**
+	 * Removes all the keys of this map, shrinking it to the minimum capacity.
+	 */
+	public void clear() {
+		this.allocate(MIN_CAPACITY);
+		zeroValue = null;
+		hasZero = false;
+	}
+
+	/**
+	 * Returns a snapshot of the keys of this map.
+	 * @return A snapshot of the keys of this map.
+	 */
+	public long[] keys() {
+		long[] result = new long[this.size()];
+		int counter = 0;
+		if (hasZero)
+			result[counter++] = 0L;
+		for (long key : keys) {
+			if (key != 0L)
+				result[counter++] = key;
+		}
+		return result;
+	}
+
+	/**
+	 * Returns a snapshot of the values of this map, in the same order of keys().
+	 * @return A snapshot of the values of this map.
+	 */
+	@SuppressWarnings("unchecked")
+	public ArrayList<V> values() {
+		ArrayList<V> result = new ArrayList<V>(this.size());
+		if (hasZero)
+			result.add((V) zeroValue);
+		for (int i=0; i < keys.length; i++) {
+			if (keys[i] != 0L)
+				result.add((V) values[i]);
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the estimated memory, in bytes, used by the table of this map,
+	 * excluding the values themselves.
+	 * @return The estimated memory used by the table of this map.
+	 */
+	public long memory() {
+		return (3L * HEADER_SIZE) + (8L * keys.length) + ((long)REFERENCE_SIZE * values.length);
+	}
+
+	/**
+	 * Returns a String representation of the keys of this map, with the
+	 * connection identifications of the keys.
+	 * @return A String representation of the keys of this map.
+	 */
+	public String keysToString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("[");
+		long[] keySet = this.keys();
+		for (int i=0; i < keySet.length; i++) {
+			if (i > 0)
+				builder.append(", ");
+			builder.append(Interner.connectionLabel(keySet[i]));
+		}
+		builder.append("]");
+		return builder.toString();
+	}
+
+	/**
+	 * Returns a String representation of this object, with the
+	 * connection identifications of the keys.
+	 * @return A String representation of this object.
+	 */
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("{");
+		long[] keySet = this.keys();
+		for (int i=0; i < keySet.length; i++) {
+			if (i > 0)
+				builder.append(", ");
+			builder.append(Interner.connectionLabel(keySet[i]));
+			builder.append("=");
+			builder.append(this.get(keySet[i]));
+		}
+		builder.append("}");
+		return builder.toString();
+	}
+
+	/**
+	 * Returns the slot of the specified key.
+	 * @param key The key, different from 0.
+	 * @return The slot of the specified key. -1, if it is not present.
+	 */
+	protected int find(long key) {
+		int slot = this.hash(key);
+		while (keys[slot] != 0L) {
+			if (keys[slot] == key)
+				return slot;
+			slot = (slot + 1) & mask;
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns the home slot of the specified key.
+	 * @param key The key.
+	 * @return The home slot of the specified key.
+	 */
+	protected int hash(long key) {
+		//Fibonacci hashing, since the keys are sequential
+		long h = key * 0x9E3779B97F4A7C15L;
+		return (int)(h ^ (h >>> 32)) & mask;
+	}
+
+	/**
+	 * Moves the entry of a slot to another one, when an entry is removed.
+	 * @param from The slot of the entry.
+	 * @param to The new slot of the entry.
+	 */
+	protected void move(int from, int to) {
+		keys[to] = keys[from];
+		values[to] = values[from];
+	}
+
+	/**
+	 * Allocates an empty table with the specified capacity.
+	 * @param capacity The capacity, a power of two.
+	 */
+	protected void allocate(int capacity) {
+		keys = new long[capacity];
+		values = new Object[capacity];
+		mask = capacity - 1;
+		size = 0;
+	}
+
+	/**
+	 * Moves the entries to a new table with the specified capacity.
+	 * @param capacity The new capacity, a power of two.
+	 */
+	protected void rehash(int capacity) {
+		long[] oldKeys = keys;
+		Object[] oldValues = values;
+		int oldSize = size;
+		this.allocate(capacity);
+		for (int i=0; i < oldKeys.length; i++) {
+			if (oldKeys[i] != 0L) {
+				int slot = this.hash(oldKeys[i]);
+				while (keys[slot] != 0L)
+					slot = (slot + 1) & mask;
+				keys[slot] = oldKeys[i];
+				values[slot] = oldValues[i];
+			}
+		}
+		size = oldSize;
+	}
+}
@@ -3,6 +3,7 @@
  */
 package net;
 
+import graph.CompactPath;
 import graph.Path;
 
 /**
@@ -14,6 +15,10 @@ import graph.Path;
 public class Message {
 	/** The identification of the message. */
 	protected String id;
+	/** The interned key of the identification, valid only if keyed is true. */
+	protected long key;
+	/** Indicates if the key of the identification was already calculated. */
+	protected boolean keyed;
 	/** The possible types of the message. */
 	public enum Type {
 		/** RSVP Path message. */ RSVP_PATH("PATH"),
@@ -44,6 +49,8 @@ public class Message {
 	protected String destination;
 	/** The processing node. */
 	protected String procNode;
+	/** The interned processing node. */
+	protected int procIndex = Interner.NONE;
 	/** The length (in bytes) of this message. */
 	protected int length;
 	/** Maximum number of hops allowed - decremented at each hop. */
@@ -54,6 +61,10 @@ public class Message {
 	protected boolean recordRoute;
 	/** The path followed by the message. */
 	protected Path path;
+	/** The position of the processing node in the path. */
+	protected int hop;
+	/** The cursor on the compact representation of the path, located at the processing node. */
+	protected CompactPath.Cursor cursor;
 	/** The content of this message. */
 	protected Object content;
 	/** The size of the header of the message, in bytes. */
@@ -189,6 +200,18 @@ public class Message {
 		return id;
 	}
 
+	/**
+	 * Returns the interned key of the identification of this message.
+	 * @return The interned key of the identification of this message.
+	 */
+	public long getKey() {
+		if (!keyed) {
+			key = Interner.connection(id);
+			keyed = true;
+		}
+		return key;
+	}
+
 	/**
 	 * Returns the processing node for this message.
 	 * @return The processing node for this message.
@@ -197,14 +220,24 @@ public class Message {
 		return procNode;
 	}
 
+	/**
+	 * Returns the interned processing node for this message.
+	 * @return The interned processing node. Interner.NONE, if it is not interned.
+	 */
+	public int getProcIndex() {
+		return procIndex;
+	}
+
 	/**
 	 * Set the actual processing node of this packet and add it to the path, if the recordRoute flag is enable.
 	 * @param procId The actual processing node id of this packet.
 	 */
 	public void setNode(String procId) {
 		this.procNode = procId;
+		this.procIndex = Interner.getNode(procId);
 		if (recordRoute) { //if true, then add to the path
 			this.path.addNode(procId);
+			this.hop = path.size() - 1;
 		}
 	}
 	
@@ -281,6 +314,25 @@ public class Message {
 		return this.path;
 	}
 	
+	/**
+	 * Returns the position of the processing node in the path. While the route is
+	 * recorded, the processing node is the last one added to the path. Otherwise,
+	 * the path is walked hop by hop with a cursor on its compact representation,
+	 * which is created again if the path has been modified.
+	 * @return The position of the processing node in the path. -1, if it is not in the path.
+	 */
+	public int getHop() {
+		if (recordRoute && (hop >= 0) && (hop < path.size()) && (path.getNode(hop) == procNode)) {
+			cursor = null;
+			return hop;
+		}
+		CompactPath compact = path.compact();
+		if ((cursor == null) || (cursor.getPath() != compact))
+			cursor = compact.cursor(hop);
+		hop = cursor.moveTo(procIndex) ? cursor.getHop() : -1;
+		return hop;
+	}
+	
 	/**
 	 * Return the length, in number of hops, traversed by this packet. 
 	 * @return The length of the path traversed by this packet.
@@ -370,7 +422,8 @@ public class Message {
 		clone.creationTime = creationTime;
 		clone.recordRoute = recordRoute;
 		clone.content = content;
-		clone.path = (Path) path.clone();		
+		clone.path = (Path) path.clone();
+		clone.hop = hop;
 		return clone;
 	}
 
@@ -43,6 +43,8 @@ public abstract class Network {
 		this.config = aConfig;
 		this.parameters = config.getSimulationParameters();
 		this.graph = config.getGraph(); //gets the graph
+		//Intern the identifiers of the nodes and links
+		Interner.load(graph);
 		this.accounting = aAccounting;
 		ArrayList<String> seed = parameters.get("/Main/Network/@seed");
 		if (seed != null) 
@@ -77,6 +79,35 @@ public abstract class Network {
 	 * Update values of this network, after a run is finished.
 	 */
 	public abstract void updateValues();
+
+	/**
+	 * Samples the state of this network at the end of each time slice,
+	 * together with the periodical accounting, i.e., the memory of the
+	 * connection state tables of the nodes, if it is printed.
+	 * @param time The time of the slice.
+	 */
+	public void periodical(double time) {
+		if (accounting.isPrinted(Accounting.Values.MEMORY))
+			accounting.addConnectionMemory(this.getMemoryPerConnection());
+	}
+
+	/**
+	 * Returns the estimated memory, in bytes, used by the tables of the connection
+	 * state of the nodes per active connection.
+	 * @return The estimated memory per active connection. Zero, by default.
+	 */
+	public double getMemoryPerConnection() {
+		return 0.0;
+	}
+
+	/**
+	 * Verifies if this network handles the repairs of the failed links and nodes,
+	 * i.e., the TOPOLOGY_LINK and TOPOLOGY_NODE events.
+	 * @return True, if the repairs are handled. False, by default.
+	 */
+	public boolean isRepairable() {
+		return false;
+	}
 	
 	/**
 	 * Toss a random source node.
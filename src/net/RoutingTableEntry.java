@@ -89,12 +89,12 @@ public class RoutingTableEntry implements Serializable {
 	 * @param key The identification of a new neighbor.
 	 */
 	public void addEntry(Object key) {
-		//Adds the new entry to the mapping
-		neighborMap.put(key.toString(),neighborMap.size());
+		//Adds the new entry to the mapping, after the last position, since the removed entries keep their positions
+		neighborMap.put(key.toString(),neighborhood.length);
 		//Creates a new array with more space.
-		Object[] newNeighborhood = new Object[neighborMap.size() + 1];
+		Object[] newNeighborhood = new Object[neighborhood.length + 1];
 		//Synchronizes the old and the new array
-		System.arraycopy(neighborhood,0,newNeighborhood,0,neighborMap.size());
+		System.arraycopy(neighborhood,0,newNeighborhood,0,neighborhood.length);
 		//Updates neighborhood
 		neighborhood = newNeighborhood;
 	}
@@ -110,6 +110,25 @@ public class RoutingTableEntry implements Serializable {
 		neighborMap.remove(key.toString());		
 	}
 	
+	/**
+	 * Returns the position of the entry of the specified neighbor, which is kept
+	 * while the neighbor is not removed.
+	 * @param key The identification of the neighbor.
+	 * @return The position of the entry. -1, if it is not a neighbor.
+	 */
+	public int position(Object key) {
+		Integer index = neighborMap.get(key.toString());
+		return (index == null) ? -1 : index;
+	}
+	
+	/**
+	 * Returns the number of positions of this object, including the ones of the removed entries.
+	 * @return The number of positions of this object.
+	 */
+	public int capacity() {
+		return neighborhood.length;
+	}
+	
 	/**
 	 * Returns the total number of entries of this object.
 	 * @return The total number of entries of this object.
@@ -138,7 +157,7 @@ public class RoutingTableEntry implements Serializable {
 	@SuppressWarnings("unchecked")
 	public Object clone() {
 		RoutingTableEntry entryClone = new RoutingTableEntry();
-		System.arraycopy(this.neighborhood,0,entryClone.neighborhood,0,this.neighborhood.length);
+		entryClone.neighborhood = this.neighborhood.clone();
 		entryClone.neighborMap = (LinkedHashMap<String,Integer>) this.neighborMap.clone();
 		return entryClone;
 	}
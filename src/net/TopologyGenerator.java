@@ -0,0 +1,375 @@
+/*
+ * Created on 2026-10-19 by Pavani.
+ */
+package net;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Random;
+
+import graph.Edge;
+import graph.Graph;
+
+/**
+ * Generator of physical topologies for scaling studies, which creates the graph
+ * and the links of the network directly, without listing them in the XML file.
+ * The synthetic models are the Waxman random graph, the Barabasi-Albert
+ * preferential attachment, and the grid or torus. Real topologies can be imported
+ * from the native format of the SNDlib library.
+ * <p>
+ * The nodes are identified by consecutive integers starting at 1 and each link is
+ * bidirectional, i.e., there is an edge in each direction with the same length.
+ * The cost of the edges is the number of hops, as in the bundled configurations.
+ * The random models use their own seed, so the same topology is generated again
+ * for the same parameters.
+ *
+ * @author Gustavo Sousa Pavani
+ * @version 1.0
+ */
+public class TopologyGenerator {
+	/** The models of topology. */
+	public enum Model {
+		/** Waxman random graph. */ WAXMAN,
+		/** Barabasi-Albert preferential attachment. */ BARABASI_ALBERT,
+		/** Grid of rows and columns. */ GRID,
+		/** Grid with wrap-around links. */ TORUS,
+		/** Import of a topology in the SNDlib native format. */ SNDLIB
+	}
+	/** The mean radius of the Earth in km. */
+	public static final double EARTH_RADIUS = 6371.0;
+	/** The graph being generated. */
+	protected Graph graph;
+	/** The links being generated. */
+	protected LinkedHashMap<String,Link> links;
+	/** The random number generator of the models. */
+	protected Random random;
+	/** The coordinates (in km) of the nodes of the random models. */
+	protected double[][] position;
+
+	/**
+	 * Creates a new TopologyGenerator object.
+	 * @param aGraph The graph to be filled. It must be empty, since the ids of the nodes are their indexes plus 1.
+	 * @param aLinks The links to be filled.
+	 * @param seed The seed of the random models.
+	 * @throws IllegalArgumentException When the graph is not empty.
+	 */
+	public TopologyGenerator(Graph aGraph, LinkedHashMap<String,Link> aLinks, long seed) {
+		if (aGraph.size() != 0)
+			throw new IllegalArgumentException("The graph must be empty, but it has "+aGraph.size()+" nodes");
+		this.graph = aGraph;
+		this.links = aLinks;
+		this.random = new Random(seed);
+	}
+
+	/**
+	 * Generates a Waxman random graph. The nodes are placed uniformly in a square
+	 * and each pair is linked with probability beta * exp(-d / (alpha * L)), where d
+	 * is their distance and L is the maximum distance in the square. The components
+	 * left disconnected are linked to the closest node already connected.
+	 * @param nodes The number of nodes.
+	 * @param alpha The ratio of long links to short ones.
+	 * @param beta The density of links.
+	 * @param size The side (in km) of the square.
+	 */
+	public void waxman(int nodes, double alpha, double beta, double size) {
+		this.place(nodes,size);
+		double maximum = Math.sqrt(2.0) * size;
+		for (int i=0; i < nodes; i++) {
+			for (int j=i+1; j < nodes; j++) {
+				if (random.nextDouble() < beta * Math.exp(-this.distance(i,j) / (alpha * maximum)))
+					this.addLink(i,j,this.distance(i,j));
+			}
+		}
+		this.connect();
+	}
+
+	/**
+	 * Generates a Barabasi-Albert graph. It starts with a full mesh of degree + 1 nodes
+	 * and each new node is linked to degree existing nodes, chosen with probability
+	 * proportional to their degree. The nodes are placed uniformly in a square.
+	 * @param nodes The number of nodes.
+	 * @param degree The number of links of each new node.
+	 * @param size The side (in km) of the square.
+	 */
+	public void barabasiAlbert(int nodes, int degree, double size) {
+		this.place(nodes,size);
+		//Each node appears once per adjacent link, so a uniform choice follows the degree
+		int[] ends = new int[2 * ((degree * (degree + 1) / 2) + (degree * Math.max(nodes - degree - 1,0)))];
+		int counter = 0;
+		for (int i=0; i <= degree && i < nodes; i++) {
+			for (int j=0; j < i; j++) {
+				this.addLink(i,j,this.distance(i,j));
+				ends[counter++] = i;
+				ends[counter++] = j;
+			}
+		}
+		int[] chosen = new int[degree];
+		for (int i=degree+1; i < nodes; i++) {
+			int linked = 0;
+			int limit = counter; //only the previous nodes
+			while (linked < degree) {
+				int target = ends[random.nextInt(limit)];
+				boolean repeated = false;
+				for (int k=0; k < linked; k++)
+					repeated = repeated || (chosen[k] == target);
+				if (!repeated)
+					chosen[linked++] = target;
+			}
+			for (int k=0; k < degree; k++) {
+				this.addLink(i,chosen[k],this.distance(i,chosen[k]));
+				ends[counter++] = i;
+				ends[counter++] = chosen[k];
+			}
+		}
+	}
+
+	/**
+	 * Generates a grid or a torus, i.e., a grid with wrap-around links.
+	 * @param rows The number of rows.
+	 * @param columns The number of columns.
+	 * @param length The length (in km) of each link.
+	 * @param torus True, if the wrap-around links are added.
+	 */
+	public void grid(int rows, int columns, double length, boolean torus) {
+		this.addNodes(rows * columns);
+		for (int r=0; r < rows; r++) {
+			for (int c=0; c < columns; c++) {
+				int node = (r * columns) + c;
+				if (c + 1 < columns)
+					this.addLink(node,node + 1,length);
+				else if (torus && (columns > 2))
+					this.addLink(node,r * columns,length);
+				if (r + 1 < rows)
+					this.addLink(node,node + columns,length);
+				else if (torus && (rows > 2))
+					this.addLink(node,c,length);
+			}
+		}
+	}
+
+	/**
+	 * Imports a topology in the SNDlib native format. The length of each link is the
+	 * great-circle distance between the coordinates (longitude and latitude) of its nodes.
+	 * The parallel links are merged.
+	 * @param file The name of the file.
+	 * @throws IOException When the file cannot be read.
+	 */
+	public void sndlib(String file) throws IOException {
+		//The original labels of the nodes, in the order of their ids
+		ArrayList<String> labels = new ArrayList<String>();
+		ArrayList<double[]> coordinates = new ArrayList<double[]>();
+		BufferedReader reader = new BufferedReader(new FileReader(file));
+		try {
+			String section = "";
+			String line;
+			while ((line = reader.readLine()) != null) {
+				line = line.trim();
+				if (line.isEmpty() || line.startsWith("#"))
+					continue;
+				if (line.endsWith("(") && !line.contains(")")) { //Start of a section
+					section = line.substring(0,line.length() - 1).trim();
+					//The nodes are listed before the links
+					if (section.equals("LINKS"))
+						this.addNodes(labels.size() - graph.size());
+					continue;
+				}
+				if (line.equals(")")) { //End of a section
+					section = "";
+					continue;
+				}
+				//Tokens of the line, without the parentheses
+				String[] tokens = line.replace('(',' ').replace(')',' ').trim().split("\\s+");
+				if (section.equals("NODES")) {
+					labels.add(tokens[0]);
+					coordinates.add(new double[] {Double.parseDouble(tokens[1]),Double.parseDouble(tokens[2])});
+				} else if (section.equals("LINKS")) {
+					int source = labels.indexOf(tokens[1]);
+					int target = labels.indexOf(tokens[2]);
+					if ((source == -1) || (target == -1))
+						throw new IOException("Unknown node in link: "+line);
+					if ((source != target) && !graph.hasEdge(this.id(source),this.id(target)))
+						this.addLink(source,target,this.greatCircle(coordinates.get(source),coordinates.get(target)));
+				}
+			}
+		} finally {
+			reader.close();
+		}
+	}
+
+	/**
+	 * Places the specified number of nodes uniformly in a square.
+	 * @param nodes The number of nodes.
+	 * @param size The side (in km) of the square.
+	 */
+	protected void place(int nodes, double size) {
+		position = new double[nodes][2];
+		for (int i=0; i < nodes; i++) {
+			position[i][0] = random.nextDouble() * size;
+			position[i][1] = random.nextDouble() * size;
+		}
+		this.addNodes(nodes);
+	}
+
+	/**
+	 * Links each disconnected component, in the order of their first nodes, to the closest
+	 * node of the component of the first node. The components are found once and the closest
+	 * connected node of each node is updated as the components are connected, so it takes
+	 * O(n^2) time instead of scanning all the pairs for each component.
+	 */
+	protected void connect() {
+		int nodes = position.length;
+		int[] component = new int[nodes];
+		Arrays.fill(component,-1);
+		int components = 0;
+		for (int i=0; i < nodes; i++) {
+			if (component[i] == -1)
+				this.mark(i,component,components++);
+		}
+		boolean[] connected = new boolean[nodes];
+		int[] closest = new int[nodes];
+		double[] closestDistance = new double[nodes];
+		Arrays.fill(closestDistance,Double.POSITIVE_INFINITY);
+		this.join(component[0],component,connected,closest,closestDistance);
+		for (int i=1; i < nodes; i++) {
+			if (connected[i])
+				continue;
+			//The nodes of the component of i are not before i, otherwise it would be connected
+			int best = -1;
+			double bestDistance = Double.POSITIVE_INFINITY;
+			for (int u=i; u < nodes; u++) {
+				if ((component[u] == component[i]) && (closestDistance[u] < bestDistance)) {
+					bestDistance = closestDistance[u];
+					best = u;
+				}
+			}
+			this.addLink(best,closest[best],bestDistance);
+			this.join(component[i],component,connected,closest,closestDistance);
+		}
+	}
+
+	/**
+	 * Connects the nodes of the specified component and updates the closest connected node
+	 * of the other nodes. Among nodes at the same distance, the first one is kept.
+	 * @param label The label of the component.
+	 * @param component The label of the component of each node.
+	 * @param connected The connected nodes, updated by this method.
+	 * @param closest The closest connected node of each node, updated by this method.
+	 * @param closestDistance The distance to the closest connected node, updated by this method.
+	 */
+	protected void join(int label, int[] component, boolean[] connected, int[] closest, double[] closestDistance) {
+		int nodes = component.length;
+		int[] members = new int[nodes];
+		int size = 0;
+		for (int v=0; v < nodes; v++) {
+			if (component[v] == label) {
+				connected[v] = true;
+				members[size++] = v;
+			}
+		}
+		for (int u=0; u < nodes; u++) {
+			if (connected[u])
+				continue;
+			for (int k=0; k < size; k++) {
+				int v = members[k];
+				double d = this.distance(u,v);
+				if ((d < closestDistance[u]) || ((d == closestDistance[u]) && (v < closest[u]))) {
+					closestDistance[u] = d;
+					closest[u] = v;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Labels the nodes reachable from the specified node.
+	 * @param node The index of the node.
+	 * @param component The label of the component of each node, updated by this method.
+	 * @param label The label of the component of the node.
+	 */
+	protected void mark(int node, int[] component, int label) {
+		int[] stack = new int[component.length];
+		int top = 0;
+		stack[top++] = node;
+		component[node] = label;
+		while (top > 0) {
+			int u = stack[--top];
+			for (String neighbor : graph.adjacentNodes(this.id(u))) {
+				int v = Integer.parseInt(neighbor) - 1;
+				if (component[v] == -1) {
+					component[v] = label;
+					stack[top++] = v;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the Euclidean distance between the specified nodes.
+	 * @param i The index of a node.
+	 * @param j The index of the other node.
+	 * @return The distance (in km) between the nodes.
+	 */
+	protected double distance(int i, int j) {
+		double dx = position[i][0] - position[j][0];
+		double dy = position[i][1] - position[j][1];
+		return Math.sqrt((dx * dx) + (dy * dy));
+	}
+
+	/**
+	 * Returns the great-circle distance between the specified coordinates.
+	 * @param a The longitude and latitude (in degrees) of a point.
+	 * @param b The longitude and latitude (in degrees) of the other point.
+	 * @return The distance (in km) between the points.
+	 */
+	protected double greatCircle(double[] a, double[] b) {
+		double dLat = Math.toRadians(b[1] - a[1]);
+		double dLon = Math.toRadians(b[0] - a[0]);
+		double h = (Math.sin(dLat / 2) * Math.sin(dLat / 2)) + (Math.cos(Math.toRadians(a[1])) * Math.cos(Math.toRadians(b[1])) * Math.sin(dLon / 2) * Math.sin(dLon / 2));
+		return 2 * EARTH_RADIUS * Math.asin(Math.min(Math.sqrt(h),1.0));
+	}
+
+	/**
+	 * Returns the id of the node with the specified index.
+	 * @param index The index of the node, starting at 0.
+	 * @return The id of the node.
+	 */
+	protected String id(int index) {
+		return Integer.toString(index + 1);
+	}
+
+	/**
+	 * Adds the specified number of nodes to the graph, after the existing ones.
+	 * @param count The number of nodes.
+	 */
+	protected void addNodes(int count) {
+		ArrayList<String> keys = new ArrayList<String>(count);
+		for (int i=0; i < count; i++)
+			keys.add(this.id(graph.size() + i));
+		try {
+			graph.addNodes(keys);
+		} catch (Exception e) {e.printStackTrace();}
+	}
+
+	/**
+	 * Adds a bidirectional link between the specified nodes, with unitary cost.
+	 * @param i The index of a node.
+	 * @param j The index of the other node.
+	 * @param length The length (in km) of the link.
+	 */
+	protected void addLink(int i, int j, double length) {
+		String source = this.id(i);
+		String target = this.id(j);
+		if (graph.hasEdge(source,target))
+			return;
+		try {
+			Edge edge = graph.addEdge(source,target,Double.valueOf(1.0));
+			links.put(source+"-"+target,new Link(edge,length));
+			Edge reverse = graph.addEdge(target,source,Double.valueOf(1.0));
+			links.put(target+"-"+source,new Link(reverse,length));
+		} catch (Exception e) {e.printStackTrace();}
+	}
+}
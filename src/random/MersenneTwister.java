@@ -289,6 +289,29 @@ public class MersenneTwister extends java.util.Random implements Serializable {
      * Returns an integer with <i>bits</i> bits filled with a random number.
      */
     synchronized protected int next(final int bits)
+	{
+	return generate() >>> (32 - bits);    // hope that's right!
+	}
+
+    /**
+     * Fills the specified range of the array with the same doubles returned
+     * by successive calls of nextDouble(), but acquiring the lock only once.
+     */
+    synchronized public void nextDoubles(final double[] values, final int from, final int to)
+	{
+	for (int i = from; i < to; i++)
+	    {
+	    long a = generate() >>> 6;
+	    long b = generate() >>> 5;
+	    values[i] = ((a << 27) + b) / (double)(1L << 53);
+	    }
+	}
+
+    /**
+     * Returns the next tempered 32-bit word of the sequence. The caller
+     * must hold the lock of this object.
+     */
+    private int generate()
 	{
 	int y;
 	
@@ -318,7 +341,7 @@ public class MersenneTwister extends java.util.Random implements Serializable {
 	y ^= (y << 15) & TEMPERING_MASK_C;      // TEMPERING_SHIFT_T(y)
 	y ^= (y >>> 18);                        // TEMPERING_SHIFT_L(y)
 
-	return y >>> (32 - bits);    // hope that's right!
+	return y;
 	}
     
     /* If you've got a truly old version of Java, you can omit these